@@ -3,50 +3,183 @@ package com.devoxx.genie.completion;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * LRU cache for inline completion results.
- * Keyed on a hash of the prefix tail and suffix head to provide fast
- * cache lookups for repeated typing patterns.
+ * Cache for inline completion results, partitioned per file.
+ *
+ * <p>Two kinds of hit:
+ * <ul>
+ *   <li><b>Exact</b> — same prefix tail and suffix head as an earlier request (LRU lookup on
+ *       {@code prefixTail|suffixHead}, as before).</li>
+ *   <li><b>Speculative</b> — the user has typed the first characters of a completion we
+ *       returned earlier: the new prefix is the old prefix plus a leading part of that
+ *       completion and the suffix is unchanged. The remaining tail of the completion is
+ *       returned without another FIM request.</li>
+ * </ul>
+ *
+ * <p>Entries are grouped by file key and spread over {@link #STRIPES} independently locked
+ * stripes, so concurrent editors rarely contend. Each stripe keeps its files in LRU order and
+ * evicts whole files once its share of {@link #MAX_BYTES} is exceeded; each file keeps at most
+ * {@link #MAX_ENTRIES_PER_FILE} entries. Hit, miss and eviction counts are exposed via
+ * {@link #stats()}.
  */
 public class CompletionCache {
 
-    private static final int MAX_ENTRIES = 100;
+    static final int STRIPES = 16;
+    static final long MAX_BYTES = 2L * 1024 * 1024;
+    static final int MAX_ENTRIES_PER_FILE = 100;
+    /** Only the most recent completions per file are candidates for speculative reuse. */
+    static final int SPECULATIVE_CANDIDATES = 8;
     private static final int KEY_PREFIX_TAIL_LENGTH = 128;
     private static final int KEY_SUFFIX_HEAD_LENGTH = 64;
+    /** Rough fixed per-entry overhead (object headers, map node) used for byte accounting. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final String NO_FILE = "";
 
-    private final LinkedHashMap<String, String> cache;
+    /** Snapshot of cache counters; rates are in [0, 1]. */
+    public record Stats(long exactHits, long speculativeHits, long misses, long evictions, long bytes) {
+        public long lookups() {
+            return exactHits + speculativeHits + misses;
+        }
+
+        /** Every hit is a FIM request that did not have to be sent. */
+        public long savedRequests() {
+            return exactHits + speculativeHits;
+        }
+
+        public double hitRate() {
+            long lookups = lookups();
+            return lookups == 0 ? 0.0 : savedRequests() / (double) lookups;
+        }
+
+        public double missRate() {
+            long lookups = lookups();
+            return lookups == 0 ? 0.0 : misses / (double) lookups;
+        }
+    }
+
+    private record Entry(String key, String prefixTail, String suffixHead, String completion, int bytes) {}
+
+    private static final class FileEntries {
+        final LinkedHashMap<String, Entry> byKey = new LinkedHashMap<>(16, 0.75f, true);
+        final ArrayDeque<Entry> recent = new ArrayDeque<>(SPECULATIVE_CANDIDATES);
+        long bytes;
+    }
+
+    private static final class Stripe {
+        final LinkedHashMap<String, FileEntries> files = new LinkedHashMap<>(16, 0.75f, true);
+        long bytes;
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong speculativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
 
     public CompletionCache() {
-        this.cache = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
-                return size() > MAX_ENTRIES;
-            }
-        };
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
     /**
-     * Look up a cached completion for the given prefix/suffix context.
+     * Look up a cached completion for the given prefix/suffix context, not tied to a file.
      *
      * @return cached completion text, or null if not found
      */
     public @Nullable String get(@NotNull String prefix, @NotNull String suffix) {
+        return get(null, prefix, suffix);
+    }
+
+    /**
+     * Look up a cached completion for the given context in {@code fileKey}: an exact match
+     * first, then a previously returned completion the user has started typing.
+     *
+     * @return completion text (possibly the untyped remainder of an earlier one), or null
+     */
+    public @Nullable String get(@Nullable String fileKey, @NotNull String prefix, @NotNull String suffix) {
+        String file = fileKey == null ? NO_FILE : fileKey;
         String key = computeKey(prefix, suffix);
-        synchronized (cache) {
-            return cache.get(key);
+        String suffixHead = suffixHead(suffix);
+        Stripe stripe = stripeFor(file);
+        synchronized (stripe) {
+            FileEntries entries = stripe.files.get(file);
+            if (entries != null) {
+                Entry exact = entries.byKey.get(key);
+                if (exact != null) {
+                    exactHits.incrementAndGet();
+                    return exact.completion();
+                }
+                for (Iterator<Entry> it = entries.recent.descendingIterator(); it.hasNext(); ) {
+                    String remainder = remainderAfterTyping(it.next(), prefix, suffixHead);
+                    if (remainder != null) {
+                        speculativeHits.incrementAndGet();
+                        return remainder;
+                    }
+                }
+            }
         }
+        misses.incrementAndGet();
+        return null;
     }
 
     /**
-     * Store a completion result in the cache.
+     * Store a completion result in the cache, not tied to a file.
      */
     public void put(@NotNull String prefix, @NotNull String suffix, @NotNull String completion) {
+        put(null, prefix, suffix, completion);
+    }
+
+    /**
+     * Store a completion result for {@code fileKey}.
+     */
+    public void put(@Nullable String fileKey, @NotNull String prefix, @NotNull String suffix,
+                    @NotNull String completion) {
+        String file = fileKey == null ? NO_FILE : fileKey;
         String key = computeKey(prefix, suffix);
-        synchronized (cache) {
-            cache.put(key, completion);
+        Entry entry = new Entry(key, prefixTail(prefix), suffixHead(suffix), completion,
+                2 * (key.length() * 2 + completion.length()) + ENTRY_OVERHEAD_BYTES);
+        Stripe stripe = stripeFor(file);
+        synchronized (stripe) {
+            FileEntries entries = stripe.files.computeIfAbsent(file, f -> new FileEntries());
+            Entry previous = entries.byKey.put(key, entry);
+            if (previous != null) {
+                entries.recent.remove(previous);
+                account(stripe, entries, -previous.bytes());
+            }
+            account(stripe, entries, entry.bytes());
+            entries.recent.addLast(entry);
+            if (entries.recent.size() > SPECULATIVE_CANDIDATES) {
+                entries.recent.removeFirst();
+            }
+            while (entries.byKey.size() > MAX_ENTRIES_PER_FILE) {
+                Iterator<Entry> eldest = entries.byKey.values().iterator();
+                Entry evicted = eldest.next();
+                eldest.remove();
+                entries.recent.remove(evicted);
+                account(stripe, entries, -evicted.bytes());
+                evictions.incrementAndGet();
+            }
+            evictFiles(stripe, file);
+        }
+    }
+
+    /**
+     * Drop all entries for one file, e.g. when it is closed or changed outside the editor.
+     */
+    public void invalidate(@NotNull String fileKey) {
+        Stripe stripe = stripeFor(fileKey);
+        synchronized (stripe) {
+            FileEntries removed = stripe.files.remove(fileKey);
+            if (removed != null) {
+                stripe.bytes -= removed.bytes;
+            }
         }
     }
 
@@ -54,18 +187,79 @@ public class CompletionCache {
      * Clear all cached entries.
      */
     public void clear() {
-        synchronized (cache) {
-            cache.clear();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.files.clear();
+                stripe.bytes = 0;
+            }
         }
     }
 
-    private static @NotNull String computeKey(@NotNull String prefix, @NotNull String suffix) {
-        String prefixTail = prefix.length() > KEY_PREFIX_TAIL_LENGTH
+    public @NotNull Stats stats() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.bytes;
+            }
+        }
+        return new Stats(exactHits.get(), speculativeHits.get(), misses.get(), evictions.get(), bytes);
+    }
+
+    /**
+     * If {@code prefix} is the cached entry's prefix followed by a leading part of its
+     * completion (and the suffix is unchanged), return the rest of the completion.
+     */
+    private static @Nullable String remainderAfterTyping(@NotNull Entry entry, @NotNull String prefix,
+                                                         @NotNull String suffixHead) {
+        if (!entry.suffixHead().equals(suffixHead)) return null;
+        String completion = entry.completion();
+        String anchor = entry.prefixTail();
+        int maxTyped = Math.min(completion.length() - 1, prefix.length() - anchor.length());
+        for (int typed = 1; typed <= maxTyped; typed++) {
+            int anchorStart = prefix.length() - typed - anchor.length();
+            if (prefix.regionMatches(prefix.length() - typed, completion, 0, typed)
+                    && prefix.regionMatches(anchorStart, anchor, 0, anchor.length())) {
+                return completion.substring(typed);
+            }
+        }
+        return null;
+    }
+
+    private void evictFiles(@NotNull Stripe stripe, @NotNull String keep) {
+        long budget = MAX_BYTES / STRIPES;
+        Iterator<Map.Entry<String, FileEntries>> eldest = stripe.files.entrySet().iterator();
+        while (stripe.bytes > budget && eldest.hasNext()) {
+            Map.Entry<String, FileEntries> candidate = eldest.next();
+            if (candidate.getKey().equals(keep)) continue;
+            stripe.bytes -= candidate.getValue().bytes;
+            evictions.addAndGet(candidate.getValue().byKey.size());
+            eldest.remove();
+        }
+    }
+
+    private static void account(@NotNull Stripe stripe, @NotNull FileEntries entries, long delta) {
+        entries.bytes += delta;
+        stripe.bytes += delta;
+    }
+
+    private @NotNull Stripe stripeFor(@NotNull String fileKey) {
+        int h = fileKey.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static @NotNull String prefixTail(@NotNull String prefix) {
+        return prefix.length() > KEY_PREFIX_TAIL_LENGTH
                 ? prefix.substring(prefix.length() - KEY_PREFIX_TAIL_LENGTH)
                 : prefix;
-        String suffixHead = suffix.length() > KEY_SUFFIX_HEAD_LENGTH
+    }
+
+    private static @NotNull String suffixHead(@NotNull String suffix) {
+        return suffix.length() > KEY_SUFFIX_HEAD_LENGTH
                 ? suffix.substring(0, KEY_SUFFIX_HEAD_LENGTH)
                 : suffix;
-        return prefixTail + "|" + suffixHead;
+    }
+
+    private static @NotNull String computeKey(@NotNull String prefix, @NotNull String suffix) {
+        return prefixTail(prefix) + "|" + suffixHead(suffix);
     }
 }
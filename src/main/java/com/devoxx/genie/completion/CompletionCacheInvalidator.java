@@ -0,0 +1,78 @@
+package com.devoxx.genie.completion;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Drops a file's inline completion cache entries when the cached context can no longer be
+ * trusted: the file changed outside the editor (VCS update, external tool), was deleted,
+ * moved or renamed, or its last editor was closed.
+ *
+ * <p>Registered twice in {@code plugin.xml}: as an application listener for VFS changes and
+ * as a project listener for editor events. Edits typed in the editor do not need this —
+ * the cache key already covers the text around the caret.
+ */
+public final class CompletionCacheInvalidator implements BulkFileListener, FileEditorManagerListener {
+
+    private final Consumer<String> invalidate;
+
+    public CompletionCacheInvalidator() {
+        this(CompletionCacheInvalidator::invalidateIfCreated);
+    }
+
+    CompletionCacheInvalidator(@NotNull Consumer<String> invalidate) {
+        this.invalidate = invalidate;
+    }
+
+    @Override
+    public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+        for (VFileEvent event : events) {
+            String path = stalePath(event);
+            if (path != null) {
+                invalidate.accept(path);
+            }
+        }
+    }
+
+    @Override
+    public void fileClosed(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
+        invalidate.accept(file.getPath());
+    }
+
+    /** Path whose cached completions {@code event} makes stale, or null if none. */
+    static @Nullable String stalePath(@NotNull VFileEvent event) {
+        if (event instanceof VFileContentChangeEvent change) {
+            // Saves write the editor's own document to disk; its context is unchanged.
+            return change.isFromSave() ? null : change.getPath();
+        } else if (event instanceof VFileDeleteEvent) {
+            return event.getPath();
+        } else if (event instanceof VFileMoveEvent move) {
+            return move.getOldPath();
+        } else if (event instanceof VFilePropertyChangeEvent property && property.isRename()) {
+            return property.getOldPath();
+        }
+        return null;
+    }
+
+    /** Nothing is cached before the first completion request, so never create the service here. */
+    private static void invalidateIfCreated(@NotNull String fileKey) {
+        InlineCompletionService service =
+                ApplicationManager.getApplication().getServiceIfCreated(InlineCompletionService.class);
+        if (service != null) {
+            service.invalidateFile(fileKey);
+        }
+    }
+}
@@ -80,7 +80,28 @@ public final class CompletionPostProcessor {
             remaining = stripped.substring(newlineIdx); // includes the '\n'
         }
 
-        // Handle suffix overlap on the first line
+        elements.addAll(processFirstLine(firstLine, lineSuffix));
+
+        // Remaining lines as a single GrayText element
+        if (!remaining.isEmpty()) {
+            elements.add(new GrayText(remaining));
+        }
+
+        return new ProcessedCompletion(elements);
+    }
+
+    /**
+     * Process only the first line of a completion — the text that continues the cursor
+     * line — against the text after the cursor. Used when lines are streamed: the first
+     * line is shown as soon as it is complete, later lines are plain gray text.
+     *
+     * @param firstLine  first completion line, without a line break
+     * @param lineSuffix text after the cursor on the current line
+     * @return GrayText / SkipText elements (empty if {@code firstLine} is empty)
+     */
+    public static @NotNull List<Element> processFirstLine(@NotNull String firstLine,
+                                                          @NotNull String lineSuffix) {
+        List<Element> elements = new ArrayList<>();
         String trimmedSuffix = lineSuffix.stripTrailing();
         if (!firstLine.isEmpty() && !trimmedSuffix.isEmpty()) {
             int overlapLen = findSuffixOverlap(firstLine, trimmedSuffix);
@@ -97,13 +118,7 @@ public final class CompletionPostProcessor {
         } else if (!firstLine.isEmpty()) {
             elements.add(new GrayText(firstLine));
         }
-
-        // Remaining lines as a single GrayText element
-        if (!remaining.isEmpty()) {
-            elements.add(new GrayText(remaining));
-        }
-
-        return new ProcessedCompletion(elements);
+        return elements;
     }
 
     // ── Internal helpers ───────────────────────────────────────────
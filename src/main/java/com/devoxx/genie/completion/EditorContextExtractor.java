@@ -7,6 +7,10 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Extracts prefix and suffix text from an editor document at the cursor position
  * for use in Fill-in-the-Middle (FIM) completion requests.
+ *
+ * <p>Works on {@link Document#getImmutableCharSequence()}, so only the two windows are
+ * copied, not the whole document. Token-budgeted, line-snapped context (optionally with
+ * snippets from other open files) is built by {@link FimContextBuilder}.
  */
 @Getter
 public class EditorContextExtractor {
@@ -22,6 +26,10 @@ public class EditorContextExtractor {
         this.suffix = suffix;
     }
 
+    static @NotNull EditorContextExtractor of(@NotNull String prefix, @NotNull String suffix) {
+        return new EditorContextExtractor(prefix, suffix);
+    }
+
     /**
      * Extract context from a document at the given cursor offset.
      *
@@ -30,7 +38,13 @@ public class EditorContextExtractor {
      * @return an EditorContextExtractor with prefix and suffix
      */
     public static @NotNull EditorContextExtractor extract(@NotNull Document document, int offset) {
-        String text = document.getText();
+        return extract(document.getImmutableCharSequence(), offset);
+    }
+
+    /**
+     * Extract context from a document snapshot, copying only the prefix and suffix windows.
+     */
+    public static @NotNull EditorContextExtractor extract(@NotNull CharSequence text, int offset) {
         int textLength = text.length();
 
         // Clamp offset to valid range
@@ -38,11 +52,11 @@ public class EditorContextExtractor {
 
         // Extract prefix: text before cursor, up to MAX_PREFIX_CHARS
         int prefixStart = Math.max(0, offset - MAX_PREFIX_CHARS);
-        String prefix = text.substring(prefixStart, offset);
+        String prefix = text.subSequence(prefixStart, offset).toString();
 
         // Extract suffix: text after cursor, up to MAX_SUFFIX_CHARS
         int suffixEnd = Math.min(textLength, offset + MAX_SUFFIX_CHARS);
-        String suffix = text.substring(offset, suffixEnd);
+        String suffix = text.subSequence(offset, suffixEnd).toString();
 
         return new EditorContextExtractor(prefix, suffix);
     }
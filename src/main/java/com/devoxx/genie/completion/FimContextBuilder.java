@@ -0,0 +1,310 @@
+package com.devoxx.genie.completion;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the FIM prefix and suffix from a document snapshot using token budgets instead of
+ * fixed character windows.
+ *
+ * <ul>
+ *   <li>The cursor line is always included; whole lines are then added outwards (before
+ *       the cursor for the prefix, after it for the suffix) until the token budget is used.</li>
+ *   <li>When the budget cuts the context, the cut is moved to a nearby blank line or
+ *       top-level declaration (column 0) so the model does not start mid-construct.</li>
+ *   <li>Optionally, the snippets of other open files that share the most identifiers with
+ *       the lines just before the cursor are prepended to the prefix as comments, within
+ *       their own token budget.</li>
+ * </ul>
+ *
+ * Everything runs against {@link CharSequence} snapshots (no full-document copies) and the
+ * open-file scan stops once the latency budget is spent, keeping whatever was found.
+ */
+public final class FimContextBuilder {
+
+    /** Text of another open editor, used as a source of cross-file snippets. */
+    public record OpenFile(@NotNull String name, @NotNull CharSequence text) {}
+
+    /** Number of lines examined when moving a cut to a syntax boundary. */
+    static final int SNAP_LINES = 8;
+    /** Lines before the cursor whose identifiers form the snippet query. */
+    static final int QUERY_LINES = 20;
+    static final int SNIPPET_LINES = 20;
+    static final int MAX_SNIPPETS = 3;
+    /** A single line longer than this is only partially included on the cursor line. */
+    private static final int MAX_LINE_CHARS = 4096;
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{2,}");
+
+    private final ToIntFunction<String> tokenCounter;
+    private final int prefixTokens;
+    private final int suffixTokens;
+    private final int snippetTokens;
+    private final long latencyBudgetNanos;
+
+    /**
+     * @param tokenCounter  counts tokens of a piece of text
+     * @param snippetTokens budget for cross-file snippets; 0 disables them
+     * @param latencyBudgetMs time allowed for scanning open files
+     */
+    public FimContextBuilder(@NotNull ToIntFunction<String> tokenCounter,
+                             int prefixTokens, int suffixTokens, int snippetTokens, long latencyBudgetMs) {
+        this.tokenCounter = tokenCounter;
+        this.prefixTokens = prefixTokens;
+        this.suffixTokens = suffixTokens;
+        this.snippetTokens = snippetTokens;
+        this.latencyBudgetNanos = latencyBudgetMs * 1_000_000L;
+    }
+
+    /**
+     * @param text          document snapshot (e.g. {@code Document.getImmutableCharSequence()})
+     * @param offset        caret offset
+     * @param openFiles     other open files to draw snippets from; may be empty
+     * @param commentPrefix line comment marker of the current file's language
+     */
+    public @NotNull EditorContextExtractor build(@NotNull CharSequence text, int offset,
+                                                 @NotNull List<OpenFile> openFiles,
+                                                 @NotNull String commentPrefix) {
+        long deadline = System.nanoTime() + latencyBudgetNanos;
+        offset = Math.max(0, Math.min(offset, text.length()));
+
+        int prefixStart = prefixStart(text, offset);
+        int suffixEnd = suffixEnd(text, offset);
+        String prefix = text.subSequence(prefixStart, offset).toString();
+        String suffix = text.subSequence(offset, suffixEnd).toString();
+
+        if (snippetTokens > 0 && !openFiles.isEmpty()) {
+            String snippets = snippets(prefix, openFiles, commentPrefix, deadline);
+            prefix = snippets + prefix;
+        }
+        return EditorContextExtractor.of(prefix, suffix);
+    }
+
+    // ── Prefix / suffix windows ────────────────────────────────────
+
+    private int prefixStart(@NotNull CharSequence text, int offset) {
+        int lineStart = lineStart(text, offset);
+        int start = Math.max(lineStart, offset - MAX_LINE_CHARS);
+        int used = count(text, start, offset);
+        if (start > lineStart || used >= prefixTokens) return start;
+
+        while (start > 0) {
+            int previousStart = lineStart(text, start - 1);
+            int lineTokens = count(text, previousStart, start);
+            if (used + lineTokens > prefixTokens) {
+                return snapForward(text, start, offset);
+            }
+            used += lineTokens;
+            start = previousStart;
+        }
+        return 0;
+    }
+
+    private int suffixEnd(@NotNull CharSequence text, int offset) {
+        int lineEnd = lineEnd(text, offset);
+        int end = Math.min(lineEnd, offset + MAX_LINE_CHARS);
+        int used = count(text, offset, end);
+        if (end < lineEnd || used >= suffixTokens) return end;
+
+        while (end < text.length()) {
+            int nextEnd = lineEnd(text, end + 1);
+            int lineTokens = count(text, end, nextEnd);
+            if (used + lineTokens > suffixTokens) {
+                return snapBackward(text, end, offset);
+            }
+            used += lineTokens;
+            end = nextEnd;
+        }
+        return text.length();
+    }
+
+    /**
+     * Move a budget-cut prefix start forward to just after a blank line, or to a line that
+     * starts at column 0, within the first {@link #SNAP_LINES} lines.
+     */
+    static int snapForward(@NotNull CharSequence text, int start, int limit) {
+        int lineStart = start;
+        for (int i = 0; i < SNAP_LINES && lineStart < limit; i++) {
+            int lineEnd = lineEnd(text, lineStart);
+            if (lineEnd >= limit) break;
+            if (isBlank(text, lineStart, lineEnd)) {
+                return lineEnd + 1;
+            }
+            if (i > 0 && !Character.isWhitespace(text.charAt(lineStart))) {
+                return lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return start;
+    }
+
+    /** Move a budget-cut suffix end back to the last blank line within {@link #SNAP_LINES} lines. */
+    static int snapBackward(@NotNull CharSequence text, int end, int limit) {
+        int lineEnd = end;
+        for (int i = 0; i < SNAP_LINES && lineEnd > limit; i++) {
+            int lineStart = lineStart(text, lineEnd);
+            if (lineStart <= limit) break;
+            if (isBlank(text, lineStart, lineEnd)) {
+                return lineStart;
+            }
+            lineEnd = lineStart - 1;
+        }
+        return end;
+    }
+
+    // ── Cross-file snippets ────────────────────────────────────────
+
+    private record Snippet(String name, String text, double score) {}
+
+    private @NotNull String snippets(@NotNull String prefix, @NotNull List<OpenFile> openFiles,
+                                     @NotNull String commentPrefix, long deadline) {
+        Set<String> query = identifiers(lastLines(prefix, QUERY_LINES));
+        if (query.isEmpty()) return "";
+
+        List<Snippet> candidates = new ArrayList<>();
+        for (OpenFile file : openFiles) {
+            if (System.nanoTime() > deadline) break;
+            Snippet best = bestWindow(file, query, deadline);
+            if (best != null) candidates.add(best);
+        }
+        candidates.sort(Comparator.comparingDouble(Snippet::score).reversed());
+
+        StringBuilder out = new StringBuilder();
+        int used = 0;
+        int added = 0;
+        for (Snippet snippet : candidates) {
+            if (added == MAX_SNIPPETS) break;
+            String formatted = format(snippet, commentPrefix);
+            int tokens = tokenCounter.applyAsInt(formatted);
+            if (used + tokens > snippetTokens) continue;
+            out.append(formatted);
+            used += tokens;
+            added++;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Window of {@link #SNIPPET_LINES} lines (step half a window) with the highest Jaccard overlap.
+     * Lines are tokenized as the windows reach them and the deadline is checked per line, so a
+     * large file is cut off part way instead of being tokenized whole first.
+     */
+    private static Snippet bestWindow(@NotNull OpenFile file, @NotNull Set<String> query, long deadline) {
+        List<int[]> lines = lineBounds(file.text());
+        List<Set<String>> lineIds = new ArrayList<>();
+        double bestScore = 0;
+        int bestFrom = -1;
+        int step = Math.max(1, SNIPPET_LINES / 2);
+        for (int from = 0; from < lines.size(); from += step) {
+            int to = Math.min(lines.size(), from + SNIPPET_LINES);
+            if (!tokenizeUpTo(file, lines, lineIds, to, deadline)) break;
+            Set<String> window = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                window.addAll(lineIds.get(i));
+            }
+            double score = jaccard(query, window);
+            if (score > bestScore) {
+                bestScore = score;
+                bestFrom = from;
+            }
+            if (to == lines.size()) break;
+        }
+        if (bestFrom < 0) return null;
+        int to = Math.min(lines.size(), bestFrom + SNIPPET_LINES);
+        String text = file.text().subSequence(lines.get(bestFrom)[0], lines.get(to - 1)[1]).toString();
+        return new Snippet(file.name(), text, bestScore);
+    }
+
+    /** Tokenizes {@code lines} up to {@code to} into {@code lineIds}; false once the deadline has passed. */
+    private static boolean tokenizeUpTo(@NotNull OpenFile file, @NotNull List<int[]> lines,
+                                        @NotNull List<Set<String>> lineIds, int to, long deadline) {
+        while (lineIds.size() < to) {
+            if (System.nanoTime() > deadline) return false;
+            int[] line = lines.get(lineIds.size());
+            lineIds.add(identifiers(file.text().subSequence(line[0], line[1])));
+        }
+        return true;
+    }
+
+    private static @NotNull String format(@NotNull Snippet snippet, @NotNull String commentPrefix) {
+        StringBuilder out = new StringBuilder();
+        out.append(commentPrefix).append(" Path: ").append(snippet.name()).append('\n');
+        for (String line : snippet.text().split("\n", -1)) {
+            out.append(commentPrefix).append(' ').append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    static double jaccard(@NotNull Set<String> a, @NotNull Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        int common = 0;
+        for (String id : a) {
+            if (b.contains(id)) common++;
+        }
+        return common / (double) (a.size() + b.size() - common);
+    }
+
+    static @NotNull Set<String> identifiers(@NotNull CharSequence text) {
+        Set<String> ids = new HashSet<>();
+        Matcher matcher = IDENTIFIER.matcher(text);
+        while (matcher.find()) {
+            ids.add(matcher.group());
+        }
+        return ids;
+    }
+
+    // ── Line helpers ───────────────────────────────────────────────
+
+    private int count(@NotNull CharSequence text, int from, int to) {
+        return from >= to ? 0 : tokenCounter.applyAsInt(text.subSequence(from, to).toString());
+    }
+
+    private static @NotNull CharSequence lastLines(@NotNull String text, int lines) {
+        int start = text.length();
+        for (int i = 0; i < lines && start > 0; i++) {
+            start = text.lastIndexOf('\n', start - 1);
+            if (start < 0) return text;
+        }
+        return text.substring(start);
+    }
+
+    private static @NotNull List<int[]> lineBounds(@NotNull CharSequence text) {
+        List<int[]> lines = new ArrayList<>();
+        int start = 0;
+        while (start <= text.length()) {
+            int end = lineEnd(text, start);
+            lines.add(new int[]{start, end});
+            if (end >= text.length()) break;
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    /** Offset of the first character of the line containing {@code offset}. */
+    static int lineStart(@NotNull CharSequence text, int offset) {
+        int i = Math.min(offset, text.length());
+        while (i > 0 && text.charAt(i - 1) != '\n') i--;
+        return i;
+    }
+
+    /** Offset of the line break ending the line containing {@code offset}, or the text length. */
+    static int lineEnd(@NotNull CharSequence text, int offset) {
+        int i = Math.max(0, offset);
+        while (i < text.length() && text.charAt(i) != '\n') i++;
+        return i;
+    }
+
+    private static boolean isBlank(@NotNull CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) return false;
+        }
+        return true;
+    }
+}
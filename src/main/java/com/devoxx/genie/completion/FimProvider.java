@@ -18,6 +18,30 @@ public interface FimProvider {
      */
     @Nullable FimResponse generate(@NotNull FimRequest request);
 
+    /**
+     * Generate a FIM completion, passing each line to {@code listener} as soon as it is
+     * complete. Providers that support streaming also stop generation server-side once
+     * {@link FimStreamAccumulator} decides the rest is not useful. Blocking — call from a
+     * background thread.
+     *
+     * <p>The default implementation waits for {@link #generate(FimRequest)} and replays
+     * the whole completion line by line.
+     *
+     * @return FIM response with the accepted completion text, or null if cancelled/failed
+     */
+    default @Nullable FimResponse generateStreaming(@NotNull FimRequest request,
+                                                    @NotNull FimStreamListener listener) {
+        FimResponse response = generate(request);
+        if (response == null) {
+            return null;
+        }
+        FimStreamAccumulator accumulator = new FimStreamAccumulator(request.getSuffix(), listener);
+        accumulator.append(response.getCompletionText());
+        accumulator.finish();
+        String completion = accumulator.completion();
+        return completion.isEmpty() ? null : new FimResponse(completion, response.getDurationMs());
+    }
+
     /**
      * Cancel any currently active FIM request.
      */
@@ -0,0 +1,126 @@
+package com.devoxx.genie.completion;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns the text deltas of a streaming FIM response into completed lines, forwarding each
+ * to a {@link FimStreamListener} as soon as its newline arrives, and decides when the rest
+ * of the generation is no longer useful so the request can be cancelled server-side.
+ *
+ * <p>Generation stops (the offending line is dropped) when a line after the first:
+ * <ul>
+ *   <li>repeats the first non-blank line that already follows the cursor line in the
+ *       document — the model has run into the suffix; or</li>
+ *   <li>closes a block that was opened before the cursor (more {@code '}'} than
+ *       {@code '{'} so far) — the suffix already contains that brace.</li>
+ * </ul>
+ *
+ * <p>Leading newlines are skipped, trailing whitespace is removed from every line, and
+ * blank lines are only forwarded once a non-blank line follows them, so the lines seen by
+ * the listener always join to exactly {@link #completion()}.
+ */
+public final class FimStreamAccumulator {
+
+    /** Suffix lines shorter than this (e.g. a lone brace) are too common to signal overlap. */
+    private static final int MIN_SUFFIX_ANCHOR_LENGTH = 3;
+
+    private final @Nullable String suffixAnchor;
+    private final @NotNull FimStreamListener listener;
+    private final List<String> lines = new ArrayList<>();
+    private final StringBuilder pending = new StringBuilder();
+    private int heldBlankLines;
+    private int braceDepth;
+    private boolean stopped;
+
+    public FimStreamAccumulator(@NotNull String suffix, @NotNull FimStreamListener listener) {
+        this.suffixAnchor = suffixAnchor(suffix);
+        this.listener = listener;
+    }
+
+    /**
+     * Feed the next chunk of generated text.
+     *
+     * @return {@code false} once a stop condition was reached; the caller should cancel the
+     *         request and ignore further chunks
+     */
+    public boolean append(@NotNull String delta) {
+        for (int i = 0; i < delta.length() && !stopped; i++) {
+            char c = delta.charAt(i);
+            if (c == '\n') {
+                if (lines.isEmpty() && heldBlankLines == 0 && pending.isEmpty()) {
+                    continue; // leading newline
+                }
+                completeLine();
+            } else if (c != '\r') {
+                pending.append(c);
+            }
+        }
+        return !stopped;
+    }
+
+    /** The stream ended: accept the last, unterminated line. */
+    public void finish() {
+        if (!stopped && !pending.toString().isBlank()) {
+            completeLine();
+        }
+        pending.setLength(0);
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /** All accepted lines joined with newlines. */
+    public @NotNull String completion() {
+        return String.join("\n", lines);
+    }
+
+    private void completeLine() {
+        String line = pending.toString().stripTrailing();
+        pending.setLength(0);
+        if (line.isEmpty()) {
+            if (!lines.isEmpty()) heldBlankLines++;
+            return;
+        }
+        boolean first = lines.isEmpty();
+        int depth = braceDepth + braceDelta(line);
+        if (!first && (depth < 0 || line.strip().equals(suffixAnchor))) {
+            stopped = true;
+            return;
+        }
+        braceDepth = depth;
+        for (; heldBlankLines > 0; heldBlankLines--) {
+            lines.add("");
+            listener.onLine("");
+        }
+        lines.add(line);
+        listener.onLine(line);
+    }
+
+    private static int braceDelta(@NotNull String line) {
+        int delta = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '{') delta++;
+            else if (c == '}') delta--;
+        }
+        return delta;
+    }
+
+    /** First non-blank line after the cursor line, if it is distinctive enough. */
+    private static @Nullable String suffixAnchor(@NotNull String suffix) {
+        int newline = suffix.indexOf('\n');
+        if (newline < 0) return null;
+        for (String line : suffix.substring(newline + 1).split("\n")) {
+            String stripped = line.strip();
+            if (!stripped.isEmpty()) {
+                return stripped.length() >= MIN_SUFFIX_ANCHOR_LENGTH ? stripped : null;
+            }
+        }
+        return null;
+    }
+}
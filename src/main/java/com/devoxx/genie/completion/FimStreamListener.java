@@ -0,0 +1,14 @@
+package com.devoxx.genie.completion;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives a streaming FIM completion one line at a time, as soon as each line is complete.
+ * The first call is the text that continues the cursor line; every later call is a whole
+ * new line. Called on the thread performing the request.
+ */
+@FunctionalInterface
+public interface FimStreamListener {
+
+    void onLine(@NotNull String line);
+}
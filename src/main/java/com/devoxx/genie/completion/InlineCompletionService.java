@@ -1,5 +1,6 @@
 package com.devoxx.genie.completion;
 
+import com.devoxx.genie.service.projectscanner.TokenCalculator;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.ApplicationManager;
 import org.jetbrains.annotations.NotNull;
@@ -7,6 +8,8 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Application-level service that bridges the IntelliJ inline completion API
  * with the FIM provider backends (Ollama, LM Studio).
@@ -21,6 +24,12 @@ public final class InlineCompletionService {
     private final CompletionCache cache = new CompletionCache();
     private final OllamaFimProvider ollamaProvider = new OllamaFimProvider();
     private final LMStudioFimProvider lmStudioProvider = new LMStudioFimProvider();
+    private volatile TokenCalculator tokenCalculator;
+
+    /** Budget for cross-file snippets when open-file context is enabled. */
+    private static final int SNIPPET_TOKENS = 384;
+    /** Time allowed for scanning open files per request. */
+    private static final long CONTEXT_LATENCY_BUDGET_MS = 15;
 
     public static @NotNull InlineCompletionService getInstance() {
         return ApplicationManager.getApplication().getService(InlineCompletionService.class);
@@ -36,8 +45,39 @@ public final class InlineCompletionService {
      * @return completion text, or null if unavailable
      */
     public @Nullable String getCompletion(@NotNull String prefix, @NotNull String suffix) {
-        String cached = cache.get(prefix, suffix);
+        return getCompletion(null, prefix, suffix);
+    }
+
+    /**
+     * Get a completion for the given prefix/suffix context in a specific file.
+     * The cache is partitioned per file, and if the user has typed the start of a completion
+     * returned earlier in that file, the remaining part is served without a new request.
+     *
+     * @param fileKey identifies the file being edited (e.g. its path), or null if unknown
+     * @param prefix  text before the cursor
+     * @param suffix  text after the cursor
+     * @return completion text, or null if unavailable
+     */
+    public @Nullable String getCompletion(@Nullable String fileKey, @NotNull String prefix, @NotNull String suffix) {
+        return getCompletion(fileKey, prefix, suffix, null);
+    }
+
+    /**
+     * Get a completion, streaming it line by line to {@code listener} as it is generated so
+     * the first line can be shown before the model has finished. Generation is stopped
+     * server-side once the model runs into the suffix or closes an enclosing block (see
+     * {@link FimStreamAccumulator}). Cached completions are replayed to the listener at once.
+     *
+     * @param listener receives completed lines; {@code null} for a single blocking request
+     * @return the full accepted completion text, or null if unavailable
+     */
+    public @Nullable String getCompletion(@Nullable String fileKey, @NotNull String prefix, @NotNull String suffix,
+                                          @Nullable FimStreamListener listener) {
+        String cached = cache.get(fileKey, prefix, suffix);
         if (cached != null) {
+            if (listener != null) {
+                replay(cached, listener);
+            }
             return cached;
         }
 
@@ -73,18 +113,56 @@ public final class InlineCompletionService {
                         ? state.getInlineCompletionTimeoutMs() : 5000)
                 .build();
 
-        FimResponse response = provider.generate(request);
+        FimResponse response = listener != null
+                ? provider.generateStreaming(request, listener)
+                : provider.generate(request);
         if (response == null || response.getCompletionText().isEmpty()) {
             return null;
         }
 
         String completionText = response.getCompletionText();
-        cache.put(prefix, suffix, completionText);
+        cache.put(fileKey, prefix, suffix, completionText);
 
         LOG.debug("FIM completion from {} in {}ms", providerName, response.getDurationMs());
         return completionText;
     }
 
+    /**
+     * Build the FIM prefix/suffix for a document snapshot using the configured token budgets,
+     * snapped to line and syntax boundaries. Snippets from {@code openFiles} are included
+     * only when open-file context is enabled in the settings.
+     *
+     * @param text          document snapshot ({@code Document.getImmutableCharSequence()})
+     * @param commentPrefix line comment marker of the file's language, used for snippets
+     */
+    public @NotNull EditorContextExtractor buildContext(@NotNull CharSequence text, int offset,
+                                                        @NotNull List<FimContextBuilder.OpenFile> openFiles,
+                                                        @NotNull String commentPrefix) {
+        DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
+        boolean useOpenFiles = Boolean.TRUE.equals(state.getInlineCompletionOpenFilesContext());
+        FimContextBuilder builder = new FimContextBuilder(
+                tokenCalculator()::countTokens,
+                state.getInlineCompletionPrefixTokens() != null ? state.getInlineCompletionPrefixTokens() : 1024,
+                state.getInlineCompletionSuffixTokens() != null ? state.getInlineCompletionSuffixTokens() : 256,
+                useOpenFiles ? SNIPPET_TOKENS : 0,
+                CONTEXT_LATENCY_BUDGET_MS);
+        return builder.build(text, offset, useOpenFiles ? openFiles : List.of(), commentPrefix);
+    }
+
+    private @NotNull TokenCalculator tokenCalculator() {
+        TokenCalculator calculator = tokenCalculator;
+        if (calculator == null) {
+            synchronized (this) {
+                calculator = tokenCalculator;
+                if (calculator == null) {
+                    calculator = new TokenCalculator();
+                    tokenCalculator = calculator;
+                }
+            }
+        }
+        return calculator;
+    }
+
     /**
      * Cancel any active completion request across all providers.
      */
@@ -100,6 +178,26 @@ public final class InlineCompletionService {
         cache.clear();
     }
 
+    /**
+     * Drop cached completions for one file; called by {@link CompletionCacheInvalidator}.
+     */
+    public void invalidateFile(@NotNull String fileKey) {
+        cache.invalidate(fileKey);
+    }
+
+    /**
+     * Hit/miss and saved-request counters of the completion cache, for tuning.
+     */
+    public @NotNull CompletionCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    private static void replay(@NotNull String completion, @NotNull FimStreamListener listener) {
+        for (String line : CompletionPostProcessor.stripLeadingNewlines(completion).split("\n", -1)) {
+            listener.onLine(line);
+        }
+    }
+
     private @Nullable FimProvider getProvider(@NotNull String providerName) {
         return switch (providerName) {
             case "Ollama" -> ollamaProvider;
@@ -3,7 +3,9 @@ package com.devoxx.genie.completion;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -36,31 +38,8 @@ public class LMStudioFimProvider implements FimProvider {
     public @Nullable FimResponse generate(@NotNull FimRequest request) {
         cancelActiveCall();
 
-        String url = ensureEndsWithSlash(request.getBaseUrl()) + "completions";
-
-        JsonObject body = new JsonObject();
-        body.addProperty("model", request.getModelName());
-        body.addProperty("prompt", request.getPrefix());
-        body.addProperty("suffix", request.getSuffix());
-        body.addProperty("max_tokens", request.getMaxTokens());
-        body.addProperty("temperature", request.getTemperature());
-        body.addProperty("stream", false);
-
-        RequestBody requestBody = RequestBody.create(GSON.toJson(body), JSON);
-
-        Request httpRequest = new Request.Builder()
-                .url(url)
-                .post(requestBody)
-                .build();
-
-        OkHttpClient client = BASE_CLIENT.newBuilder()
-                .callTimeout(Duration.ofMillis(request.getTimeoutMs()))
-                .connectTimeout(Duration.ofMillis(Math.min(request.getTimeoutMs(), 3000)))
-                .readTimeout(Duration.ofMillis(request.getTimeoutMs()))
-                .build();
-
         long startTime = System.currentTimeMillis();
-        Call call = client.newCall(httpRequest);
+        Call call = newCall(request, false);
         activeCall.set(call);
 
         try (Response response = call.execute()) {
@@ -73,14 +52,11 @@ public class LMStudioFimProvider implements FimProvider {
 
             JsonObject jsonResponse = GSON.fromJson(responseBody.string(), JsonObject.class);
 
-            JsonArray choices = jsonResponse.getAsJsonArray("choices");
-            if (choices == null || choices.isEmpty()) {
+            String completionText = choiceText(jsonResponse);
+            if (completionText == null) {
                 return null;
             }
 
-            String completionText = choices.get(0).getAsJsonObject()
-                    .get("text").getAsString();
-
             long durationMs = System.currentTimeMillis() - startTime;
 
             if (completionText.isEmpty()) {
@@ -104,6 +80,102 @@ public class LMStudioFimProvider implements FimProvider {
         }
     }
 
+    /**
+     * Streaming variant: reads the OpenAI-style server-sent events ({@code data: {...}}
+     * lines, terminated by {@code data: [DONE]}) and forwards completed lines as they
+     * arrive. When a stop condition is hit the call is cancelled, which closes the
+     * connection and ends the generation in LM Studio.
+     */
+    @Override
+    public @Nullable FimResponse generateStreaming(@NotNull FimRequest request,
+                                                   @NotNull FimStreamListener listener) {
+        cancelActiveCall();
+
+        long startTime = System.currentTimeMillis();
+        Call call = newCall(request, true);
+        activeCall.set(call);
+        FimStreamAccumulator accumulator = new FimStreamAccumulator(request.getSuffix(), listener);
+
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                LOG.debug("LM Studio FIM request failed with code: {}", response.code());
+                return null;
+            }
+
+            BufferedSource source = Objects.requireNonNull(response.body()).source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring("data:".length()).trim();
+                if ("[DONE]".equals(data)) break;
+                String delta = choiceText(GSON.fromJson(data, JsonObject.class));
+                if (delta != null && !accumulator.append(delta)) {
+                    LOG.debug("LM Studio FIM stream stopped early after {}ms", System.currentTimeMillis() - startTime);
+                    call.cancel();
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Our own cancel after a stop condition keeps the lines accepted so far.
+            if (!accumulator.isStopped()) {
+                if (call.isCanceled()) {
+                    LOG.debug("LM Studio FIM request was cancelled");
+                } else {
+                    LOG.debug("LM Studio FIM request failed: {}", e.getMessage());
+                }
+                return null;
+            }
+        } catch (JsonParseException e) {
+            LOG.debug("LM Studio FIM stream returned malformed event: {}", e.getMessage());
+            return null;
+        } finally {
+            activeCall.compareAndSet(call, null);
+        }
+
+        accumulator.finish();
+        String completionText = accumulator.completion();
+        return completionText.isEmpty()
+                ? null
+                : new FimResponse(completionText, System.currentTimeMillis() - startTime);
+    }
+
+    private @NotNull Call newCall(@NotNull FimRequest request, boolean stream) {
+        String url = ensureEndsWithSlash(request.getBaseUrl()) + "completions";
+
+        JsonObject body = new JsonObject();
+        body.addProperty("model", request.getModelName());
+        body.addProperty("prompt", request.getPrefix());
+        body.addProperty("suffix", request.getSuffix());
+        body.addProperty("max_tokens", request.getMaxTokens());
+        body.addProperty("temperature", request.getTemperature());
+        body.addProperty("stream", stream);
+
+        RequestBody requestBody = RequestBody.create(GSON.toJson(body), JSON);
+
+        Request httpRequest = new Request.Builder()
+                .url(url)
+                .post(requestBody)
+                .build();
+
+        OkHttpClient client = BASE_CLIENT.newBuilder()
+                .callTimeout(Duration.ofMillis(request.getTimeoutMs()))
+                .connectTimeout(Duration.ofMillis(Math.min(request.getTimeoutMs(), 3000)))
+                .readTimeout(Duration.ofMillis(request.getTimeoutMs()))
+                .build();
+
+        return client.newCall(httpRequest);
+    }
+
+    /** Text of the first choice, or null if the response has no choices. */
+    private static @Nullable String choiceText(@NotNull JsonObject json) {
+        JsonArray choices = json.getAsJsonArray("choices");
+        if (choices == null || choices.isEmpty()) {
+            return null;
+        }
+        JsonObject choice = choices.get(0).getAsJsonObject();
+        return choice.has("text") && !choice.get("text").isJsonNull() ? choice.get("text").getAsString() : "";
+    }
+
     @Override
     public void cancelActiveCall() {
         Call call = activeCall.getAndSet(null);
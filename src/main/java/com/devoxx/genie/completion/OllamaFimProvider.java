@@ -2,7 +2,9 @@ package com.devoxx.genie.completion;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -41,35 +43,8 @@ public class OllamaFimProvider implements FimProvider {
     public @Nullable FimResponse generate(@NotNull FimRequest request) {
         cancelActiveCall();
 
-        String url = ensureEndsWithSlash(request.getBaseUrl()) + "api/generate";
-
-        JsonObject body = new JsonObject();
-        body.addProperty("model", request.getModelName());
-        body.addProperty("prompt", request.getPrefix());
-        body.addProperty("suffix", request.getSuffix());
-        body.addProperty("stream", false);
-
-        JsonObject options = new JsonObject();
-        options.addProperty("num_predict", request.getMaxTokens());
-        options.addProperty("temperature", request.getTemperature());
-        body.add("options", options);
-
-        RequestBody requestBody = RequestBody.create(GSON.toJson(body), JSON);
-
-        Request httpRequest = new Request.Builder()
-                .url(url)
-                .post(requestBody)
-                .build();
-
-        // Per-request timeouts, but shares connection pool with BASE_CLIENT
-        OkHttpClient client = BASE_CLIENT.newBuilder()
-                .callTimeout(Duration.ofMillis(request.getTimeoutMs()))
-                .connectTimeout(Duration.ofMillis(Math.min(request.getTimeoutMs(), 3000)))
-                .readTimeout(Duration.ofMillis(request.getTimeoutMs()))
-                .build();
-
         long startTime = System.currentTimeMillis();
-        Call call = client.newCall(httpRequest);
+        Call call = newCall(request, false);
         activeCall.set(call);
 
         try (Response response = call.execute()) {
@@ -108,6 +83,96 @@ public class OllamaFimProvider implements FimProvider {
         }
     }
 
+    /**
+     * Streaming variant: reads Ollama's NDJSON chunks and forwards completed lines as they
+     * arrive. When a stop condition is hit the call is cancelled, which closes the
+     * connection and makes Ollama abort the generation.
+     */
+    @Override
+    public @Nullable FimResponse generateStreaming(@NotNull FimRequest request,
+                                                   @NotNull FimStreamListener listener) {
+        cancelActiveCall();
+
+        long startTime = System.currentTimeMillis();
+        Call call = newCall(request, true);
+        activeCall.set(call);
+        FimStreamAccumulator accumulator = new FimStreamAccumulator(request.getSuffix(), listener);
+
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                LOG.debug("Ollama FIM request failed with code: {}", response.code());
+                return null;
+            }
+
+            BufferedSource source = Objects.requireNonNull(response.body(), "Response body is null").source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (line.isBlank()) continue;
+                JsonObject chunk = GSON.fromJson(line, JsonObject.class);
+                if (chunk.has("response") && !accumulator.append(chunk.get("response").getAsString())) {
+                    LOG.debug("Ollama FIM stream stopped early after {}ms", System.currentTimeMillis() - startTime);
+                    call.cancel();
+                    break;
+                }
+                if (chunk.has("done") && chunk.get("done").getAsBoolean()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Our own cancel after a stop condition keeps the lines accepted so far.
+            if (!accumulator.isStopped()) {
+                if (call.isCanceled()) {
+                    LOG.debug("Ollama FIM request was cancelled");
+                } else {
+                    LOG.debug("Ollama FIM request failed: {}", e.getMessage());
+                }
+                return null;
+            }
+        } catch (JsonParseException e) {
+            LOG.debug("Ollama FIM stream returned malformed chunk: {}", e.getMessage());
+            return null;
+        } finally {
+            activeCall.compareAndSet(call, null);
+        }
+
+        accumulator.finish();
+        String completionText = accumulator.completion();
+        return completionText.isEmpty()
+                ? null
+                : new FimResponse(completionText, System.currentTimeMillis() - startTime);
+    }
+
+    private @NotNull Call newCall(@NotNull FimRequest request, boolean stream) {
+        String url = ensureEndsWithSlash(request.getBaseUrl()) + "api/generate";
+
+        JsonObject body = new JsonObject();
+        body.addProperty("model", request.getModelName());
+        body.addProperty("prompt", request.getPrefix());
+        body.addProperty("suffix", request.getSuffix());
+        body.addProperty("stream", stream);
+
+        JsonObject options = new JsonObject();
+        options.addProperty("num_predict", request.getMaxTokens());
+        options.addProperty("temperature", request.getTemperature());
+        body.add("options", options);
+
+        RequestBody requestBody = RequestBody.create(GSON.toJson(body), JSON);
+
+        Request httpRequest = new Request.Builder()
+                .url(url)
+                .post(requestBody)
+                .build();
+
+        // Per-request timeouts, but shares connection pool with BASE_CLIENT
+        OkHttpClient client = BASE_CLIENT.newBuilder()
+                .callTimeout(Duration.ofMillis(request.getTimeoutMs()))
+                .connectTimeout(Duration.ofMillis(Math.min(request.getTimeoutMs(), 3000)))
+                .readTimeout(Duration.ofMillis(request.getTimeoutMs()))
+                .build();
+
+        return client.newCall(httpRequest);
+    }
+
     /**
      * Cancel any currently active FIM request.
      */
@@ -83,6 +83,7 @@ public class Constant {
     public static final Integer MAX_RETRIES = 1;
     public static final Integer TIMEOUT = 500;
     public static final Integer MAX_MEMORY = 50;
+    public static final Integer CONVERSATION_RETENTION_MAX_SIZE_MB = 50;
 
     // The MCP settings
     public static final Integer MCP_APPROVAL_TIMEOUT = 60;
@@ -117,6 +118,8 @@ public class Constant {
     public static final int SUB_AGENT_MAX_TOOL_CALLS = 200;
     public static final int SUB_AGENT_DEFAULT_PARALLELISM = 3;
     public static final int SUB_AGENT_MAX_PARALLELISM = 10;
+    public static final int SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY = 2;
+    public static final int SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY = 5;
     public static final int SUB_AGENT_TIMEOUT_SECONDS = 120;
     public static final int SUB_AGENT_MEMORY_SIZE = 10;
     public static final int TEST_EXECUTION_DEFAULT_TIMEOUT = 300;
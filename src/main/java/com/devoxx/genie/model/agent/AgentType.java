@@ -9,6 +9,8 @@ public enum AgentType {
     APPROVAL_GRANTED,
     APPROVAL_DENIED,
     INTERMEDIATE_RESPONSE,
+    /** Live stdout/stderr of a process a tool is running; shown in the Activity Logs only, never in chat. */
+    TOOL_OUTPUT,
     SUB_AGENT_STARTED,
     SUB_AGENT_COMPLETED,
     SUB_AGENT_ERROR,
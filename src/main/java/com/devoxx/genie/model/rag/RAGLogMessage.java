@@ -9,7 +9,7 @@ import lombok.Singular;
 import java.util.List;
 
 /**
- * One RAG retrieval event surfaced to the unified log panel. Carries enough detail that a
+ * One RAG retrieval (or indexing) event surfaced to the unified log panel. Carries enough detail that a
  * developer can audit "did RAG actually pick the right chunks for this query?" without
  * tailing {@code idea.log}.
  */
@@ -41,6 +41,12 @@ public class RAGLogMessage {
     /** Total time the retrieval took, in milliseconds. */
     private long durationMs;
 
+    /**
+     * Set instead of {@link #query} for indexing events (e.g. embedding batch-size tuning
+     * decisions); such messages carry no hits.
+     */
+    private String indexerStatus;
+
     @Data
     @Builder
     @NoArgsConstructor
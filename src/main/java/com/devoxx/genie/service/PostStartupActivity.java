@@ -6,6 +6,7 @@ import com.devoxx.genie.service.automation.listeners.BuildCompilationListener;
 import com.devoxx.genie.service.automation.listeners.FileEventListener;
 import com.devoxx.genie.service.automation.listeners.FileSaveListener;
 import com.devoxx.genie.service.automation.listeners.ProcessExitListener;
+import com.devoxx.genie.service.mcp.MCPExecutionService;
 import com.devoxx.genie.service.prompt.memory.ChatMemoryManager;
 import com.devoxx.genie.service.prompt.threading.ThreadPoolManager;
 import com.devoxx.genie.service.prompt.threading.ThreadPoolShutdownManager;
@@ -68,6 +69,10 @@ public class PostStartupActivity implements ProjectActivity {
         // and disposed with the project.
         maybeStartRagWatcher(project);
 
+        // Start enabled MCP servers in parallel and cache their tool catalogs, so the first
+        // prompt doesn't wait for process start-up and tool discovery. No-op when MCP is off.
+        MCPExecutionService.getInstance().warmUp();
+
         // First-launch analytics consent notification (task-206). Self-disables after firing once.
         AnalyticsConsentNotifier.maybeShow(project);
 
@@ -1,6 +1,8 @@
 package com.devoxx.genie.service.agent;
 
+import com.devoxx.genie.model.Constant;
 import com.devoxx.genie.service.agent.tool.BuiltInToolProvider;
+import com.devoxx.genie.service.agent.tool.ChatMemoryWindow;
 import com.devoxx.genie.service.agent.tool.CompositeToolProvider;
 import com.devoxx.genie.service.mcp.MCPExecutionService;
 import com.devoxx.genie.service.mcp.MCPService;
@@ -65,7 +67,10 @@ public class AgentToolProviderFactory {
         List<ToolProvider> providers = new ArrayList<>();
 
         // Add built-in IDE tools (including parallel_explore if enabled)
-        BuiltInToolProvider builtInToolProvider = new BuiltInToolProvider(project);
+        ChatMemoryWindow memoryWindow = new ChatMemoryWindow(settings.getChatMemorySize() != null
+                ? settings.getChatMemorySize()
+                : Constant.MAX_MEMORY);
+        BuiltInToolProvider builtInToolProvider = new BuiltInToolProvider(project, memoryWindow);
         providers.add(builtInToolProvider);
 
         // Add MCP tools if MCP is also enabled
@@ -105,6 +110,7 @@ public class AgentToolProviderFactory {
                 : 25;
 
         AgentLoopTracker tracker = new AgentLoopTracker(approvedProvider, maxToolCalls, project);
+        memoryWindow.countToolCallsWith(tracker::getCallCount);
 
         // Register the parallel explore executor as a cancellable child so user cancellation
         // propagates to any running sub-agents
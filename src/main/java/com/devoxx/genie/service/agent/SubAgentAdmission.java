@@ -0,0 +1,127 @@
+package com.devoxx.genie.service.agent;
+
+import com.devoxx.genie.model.enumarations.ModelProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.devoxx.genie.model.Constant.SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY;
+import static com.devoxx.genie.model.Constant.SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY;
+
+/**
+ * Admits sub-agents per model provider instead of per pool thread.
+ *
+ * <p>A local server (Ollama, LM Studio, ...) mostly serializes requests, so running five
+ * explorers against it at once only makes each of them slower; cloud providers take more in
+ * parallel until they answer with a rate limit. Each provider starts with a limit by type
+ * and loses one slot every time a sub-agent comes back rate limited, down to one; the slot
+ * comes back after {@link #RATE_LIMIT_COOLDOWN_MS}.
+ *
+ * <p>One instance is shared by the whole application (see {@link
+ * com.devoxx.genie.service.prompt.threading.ThreadPoolManager#getSubAgentAdmission()}), so
+ * concurrent agent runs, in one project or several, draw on the same provider limits.
+ */
+@Slf4j
+public class SubAgentAdmission {
+
+    /** Provider key used when the sub-agent model is auto-detected (Ollama first). */
+    static final String DEFAULT_PROVIDER = "default";
+
+    /** How long a slot kept by a rate-limited run stays out of use. */
+    static final long RATE_LIMIT_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Map<String, Semaphore> slots = new ConcurrentHashMap<>();
+    /** When each slot kept by a rate-limited run was retired, oldest first, per provider. */
+    private final Map<String, Deque<Long>> retired = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public SubAgentAdmission() {
+        this(System::currentTimeMillis);
+    }
+
+    SubAgentAdmission(@NotNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Wait up to {@code timeoutMs} for a slot of {@code provider}.
+     *
+     * @return whether a slot was acquired; release it with {@link #release}
+     */
+    public boolean acquire(@Nullable String provider, long timeoutMs) throws InterruptedException {
+        restoreCooledDown(provider);
+        return semaphore(provider).tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Give the slot back. A rate-limited run keeps it for {@link #RATE_LIMIT_COOLDOWN_MS},
+     * shrinking the provider's limit until then — unless it is the last one.
+     */
+    public synchronized void release(@Nullable String provider, boolean rateLimited) {
+        restoreCooledDown(provider);
+        Semaphore semaphore = semaphore(provider);
+        if (rateLimited && limit(provider) > 1) {
+            log.info("Sub-agent provider {} is rate limited, lowering its concurrency", key(provider));
+            retired.computeIfAbsent(key(provider), k -> new ArrayDeque<>()).addLast(clock.getAsLong());
+            return;
+        }
+        semaphore.release();
+    }
+
+    synchronized int limit(@Nullable String provider) {
+        Deque<Long> retiredAt = retired.get(key(provider));
+        return initialLimit(provider) - (retiredAt == null ? 0 : retiredAt.size());
+    }
+
+    /** Return the slots whose rate-limit cooldown has passed. */
+    private synchronized void restoreCooledDown(@Nullable String provider) {
+        Deque<Long> retiredAt = retired.get(key(provider));
+        if (retiredAt == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        while (!retiredAt.isEmpty() && now - retiredAt.peekFirst() >= RATE_LIMIT_COOLDOWN_MS) {
+            retiredAt.pollFirst();
+            semaphore(provider).release();
+        }
+    }
+
+    private @NotNull Semaphore semaphore(@Nullable String provider) {
+        return slots.computeIfAbsent(key(provider), k -> new Semaphore(initialLimit(provider), true));
+    }
+
+    static int initialLimit(@Nullable String provider) {
+        if (provider == null || provider.isBlank()) {
+            return SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY;
+        }
+        try {
+            return ModelProvider.fromString(provider).getType() == ModelProvider.Type.LOCAL
+                    ? SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY
+                    : SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY;
+        } catch (IllegalArgumentException e) {
+            return SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY;
+        }
+    }
+
+    private static @NotNull String key(@Nullable String provider) {
+        return provider == null || provider.isBlank() ? DEFAULT_PROVIDER : provider;
+    }
+
+    /** Whether a sub-agent error message reports a provider rate limit. */
+    public static boolean isRateLimited(@Nullable String message) {
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase();
+        return lower.contains("rate limit") || lower.contains("ratelimit") || lower.contains("429")
+                || lower.contains("too many requests");
+    }
+}
@@ -0,0 +1,50 @@
+package com.devoxx.genie.service.agent;
+
+import com.devoxx.genie.service.agent.tool.SharedReadCache;
+import dev.langchain4j.model.chat.ChatModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * What sibling sub-agents share instead of building it each: chat model clients and
+ * read-only tool results.
+ *
+ * <p>Model clients live as long as the {@code parallel_explore} executor, i.e. one agent run,
+ * and are keyed by their full configuration so a settings change is picked up by the next
+ * run. The read cache is replaced for every {@code parallel_explore} call because the parent
+ * agent may change files between calls.
+ */
+public class SubAgentResources {
+
+    private final Map<String, ChatModel> models = new ConcurrentHashMap<>();
+    private volatile SharedReadCache readCache = new SharedReadCache();
+
+    /** The client for {@code key}, created by {@code factory} on first use. Failures are not cached. */
+    public @Nullable ChatModel model(@NotNull String key, @NotNull Supplier<ChatModel> factory) {
+        ChatModel existing = models.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        ChatModel created = factory.get();
+        if (created == null) {
+            return null;
+        }
+        ChatModel raced = models.putIfAbsent(key, created);
+        return raced != null ? raced : created;
+    }
+
+    public @NotNull SharedReadCache readCache() {
+        return readCache;
+    }
+
+    /** Start a fresh read cache for the next batch of siblings; returns the previous one. */
+    public @NotNull SharedReadCache resetReadCache() {
+        SharedReadCache previous = readCache;
+        readCache = new SharedReadCache();
+        return previous;
+    }
+}
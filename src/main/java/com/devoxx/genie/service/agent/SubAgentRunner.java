@@ -5,6 +5,7 @@ import com.devoxx.genie.chatmodel.ChatModelFactoryProvider;
 import com.devoxx.genie.model.CustomChatModel;
 import com.devoxx.genie.model.agent.SubAgentConfig;
 import com.devoxx.genie.model.enumarations.ModelProvider;
+import com.devoxx.genie.service.agent.tool.ChatMemoryWindow;
 import com.devoxx.genie.service.agent.tool.ReadOnlyToolProvider;
 import com.devoxx.genie.service.analytics.AnalyticsService;
 import com.devoxx.genie.service.analytics.Buckets;
@@ -28,7 +29,8 @@ import static com.devoxx.genie.model.Constant.SUB_AGENT_MEMORY_SIZE;
 
 /**
  * Runs a single sub-agent exploration task.
- * Each sub-agent has its own model instance, memory, and read-only tool access.
+ * Each sub-agent has its own memory and tool loop; model clients and read-only tool results
+ * come from {@link SubAgentResources} shared with its siblings when given.
  * Uses non-streaming ChatModel since we only need the final result.
  */
 @Slf4j
@@ -46,14 +48,21 @@ public class SubAgentRunner {
     private final Project project;
     private final int agentIndex;
     private final AtomicBoolean cancelled;
+    private final @Nullable SubAgentResources resources;
     private @Nullable AgentLoopTracker tracker;
     private String resolvedProviderName;
     private String resolvedModelName;
 
     public SubAgentRunner(@NotNull Project project, int agentIndex, @NotNull AtomicBoolean cancelled) {
+        this(project, agentIndex, cancelled, null);
+    }
+
+    public SubAgentRunner(@NotNull Project project, int agentIndex, @NotNull AtomicBoolean cancelled,
+                          @Nullable SubAgentResources resources) {
         this.project = project;
         this.agentIndex = agentIndex;
         this.cancelled = cancelled;
+        this.resources = resources;
     }
 
     /**
@@ -85,9 +94,12 @@ public class SubAgentRunner {
                     ? settings.getSubAgentMaxToolCalls()
                     : SUB_AGENT_MAX_TOOL_CALLS;
 
-            ToolProvider readOnlyTools = new ReadOnlyToolProvider(project);
+            ChatMemoryWindow memoryWindow = new ChatMemoryWindow(SUB_AGENT_MEMORY_SIZE);
+            ToolProvider readOnlyTools = new ReadOnlyToolProvider(project,
+                    resources != null ? resources.readCache() : null, memoryWindow);
             String subAgentLabel = buildSubAgentLabel();
             tracker = new AgentLoopTracker(readOnlyTools, maxToolCalls, project, subAgentLabel);
+            memoryWindow.countToolCallsWith(tracker::getCallCount);
 
             // Share cancellation state
             if (cancelled.get()) {
@@ -220,7 +232,11 @@ public class SubAgentRunner {
                         if (resolvedModelName == null || resolvedModelName.isEmpty()) {
                             resolvedModelName = config.getModelName();
                         }
-                        return factory.createChatModel(config);
+                        if (resources == null) {
+                            return factory.createChatModel(config);
+                        }
+                        return resources.model(modelKey(providerName, config),
+                                () -> factory.createChatModel(config));
                     })
                     .orElse(null);
         } catch (Exception e) {
@@ -229,6 +245,15 @@ public class SubAgentRunner {
         }
     }
 
+    /** Everything that makes two sub-agent model clients interchangeable. */
+    @NotNull
+    private static String modelKey(@NotNull String providerName, @NotNull CustomChatModel config) {
+        return String.join("|", providerName, String.valueOf(config.getModelName()),
+                String.valueOf(config.getBaseUrl()), String.valueOf(config.getTemperature()),
+                String.valueOf(config.getTopP()), String.valueOf(config.getMaxTokens()),
+                String.valueOf(config.getMaxRetries()), String.valueOf(config.getTimeout()));
+    }
+
     @NotNull
     private CustomChatModel buildModelConfig(@NotNull ChatModelFactory factory, @Nullable String modelName) {
         DevoxxGenieStateService settings = DevoxxGenieStateService.getInstance();
@@ -26,19 +26,36 @@ public class BuiltInToolProvider implements ToolProvider {
     private @Nullable ParallelExploreToolExecutor parallelExploreExecutor;
 
     public BuiltInToolProvider(@NotNull Project project) {
+        this(project, null);
+    }
+
+    /**
+     * @param memoryWindow the run's chat memory window, so read_file stops answering with an
+     *                     "unchanged" stub once the earlier content may have been evicted
+     */
+    public BuiltInToolProvider(@NotNull Project project, @Nullable ChatMemoryWindow memoryWindow) {
         tools = new LinkedHashMap<>();
 
         // read_file
         tools.put(
                 ToolSpecification.builder()
                         .name("read_file")
-                        .description("Read the contents of a file in the project")
+                        .description("Read the contents of a file in the project. For large files, read an " +
+                                "outline first and then only the line range you need. Re-reading an unchanged " +
+                                "file returns a short note instead of the content.")
                         .parameters(JsonObjectSchema.builder()
                                 .addStringProperty("path", "File path relative to project root")
+                                .addIntegerProperty("start_line", "Optional: first line to read (1-based)")
+                                .addIntegerProperty("end_line", "Optional: last line to read (1-based, inclusive)")
+                                .addIntegerProperty("byte_offset", "Optional: read from this byte offset instead of by line")
+                                .addIntegerProperty("byte_length", "Optional: number of bytes to read from byte_offset")
+                                .addBooleanProperty("outline",
+                                        "Return the file's symbols (classes, methods, fields) with line numbers instead of its content")
+                                .addBooleanProperty("force", "Return the content even if it was already read unchanged")
                                 .required("path")
                                 .build())
                         .build(),
-                new ReadFileToolExecutor(project)
+                new ReadFileToolExecutor(project, null, memoryWindow)
         );
 
         // write_file
@@ -193,6 +210,8 @@ public class BuiltInToolProvider implements ToolProvider {
                                                     .build())
                                             .description("List of exploration queries, one per sub-agent (2-5 queries)")
                                             .build())
+                                    .addIntegerProperty("min_results", "Optional: return as soon as this many " +
+                                            "sub-agents have reported and stop the others (default: wait for all)")
                                     .required("queries")
                                     .build())
                             .build(),
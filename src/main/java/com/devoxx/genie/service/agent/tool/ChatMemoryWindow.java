@@ -0,0 +1,47 @@
+package com.devoxx.genie.service.agent.tool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntSupplier;
+
+/**
+ * What an agent run's chat memory can still hold, measured in tool calls. The memory is a
+ * message window, so a tool result drops out once enough newer messages arrive; tools that
+ * answer "you already have this" (see {@link ReadFileToolExecutor}) use this to stop saying
+ * so once the earlier result may be gone.
+ *
+ * <p>The tool-call counter belongs to the loop tracker, which wraps the tool providers and so
+ * only exists after them; {@link #countToolCallsWith} binds it once it does.
+ */
+public final class ChatMemoryWindow {
+
+    /** Messages that stay ahead of the tool traffic: the system prompt and the user prompt. */
+    static final int RESERVED_MESSAGES = 2;
+
+    private final int maxMessages;
+    private volatile IntSupplier toolCalls = () -> 0;
+
+    public ChatMemoryWindow(int maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    /** Binds the run's tool-call counter, normally {@code AgentLoopTracker::getCallCount}. */
+    public void countToolCallsWith(@NotNull IntSupplier toolCalls) {
+        this.toolCalls = toolCalls;
+    }
+
+    /** Tool calls made so far in this run, including the one in progress. */
+    int toolCalls() {
+        return toolCalls.getAsInt();
+    }
+
+    /**
+     * Whether the result of tool call {@code toolCallAtResult} may have been evicted by now.
+     * Every later call adds at least an AI request and its result, so this errs towards
+     * "evicted" — returning content twice is cheaper than the model missing it.
+     */
+    boolean mayHaveEvicted(int toolCallAtResult) {
+        int callsSince = toolCalls() - toolCallAtResult;
+        return 2 * callsSince + RESERVED_MESSAGES >= maxMessages;
+    }
+}
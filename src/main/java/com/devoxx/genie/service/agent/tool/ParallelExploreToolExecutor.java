@@ -3,7 +3,10 @@ package com.devoxx.genie.service.agent.tool;
 import com.devoxx.genie.model.activity.ActivityMessage;
 import com.devoxx.genie.model.activity.ActivitySource;
 import com.devoxx.genie.model.agent.AgentType;
+import com.devoxx.genie.model.agent.SubAgentConfig;
 import com.devoxx.genie.service.agent.AgentLoopTracker;
+import com.devoxx.genie.service.agent.SubAgentAdmission;
+import com.devoxx.genie.service.agent.SubAgentResources;
 import com.devoxx.genie.service.agent.SubAgentRunner;
 import com.devoxx.genie.service.prompt.threading.ThreadPoolManager;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
@@ -14,11 +17,13 @@ import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.service.tool.ToolExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.devoxx.genie.model.Constant.SUB_AGENT_DEFAULT_PARALLELISM;
 import static com.devoxx.genie.model.Constant.SUB_AGENT_TIMEOUT_SECONDS;
@@ -28,12 +33,15 @@ import static com.devoxx.genie.model.Constant.SUB_AGENT_TIMEOUT_SECONDS;
  * different aspects of the codebase simultaneously.
  * <p>
  * Each sub-agent gets:
- * - Its own ChatModel instance (configurable, can be different from main agent)
  * - Its own isolated ChatMemory
- * - Read-only tool access (read_file, list_files, search_files)
+ * - Read-only tool access (read_file, list_files, search_files), sharing one result cache with
+ *   its siblings so identical reads run once
+ * - A model client reused across the sub-agents of this agent run with the same configuration
  * - Independent AgentLoopTracker with lower tool call limit
  * <p>
- * Results from all sub-agents are collected and returned as a combined report.
+ * Sub-agents are admitted per model provider by the application-wide {@link SubAgentAdmission},
+ * all share one deadline, and with {@code min_results} the stragglers are cancelled as soon as
+ * enough sub-agents have reported. Results are returned as a combined report.
  */
 @Slf4j
 public class ParallelExploreToolExecutor implements ToolExecutor, AgentLoopTracker.Cancellable {
@@ -41,6 +49,7 @@ public class ParallelExploreToolExecutor implements ToolExecutor, AgentLoopTrack
     private final Project project;
     private final List<SubAgentRunner> activeRunners = new CopyOnWriteArrayList<>();
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final SubAgentResources resources = new SubAgentResources();
 
     public ParallelExploreToolExecutor(@NotNull Project project) {
         this.project = project;
@@ -65,62 +74,157 @@ public class ParallelExploreToolExecutor implements ToolExecutor, AgentLoopTrack
         // Cap the number of queries to prevent abuse
         int effectiveCount = Math.min(queries.size(), maxParallelism);
         List<String> effectiveQueries = queries.subList(0, effectiveCount);
+        int minResults = Math.max(1, Math.min(effectiveCount,
+                ToolArgumentParser.getInt(request.arguments(), "min_results", effectiveCount)));
 
-        log.info("Parallel explore: launching {} sub-agents", effectiveCount);
+        log.info("Parallel explore: launching {} sub-agents (min results: {})", effectiveCount, minResults);
         publishEvent(AgentType.SUB_AGENT_STARTED, "parallel_explore",
                 "Launching " + effectiveCount + " sub-agents", null, 0);
 
-        ExecutorService executor = ThreadPoolManager.getInstance().getSubAgentPool();
+        // Siblings of this call share reads; the parent may have changed files since the last call.
+        SharedReadCache previousReads = resources.resetReadCache();
+        if (previousReads.hits() > 0) {
+            log.debug("Previous parallel_explore call served {} reads from its shared cache", previousReads.hits());
+        }
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        ThreadPoolManager threadPoolManager = ThreadPoolManager.getInstance();
+        SubAgentAdmission admission = threadPoolManager.getSubAgentAdmission();
+        CompletionService<Integer> completion =
+                new ExecutorCompletionService<>(threadPoolManager.getSubAgentPool());
 
-        // Create sub-agent runners and submit futures
-        List<Future<String>> futures = new ArrayList<>(effectiveCount);
+        // Create sub-agent runners and submit them; each waits for a slot of its provider
+        AtomicReferenceArray<String> results = new AtomicReferenceArray<>(effectiveCount);
+        List<SubAgentRunner> runners = new ArrayList<>(effectiveCount);
+        List<Future<Integer>> futures = new ArrayList<>(effectiveCount);
         for (int i = 0; i < effectiveCount; i++) {
             final int index = i;
             final String query = effectiveQueries.get(i);
+            final String provider = providerOf(settings, index);
 
-            SubAgentRunner runner = new SubAgentRunner(project, index, cancelled);
+            SubAgentRunner runner = new SubAgentRunner(project, index, cancelled, resources);
+            runners.add(runner);
             activeRunners.add(runner);
 
             publishEvent(AgentType.SUB_AGENT_STARTED, "sub-agent-" + (index + 1),
                     query, null, index + 1);
 
-            futures.add(executor.submit(() -> runner.execute(query)));
+            futures.add(completion.submit(() -> {
+                results.set(index, runAdmitted(admission, runner, index, query, provider, deadline, timeoutSeconds));
+                return index;
+            }));
         }
 
-        // Collect results with timeout
-        List<String> results = new ArrayList<>(effectiveCount);
-        for (int i = 0; i < futures.size(); i++) {
-            String query = effectiveQueries.get(i);
+        // Collect results as they complete, until all are in, enough succeeded, or the deadline passes
+        boolean[] done = new boolean[effectiveCount];
+        int succeeded = 0;
+        boolean interrupted = false;
+        for (int pending = effectiveCount; pending > 0 && succeeded < minResults; pending--) {
+            Future<Integer> finished;
             try {
-                String result = futures.get(i).get(timeoutSeconds, TimeUnit.SECONDS);
-                results.add(result);
+                long remaining = deadline - System.currentTimeMillis();
+                finished = remaining > 0 ? completion.poll(remaining, TimeUnit.MILLISECONDS) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                break;
+            }
+            if (finished == null) {
+                break;
+            }
+            int i = indexOf(finished);
+            done[i] = true;
+            String result = results.get(i);
+            if (isSuccess(result)) {
+                succeeded++;
                 publishEvent(AgentType.SUB_AGENT_COMPLETED, "sub-agent-" + (i + 1),
-                        query, truncateResult(result), i + 1);
-            } catch (TimeoutException e) {
-                log.warn("Sub-agent #{} timed out after {}s", i + 1, timeoutSeconds);
-                activeRunners.get(i).cancel();
-                futures.get(i).cancel(true);
-                String timeoutMsg = "Sub-agent #" + (i + 1) + " timed out after " + timeoutSeconds + "s.";
-                results.add(timeoutMsg);
+                        effectiveQueries.get(i), truncateResult(result), i + 1);
+            } else {
                 publishEvent(AgentType.SUB_AGENT_ERROR, "sub-agent-" + (i + 1),
-                        query, timeoutMsg, i + 1);
-            } catch (CancellationException e) {
-                results.add("Sub-agent #" + (i + 1) + " was cancelled.");
-            } catch (ExecutionException e) {
-                log.error("Sub-agent #{} failed", i + 1, e.getCause());
-                String errorMsg = "Sub-agent #" + (i + 1) + " error: " + e.getCause().getMessage();
-                results.add(errorMsg);
+                        effectiveQueries.get(i), result, i + 1);
+            }
+        }
+
+        // Stop whatever is still running: stragglers, timeouts, or everything on interrupt
+        boolean enoughResults = succeeded >= minResults;
+        List<String> ordered = new ArrayList<>(effectiveCount);
+        for (int i = 0; i < effectiveCount; i++) {
+            if (done[i]) {
+                ordered.add(results.get(i));
+                continue;
+            }
+            runners.get(i).cancel();
+            futures.get(i).cancel(true);
+            String message;
+            if (interrupted) {
+                message = "Sub-agent #" + (i + 1) + " interrupted.";
+            } else if (enoughResults) {
+                message = "Sub-agent #" + (i + 1) + " stopped: " + minResults + " other sub-agents already reported.";
+                log.info("Sub-agent #{} cancelled as a straggler", i + 1);
+            } else {
+                message = "Sub-agent #" + (i + 1) + " timed out after " + timeoutSeconds + "s.";
+                log.warn("Sub-agent #{} timed out after {}s", i + 1, timeoutSeconds);
                 publishEvent(AgentType.SUB_AGENT_ERROR, "sub-agent-" + (i + 1),
-                        query, errorMsg, i + 1);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                results.add("Sub-agent #" + (i + 1) + " interrupted.");
+                        effectiveQueries.get(i), message, i + 1);
             }
+            ordered.add(message);
         }
 
         activeRunners.clear();
+        log.info("Parallel explore finished: {} of {} sub-agents reported, {} reads shared",
+                succeeded, effectiveCount, resources.readCache().hits());
+
+        return formatCombinedResults(effectiveQueries, ordered);
+    }
 
-        return formatCombinedResults(effectiveQueries, results);
+    /**
+     * Runs one sub-agent once its provider admits it. Never throws: failures become the
+     * sub-agent's result text, and rate-limit failures lower the provider's concurrency.
+     */
+    private @NotNull String runAdmitted(@NotNull SubAgentAdmission admission, @NotNull SubAgentRunner runner,
+                                        int index, @NotNull String query, @Nullable String provider,
+                                        long deadline, int timeoutSeconds) {
+        try {
+            if (!admission.acquire(provider, deadline - System.currentTimeMillis())) {
+                return "Sub-agent #" + (index + 1) + " timed out after " + timeoutSeconds +
+                        "s waiting for a free " + (provider == null || provider.isBlank() ? "model" : provider) + " slot.";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Sub-agent #" + (index + 1) + " interrupted.";
+        }
+        String result = null;
+        try {
+            result = runner.execute(query);
+        } catch (Exception e) {
+            log.error("Sub-agent #{} failed", index + 1, e);
+            result = "Sub-agent #" + (index + 1) + " error: " + e.getMessage();
+        } finally {
+            admission.release(provider, !isSuccess(result) && SubAgentAdmission.isRateLimited(result));
+        }
+        return result;
+    }
+
+    private static @Nullable String providerOf(@NotNull DevoxxGenieStateService settings, int index) {
+        SubAgentConfig config = settings.getEffectiveSubAgentConfig(index);
+        return config != null ? config.getModelProvider() : null;
+    }
+
+    /** Sub-agents report problems as text starting with {@link SubAgentRunner#SUB_AGENT}. */
+    private static boolean isSuccess(@Nullable String result) {
+        return result != null && !result.startsWith(SubAgentRunner.SUB_AGENT);
+    }
+
+    private static int indexOf(@NotNull Future<Integer> finished) {
+        try {
+            return finished.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted reading a completed sub-agent future", e);
+        } catch (ExecutionException e) {
+            // The task body catches everything; only an Error can end up here.
+            throw new IllegalStateException("Sub-agent task failed unexpectedly", e.getCause());
+        }
     }
 
     /**
@@ -0,0 +1,100 @@
+package com.devoxx.genie.service.agent.tool;
+
+import com.devoxx.genie.model.activity.ActivityMessage;
+import com.devoxx.genie.model.activity.ActivitySource;
+import com.devoxx.genie.model.agent.AgentType;
+import com.devoxx.genie.service.process.ProcessRunner;
+import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
+import com.devoxx.genie.ui.topic.AppTopics;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Streams the live output of a process started by an agent tool to the Activity Logs panel.
+ * Lines are batched so a chatty build produces a few log rows per second, not one per line.
+ * Published as {@link AgentType#TOOL_OUTPUT}, which the chat view ignores, so raw build output
+ * never shows up as agent reasoning.
+ */
+@Slf4j
+class ProcessOutputPublisher implements ProcessRunner.LineListener {
+
+    static final long FLUSH_INTERVAL_MS = 500;
+    static final int MAX_BATCH_LINES = 50;
+
+    private final String toolName;
+    private final Consumer<String> sink;
+    private final LongSupplier clock;
+    private final StringBuilder batch = new StringBuilder();
+    private int batchLines;
+    private long lastFlush;
+
+    ProcessOutputPublisher(@NotNull String toolName, @NotNull Consumer<String> sink, @NotNull LongSupplier clock) {
+        this.toolName = toolName;
+        this.sink = sink;
+        this.clock = clock;
+        this.lastFlush = clock.getAsLong();
+    }
+
+    /**
+     * A publisher for {@code toolName}, or {@code null} when agent debug logs are off (the
+     * panel would drop the messages anyway) or the application is not available.
+     */
+    static @Nullable ProcessOutputPublisher create(@NotNull Project project, @NotNull String toolName) {
+        try {
+            if (project.isDisposed()
+                    || !Boolean.TRUE.equals(DevoxxGenieStateService.getInstance().getAgentDebugLogsEnabled())) {
+                return null;
+            }
+            String projectHash = project.getLocationHash();
+            return new ProcessOutputPublisher(toolName, text -> publish(projectHash, toolName, text),
+                    System::currentTimeMillis);
+        } catch (Exception e) {
+            log.debug("Live output disabled for {}: {}", toolName, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void onLine(@NotNull String line, boolean stderr) {
+        batch.append(line).append('\n');
+        batchLines++;
+        if (batchLines >= MAX_BATCH_LINES || clock.getAsLong() - lastFlush >= FLUSH_INTERVAL_MS) {
+            flush();
+        }
+    }
+
+    /** Publish whatever is still batched; call once the process has finished. */
+    synchronized void flush() {
+        if (batchLines == 0) {
+            return;
+        }
+        // Both pumps call in; publishing under the lock keeps the batches in order.
+        sink.accept(toolName + " › " + batch.toString().stripTrailing());
+        batch.setLength(0);
+        batchLines = 0;
+        lastFlush = clock.getAsLong();
+    }
+
+    private static void publish(@Nullable String projectHash, @NotNull String toolName, @NotNull String text) {
+        try {
+            ActivityMessage message = ActivityMessage.builder()
+                    .source(ActivitySource.AGENT)
+                    .agentType(AgentType.TOOL_OUTPUT)
+                    .toolName(toolName)
+                    .result(text)
+                    .projectLocationHash(projectHash)
+                    .build();
+            ApplicationManager.getApplication().getMessageBus()
+                    .syncPublisher(AppTopics.ACTIVITY_LOG_MSG)
+                    .onActivityMessage(message);
+        } catch (Exception e) {
+            log.debug("Failed to publish live output of {}", toolName, e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.devoxx.genie.service.agent.tool;
 
+import com.devoxx.genie.service.agent.tool.psi.DocumentSymbolsToolExecutor;
 import com.devoxx.genie.util.ReadAccess;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
@@ -9,16 +10,96 @@ import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.service.tool.ToolExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads a project file for the agent: in full, a line range, a byte range, or as a PSI
+ * symbol outline.
+ *
+ * <p>One executor lives for one agent run (the tool provider chain is built per prompt), so
+ * it also remembers what it already returned: re-reading an unchanged file — same
+ * modification stamp, same or covered view — yields a short stub instead of the content
+ * again. Each read remembers the tool call it was returned in; once the run's
+ * {@link ChatMemoryWindow} says that result may have left the chat memory, the content is
+ * returned again. {@code force} bypasses the stub as well.
+ * Sibling sub-agents may additionally share a {@link SharedReadCache}, so a file view one of
+ * them produced is not read and rendered again for the others.
+ */
 @Slf4j
 public class ReadFileToolExecutor implements ToolExecutor {
 
+    static final String FULL_VIEW = "full";
+    static final String OUTLINE_VIEW = "outline";
+
+    /**
+     * Requested slice of a file. Line numbers are 1-based and inclusive; a {@code 0} bound
+     * means "from the start" / "to the end". A negative byte offset means no byte range.
+     */
+    record ReadOptions(int startLine, int endLine, long byteOffset, int byteLength,
+                       boolean outline, boolean force) {
+
+        static final ReadOptions FULL = new ReadOptions(0, 0, -1, 0, false, false);
+
+        static @NotNull ReadOptions parse(@NotNull String arguments) {
+            return new ReadOptions(
+                    Math.max(0, ToolArgumentParser.getInt(arguments, "start_line", 0)),
+                    Math.max(0, ToolArgumentParser.getInt(arguments, "end_line", 0)),
+                    ToolArgumentParser.getInt(arguments, "byte_offset", -1),
+                    Math.max(0, ToolArgumentParser.getInt(arguments, "byte_length", 0)),
+                    ToolArgumentParser.getBoolean(arguments, "outline", false),
+                    ToolArgumentParser.getBoolean(arguments, "force", false));
+        }
+
+        boolean isLineRange() {
+            return startLine > 0 || endLine > 0;
+        }
+
+        boolean isByteRange() {
+            return byteOffset >= 0;
+        }
+
+        @NotNull String view() {
+            if (outline) return OUTLINE_VIEW;
+            if (isByteRange()) return "bytes:" + byteOffset + "+" + byteLength;
+            if (isLineRange()) return "lines:" + startLine + "-" + endLine;
+            return FULL_VIEW;
+        }
+    }
+
+    /** Views of one file version returned so far, each with the tool call it was returned in. */
+    private record ReadRecord(long modificationStamp, Map<String, Integer> views) {}
+
     private final Project project;
+    private final @Nullable SharedReadCache sharedReads;
+    private final @Nullable ChatMemoryWindow memoryWindow;
+    /** What this agent run has already been given, keyed by file path. */
+    private final Map<String, ReadRecord> reads = new ConcurrentHashMap<>();
 
     public ReadFileToolExecutor(@NotNull Project project) {
+        this(project, null);
+    }
+
+    public ReadFileToolExecutor(@NotNull Project project, @Nullable SharedReadCache sharedReads) {
+        this(project, sharedReads, null);
+    }
+
+    /**
+     * @param memoryWindow the run's chat memory window; without one, earlier reads are assumed
+     *                     to stay in the conversation for the whole run
+     */
+    public ReadFileToolExecutor(@NotNull Project project, @Nullable SharedReadCache sharedReads,
+                                @Nullable ChatMemoryWindow memoryWindow) {
         this.project = project;
+        this.sharedReads = sharedReads;
+        this.memoryWindow = memoryWindow;
     }
 
     @Override
@@ -29,7 +110,8 @@ public class ReadFileToolExecutor implements ToolExecutor {
                 return "Error: 'path' parameter is required.";
             }
 
-            return ReadAccess.compute(() -> readFile(path));
+            ReadOptions options = ReadOptions.parse(request.arguments());
+            return ReadAccess.compute(() -> readFile(path, options));
         } catch (Exception e) {
             log.error("Error reading file", e);
             return "Error: Failed to read file - " + e.getMessage();
@@ -37,6 +119,10 @@ public class ReadFileToolExecutor implements ToolExecutor {
     }
 
     @NotNull String readFile(@NotNull String path) {
+        return readFile(path, ReadOptions.FULL);
+    }
+
+    @NotNull String readFile(@NotNull String path, @NotNull ReadOptions options) {
         try {
             VirtualFile projectBase = getProjectBaseDir();
             if (projectBase == null) {
@@ -56,15 +142,125 @@ public class ReadFileToolExecutor implements ToolExecutor {
                 return "Error: Path is a directory, not a file: " + path;
             }
 
-            byte[] content = file.contentsToByteArray();
-            return new String(content, StandardCharsets.UTF_8);
+            if (options.isLineRange() && options.endLine() > 0 && options.endLine() < options.startLine()) {
+                return "Error: end_line must not be before start_line.";
+            }
+
+            String view = options.view();
+            String key = file.getPath() != null ? file.getPath() : path;
+            if (!options.force() && alreadyRead(key, file, view)) {
+                return "[unchanged since last read: " + path + " (" + view + ") is already in this conversation. " +
+                        "Pass force=true to read it again.]";
+            }
+
+            String result = sharedReads != null
+                    ? sharedReads.get("read_file:" + key + "@" + file.getModificationStamp() + "#" + view,
+                            () -> read(file, path, options))
+                    : read(file, path, options);
+            if (result != null && !result.startsWith("Error:")) {
+                recordRead(key, file, view);
+            }
+            return result;
         } catch (Exception e) {
             log.error("Error reading file content", e);
             return "Error: Failed to read file - " + e.getMessage();
         }
     }
 
-    VirtualFile getProjectBaseDir() {
+    private @NotNull String read(@NotNull VirtualFile file, @NotNull String path, @NotNull ReadOptions options) {
+        try {
+            if (options.outline()) {
+                return outline(path);
+            }
+            if (options.isByteRange()) {
+                return readBytes(file, path, options.byteOffset(), options.byteLength());
+            }
+            if (options.isLineRange()) {
+                return readLines(file, path, options.startLine(), options.endLine());
+            }
+            return new String(file.contentsToByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Error reading file content", e);
+            return "Error: Failed to read file - " + e.getMessage();
+        }
+    }
+
+    /** Lines {@code startLine..endLine}, reading the file as a stream rather than all at once. */
+    private @NotNull String readLines(@NotNull VirtualFile file, @NotNull String path,
+                                      int startLine, int endLine) throws IOException {
+        int first = Math.max(1, startLine);
+        int last = endLine > 0 ? endLine : Integer.MAX_VALUE;
+        StringBuilder content = new StringBuilder();
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber >= first && lineNumber <= last) {
+                    content.append(line).append('\n');
+                }
+            }
+        }
+        if (first > lineNumber) {
+            return "Error: start_line " + first + " is past the end of " + path + " (" + lineNumber + " lines).";
+        }
+        int shownLast = Math.min(last, lineNumber);
+        return "[lines " + first + "-" + shownLast + " of " + lineNumber + " in " + path + "]\n" + content;
+    }
+
+    private @NotNull String readBytes(@NotNull VirtualFile file, @NotNull String path,
+                                      long offset, int length) throws IOException {
+        long size = file.getLength();
+        if (offset >= size && size > 0) {
+            return "Error: byte_offset " + offset + " is past the end of " + path + " (" + size + " bytes).";
+        }
+        int toRead = (int) Math.min(length > 0 ? length : Integer.MAX_VALUE, Math.max(0, size - offset));
+        byte[] buffer = new byte[toRead];
+        int read = 0;
+        try (InputStream in = file.getInputStream()) {
+            in.skipNBytes(offset);
+            while (read < toRead) {
+                int n = in.read(buffer, read, toRead - read);
+                if (n < 0) break;
+                read += n;
+            }
+        }
+        return "[bytes " + offset + "-" + (offset + read) + " of " + size + " in " + path + "]\n" +
+                new String(buffer, 0, read, StandardCharsets.UTF_8);
+    }
+
+    @NotNull String outline(@NotNull String path) {
+        return DocumentSymbolsToolExecutor.listSymbols(project, path);
+    }
+
+    private boolean alreadyRead(@NotNull String key, @NotNull VirtualFile file, @NotNull String view) {
+        ReadRecord record = reads.get(key);
+        if (record == null || record.modificationStamp() != file.getModificationStamp()) {
+            return false;
+        }
+        // A full read covers every line and byte range; the outline is a different view.
+        return stillInMemory(record.views().get(view))
+                || (!OUTLINE_VIEW.equals(view) && stillInMemory(record.views().get(FULL_VIEW)));
+    }
+
+    private boolean stillInMemory(@Nullable Integer toolCall) {
+        return toolCall != null && (memoryWindow == null || !memoryWindow.mayHaveEvicted(toolCall));
+    }
+
+    private void recordRead(@NotNull String key, @NotNull VirtualFile file, @NotNull String view) {
+        long stamp = file.getModificationStamp();
+        int toolCall = memoryWindow != null ? memoryWindow.toolCalls() : 0;
+        reads.compute(key, (k, record) -> {
+            ReadRecord current = record != null && record.modificationStamp() == stamp
+                    ? record
+                    : new ReadRecord(stamp, new ConcurrentHashMap<>());
+            current.views().put(view, toolCall);
+            return current;
+        });
+    }
+
+    @Nullable VirtualFile getProjectBaseDir() {
         return ProjectUtil.guessProjectDir(project);
     }
 
@@ -8,6 +8,7 @@ import dev.langchain4j.service.tool.ToolProvider;
 import dev.langchain4j.service.tool.ToolProviderRequest;
 import dev.langchain4j.service.tool.ToolProviderResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -15,25 +16,44 @@ import java.util.Map;
 /**
  * Provides read-only IDE tools for sub-agent exploration.
  * Only includes read_file, list_files, and search_files — no write or command tools.
+ * Sibling sub-agents pass the same {@link SharedReadCache} so identical reads run once.
  */
 public class ReadOnlyToolProvider implements ToolProvider {
 
     private final Map<ToolSpecification, ToolExecutor> tools;
 
     public ReadOnlyToolProvider(@NotNull Project project) {
+        this(project, null);
+    }
+
+    public ReadOnlyToolProvider(@NotNull Project project, @Nullable SharedReadCache sharedReads) {
+        this(project, sharedReads, null);
+    }
+
+    public ReadOnlyToolProvider(@NotNull Project project, @Nullable SharedReadCache sharedReads,
+                                @Nullable ChatMemoryWindow memoryWindow) {
         tools = new LinkedHashMap<>();
 
         // read_file
         tools.put(
                 ToolSpecification.builder()
                         .name("read_file")
-                        .description("Read the contents of a file in the project")
+                        .description("Read the contents of a file in the project. For large files, read an " +
+                                "outline first and then only the line range you need. Re-reading an unchanged " +
+                                "file returns a short note instead of the content.")
                         .parameters(JsonObjectSchema.builder()
                                 .addStringProperty("path", "File path relative to project root")
+                                .addIntegerProperty("start_line", "Optional: first line to read (1-based)")
+                                .addIntegerProperty("end_line", "Optional: last line to read (1-based, inclusive)")
+                                .addIntegerProperty("byte_offset", "Optional: read from this byte offset instead of by line")
+                                .addIntegerProperty("byte_length", "Optional: number of bytes to read from byte_offset")
+                                .addBooleanProperty("outline",
+                                        "Return the file's symbols (classes, methods, fields) with line numbers instead of its content")
+                                .addBooleanProperty("force", "Return the content even if it was already read unchanged")
                                 .required("path")
                                 .build())
                         .build(),
-                new ReadFileToolExecutor(project)
+                new ReadFileToolExecutor(project, sharedReads, memoryWindow)
         );
 
         // list_files
@@ -46,7 +66,7 @@ public class ReadOnlyToolProvider implements ToolProvider {
                                 .addBooleanProperty("recursive", "Whether to list files recursively (default: false)")
                                 .build())
                         .build(),
-                new ListFilesToolExecutor(project)
+                cached(sharedReads, "list_files", new ListFilesToolExecutor(project))
         );
 
         // search_files
@@ -61,10 +81,16 @@ public class ReadOnlyToolProvider implements ToolProvider {
                                 .required("pattern")
                                 .build())
                         .build(),
-                new SearchFilesToolExecutor(project)
+                cached(sharedReads, "search_files", new SearchFilesToolExecutor(project))
         );
     }
 
+    private static @NotNull ToolExecutor cached(@Nullable SharedReadCache sharedReads,
+                                                @NotNull String toolName,
+                                                @NotNull ToolExecutor executor) {
+        return sharedReads != null ? sharedReads.cached(toolName, executor) : executor;
+    }
+
     @Override
     public ToolProviderResult provideTools(ToolProviderRequest request) {
         ToolProviderResult.Builder builder = ToolProviderResult.builder();
@@ -1,5 +1,7 @@
 package com.devoxx.genie.service.agent.tool;
 
+import com.devoxx.genie.service.process.OutputBuffer;
+import com.devoxx.genie.service.process.ProcessRunner;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.SystemInfo;
@@ -9,12 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class RunCommandToolExecutor implements ToolExecutor {
@@ -83,16 +83,17 @@ public class RunCommandToolExecutor implements ToolExecutor {
 
             Process process = processStarter.start(effectiveCommand, workingDir);
 
-            String output = readProcessOutput(process);
-
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-            if (!finished) {
-                process.destroyForcibly();
-                return formatTimeoutError(output);
+            ProcessOutputPublisher liveOutput = ProcessOutputPublisher.create(project, "run_command");
+            ProcessRunner.Result result = ProcessRunner.run(process, Duration.ofSeconds(timeoutSeconds),
+                    new OutputBuffer(maxOutputLength), liveOutput);
+            if (liveOutput != null) {
+                liveOutput.flush();
             }
 
-            int exitCode = process.exitValue();
-            return formatResult(exitCode, output);
+            if (result.timedOut()) {
+                return formatTimeoutError(result.output());
+            }
+            return formatResult(result.exitCode(), result.output());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Command execution was interrupted", e);
@@ -135,7 +136,6 @@ public class RunCommandToolExecutor implements ToolExecutor {
 
         File dir = determineWorkingDirectory(workingDir);
         processBuilder.directory(dir);
-        processBuilder.redirectErrorStream(true);
 
         return processBuilder.start();
     }
@@ -166,26 +166,11 @@ public class RunCommandToolExecutor implements ToolExecutor {
         return new File(Objects.requireNonNull(project.getBasePath()));
     }
 
-    private String readProcessOutput(Process process) throws IOException {
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (output.length() < maxOutputLength) {
-                    output.append(line).append("\n");
-                }
-            }
-        }
-        return output.toString();
-    }
-
     private String formatTimeoutError(String output) {
-        return "Error: Command timed out after " + timeoutSeconds + " seconds.\nPartial output:\n" + truncate(output);
+        return "Error: Command timed out after " + timeoutSeconds + " seconds.\nPartial output:\n" + output;
     }
 
-    private String formatResult(int exitCode, String output) {
-        String result = truncate(output);
+    private String formatResult(int exitCode, String result) {
         if (exitCode == 0) {
             return result.isEmpty() ? "(command completed successfully with no output)" : result;
         } else {
@@ -196,13 +181,6 @@ public class RunCommandToolExecutor implements ToolExecutor {
         }
     }
 
-    private String truncate(String text) {
-        if (text.length() > maxOutputLength) {
-            return text.substring(0, maxOutputLength) + "\n... (output truncated)";
-        }
-        return text;
-    }
-
     @FunctionalInterface
     interface ProcessStarter {
         Process start(String command, String workingDir) throws IOException;
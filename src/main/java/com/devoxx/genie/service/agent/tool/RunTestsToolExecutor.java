@@ -1,6 +1,8 @@
 package com.devoxx.genie.service.agent.tool;
 
 import com.devoxx.genie.model.agent.TestResult;
+import com.devoxx.genie.service.process.OutputBuffer;
+import com.devoxx.genie.service.process.ProcessRunner;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.SystemInfo;
@@ -9,13 +11,11 @@ import dev.langchain4j.service.tool.ToolExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
 import static com.devoxx.genie.model.Constant.TEST_EXECUTION_DEFAULT_TIMEOUT;
 
@@ -48,20 +48,22 @@ public class RunTestsToolExecutor implements ToolExecutor {
             log.info("Running tests: {} (timeout: {}s, dir: {})", command, timeoutSeconds, dir);
 
             Process process = createProcess(command, dir);
-            String output = readProcessOutput(process);
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+            ProcessOutputPublisher liveOutput = ProcessOutputPublisher.create(project, "run_tests");
+            ProcessRunner.Result run = ProcessRunner.run(process, Duration.ofSeconds(timeoutSeconds),
+                    new OutputBuffer(MAX_OUTPUT_LENGTH), liveOutput);
+            if (liveOutput != null) {
+                liveOutput.flush();
+            }
 
-            if (!finished) {
-                process.destroyForcibly();
-                return formatTimeoutResult(output, timeoutSeconds);
+            if (run.timedOut()) {
+                return formatTimeoutResult(run.output(), timeoutSeconds);
             }
 
-            int exitCode = process.exitValue();
             BuildSystemDetector.BuildSystem buildSystem =
                     BuildSystemDetector.detect(dir.getAbsolutePath());
-            TestResult result = TestResultParser.parse(output, buildSystem, exitCode);
+            TestResult result = TestResultParser.parse(run.output(), buildSystem, run.exitCode());
 
-            return formatResult(result, output);
+            return formatResult(result, run.output());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Test execution was interrupted", e);
@@ -116,7 +118,6 @@ public class RunTestsToolExecutor implements ToolExecutor {
             processBuilder = new ProcessBuilder("/bin/bash", "-c", command);
         }
         processBuilder.directory(workingDir);
-        processBuilder.redirectErrorStream(true);
         return processBuilder.start();
     }
 
@@ -127,20 +128,6 @@ public class RunTestsToolExecutor implements ToolExecutor {
         return new File(Objects.requireNonNull(project.getBasePath()));
     }
 
-    String readProcessOutput(Process process) throws IOException {
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (output.length() < MAX_OUTPUT_LENGTH) {
-                    output.append(line).append("\n");
-                }
-            }
-        }
-        return output.toString();
-    }
-
     int getTimeout() {
         DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
         Integer timeout = state.getTestExecutionTimeoutSeconds();
@@ -1,32 +1,61 @@
 package com.devoxx.genie.service.agent.tool;
 
+import com.devoxx.genie.model.activity.ActivityMessage;
+import com.devoxx.genie.model.activity.ActivitySource;
+import com.devoxx.genie.model.agent.AgentType;
+import com.devoxx.genie.service.agent.tool.search.TrigramIndex;
+import com.devoxx.genie.service.agent.tool.search.TrigramIndexService;
+import com.devoxx.genie.service.agent.tool.search.TrigramQuery;
+import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
+import com.devoxx.genie.ui.topic.AppTopics;
 import com.devoxx.genie.util.ReadAccess;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.service.tool.ToolExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Regex search over project files. When the project's {@link TrigramIndexService} is
+ * available the search is planned against the trigram index and only candidate files are
+ * read (in parallel, outside the read action); otherwise, or for directories the index does
+ * not cover, the whole tree is walked as before.
+ */
 @Slf4j
 public class SearchFilesToolExecutor implements ToolExecutor {
 
     static final int MAX_RESULTS = 50;
     static final int MAX_LINE_LENGTH = 200;
-    static final Set<String> SKIP_DIRS = Set.of(
+    /** Candidate files verified concurrently before checking whether enough matches were found. */
+    static final int VERIFY_BATCH = 32;
+    public static final Set<String> SKIP_DIRS = Set.of(
             ".git", "node_modules", "build", "out", "target", ".idea", "bin", ".gradle"
     );
+    private static final Set<String> BINARY_EXTENSIONS = Set.of(
+            "jar", "class", "png", "jpg", "jpeg", "gif", "ico", "svg",
+            "zip", "gz", "tar", "bin", "exe", "dll", "so", "dylib",
+            "pdf", "woff", "woff2", "ttf", "eot");
 
     private final Project project;
 
@@ -54,6 +83,14 @@ public class SearchFilesToolExecutor implements ToolExecutor {
                     ? FileSystems.getDefault().getPathMatcher("glob:" + filePattern)
                     : null;
 
+            TrigramIndexService indexService = TrigramIndexService.getInstance(project);
+            if (indexService != null) {
+                String indexed = searchWithIndex(indexService, patternStr, path, regex, fileMatcher);
+                if (indexed != null) {
+                    return indexed;
+                }
+            }
+
             return ReadAccess.compute(() -> {
                 VirtualFile projectBase = getProjectBaseDir();
                 return searchFiles(patternStr, path, regex, fileMatcher, projectBase);
@@ -64,6 +101,178 @@ public class SearchFilesToolExecutor implements ToolExecutor {
         }
     }
 
+    /** Base and search directory paths for an indexed search, or an error message. */
+    record SearchScope(@Nullable String basePath, @Nullable String dirPath, @Nullable String error) {
+        static SearchScope error(@NotNull String message) {
+            return new SearchScope(null, null, message);
+        }
+    }
+
+    /** Matching lines of the verified candidates, plus how many files were read. */
+    record IndexedMatches(@NotNull String text, int count, int filesScanned) {}
+
+    /**
+     * @return the formatted result, or {@code null} if the index can't serve this search and
+     *         the tree walk should be used instead
+     */
+    private @Nullable String searchWithIndex(@NotNull TrigramIndexService indexService,
+                                             String patternStr, String path,
+                                             Pattern regex, PathMatcher fileMatcher) {
+        long start = System.nanoTime();
+        SearchScope scope = ReadAccess.compute(() -> resolveScope(path, getProjectBaseDir()));
+        if (scope == null) {
+            return null;
+        }
+        if (scope.error() != null) {
+            return scope.error();
+        }
+
+        TrigramIndex index = indexService.upToDate(scope.basePath());
+        List<String> candidates = filterCandidates(
+                index.candidates(TrigramQuery.plan(patternStr)), scope, fileMatcher);
+        IndexedMatches matches = verifyCandidates(candidates, scope.basePath(), regex,
+                AppExecutorUtil.getAppExecutorService());
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        publishStats(String.format("'%s': %d matches, %d of %d indexed files read in %d ms",
+                patternStr, matches.count(), matches.filesScanned(), index.size(), elapsedMs));
+
+        StringBuilder result = new StringBuilder();
+        if (matches.count() == 0) {
+            result.append("No matches found for pattern: ").append(patternStr);
+        } else {
+            result.append(matches.text());
+            if (matches.count() >= MAX_RESULTS) {
+                result.append("\n... (truncated, showing first ").append(MAX_RESULTS).append(" results)");
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Report how an indexed search went to the Activity Logs panel as
+     * {@link AgentType#TOOL_OUTPUT}, keeping it out of the result the model sees.
+     */
+    private void publishStats(@NotNull String text) {
+        try {
+            if (project.isDisposed()
+                    || !Boolean.TRUE.equals(DevoxxGenieStateService.getInstance().getAgentDebugLogsEnabled())) {
+                return;
+            }
+            ActivityMessage message = ActivityMessage.builder()
+                    .source(ActivitySource.AGENT)
+                    .agentType(AgentType.TOOL_OUTPUT)
+                    .toolName("search_files")
+                    .result(text)
+                    .projectLocationHash(project.getLocationHash())
+                    .build();
+            ApplicationManager.getApplication().getMessageBus()
+                    .syncPublisher(AppTopics.ACTIVITY_LOG_MSG)
+                    .onActivityMessage(message);
+        } catch (Exception e) {
+            log.debug("Failed to publish search_files stats", e);
+        }
+    }
+
+    /**
+     * @return {@code null} when the project is not on the local file system or the search
+     *         directory lies inside a skipped directory (neither is covered by the index)
+     */
+    @Nullable SearchScope resolveScope(String path, VirtualFile projectBase) {
+        if (projectBase == null) {
+            return SearchScope.error("Error: Project base directory not found.");
+        }
+        if (!projectBase.isInLocalFileSystem()) {
+            return null;
+        }
+        VirtualFile searchDir = resolveSearchDir(path, projectBase);
+        if (searchDir == null) {
+            return SearchScope.error("Error: Directory not found: " + (path != null ? path : "."));
+        }
+        if (!isAncestor(projectBase, searchDir)) {
+            return SearchScope.error("Error: Access denied - path is outside the project root.");
+        }
+        String basePath = projectBase.getPath();
+        String dirPath = searchDir.getPath();
+        if (dirPath.length() > basePath.length()) {
+            for (String segment : dirPath.substring(basePath.length() + 1).split("/")) {
+                if (SKIP_DIRS.contains(segment)) {
+                    return null;
+                }
+            }
+        }
+        return new SearchScope(basePath, dirPath, null);
+    }
+
+    static @NotNull List<String> filterCandidates(@NotNull List<String> candidates,
+                                                  @NotNull SearchScope scope,
+                                                  @Nullable PathMatcher fileMatcher) {
+        String dirPrefix = scope.dirPath().equals(scope.basePath()) ? null : scope.dirPath() + "/";
+        List<String> inScope = new ArrayList<>(candidates.size());
+        for (String candidate : candidates) {
+            if (dirPrefix != null && !candidate.startsWith(dirPrefix)) continue;
+            if (fileMatcher != null
+                    && !fileMatcher.matches(Path.of(candidate.substring(candidate.lastIndexOf('/') + 1)))) continue;
+            inScope.add(candidate);
+        }
+        return inScope;
+    }
+
+    /**
+     * Verify candidates with the real regex, {@link #VERIFY_BATCH} files at a time on
+     * {@code executor}, keeping results in path order and stopping at {@link #MAX_RESULTS}.
+     */
+    static @NotNull IndexedMatches verifyCandidates(@NotNull List<String> candidates, @NotNull String basePath,
+                                                    @NotNull Pattern regex, @NotNull Executor executor) {
+        StringBuilder result = new StringBuilder();
+        int count = 0;
+        int scanned = 0;
+        for (int from = 0; from < candidates.size() && count < MAX_RESULTS; from += VERIFY_BATCH) {
+            List<CompletableFuture<List<String>>> batch = new ArrayList<>(VERIFY_BATCH);
+            for (String candidate : candidates.subList(from, Math.min(candidates.size(), from + VERIFY_BATCH))) {
+                batch.add(CompletableFuture.supplyAsync(() -> matchLines(candidate, basePath, regex), executor));
+            }
+            scanned += batch.size();
+            for (CompletableFuture<List<String>> future : batch) {
+                for (String line : future.join()) {
+                    if (count >= MAX_RESULTS) break;
+                    result.append(line).append("\n");
+                    count++;
+                }
+            }
+        }
+        return new IndexedMatches(result.toString(), count, scanned);
+    }
+
+    private static @NotNull List<String> matchLines(@NotNull String filePath, @NotNull String basePath,
+                                                    @NotNull Pattern regex) {
+        List<String> lines = new ArrayList<>();
+        String relativePath = filePath.startsWith(basePath + "/")
+                ? filePath.substring(basePath.length() + 1)
+                : filePath;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(Path.of(filePath)), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null && lines.size() < MAX_RESULTS) {
+                lineNumber++;
+                if (regex.matcher(line).find()) {
+                    lines.add(relativePath + ":" + lineNumber + ": " + displayLine(line));
+                }
+            }
+        } catch (Exception e) {
+            // Skip files that can't be read
+        }
+        return lines;
+    }
+
+    private static @NotNull String displayLine(@NotNull String line) {
+        String displayLine = line.length() > MAX_LINE_LENGTH
+                ? line.substring(0, MAX_LINE_LENGTH) + "..."
+                : line;
+        return displayLine.trim();
+    }
+
     VirtualFile getProjectBaseDir() {
         return ProjectUtil.guessProjectDir(project);
     }
@@ -147,11 +356,8 @@ public class SearchFilesToolExecutor implements ToolExecutor {
 
                 Matcher matcher = regex.matcher(line);
                 if (matcher.find()) {
-                    String displayLine = line.length() > MAX_LINE_LENGTH
-                            ? line.substring(0, MAX_LINE_LENGTH) + "..."
-                            : line;
                     result.append(relativePath).append(":").append(lineNumber)
-                            .append(": ").append(displayLine.trim()).append("\n");
+                            .append(": ").append(displayLine(line)).append("\n");
                     count[0]++;
                 }
             }
@@ -171,8 +377,13 @@ public class SearchFilesToolExecutor implements ToolExecutor {
     static boolean isBinaryFile(@NotNull VirtualFile file) {
         String extension = file.getExtension();
         if (extension == null) return false;
-        return Set.of("jar", "class", "png", "jpg", "jpeg", "gif", "ico", "svg",
-                "zip", "gz", "tar", "bin", "exe", "dll", "so", "dylib",
-                "pdf", "woff", "woff2", "ttf", "eot").contains(extension.toLowerCase());
+        return BINARY_EXTENSIONS.contains(extension.toLowerCase());
+    }
+
+    /** Same check as {@link #isBinaryFile(VirtualFile)}, by file name. */
+    public static boolean isBinaryFileName(@NotNull String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) return false;
+        return BINARY_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
     }
 }
@@ -0,0 +1,59 @@
+package com.devoxx.genie.service.agent.tool;
+
+import dev.langchain4j.service.tool.ToolExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Read-only tool results shared by sibling sub-agents of one {@code parallel_explore} call.
+ *
+ * <p>Explorers launched over the same module tend to list the same directories, run the same
+ * searches and read the same files. The first sibling does the work; the others — including
+ * those asking at the same moment — get its result. Error results are not kept. File content
+ * is keyed by modification stamp (see {@link ReadFileToolExecutor}), listings and searches by
+ * their arguments, which is safe because the parent agent waits while its sub-agents run.
+ */
+public class SharedReadCache {
+
+    private final Map<String, CompletableFuture<String>> results = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /** Wrap {@code delegate} so identical calls of {@code toolName} are executed once. */
+    public @NotNull ToolExecutor cached(@NotNull String toolName, @NotNull ToolExecutor delegate) {
+        return (request, memoryId) ->
+                get(toolName + ":" + request.arguments().strip(), () -> delegate.execute(request, memoryId));
+    }
+
+    /** Cached value of {@code key}, computing it once even under concurrent requests. */
+    @Nullable String get(@NotNull String key, @NotNull Supplier<String> loader) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = results.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing.join();
+        }
+        try {
+            String value = loader.get();
+            created.complete(value);
+            if (value == null || value.startsWith("Error")) {
+                results.remove(key, created);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            results.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Number of calls answered from the cache, for logging. */
+    public int hits() {
+        return hits.get();
+    }
+}
@@ -37,14 +37,18 @@ public class DocumentSymbolsToolExecutor implements ToolExecutor {
                 return "Error: 'file' parameter is required.";
             }
 
-            return ReadAccess.compute(() -> listSymbols(path));
+            return ReadAccess.compute(() -> listSymbols(project, path));
         } catch (Exception e) {
             log.error("Error listing document symbols", e);
             return "Error: Failed to list symbols - " + e.getMessage();
         }
     }
 
-    private @NotNull String listSymbols(String path) {
+    /**
+     * Symbol skeleton of a file; also used by {@code read_file} in outline mode.
+     * Must be called inside a read action.
+     */
+    public static @NotNull String listSymbols(@NotNull Project project, @NotNull String path) {
         PsiFile psiFile = PsiToolUtils.resolvePsiFile(project, path);
         if (psiFile == null) {
             return "Error: File not found or cannot be parsed: " + path;
@@ -68,7 +72,7 @@ public class DocumentSymbolsToolExecutor implements ToolExecutor {
         return sb.toString();
     }
 
-    private void collectSymbols(@NotNull PsiElement element, @NotNull List<String> results, int depth) {
+    private static void collectSymbols(@NotNull PsiElement element, @NotNull List<String> results, int depth) {
         if (results.size() >= MAX_SYMBOLS) return;
 
         if (element instanceof PsiNameIdentifierOwner owner && owner.getName() != null) {
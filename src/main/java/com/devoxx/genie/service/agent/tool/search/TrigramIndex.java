@@ -0,0 +1,384 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over the text files of a project: for every three-character
+ * sequence, the sorted list of files containing it. A {@link TrigramQuery} derived from a
+ * search regex is answered by intersecting posting lists, which narrows a search to the
+ * handful of files that can possibly match; those are then verified with the real regex.
+ *
+ * <p>Trigrams are folded to ASCII lower case, matching the {@code CASE_INSENSITIVE} (ASCII
+ * only) matching of {@code search_files}, and hashed to an {@code int}. A hash collision
+ * can only add a file to the candidate set, never drop one, so the result is always a
+ * superset of the files that match.
+ *
+ * <p>Files too large to index (or that could not be read) are recorded as unindexed and
+ * returned as candidates for every query. A changed file gets a new id and its old id is
+ * tombstoned; tombstones are dropped when the index is written by {@link #flush()}
+ * (tmp + atomic move, like the lexical index).
+ */
+@Slf4j
+public class TrigramIndex {
+
+    public static final int MAX_INDEXED_FILE_BYTES = 1024 * 1024;
+
+    private static final int MAGIC = 0x44475431; // "DGT1"
+
+    private final @Nullable Path storagePath;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Indexed by file id; {@code null} marks a removed or replaced file. */
+    private final List<FileRecord> files = new ArrayList<>();
+    private final Map<String, Integer> idsByPath = new HashMap<>();
+    private final Map<Integer, Postings> postings = new HashMap<>();
+    private final BitSet unindexed = new BitSet();
+    private int liveFiles;
+    private boolean dirty;
+
+    /** Stamps used to decide whether a file must be re-read. */
+    public record FileRecord(@NotNull String path, long timeStamp, long length) {}
+
+    public TrigramIndex(@Nullable Path storagePath) {
+        this.storagePath = storagePath;
+        if (storagePath != null) {
+            loadFromDisk();
+        }
+    }
+
+    /** True if {@code path} is indexed with exactly these stamps. */
+    public boolean isCurrent(@NotNull String path, long timeStamp, long length) {
+        lock.readLock().lock();
+        try {
+            Integer id = idsByPath.get(path);
+            if (id == null) return false;
+            FileRecord record = files.get(id);
+            return record.timeStamp() == timeStamp && record.length() == length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index (or re-index) one file.
+     *
+     * @param content file text, or {@code null} if it is too large or unreadable — the file
+     *                is then a candidate for every query
+     */
+    public void update(@NotNull String path, long timeStamp, long length, @Nullable CharSequence content) {
+        int[] trigrams = content == null ? null : trigrams(content);
+        lock.writeLock().lock();
+        try {
+            removeLocked(path);
+            int id = files.size();
+            files.add(new FileRecord(path, timeStamp, length));
+            idsByPath.put(path, id);
+            liveFiles++;
+            dirty = true;
+            if (trigrams == null) {
+                unindexed.set(id);
+                return;
+            }
+            for (int trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(@NotNull String path) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Remove {@code path} and, if it was a directory, every file below it. */
+    public void removeTree(@NotNull String path) {
+        String prefix = path.endsWith("/") ? path : path + "/";
+        lock.writeLock().lock();
+        try {
+            removeLocked(path);
+            for (String indexed : new ArrayList<>(idsByPath.keySet())) {
+                if (indexed.startsWith(prefix)) {
+                    removeLocked(indexed);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public @NotNull Set<String> paths() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(idsByPath.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveFiles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Files that may contain a match for {@code query}, sorted by path.
+     *
+     * @param query {@code null} when the pattern gives no usable trigrams: every file is returned
+     */
+    public @NotNull List<String> candidates(@Nullable TrigramQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet ids = new BitSet(files.size());
+            if (query == null) {
+                for (int id = 0; id < files.size(); id++) {
+                    if (files.get(id) != null) ids.set(id);
+                }
+            } else {
+                for (int[] conjunction : query.alternatives()) {
+                    ids.or(intersectLocked(conjunction));
+                }
+                ids.or(unindexed);
+            }
+            List<String> paths = new ArrayList<>(ids.cardinality());
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                FileRecord record = files.get(id);
+                if (record != null) paths.add(record.path());
+            }
+            paths.sort(null);
+            return paths;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distinct hashed trigrams of {@code text}, skipping any that span a line break
+     * (search_files matches line by line, so such trigrams can never be required).
+     */
+    public static int @NotNull [] trigrams(@NotNull CharSequence text) {
+        Set<Integer> seen = new HashSet<>();
+        int n = text.length();
+        for (int i = 0; i + 2 < n; i++) {
+            char c0 = text.charAt(i);
+            char c1 = text.charAt(i + 1);
+            char c2 = text.charAt(i + 2);
+            if (isLineBreak(c0) || isLineBreak(c1) || isLineBreak(c2)) continue;
+            seen.add(trigram(c0, c1, c2));
+        }
+        int[] result = new int[seen.size()];
+        int i = 0;
+        for (int trigram : seen) {
+            result[i++] = trigram;
+        }
+        return result;
+    }
+
+    static int trigram(char c0, char c1, char c2) {
+        c0 = fold(c0);
+        c1 = fold(c1);
+        c2 = fold(c2);
+        if (c0 < 1024 && c1 < 1024 && c2 < 1024) {
+            return c0 << 20 | c1 << 10 | c2;
+        }
+        int h = c0 * 0x9E3779B1;
+        h = (h ^ c1) * 0x85EBCA6B;
+        h = (h ^ c2) * 0xC2B2AE35;
+        return 0x40000000 | (h & 0x3FFFFFFF);
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    public void flush() {
+        if (storagePath == null) return;
+        lock.writeLock().lock();
+        try {
+            if (!dirty) return;
+            compactLocked();
+            Files.createDirectories(storagePath.getParent());
+            Path tmp = storagePath.resolveSibling(storagePath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(files.size());
+                for (int id = 0; id < files.size(); id++) {
+                    FileRecord record = files.get(id);
+                    out.writeUTF(record.path());
+                    out.writeLong(record.timeStamp());
+                    out.writeLong(record.length());
+                    out.writeBoolean(unindexed.get(id));
+                }
+                out.writeInt(postings.size());
+                for (Map.Entry<Integer, Postings> entry : postings.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    Postings list = entry.getValue();
+                    out.writeInt(list.size);
+                    for (int i = 0; i < list.size; i++) {
+                        out.writeInt(list.ids[i]);
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to flush trigram index to {}: {}", storagePath, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Live ids containing every trigram of {@code conjunction}. */
+    private @NotNull BitSet intersectLocked(int @NotNull [] conjunction) {
+        BitSet result = new BitSet();
+        if (conjunction.length == 0) return result;
+        Postings[] lists = new Postings[conjunction.length];
+        for (int i = 0; i < conjunction.length; i++) {
+            lists[i] = postings.get(conjunction[i]);
+            if (lists[i] == null) return result;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        Postings smallest = lists[0];
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            if (files.get(id) == null) continue;
+            for (int l = 1; l < lists.length; l++) {
+                if (!lists[l].contains(id)) continue outer;
+            }
+            result.set(id);
+        }
+        return result;
+    }
+
+    private void removeLocked(@NotNull String path) {
+        Integer id = idsByPath.remove(path);
+        if (id == null) return;
+        files.set(id, null);
+        unindexed.clear(id);
+        liveFiles--;
+        dirty = true;
+    }
+
+    /** Drop tombstoned files and renumber the survivors densely. */
+    private void compactLocked() {
+        if (liveFiles == files.size()) return;
+        int[] remap = new int[files.size()];
+        List<FileRecord> live = new ArrayList<>(liveFiles);
+        BitSet liveUnindexed = new BitSet();
+        for (int id = 0; id < files.size(); id++) {
+            FileRecord record = files.get(id);
+            remap[id] = record == null ? -1 : live.size();
+            if (record == null) continue;
+            if (unindexed.get(id)) liveUnindexed.set(live.size());
+            live.add(record);
+        }
+        files.clear();
+        files.addAll(live);
+        unindexed.clear();
+        unindexed.or(liveUnindexed);
+        idsByPath.replaceAll((path, id) -> remap[id]);
+        postings.values().forEach(list -> list.remap(remap));
+        postings.values().removeIf(list -> list.size == 0);
+    }
+
+    private void loadFromDisk() {
+        if (!Files.exists(storagePath)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storagePath)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Unrecognised trigram index format in {}; starting empty", storagePath);
+                return;
+            }
+            int fileCount = in.readInt();
+            for (int id = 0; id < fileCount; id++) {
+                FileRecord record = new FileRecord(in.readUTF(), in.readLong(), in.readLong());
+                if (in.readBoolean()) unindexed.set(id);
+                files.add(record);
+                idsByPath.put(record.path(), id);
+            }
+            liveFiles = fileCount;
+            int trigramCount = in.readInt();
+            for (int t = 0; t < trigramCount; t++) {
+                int trigram = in.readInt();
+                int size = in.readInt();
+                Postings list = new Postings();
+                for (int i = 0; i < size; i++) {
+                    list.add(in.readInt());
+                }
+                postings.put(trigram, list);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load trigram index from {}; starting empty: {}", storagePath, e.getMessage());
+            files.clear();
+            idsByPath.clear();
+            postings.clear();
+            unindexed.clear();
+            liveFiles = 0;
+        }
+    }
+
+    /** Growable sorted int array of file ids (ids are only ever appended in increasing order). */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void remap(int @NotNull [] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[ids[i]];
+                if (mapped >= 0) ids[kept++] = mapped;
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import com.devoxx.genie.service.agent.tool.SearchFilesToolExecutor;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a {@link TrigramIndex} of the project tree current for {@code search_files}.
+ *
+ * <p>The first search of a session reconciles the persisted index with the tree on disk:
+ * only files whose timestamp or length changed are re-read. After that, VFS events under the
+ * project root (outside {@link SearchFilesToolExecutor#SKIP_DIRS}) mark changed, created,
+ * moved, renamed and deleted paths dirty and the next search re-indexes just those paths, so
+ * steady-state searches cost a posting-list intersection plus reading the candidate files.
+ * The index lives under {@code {systemPath}/DevoxxGenie/} next to the other per-project
+ * indexes; it is written {@link #FLUSH_DELAY_MS} after a search changed it and on dispose,
+ * never by the search itself.
+ */
+@Slf4j
+@Service(Service.Level.PROJECT)
+public final class TrigramIndexService implements Disposable {
+
+    /** How long after a search changed the index it is written to disk. */
+    static final long FLUSH_DELAY_MS = 30_000;
+
+    private final TrigramIndex index;
+    /** Dirty path to whether it was a directory, so only directory removals scan for children. */
+    private final Map<String, Boolean> dirtyPaths = new ConcurrentHashMap<>();
+    private final @Nullable ScheduledExecutorService flushScheduler;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    /** Set by the first search; events before it are covered by the reconcile. */
+    private volatile @Nullable String reconciledRoot;
+
+    public TrigramIndexService(@NotNull Project project) {
+        this(new TrigramIndex(indexPath(project.getLocationHash())), AppExecutorUtil.getAppScheduledExecutorService());
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+                handleEvents(events);
+            }
+        });
+    }
+
+    /**
+     * Visible for tests; no VFS subscription.
+     *
+     * @param flushScheduler runs the delayed flush, or {@code null} to only flush on dispose
+     */
+    TrigramIndexService(@NotNull TrigramIndex index, @Nullable ScheduledExecutorService flushScheduler) {
+        this.index = index;
+        this.flushScheduler = flushScheduler;
+    }
+
+    public static @Nullable TrigramIndexService getInstance(@NotNull Project project) {
+        return project.getService(TrigramIndexService.class);
+    }
+
+    public static Path indexPath(@NotNull String projectLocationHash) {
+        return Paths.get(PathManager.getSystemPath(), "DevoxxGenie",
+                "trigram-index-" + projectLocationHash + ".bin");
+    }
+
+    /**
+     * Bring the index in line with the files under {@code root} and return it. Concurrent
+     * callers (e.g. parallel sub-agents) wait for a single update rather than repeating it.
+     *
+     * @param root project base directory, with {@code /} separators
+     */
+    public synchronized @NotNull TrigramIndex upToDate(@NotNull String root) {
+        if (!root.equals(reconciledRoot)) {
+            dirtyPaths.clear();
+            reconcile(root);
+            reconciledRoot = root;
+        } else if (!dirtyPaths.isEmpty()) {
+            for (String path : new ArrayList<>(dirtyPaths.keySet())) {
+                Boolean directory = dirtyPaths.remove(path);
+                if (directory != null) {
+                    refresh(path, directory, root);
+                }
+            }
+        }
+        scheduleFlush();
+        return index;
+    }
+
+    /** Visible for tests. */
+    void handleEvents(@NotNull List<? extends VFileEvent> events) {
+        String root = reconciledRoot;
+        if (root == null) {
+            return;
+        }
+        for (VFileEvent event : events) {
+            boolean directory = isDirectory(event);
+            if (event instanceof VFileMoveEvent move) {
+                markDirty(move.getOldPath(), directory, root);
+                markDirty(move.getNewPath(), directory, root);
+            } else if (event instanceof VFilePropertyChangeEvent property) {
+                if (property.isRename()) {
+                    markDirty(property.getOldPath(), directory, root);
+                    markDirty(property.getNewPath(), directory, root);
+                }
+            } else {
+                // Content change, create, copy and delete: the event path is the affected file.
+                markDirty(event.getPath(), directory, root);
+            }
+        }
+    }
+
+    private void markDirty(@NotNull String path, boolean directory, @NotNull String root) {
+        if (path.startsWith(root + "/") && !isSkipped(path, root)) {
+            dirtyPaths.merge(path, directory, Boolean::logicalOr);
+        }
+    }
+
+    private static boolean isDirectory(@NotNull VFileEvent event) {
+        if (event instanceof VFileCreateEvent create) {
+            return create.isDirectory();
+        }
+        VirtualFile file = event.getFile();
+        return file != null && file.isDirectory();
+    }
+
+    /** Writes the index once, {@link #FLUSH_DELAY_MS} after the first search that may have changed it. */
+    private void scheduleFlush() {
+        if (flushScheduler != null && flushScheduled.compareAndSet(false, true)) {
+            flushScheduler.schedule(() -> {
+                flushScheduled.set(false);
+                index.flush();
+            }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconcile(@NotNull String root) {
+        long start = System.nanoTime();
+        Set<String> seen = new HashSet<>();
+        int[] reindexed = {0};
+        walk(Paths.get(root), root, (file, attrs) -> {
+            String path = normalize(file);
+            seen.add(path);
+            if (!index.isCurrent(path, attrs.lastModifiedTime().toMillis(), attrs.size())) {
+                indexFile(file, path, attrs);
+                reindexed[0]++;
+            }
+        });
+        for (String path : index.paths()) {
+            if (!seen.contains(path)) index.remove(path);
+        }
+        log.debug("Trigram index reconciled: {} files, {} re-indexed in {} ms",
+                seen.size(), reindexed[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-index one dirty path: a file, a new or moved directory, or something now gone.
+     *
+     * @param directory whether the event was about a directory, whose indexed children go with it
+     */
+    private void refresh(@NotNull String path, boolean directory, @NotNull String root) {
+        Path file = Paths.get(path);
+        if (!Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+            if (directory) {
+                index.removeTree(path);
+            } else {
+                index.remove(path);
+            }
+            return;
+        }
+        if (Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS)) {
+            walk(file, root, (child, attrs) -> {
+                String childPath = normalize(child);
+                if (!index.isCurrent(childPath, attrs.lastModifiedTime().toMillis(), attrs.size())) {
+                    indexFile(child, childPath, attrs);
+                }
+            });
+            return;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attrs.isRegularFile() && !SearchFilesToolExecutor.isBinaryFileName(file.getFileName().toString())) {
+                indexFile(file, path, attrs);
+            } else {
+                index.remove(path);
+            }
+        } catch (IOException e) {
+            index.remove(path);
+        }
+    }
+
+    private void indexFile(@NotNull Path file, @NotNull String path, @NotNull BasicFileAttributes attrs) {
+        String content = null;
+        if (attrs.size() <= TrigramIndex.MAX_INDEXED_FILE_BYTES) {
+            try {
+                content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                log.debug("Could not read {} for trigram index: {}", path, e.getMessage());
+            }
+        }
+        index.update(path, attrs.lastModifiedTime().toMillis(), attrs.size(), content);
+    }
+
+    private interface FileVisitor {
+        void visit(@NotNull Path file, @NotNull BasicFileAttributes attrs);
+    }
+
+    /** Walk regular, non-binary files below {@code start}, skipping {@link SearchFilesToolExecutor#SKIP_DIRS}. */
+    private static void walk(@NotNull Path start, @NotNull String root, @NotNull FileVisitor visitor) {
+        Path rootPath = Paths.get(root);
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(rootPath) && SearchFilesToolExecutor.SKIP_DIRS.contains(String.valueOf(dir.getFileName()))
+                            ? FileVisitResult.SKIP_SUBTREE
+                            : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && !SearchFilesToolExecutor.isBinaryFileName(file.getFileName().toString())) {
+                        visitor.visit(file, attrs);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to walk {} for trigram index: {}", start, e.getMessage());
+        }
+    }
+
+    /** True if any directory between {@code root} and {@code path} is one search_files skips. */
+    private static boolean isSkipped(@NotNull String path, @NotNull String root) {
+        String relative = path.length() > root.length() ? path.substring(root.length() + 1) : "";
+        String[] segments = relative.split("/");
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (SearchFilesToolExecutor.SKIP_DIRS.contains(segments[i])) return true;
+        }
+        return false;
+    }
+
+    private static @NotNull String normalize(@NotNull Path file) {
+        return file.toString().replace(File.separatorChar, '/');
+    }
+
+    @Override
+    public void dispose() {
+        index.flush();
+    }
+}
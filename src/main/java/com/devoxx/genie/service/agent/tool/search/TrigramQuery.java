@@ -0,0 +1,237 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram pre-filter for a {@code search_files} regex: a file can only match if, for at least
+ * one alternative, it contains every trigram of that alternative.
+ *
+ * <p>{@link #plan(String)} extracts the literal runs a match must contain. The extraction is
+ * deliberately conservative — groups, character classes, escapes such as {@code \w} and
+ * optional characters end a literal run instead of being analysed — so the plan may be
+ * weaker than possible but never excludes a file that matches. Top-level {@code |} yields
+ * one alternative per branch; if any branch has no literal of three or more characters the
+ * regex cannot be narrowed and the plan is {@code null}.
+ */
+public record TrigramQuery(@NotNull List<int[]> alternatives) {
+
+    private static final int MIN_LITERAL = 3;
+    private static final Pattern INLINE_FLAGS = Pattern.compile("\\(\\?([a-zA-Z-]*)[:)]");
+
+    /** @return the plan, or {@code null} when every file must be scanned */
+    public static @Nullable TrigramQuery plan(@NotNull String regex) {
+        if (usesCommentsMode(regex)) return null;
+        List<int[]> alternatives = new ArrayList<>();
+        for (String branch : splitTopLevel(regex)) {
+            List<String> literals = requiredLiterals(branch);
+            if (literals.isEmpty()) return null;
+            List<Integer> trigrams = new ArrayList<>();
+            for (String literal : literals) {
+                for (int trigram : TrigramIndex.trigrams(literal)) {
+                    if (!trigrams.contains(trigram)) trigrams.add(trigram);
+                }
+            }
+            alternatives.add(trigrams.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return alternatives.isEmpty() ? null : new TrigramQuery(alternatives);
+    }
+
+    /** Literal runs (three or more characters) every match of {@code branch} must contain. */
+    static @NotNull List<String> requiredLiterals(@NotNull String branch) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        boolean lastWasLiteral = false;
+        int i = 0;
+        int n = branch.length();
+        while (i < n) {
+            char c = branch.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 >= n) {
+                        i++;
+                        break;
+                    }
+                    char next = branch.charAt(i + 1);
+                    if (next == 'Q') {
+                        int end = branch.indexOf("\\E", i + 2);
+                        String quoted = end < 0 ? branch.substring(i + 2) : branch.substring(i + 2, end);
+                        run.append(quoted);
+                        lastWasLiteral = !quoted.isEmpty();
+                        i = end < 0 ? n : end + 2;
+                    } else if (Character.isLetterOrDigit(next)) {
+                        // \d, \w, \b, \p{..}, back-references, \t, \x41, ...: not analysed.
+                        endRun(run, literals);
+                        lastWasLiteral = false;
+                        i += 2;
+                        if ((next == 'p' || next == 'P' || next == 'x' || next == 'N') && i < n && branch.charAt(i) == '{') {
+                            int close = branch.indexOf('}', i);
+                            i = close < 0 ? n : close + 1;
+                        }
+                    } else {
+                        run.append(next);
+                        lastWasLiteral = true;
+                        i += 2;
+                    }
+                }
+                case '[' -> {
+                    endRun(run, literals);
+                    lastWasLiteral = false;
+                    i = skipCharClass(branch, i);
+                }
+                case '(' -> {
+                    endRun(run, literals);
+                    lastWasLiteral = false;
+                    i = skipGroup(branch, i);
+                }
+                case '?', '*', '{' -> {
+                    // The preceding character is optional (or its count is unknown).
+                    if (lastWasLiteral && run.length() > 0) {
+                        run.setLength(run.length() - 1);
+                    }
+                    endRun(run, literals);
+                    lastWasLiteral = false;
+                    if (c == '{') {
+                        int close = branch.indexOf('}', i);
+                        i = close < 0 ? n : close + 1;
+                    } else {
+                        i++;
+                    }
+                    i = skipQuantifierModifier(branch, i);
+                }
+                case '+' -> {
+                    // The preceding character occurs at least once; what follows is not adjacent.
+                    endRun(run, literals);
+                    lastWasLiteral = false;
+                    i = skipQuantifierModifier(branch, i + 1);
+                }
+                case '.', '^', '$', ')', ']' -> {
+                    endRun(run, literals);
+                    lastWasLiteral = false;
+                    i++;
+                }
+                default -> {
+                    run.append(c);
+                    lastWasLiteral = true;
+                    i++;
+                }
+            }
+        }
+        endRun(run, literals);
+        return literals;
+    }
+
+    /** Split on {@code |} that is not escaped, quoted, inside a group or inside a class. */
+    static @NotNull List<String> splitTopLevel(@NotNull String regex) {
+        List<String> branches = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharClass(regex, i);
+                continue;
+            }
+            if (c == '(') depth++;
+            else if (c == ')') depth = Math.max(0, depth - 1);
+            else if (c == '|' && depth == 0) {
+                branches.add(regex.substring(start, i));
+                start = i + 1;
+            }
+            i++;
+        }
+        branches.add(regex.substring(start));
+        return branches;
+    }
+
+    private static void endRun(@NotNull StringBuilder run, @NotNull List<String> literals) {
+        if (run.length() >= MIN_LITERAL) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    /** @return index just past the class starting at {@code open}, honouring nesting and escapes */
+    private static int skipCharClass(@NotNull String regex, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // A ']' directly after '[' or '[^' is a literal member.
+                int member = i + 1;
+                if (member < regex.length() && regex.charAt(member) == '^') member++;
+                if (member < regex.length() && regex.charAt(member) == ']') {
+                    i = member + 1;
+                    continue;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+
+    /** @return index just past the group starting at {@code open} */
+    private static int skipGroup(@NotNull String regex, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else {
+                    i += 2;
+                }
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharClass(regex, i);
+                continue;
+            }
+            if (c == '(') depth++;
+            else if (c == ')' && --depth == 0) return i + 1;
+            i++;
+        }
+        return regex.length();
+    }
+
+    private static int skipQuantifierModifier(@NotNull String regex, int i) {
+        return i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+') ? i + 1 : i;
+    }
+
+    /** In {@code (?x)} mode whitespace and {@code #} comments are not literal, so don't plan. */
+    private static boolean usesCommentsMode(@NotNull String regex) {
+        Matcher matcher = INLINE_FLAGS.matcher(regex);
+        while (matcher.find()) {
+            String flags = matcher.group(1);
+            int minus = flags.indexOf('-');
+            String enabled = minus < 0 ? flags : flags.substring(0, minus);
+            if (enabled.indexOf('x') >= 0) return true;
+        }
+        return false;
+    }
+}
@@ -1,7 +1,11 @@
 package com.devoxx.genie.service.chromadb;
 
+import com.devoxx.genie.service.rag.manifest.IndexManifest;
+import com.devoxx.genie.service.rag.manifest.IndexManifestService;
+import com.devoxx.genie.service.rag.store.LocalEmbeddingStore;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.project.Project;
 import dev.langchain4j.data.segment.TextSegment;
@@ -15,6 +19,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Slf4j
 @Service
 public final class ChromaEmbeddingService {
@@ -25,6 +35,12 @@ public final class ChromaEmbeddingService {
 
     private EmbeddingStore<TextSegment> embeddingStore;
 
+    /** In-process stores, one per {@code project.getLocationHash()}, loaded on first use. */
+    private final ConcurrentMap<String, LocalEmbeddingStore> localStores = new ConcurrentHashMap<>();
+
+    /** Bumped on every write to any vector store; search result caches key on it. */
+    private final AtomicLong storeGeneration = new AtomicLong();
+
     /**
      * Test-only override for the embedding model. When non-null, {@link #getEmbeddingModel()}
      * returns this instead of building a new {@link OllamaEmbeddingModel}.
@@ -42,7 +58,16 @@ public final class ChromaEmbeddingService {
         return ApplicationManager.getApplication().getService(ChromaEmbeddingService.class);
     }
 
+    /**
+     * Selects the vector store for {@code project}. When the embedded backend is enabled in
+     * the RAG settings this is the per-project {@link LocalEmbeddingStore} (no Docker, no
+     * HTTP); otherwise a {@link ChromaEmbeddingStore} talking to the local Chroma container.
+     */
     public void init(Project project) {
+        if (isEmbeddedStoreSelected()) {
+            this.embeddingStore = localStore(project);
+            return;
+        }
         String url = "http://localhost:" + stateService.getIndexerPort();
         try {
             this.embeddingStore = ChromaEmbeddingStore.builder()
@@ -52,7 +77,7 @@ public final class ChromaEmbeddingService {
                     .baseUrl(url)
                     .logRequests(true)
                     .logResponses(true)
-                    .collectionName(getCollectionName(project))
+                    .collectionName(collectionName(project))
                     .build();
         } catch (Exception e) {
             log.error("Failed to initialize ChromaDB via {}: {}", url, e.getMessage());
@@ -69,7 +94,90 @@ public final class ChromaEmbeddingService {
         this.embeddingStore = embeddingStore;
     }
 
-    private @NotNull String getCollectionName(@NotNull Project project) {
+    /**
+     * Persist the active store if it is the embedded one. Chroma writes are durable on the
+     * server side, so this is a no-op for the Docker backend.
+     */
+    public void flush() {
+        if (embeddingStore instanceof LocalEmbeddingStore localStore) {
+            localStore.flush();
+        }
+    }
+
+    /** True when the RAG settings select the in-process store instead of ChromaDB. */
+    public boolean isEmbeddedStoreSelected() {
+        return Boolean.TRUE.equals(stateService.getRagEmbeddedVectorStoreEnabled());
+    }
+
+    /**
+     * The in-process store for {@code project}, loaded from disk on first use. When its file
+     * could not be loaded, the project's index manifest is invalidated so the next index run
+     * rebuilds everything instead of skipping files the store no longer has.
+     */
+    public @NotNull LocalEmbeddingStore localStore(@NotNull Project project) {
+        return localStores.computeIfAbsent(project.getLocationHash(), hash -> {
+            LocalEmbeddingStore store = new LocalEmbeddingStore(localStorePath(hash));
+            if (store.lostOnLoad()) {
+                log.warn("Local vector store for {} could not be loaded; the project needs a re-index",
+                        project.getName());
+                invalidateManifest(project);
+            }
+            return store;
+        });
+    }
+
+    /**
+     * Forget which files of {@code project} are indexed, e.g. after switching vector store
+     * backends: the manifest is shared by both, but the newly selected store holds none of
+     * the other one's chunks.
+     */
+    public void invalidateManifest(@NotNull Project project) {
+        IndexManifest manifest = IndexManifestService.getInstance().forProject(project);
+        manifest.invalidateAll();
+        manifest.flush();
+        markStoreChanged();
+    }
+
+    /**
+     * Drops every segment from the in-process store of {@code project} and persists the empty
+     * store. The ChromaDB equivalent is deleting the collection through {@link ChromaDBManager}.
+     */
+    public void clearLocalStore(@NotNull Project project) {
+        LocalEmbeddingStore store = localStore(project);
+        store.removeAll();
+        store.flush();
+        markStoreChanged();
+    }
+
+    /**
+     * Stable identity of the store {@link #init} selects for {@code project}: the backend kind
+     * plus the project or collection. {@code init} builds a new Chroma client on every call, so
+     * the store object itself cannot be used as a cache key.
+     */
+    public @NotNull String storeKey(@NotNull Project project) {
+        return isEmbeddedStoreSelected()
+                ? "embedded:" + project.getLocationHash()
+                : "chroma:" + stateService.getIndexerPort() + "/" + collectionName(project);
+    }
+
+    /** Counter that changes whenever a vector store is written to, through {@link #markStoreChanged}. */
+    public long storeGeneration() {
+        return storeGeneration.get();
+    }
+
+    /** Records that chunks were added to or removed from a vector store. */
+    public void markStoreChanged() {
+        storeGeneration.incrementAndGet();
+    }
+
+    /** Lives next to the per-project index manifest so wiping {@code DevoxxGenie/} resets both. */
+    public static @NotNull Path localStorePath(@NotNull String projectLocationHash) {
+        return Paths.get(PathManager.getSystemPath(), "DevoxxGenie",
+                "vector-store-" + projectLocationHash);
+    }
+
+    /** Collection name for {@code project}; also the row label of the embedded store in the settings. */
+    public static @NotNull String collectionName(@NotNull Project project) {
         return project.getName()
                       .toLowerCase()
                       .replaceAll("[^a-z0-9-]", "-");
@@ -5,6 +5,8 @@ import com.devoxx.genie.model.agent.AgentMessage;
 import com.devoxx.genie.model.spec.CliToolConfig;
 import com.devoxx.genie.service.activity.ActivityLoggingMessage;
 import com.devoxx.genie.service.cli.command.CliCommand;
+import com.devoxx.genie.service.process.OutputBuffer;
+import com.devoxx.genie.service.process.ProcessRunner;
 import com.devoxx.genie.service.spec.SpecTaskRunnerService;
 import com.devoxx.genie.ui.topic.AppTopics;
 import com.intellij.openapi.Disposable;
@@ -15,14 +17,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Project-scoped service that runs CLI tools as external processes.
@@ -34,6 +34,9 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service(Service.Level.PROJECT)
 public final class CliTaskExecutorService implements Disposable {
 
+    /** Stderr kept for the failure report: the first and the last lines, like the agent tools. */
+    private static final int STDERR_REPORT_CHARS = 20_000;
+
     private final Project project;
 
     /** Active CLI tasks indexed by task ID. Supports concurrent execution. */
@@ -167,23 +170,26 @@ public final class CliTaskExecutorService implements Disposable {
             log.info("CLI prompt delivered via {} ({} chars)",
                     cliCommand.getClass().getSimpleName(), prompt.length());
 
-            // Collect stderr lines for error reporting
-            List<String> stderrLines = Collections.synchronizedList(new ArrayList<>());
-
-            // Stream stdout and stderr concurrently
-            Thread stdoutThread = createStreamReader(
-                    process, true, consoleManager, taskId, null, parseClaudeStreamJson);
-            Thread stderrThread = createStreamReader(
-                    process, false, consoleManager, taskId, stderrLines, false);
-
-            stdoutThread.start();
-            stderrThread.start();
+            // Keep the start and end of stderr for error reporting
+            OutputBuffer stderrOutput = new OutputBuffer(STDERR_REPORT_CHARS);
+            AtomicInteger stdoutLines = new AtomicInteger();
+            AtomicInteger stderrLines = new AtomicInteger();
 
             log.info("CLI waiting for process to finish (task={})", taskId);
-            int exitCode = process.waitFor();
+            ProcessRunner.Result result = ProcessRunner.run(process, null, null, (line, stderr) -> {
+                if (stderr) {
+                    processStreamLine(line, stderrLines.incrementAndGet(), false, "stderr", taskId,
+                            null, false, consoleManager);
+                    stderrOutput.appendLine(line);
+                } else {
+                    processStreamLine(line, stdoutLines.incrementAndGet(), true, "stdout", taskId,
+                            null, parseClaudeStreamJson, consoleManager);
+                }
+            }, ProcessRunner.UNLIMITED_LINE_CHARS); // a stream-json event is only parseable whole
+            int exitCode = result.exitCode();
             long elapsed = System.currentTimeMillis() - startTime;
-            stdoutThread.join(5000);
-            stderrThread.join(5000);
+            log.info("CLI output finished for task {}: {} stdout lines, {} stderr lines",
+                    taskId, stdoutLines.get(), stderrLines.get());
 
             boolean completedKill = activeTask.taskCompletedKill;
             activeTasks.remove(taskId);
@@ -199,7 +205,7 @@ public final class CliTaskExecutorService implements Disposable {
                     SpecTaskRunnerService.getInstance(project).notifyPromptExecutionCompleted(taskId);
                 } else {
                     consoleManager.printError(exitMsg);
-                    String errorOutput = String.join("\n", stderrLines).trim();
+                    String errorOutput = stderrOutput.toString().trim();
                     log.warn("CLI task {} failed with exit code {}: {}", taskId, exitCode,
                             errorOutput.length() > 300 ? errorOutput.substring(0, 300) + "..." : errorOutput);
                     SpecTaskRunnerService.getInstance(project)
@@ -235,8 +241,8 @@ public final class CliTaskExecutorService implements Disposable {
     public void cancelTask(@NotNull String taskId) {
         ActiveCliTask task = activeTasks.remove(taskId);
         if (task != null && task.process.isAlive()) {
-            log.info("Destroying CLI process for task {} (pid={})", taskId, task.process.pid());
-            task.process.destroyForcibly();
+            log.info("Destroying CLI process tree for task {} (pid={})", taskId, task.process.pid());
+            ProcessRunner.killTree(task.process);
             ApplicationManager.getApplication().invokeLater(() ->
                     CliConsoleManager.getInstance(project).printSystem(
                             "\n=== [" + taskId + "] Process cancelled ===\n"));
@@ -335,40 +341,6 @@ public final class CliTaskExecutorService implements Disposable {
         }
     }
 
-    private @NotNull Thread createStreamReader(@NotNull Process process,
-                                               boolean isStdout,
-                                               @NotNull CliConsoleManager consoleManager,
-                                               @NotNull String taskId,
-                                               @Nullable List<String> lineCollector,
-                                               boolean parseClaudeStreamJson) {
-        String streamName = isStdout ? "stdout" : "stderr";
-        Thread thread = new Thread(
-                () -> runStreamReader(process, isStdout, streamName, consoleManager, taskId, lineCollector, parseClaudeStreamJson),
-                "cli-" + streamName + "-reader-" + taskId);
-        thread.setDaemon(true);
-        return thread;
-    }
-
-    private void runStreamReader(@NotNull Process process, boolean isStdout, @NotNull String streamName,
-                                  @NotNull CliConsoleManager consoleManager, @NotNull String taskId,
-                                  @Nullable List<String> lineCollector, boolean parseClaudeStreamJson) {
-        log.debug("CLI {}-reader started for task {}", streamName, taskId);
-        int lineCount = 0;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                isStdout ? process.getInputStream() : process.getErrorStream(),
-                StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineCount++;
-                processStreamLine(line, lineCount, isStdout, streamName, taskId, lineCollector, parseClaudeStreamJson, consoleManager);
-            }
-        } catch (IOException e) {
-            String summary = lineCount > 0 ? lineCount + " lines read" : "no output";
-            log.debug("CLI {}-reader ended for task {} ({}): {}", streamName, taskId, summary, e.getMessage());
-        }
-        log.info("CLI {}-reader finished for task {}: {} lines total", streamName, taskId, lineCount);
-    }
-
     private void processStreamLine(@NotNull String line, int lineCount, boolean isStdout,
                                     @NotNull String streamName, @NotNull String taskId,
                                     @Nullable List<String> lineCollector, boolean parseClaudeStreamJson,
@@ -0,0 +1,37 @@
+package com.devoxx.genie.service.conversations;
+
+import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
+import org.jetbrains.annotations.NotNull;
+
+import static com.devoxx.genie.model.Constant.CONVERSATION_RETENTION_MAX_SIZE_MB;
+
+/**
+ * Which stored conversations the retention run removes. A limit of {@code 0} disables that
+ * policy.
+ *
+ * @param maxAgeDays                 delete conversations older than this many days
+ * @param maxConversationsPerProject keep only the newest conversations of each project
+ * @param maxSizeBytes               delete the oldest conversations until the live data fits
+ */
+public record ConversationRetentionPolicy(int maxAgeDays, int maxConversationsPerProject, long maxSizeBytes) {
+
+    static final ConversationRetentionPolicy DEFAULT =
+            new ConversationRetentionPolicy(0, 0, CONVERSATION_RETENTION_MAX_SIZE_MB * 1024L * 1024L);
+
+    /** The policy configured in the settings, or {@link #DEFAULT} when they can't be read. */
+    public static @NotNull ConversationRetentionPolicy fromSettings() {
+        try {
+            DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
+            return new ConversationRetentionPolicy(
+                    valueOrZero(state.getConversationRetentionDays()),
+                    valueOrZero(state.getConversationRetentionMaxCount()),
+                    valueOrZero(state.getConversationRetentionMaxSizeMb()) * 1024L * 1024L);
+        } catch (Exception e) {
+            return DEFAULT;
+        }
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value == null ? 0 : Math.max(0, value);
+    }
+}
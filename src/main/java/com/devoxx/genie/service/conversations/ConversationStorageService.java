@@ -2,20 +2,31 @@ package com.devoxx.genie.service.conversations;
 
 import com.devoxx.genie.model.conversation.ChatMessage;
 import com.devoxx.genie.model.conversation.Conversation;
+import com.devoxx.genie.service.prompt.threading.ThreadPoolManager;
 import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.project.Project;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Instead of using the IntelliJ State API, we use a separate database to store conversations.
@@ -25,6 +36,12 @@ import java.util.concurrent.locks.ReentrantLock;
  * Linux:   ~/.config/JetBrains/IntelliJIdea2024.3/DevoxxGenie/conversations.db
  * Windows: %APPDATA%\JetBrains\IntelliJIdea2024.3\DevoxxGenie\conversations.db
  * You can connect to the SQLite db using IDEA's Database tool window.
+ *
+ * <p>The history panel reads conversation headers a page at a time and loads messages only
+ * when a conversation is opened. Long messages are stored gzip-compressed (BLOB content) and
+ * indexed for full-text search in the FTS5 table {@code conversation_search}. A retention run
+ * (every few hours, or sooner when the file outgrows its size limit) applies the
+ * {@link ConversationRetentionPolicy} and compacts the file.
  */
 @Slf4j
 public class ConversationStorageService {
@@ -32,11 +49,32 @@ public class ConversationStorageService {
     private final String dbPath;
     /** Shared instance: a single monitor serializes writes from all chat tabs. */
     private static volatile ConversationStorageService instance;
-    /** Serializes write transactions so concurrent tab closes don't hit SQLITE_BUSY. */
+    /** Serializes write transactions so concurrent tab closes don't hit SQLITE_BUSY; guards {@link #writeConnection}. */
     private final ReentrantLock writeLock = new ReentrantLock();
+    /** Guards {@link #readConnection}; reads don't wait for writes thanks to WAL. */
+    private final ReentrantLock readLock = new ReentrantLock();
+    /**
+     * Long-lived connections, opened on first use instead of per call: one for writes and one
+     * for reads. A JDBC connection is not safe for concurrent use, hence the locks.
+     */
+    private Connection writeConnection;
+    private Connection readConnection;
+    private final AtomicBoolean retentionRunning = new AtomicBoolean();
+    private volatile long lastRetentionRunMs;
+    private volatile @Nullable RetentionReport lastRetentionReport;
+    /** Whether the FTS5 {@code conversation_search} table exists; set at startup. */
+    private volatile boolean searchIndexAvailable;
     private static final int BUSY_TIMEOUT_MS = 5_000;
-    private static final long MAX_DB_SIZE_BYTES = 50 * 1024 * 1024;  // 50 MB threshold
-    private static final int DELETE_COUNT = 10; // Delete 10 oldest conversations
+    private static final int DELETE_COUNT = 10; // Delete 10 oldest conversations per size-policy round
+    /** Upper bound on size-policy rounds per run, so a bad estimate can't empty the history. */
+    private static final int MAX_SIZE_ROUNDS = 100;
+    private static final long RETENTION_INITIAL_DELAY_MINUTES = 5;
+    private static final long RETENTION_INTERVAL_MINUTES = 6 * 60;
+    /** A save that finds the file over its size limit triggers a run at most this often. */
+    private static final long RETENTION_MIN_INTERVAL_MS = 10 * 60 * 1000L;
+    /** Messages at least this long are stored gzip-compressed. */
+    static final int COMPRESSION_THRESHOLD_CHARS = 1024;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
 
     /** Legacy path (system/cache dir) — used only for migration detection. */
     static final String LEGACY_DIR = "DevoxxGenie";
@@ -64,6 +102,7 @@ public class ConversationStorageService {
 
         createTableIfNotExists();
         migrateDatabase();
+        scheduleRetention();
     }
 
     /** Test-only constructor that targets an explicit db file and skips PathManager/migration. */
@@ -92,6 +131,11 @@ public class ConversationStorageService {
         return local;
     }
 
+    /** The instance if something already opened the database, without opening it. */
+    public static @Nullable ConversationStorageService getInstanceIfCreated() {
+        return instance;
+    }
+
     /**
      * Migrates the conversation database from the legacy system/cache location to the
      * durable config location. The migration is a simple file copy — it only runs when
@@ -112,52 +156,129 @@ public class ConversationStorageService {
         }
     }
 
-    private Connection getConnection() throws SQLException {
+    private @NotNull Connection openConnection() throws SQLException {
         Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
         try (Statement statement = connection.createStatement()) {
             // WAL allows readers and a writer to work in parallel; busy_timeout makes a
             // writer wait for the lock instead of failing immediately with SQLITE_BUSY.
             statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            // Must precede the switch to WAL, which writes the header of a new database; on an
+            // existing database it is a no-op and compact() converts it with a VACUUM instead.
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
             statement.execute("PRAGMA journal_mode = WAL");
         } catch (SQLException e) {
-            log.warn("Failed to apply SQLite pragmas (busy_timeout/WAL): {}", e.getMessage());
+            log.warn("Failed to apply SQLite pragmas (busy_timeout/auto_vacuum/WAL): {}", e.getMessage());
         }
         return connection;
     }
 
+    /** The long-lived write connection, (re)opened if needed; the caller holds {@link #writeLock}. */
+    private @NotNull Connection writeConnection() throws SQLException {
+        if (writeConnection == null || writeConnection.isClosed()) {
+            writeConnection = openConnection();
+        }
+        return writeConnection;
+    }
+
+    /** Runs {@code work} on the long-lived write connection inside a transaction. */
+    private <T> T inTransaction(@NotNull SqlWork<T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            Connection connection = writeConnection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Runs {@code work} on the long-lived read connection. */
+    private <T> T read(@NotNull SqlWork<T> work) throws SQLException {
+        readLock.lock();
+        try {
+            if (readConnection == null || readConnection.isClosed()) {
+                readConnection = openConnection();
+            }
+            return work.run(readConnection);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /** Closes the cached connections; the next call reopens them. */
+    public void close() {
+        writeLock.lock();
+        readLock.lock();
+        try {
+            closeQuietly(writeConnection);
+            closeQuietly(readConnection);
+            writeConnection = null;
+            readConnection = null;
+        } finally {
+            readLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private static void closeQuietly(@Nullable Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Error closing SQLite connection: {}", e.getMessage());
+        }
+    }
+
     private void createTableIfNotExists() {
-        try (Connection connection = getConnection();
-             Statement statement = connection.createStatement()) {
-                statement.execute("""
-                        CREATE TABLE IF NOT EXISTS conversations (
-                            id TEXT PRIMARY KEY,
-                            projectHash TEXT,
-                            timestamp TEXT,
-                            title TEXT,
-                            llmProvider TEXT,
-                            modelName TEXT,
-                            apiKeyUsed INTEGER,
-                            inputCost INTEGER,
-                            outputCost INTEGER,
-                            contextWindow INTEGER,
-                            executionTimeMs INTEGER
-                        )
-                    """);
-
-            // SQLite uses INTEGER PRIMARY KEY for autoincrement
-            statement.execute("""
-                        CREATE TABLE IF NOT EXISTS chat_messages (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            conversationId TEXT,
-                            content TEXT,
-                            isUser INTEGER,
-                            FOREIGN KEY (conversationId) REFERENCES conversations(id)
-                        )
-                    """);
-
-            // Add indices for better performance
-            statement.execute("CREATE INDEX IF NOT EXISTS idx_conversations_project ON conversations(projectHash)");
-            statement.execute("CREATE INDEX IF NOT EXISTS idx_messages_conversation ON chat_messages(conversationId)");
+        try {
+            inTransaction(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("""
+                                CREATE TABLE IF NOT EXISTS conversations (
+                                    id TEXT PRIMARY KEY,
+                                    projectHash TEXT,
+                                    timestamp TEXT,
+                                    title TEXT,
+                                    llmProvider TEXT,
+                                    modelName TEXT,
+                                    apiKeyUsed INTEGER,
+                                    inputCost INTEGER,
+                                    outputCost INTEGER,
+                                    contextWindow INTEGER,
+                                    executionTimeMs INTEGER
+                                )
+                            """);
+
+                    // SQLite uses INTEGER PRIMARY KEY for autoincrement. content holds TEXT, or
+                    // a gzip BLOB for large messages (see encodeContent).
+                    statement.execute("""
+                                CREATE TABLE IF NOT EXISTS chat_messages (
+                                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                    conversationId TEXT,
+                                    content TEXT,
+                                    isUser INTEGER,
+                                    FOREIGN KEY (conversationId) REFERENCES conversations(id)
+                                )
+                            """);
+
+                    // Add indices for better performance
+                    statement.execute("CREATE INDEX IF NOT EXISTS idx_conversations_project ON conversations(projectHash)");
+                    statement.execute("CREATE INDEX IF NOT EXISTS idx_conversations_project_time ON conversations(projectHash, timestamp)");
+                    statement.execute("CREATE INDEX IF NOT EXISTS idx_messages_conversation ON chat_messages(conversationId)");
+                }
+                return null;
+            });
         } catch (SQLException e) {
             log.error("Error creating table", e);
             throw new RuntimeException("Error creating table", e);
@@ -165,30 +286,30 @@ public class ConversationStorageService {
     }
 
     public void addConversation(@NotNull Project project, @NotNull Conversation conversation) {
-        // Cleanup old conversations asynchronously if the DB size exceeds the threshold
-        CompletableFuture.runAsync(() -> {
-            try {
-                Path dbFile = Path.of(dbPath);
-                if (Files.size(dbFile) > MAX_DB_SIZE_BYTES) {
-                    cleanupOldConversations();
-                }
-            } catch (IOException e) {
-                log.error("Error checking DB size asynchronously", e);
-            }
-        });
+        // A save that pushes the file over its size limit brings the next retention run forward
+        if (System.currentTimeMillis() - lastRetentionRunMs > RETENTION_MIN_INTERVAL_MS
+                && databaseBytes() > ConversationRetentionPolicy.fromSettings().maxSizeBytes()) {
+            submitRetention();
+        }
 
-        // Add the conversation. Serialize writers so two tabs closing at once can't
-        // collide on SQLite's write lock and silently lose a conversation.
-        writeLock.lock();
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try {
+        // Add the conversation. Writers are serialized on the write connection so two tabs
+        // closing at once can't collide on SQLite's write lock and silently lose a conversation.
+        try {
+            inTransaction(connection -> {
+                // Upsert rather than INSERT OR REPLACE: REPLACE deletes the row and gives it a
+                // new rowid, which the search index uses as its key.
                 try (PreparedStatement ps = connection.prepareStatement(
                         """
-                                INSERT OR REPLACE INTO conversations
+                                INSERT INTO conversations
                                 (id, projectHash, timestamp, title, llmProvider, modelName,
                                  apiKeyUsed, inputCost, outputCost, contextWindow, executionTimeMs)
                                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                                ON CONFLICT(id) DO UPDATE SET
+                                    projectHash = excluded.projectHash, timestamp = excluded.timestamp,
+                                    title = excluded.title, llmProvider = excluded.llmProvider,
+                                    modelName = excluded.modelName, apiKeyUsed = excluded.apiKeyUsed,
+                                    inputCost = excluded.inputCost, outputCost = excluded.outputCost,
+                                    contextWindow = excluded.contextWindow, executionTimeMs = excluded.executionTimeMs
                                 """)) {
                     ps.setString(1, conversation.getId());
                     ps.setString(2, project.getLocationHash());
@@ -212,93 +333,303 @@ public class ConversationStorageService {
                     deletePs.executeUpdate();
                 }
 
-                // Insert chat messages
+                // Insert chat messages in one batch
                 try (PreparedStatement msgPs = connection.prepareStatement(
                         "INSERT INTO chat_messages (conversationId, content, isUser) VALUES (?, ?, ?)")) {
                     for (ChatMessage message : conversation.getMessages()) {
                         msgPs.setString(1, conversation.getId());
-                        msgPs.setString(2, message.getContent());
+                        setContent(msgPs, 2, message.getContent());
                         msgPs.setInt(3, message.isUser() ? 1 : 0); // Store isUser as INTEGER (1=true, 0=false)
-                        msgPs.executeUpdate();
+                        msgPs.addBatch();
                     }
+                    msgPs.executeBatch();
                 }
-                connection.commit();
-            } catch (SQLException e) {
-                log.error("Error adding conversation", e);
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
-            }
+
+                indexForSearch(connection, conversation);
+                return null;
+            });
         } catch (SQLException e) {
+            log.error("Error adding conversation", e);
             throw new RuntimeException("Error adding conversation", e);
-        } finally {
-            writeLock.unlock();
         }
     }
 
+    /**
+     * All conversations of {@code project} with their messages, newest first. Prefer
+     * {@link #getConversationHeaders} plus {@link #loadMessages} for anything user-facing.
+     */
     @NotNull
     public List<Conversation> getConversations(@NotNull Project project) {
-        List<Conversation> conversations = new ArrayList<>();
-        try (Connection connection = getConnection();
-             PreparedStatement ps = connection.prepareStatement(
-                     "SELECT * FROM conversations WHERE projectHash = ?")) {
-            ps.setString(1, project.getLocationHash());
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Conversation conversation = new Conversation();
-                    conversation.setId(rs.getString("id"));
-                    conversation.setTimestamp(rs.getString("timestamp"));
-                    conversation.setTitle(rs.getString("title"));
-                    conversation.setLlmProvider(rs.getString("llmProvider"));
-                    conversation.setModelName(rs.getString("modelName"));
-                    conversation.setApiKeyUsed(rs.getInt("apiKeyUsed") == 1); // Convert INTEGER to boolean
-                    conversation.setInputCost(rs.getLong("inputCost"));
-                    conversation.setOutputCost(rs.getLong("outputCost"));
-                    conversation.setContextWindow(rs.getInt("contextWindow"));
-                    conversation.setExecutionTimeMs(rs.getInt("executionTimeMs"));
-
-                    // Retrieve chat messages for the conversation
-                    List<ChatMessage> messages = new ArrayList<>();
-                    try (PreparedStatement msgPs = connection.prepareStatement(
-                            "SELECT * FROM chat_messages WHERE conversationId = ? ORDER BY id")) {
-                        msgPs.setString(1, conversation.getId());
-                        try (ResultSet msgRs = msgPs.executeQuery()) {
-                            while (msgRs.next()) {
-                                ChatMessage message = new ChatMessage();
-                                message.setContent(msgRs.getString("content"));
-                                
-                                // Check if the isUser column exists in the result set
-                                try {
-                                    int isUserFlag = msgRs.getInt("isUser");
-                                    message.setUser(isUserFlag == 1);
-                                    log.debug("Set isUser flag to {} for message", isUserFlag == 1);
-                                } catch (SQLException e) {
-                                    // Column doesn't exist in older database versions, default to alternating pattern
-                                    message.setUser(messages.size() % 2 == 0);
-                                    log.debug("isUser column not found, defaulting to alternating pattern");
-                                }
-                                
-                                messages.add(message);
-                            }
+        try {
+            return read(connection -> {
+                List<Conversation> conversations = queryHeaders(connection, project, 0, -1);
+                Map<String, List<ChatMessage>> messagesById = new HashMap<>();
+                try (PreparedStatement ps = connection.prepareStatement(
+                        """
+                                SELECT m.conversationId, m.content, m.isUser FROM chat_messages m
+                                JOIN conversations c ON c.id = m.conversationId
+                                WHERE c.projectHash = ? ORDER BY m.id
+                                """)) {
+                    ps.setString(1, project.getLocationHash());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            List<ChatMessage> messages =
+                                    messagesById.computeIfAbsent(rs.getString("conversationId"), id -> new ArrayList<>());
+                            messages.add(readMessage(rs, messages.size()));
                         }
                     }
-                    conversation.setMessages(messages);
-                    conversations.add(conversation);
                 }
-            }
+                for (Conversation conversation : conversations) {
+                    conversation.setMessages(messagesById.getOrDefault(conversation.getId(), new ArrayList<>()));
+                }
+                return conversations;
+            });
         } catch (SQLException e) {
             log.error("Error getting conversations", e);
             throw new RuntimeException("Error getting conversations", e);
         }
+    }
+
+    /**
+     * One page of {@code project}'s conversations, newest first, without their messages
+     * (load them with {@link #loadMessages} when a conversation is opened).
+     */
+    @NotNull
+    public List<Conversation> getConversationHeaders(@NotNull Project project, int offset, int limit) {
+        try {
+            return read(connection -> queryHeaders(connection, project, offset, limit));
+        } catch (SQLException e) {
+            log.error("Error getting conversation headers", e);
+            throw new RuntimeException("Error getting conversation headers", e);
+        }
+    }
+
+    /** Replaces the messages of {@code conversation} with the stored ones and returns it. */
+    @NotNull
+    public Conversation loadMessages(@NotNull Conversation conversation) {
+        try {
+            List<ChatMessage> messages = read(connection -> {
+                List<ChatMessage> result = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "SELECT content, isUser FROM chat_messages WHERE conversationId = ? ORDER BY id")) {
+                    ps.setString(1, conversation.getId());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            result.add(readMessage(rs, result.size()));
+                        }
+                    }
+                }
+                return result;
+            });
+            conversation.setMessages(messages);
+            return conversation;
+        } catch (SQLException e) {
+            log.error("Error loading conversation messages", e);
+            throw new RuntimeException("Error loading conversation messages", e);
+        }
+    }
+
+    /**
+     * Conversations of {@code project} whose title or messages match {@code query} (every
+     * word, the last one as a prefix), best match first, without their messages. Falls back
+     * to a title search when the SQLite build has no FTS5.
+     */
+    @NotNull
+    public List<Conversation> searchConversations(@NotNull Project project, @NotNull String query, int limit) {
+        String match = toMatchQuery(query);
+        if (match == null) {
+            return getConversationHeaders(project, 0, limit);
+        }
+        try {
+            return read(connection -> {
+                String sql = searchIndexAvailable
+                        ? """
+                          SELECT c.* FROM conversation_search
+                          JOIN conversations c ON c.rowid = conversation_search.rowid
+                          WHERE conversation_search MATCH ? AND c.projectHash = ?
+                          ORDER BY conversation_search.rank LIMIT ?
+                          """
+                        : """
+                          SELECT * FROM conversations
+                          WHERE title LIKE ? ESCAPE '\\' AND projectHash = ?
+                          ORDER BY timestamp DESC LIMIT ?
+                          """;
+                List<Conversation> conversations = new ArrayList<>();
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setString(1, searchIndexAvailable ? match : "%" + escapeLike(query.trim()) + "%");
+                    ps.setString(2, project.getLocationHash());
+                    ps.setInt(3, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            conversations.add(readHeader(rs));
+                        }
+                    }
+                }
+                return conversations;
+            });
+        } catch (SQLException e) {
+            log.error("Error searching conversations", e);
+            throw new RuntimeException("Error searching conversations", e);
+        }
+    }
+
+    private @NotNull List<Conversation> queryHeaders(@NotNull Connection connection, @NotNull Project project,
+                                                     int offset, int limit) throws SQLException {
+        List<Conversation> conversations = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT * FROM conversations WHERE projectHash = ? ORDER BY timestamp DESC LIMIT ? OFFSET ?")) {
+            ps.setString(1, project.getLocationHash());
+            ps.setInt(2, limit);
+            ps.setInt(3, Math.max(0, offset));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    conversations.add(readHeader(rs));
+                }
+            }
+        }
         return conversations;
     }
 
+    private static @NotNull Conversation readHeader(@NotNull ResultSet rs) throws SQLException {
+        Conversation conversation = new Conversation();
+        conversation.setId(rs.getString("id"));
+        conversation.setTimestamp(rs.getString("timestamp"));
+        conversation.setTitle(rs.getString("title"));
+        conversation.setLlmProvider(rs.getString("llmProvider"));
+        conversation.setModelName(rs.getString("modelName"));
+        conversation.setApiKeyUsed(rs.getInt("apiKeyUsed") == 1); // Convert INTEGER to boolean
+        conversation.setInputCost(rs.getLong("inputCost"));
+        conversation.setOutputCost(rs.getLong("outputCost"));
+        conversation.setContextWindow(rs.getInt("contextWindow"));
+        conversation.setExecutionTimeMs(rs.getInt("executionTimeMs"));
+        return conversation;
+    }
+
+    private static @NotNull ChatMessage readMessage(@NotNull ResultSet rs, int index) throws SQLException {
+        ChatMessage message = new ChatMessage();
+        message.setContent(decodeContent(rs.getObject("content")));
+        // Check if the isUser column exists in the result set
+        try {
+            message.setUser(rs.getInt("isUser") == 1);
+        } catch (SQLException e) {
+            // Column doesn't exist in older database versions, default to alternating pattern
+            message.setUser(index % 2 == 0);
+            log.debug("isUser column not found, defaulting to alternating pattern");
+        }
+        return message;
+    }
+
+    private static void setContent(@NotNull PreparedStatement ps, int index, @Nullable String content)
+            throws SQLException {
+        Object encoded = encodeContent(content);
+        if (encoded instanceof byte[] bytes) {
+            ps.setBytes(index, bytes);
+        } else {
+            ps.setString(index, (String) encoded);
+        }
+    }
+
+    /**
+     * Message content as stored: short text as-is, anything from {@link #COMPRESSION_THRESHOLD_CHARS}
+     * on as a gzip BLOB. Rows written before compression stay TEXT and are read unchanged.
+     */
+    static @Nullable Object encodeContent(@Nullable String content) {
+        if (content == null || content.length() < COMPRESSION_THRESHOLD_CHARS) {
+            return content;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Cannot happen for an in-memory stream; keep the text rather than lose it.
+            return content;
+        }
+        return bytes.toByteArray();
+    }
+
+    static @Nullable String decodeContent(@Nullable Object stored) {
+        if (!(stored instanceof byte[] bytes)) {
+            return stored == null ? null : stored.toString();
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not decompress stored chat message: {}", e.getMessage());
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * FTS5 query for free text typed in the history panel: every word quoted (so FTS syntax
+     * is matched literally) and the phrase of the last one as a prefix. {@code null} if blank.
+     */
+    static @Nullable String toMatchQuery(@NotNull String query) {
+        List<String> terms = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (!word.isEmpty()) {
+                terms.add("\"" + word.replace("\"", "\"\"") + "\"");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms) + "*";
+    }
+
+    private static @NotNull String escapeLike(@NotNull String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /** (Re)indexes {@code conversation} under its rowid; no-op without FTS5. */
+    private void indexForSearch(@NotNull Connection connection, @NotNull Conversation conversation)
+            throws SQLException {
+        if (!searchIndexAvailable) {
+            return;
+        }
+        long rowid;
+        try (PreparedStatement ps = connection.prepareStatement("SELECT rowid FROM conversations WHERE id = ?")) {
+            ps.setString(1, conversation.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                rowid = rs.getLong(1);
+            }
+        }
+        StringBuilder body = new StringBuilder();
+        for (ChatMessage message : conversation.getMessages()) {
+            if (message.getContent() != null) {
+                body.append(message.getContent()).append('\n');
+            }
+        }
+        indexForSearch(connection, rowid, conversation.getTitle(), body.toString());
+    }
+
+    private static void indexForSearch(@NotNull Connection connection, long rowid,
+                                       @Nullable String title, @NotNull String body) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM conversation_search WHERE rowid = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO conversation_search (rowid, title, body) VALUES (?, ?, ?)")) {
+            delete.setLong(1, rowid);
+            delete.executeUpdate();
+            insert.setLong(1, rowid);
+            insert.setString(2, title == null ? "" : title);
+            insert.setString(3, body);
+            insert.executeUpdate();
+        }
+    }
+
+    /** Drops search entries whose conversation no longer exists. */
+    private void pruneSearchIndex(@NotNull Connection connection) throws SQLException {
+        if (!searchIndexAvailable) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(
+                    "DELETE FROM conversation_search WHERE rowid NOT IN (SELECT rowid FROM conversations)");
+        }
+    }
+
     public void removeConversation(@NotNull Project project, @NotNull Conversation conversation) {
-        writeLock.lock();
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try {
+        try {
+            inTransaction(connection -> {
                 // Delete messages first due to foreign key constraint
                 try (PreparedStatement ps = connection.prepareStatement(
                         "DELETE FROM chat_messages WHERE conversationId = ?")) {
@@ -310,6 +641,16 @@ public class ConversationStorageService {
                     }
                 }
 
+                if (searchIndexAvailable) {
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            "DELETE FROM conversation_search WHERE rowid IN " +
+                                    "(SELECT rowid FROM conversations WHERE id = ? AND projectHash = ?)")) {
+                        ps.setString(1, conversation.getId());
+                        ps.setString(2, project.getLocationHash());
+                        ps.executeUpdate();
+                    }
+                }
+
                 // Then delete the conversation
                 try (PreparedStatement ps = connection.prepareStatement(
                         "DELETE FROM conversations WHERE id = ? AND projectHash = ?")) {
@@ -321,26 +662,17 @@ public class ConversationStorageService {
                         log.warn("No conversation found with ID " + conversation.getId() + " and project hash " + project.getLocationHash());
                     }
                 }
-                connection.commit();
-            } catch (SQLException e) {
-                log.error("Error removing conversation", e);
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
-            }
+                return null;
+            });
         } catch (SQLException e) {
+            log.error("Error removing conversation", e);
             throw new RuntimeException("Error removing conversation", e);
-        } finally {
-            writeLock.unlock();
         }
     }
 
     public void clearAllConversations(@NotNull Project project) {
-        writeLock.lock();
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try {
+        try {
+            inTransaction(connection -> {
                 // Delete all messages for conversations in this project
                 try (PreparedStatement ps = connection.prepareStatement(
                         """
@@ -359,60 +691,276 @@ public class ConversationStorageService {
                     ps.setString(1, project.getLocationHash());
                     ps.executeUpdate();
                 }
-                connection.commit();
-            } catch (SQLException e) {
-                log.error("Error clearing conversations", e);
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
-            }
+                pruneSearchIndex(connection);
+                return null;
+            });
         } catch (SQLException e) {
+            log.error("Error clearing conversations", e);
             throw new RuntimeException("Error clearing conversations", e);
+        }
+    }
+
+    /**
+     * Outcome of one retention run.
+     *
+     * @param reclaimedBytes how much smaller the database file plus its WAL got
+     */
+    public record RetentionReport(int deletedConversations, long bytesBefore, long bytesAfter,
+                                  long reclaimedBytes, long durationMs) {}
+
+    private void scheduleRetention() {
+        try {
+            ThreadPoolManager.getInstance().getScheduledTaskPool().scheduleWithFixedDelay(
+                    this::runRetention, RETENTION_INITIAL_DELAY_MINUTES, RETENTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Could not schedule conversation history retention: {}", e.getMessage());
+        }
+    }
+
+    /** Runs retention now on the shared scheduled pool, next to the periodic runs. */
+    private void submitRetention() {
+        try {
+            ThreadPoolManager.getInstance().getScheduledTaskPool().execute(this::runRetention);
+        } catch (Exception e) {
+            log.warn("Could not start conversation history retention: {}", e.getMessage());
+        }
+    }
+
+    /** Applies the configured policy unless a run is already in progress; never throws. */
+    private void runRetention() {
+        if (!retentionRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            applyRetention(ConversationRetentionPolicy.fromSettings());
+        } catch (Exception e) {
+            log.warn("Conversation history retention failed: {}", e.getMessage());
         } finally {
-            writeLock.unlock();
+            retentionRunning.set(false);
         }
     }
 
-    private void cleanupOldConversations() {
-        writeLock.lock();
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try {
-                // Delete the oldest DELETE_COUNT conversations based on the timestamp
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "DELETE FROM conversations WHERE id IN (" +
-                                "SELECT id FROM conversations ORDER BY timestamp ASC LIMIT ?)")) {
-                    ps.setInt(1, DELETE_COUNT);
-                    int deleted = ps.executeUpdate();
-                    log.info("Deleted {} old conversations to free up space", deleted);
+    /**
+     * Deletes the conversations {@code policy} no longer keeps — too old, beyond the
+     * per-project count, then the oldest until the live data fits the size limit — and
+     * compacts the file: incremental vacuum returns free pages to the file system and a WAL
+     * checkpoint truncates the write-ahead log.
+     */
+    @NotNull
+    public RetentionReport applyRetention(@NotNull ConversationRetentionPolicy policy) throws SQLException {
+        long start = System.nanoTime();
+        lastRetentionRunMs = System.currentTimeMillis();
+        long bytesBefore = databaseBytes();
+        int deleted = 0;
+
+        if (policy.maxAgeDays() > 0) {
+            String cutoff = LocalDateTime.now().minusDays(policy.maxAgeDays()).toString();
+            deleted += deleteConversations("SELECT id FROM conversations WHERE timestamp < ?",
+                    ps -> ps.setString(1, cutoff));
+        }
+        if (policy.maxConversationsPerProject() > 0) {
+            deleted += deleteConversations("""
+                    SELECT id FROM (
+                        SELECT id, ROW_NUMBER() OVER (PARTITION BY projectHash ORDER BY timestamp DESC) AS position
+                        FROM conversations
+                    ) WHERE position > ?
+                    """, ps -> ps.setInt(1, policy.maxConversationsPerProject()));
+        }
+        if (policy.maxSizeBytes() > 0) {
+            for (int round = 0; round < MAX_SIZE_ROUNDS && liveBytes() > policy.maxSizeBytes(); round++) {
+                int removed = deleteConversations("SELECT id FROM conversations ORDER BY timestamp ASC LIMIT ?",
+                        ps -> ps.setInt(1, DELETE_COUNT));
+                if (removed == 0) {
+                    break;
                 }
-                // Also delete associated messages
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "DELETE FROM chat_messages WHERE conversationId NOT IN (SELECT id FROM conversations)")) {
-                    int msgDeleted = ps.executeUpdate();
-                    log.info("Deleted {} orphaned chat messages", msgDeleted);
+                deleted += removed;
+            }
+        }
+        compact();
+
+        long bytesAfter = databaseBytes();
+        RetentionReport report = new RetentionReport(deleted, bytesBefore, bytesAfter,
+                Math.max(0, bytesBefore - bytesAfter), (System.nanoTime() - start) / 1_000_000);
+        lastRetentionReport = report;
+        log.info("Conversation history retention deleted {} conversations, reclaimed {} KB ({} KB -> {} KB) in {} ms",
+                report.deletedConversations(), report.reclaimedBytes() / 1024,
+                bytesBefore / 1024, bytesAfter / 1024, report.durationMs());
+        return report;
+    }
+
+    /** The report of the last retention run, or {@code null} if none ran yet; shown in the LLM settings. */
+    public @Nullable RetentionReport getLastRetentionReport() {
+        return lastRetentionReport;
+    }
+
+    /** Deletes the conversations selected by {@code idQuery}, with their messages and search entries. */
+    private int deleteConversations(@NotNull String idQuery, @NotNull SqlBinder binder) throws SQLException {
+        return inTransaction(connection -> {
+            List<String> ids = new ArrayList<>();
+            try (PreparedStatement ps = connection.prepareStatement(idQuery)) {
+                binder.bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getString(1));
+                    }
                 }
-            } catch (SQLException e) {
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error clearing conversations", e);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            try (PreparedStatement messages = connection.prepareStatement(
+                         "DELETE FROM chat_messages WHERE conversationId = ?");
+                 PreparedStatement conversations = connection.prepareStatement(
+                         "DELETE FROM conversations WHERE id = ?")) {
+                for (String id : ids) {
+                    messages.setString(1, id);
+                    messages.addBatch();
+                    conversations.setString(1, id);
+                    conversations.addBatch();
+                }
+                messages.executeBatch();
+                conversations.executeBatch();
+            }
+            pruneSearchIndex(connection);
+            return ids.size();
+        });
+    }
+
+    /** Bytes held by pages in use, i.e. what the file would shrink to after a full vacuum. */
+    private long liveBytes() throws SQLException {
+        return read(connection -> (pragmaLong(connection, "page_count") - pragmaLong(connection, "freelist_count"))
+                * pragmaLong(connection, "page_size"));
+    }
+
+    /**
+     * Returns free pages to the file system and truncates the WAL. A database created before
+     * incremental auto-vacuum was enabled is converted once with a full VACUUM.
+     */
+    private void compact() throws SQLException {
+        writeLock.lock();
+        try {
+            Connection connection = writeConnection();
+            try (Statement statement = connection.createStatement()) {
+                if (pragmaLong(connection, "auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                    log.info("Enabling incremental auto-vacuum on the conversation database");
+                    statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                    statement.execute("VACUUM");
+                } else {
+                    statement.execute("PRAGMA incremental_vacuum");
+                }
+                statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
         } finally {
             writeLock.unlock();
         }
     }
-    
+
+    private static long pragmaLong(@NotNull Connection connection, @NotNull String pragma) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /** Size of the database file plus its write-ahead log. */
+    long databaseBytes() {
+        return fileSize(Path.of(dbPath)) + fileSize(Path.of(dbPath + "-wal"));
+    }
+
+    private static long fileSize(@NotNull Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates the FTS5 search index, and fills it from the stored conversations the first
+     * time. Contentless (the text lives compressed in chat_messages); {@code contentless_delete}
+     * lets entries be removed by rowid. Without FTS5 search falls back to titles.
+     */
+    private void createSearchIndex() {
+        try {
+            inTransaction(connection -> {
+                boolean exists;
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(
+                             "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'conversation_search'")) {
+                    exists = rs.next();
+                }
+                if (exists) {
+                    return null;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE VIRTUAL TABLE conversation_search " +
+                            "USING fts5(title, body, content='', contentless_delete=1)");
+                }
+                backfillSearchIndex(connection);
+                return null;
+            });
+            searchIndexAvailable = true;
+        } catch (SQLException e) {
+            searchIndexAvailable = false;
+            log.warn("SQLite FTS5 not available, conversation search is limited to titles: {}", e.getMessage());
+        }
+    }
+
+    private static void backfillSearchIndex(@NotNull Connection connection) throws SQLException {
+        int indexed = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     """
+                             SELECT c.rowid AS conversationRowid, c.id, c.title, m.content FROM conversations c
+                             LEFT JOIN chat_messages m ON m.conversationId = c.id
+                             ORDER BY c.rowid, m.id
+                             """)) {
+            long currentRowid = -1;
+            String currentTitle = null;
+            StringBuilder body = new StringBuilder();
+            while (rs.next()) {
+                long rowid = rs.getLong("conversationRowid");
+                if (rowid != currentRowid) {
+                    if (currentRowid != -1) {
+                        indexForSearch(connection, currentRowid, currentTitle, body.toString());
+                        indexed++;
+                    }
+                    currentRowid = rowid;
+                    currentTitle = rs.getString("title");
+                    body.setLength(0);
+                }
+                String content = decodeContent(rs.getObject("content"));
+                if (content != null) {
+                    body.append(content).append('\n');
+                }
+            }
+            if (currentRowid != -1) {
+                indexForSearch(connection, currentRowid, currentTitle, body.toString());
+                indexed++;
+            }
+        }
+        log.info("Indexed {} stored conversations for search", indexed);
+    }
+
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run(@NotNull Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlBinder {
+        void bind(@NotNull PreparedStatement ps) throws SQLException;
+    }
+
     /**
      * Migrate database to newer schema if needed.
      * This method handles adding new columns and populating existing records
      * with appropriate values to ensure backward compatibility.
      */
     private void migrateDatabase() {
-        try (Connection connection = getConnection()) {
+        writeLock.lock();
+        try {
+            Connection connection = writeConnection();
             connection.setAutoCommit(false);
             
             try {
@@ -488,6 +1036,9 @@ public class ConversationStorageService {
         } catch (SQLException e) {
             log.error("Failed to connect to database for migration", e);
             // Don't throw exception to allow application to continue with fallback behavior
+        } finally {
+            writeLock.unlock();
         }
+        createSearchIndex();
     }
 }
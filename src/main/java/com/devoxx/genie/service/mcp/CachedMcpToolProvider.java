@@ -0,0 +1,68 @@
+package com.devoxx.genie.service.mcp;
+
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.service.tool.AiServiceTool;
+import dev.langchain4j.service.tool.ToolProvider;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Provides the tools of the pooled MCP clients from the {@link McpToolCatalog}, replacing a
+ * per-prompt {@code McpToolProvider} that lists every server's tools one after another.
+ * Servers without a catalog yet are listed in parallel; a server that fails
+ * to list contributes no tools to this prompt.
+ */
+public class CachedMcpToolProvider implements ToolProvider {
+
+    private final Map<String, McpClient> clients;
+    private final McpToolCatalog catalog;
+    private final Executor executor;
+
+    /**
+     * @param clients pooled clients keyed by server name, in the order their tools are offered
+     */
+    public CachedMcpToolProvider(@NotNull Map<String, McpClient> clients,
+                                 @NotNull McpToolCatalog catalog,
+                                 @NotNull Executor executor) {
+        this.clients = new LinkedHashMap<>(clients);
+        this.catalog = catalog;
+        this.executor = executor;
+    }
+
+    @Override
+    public ToolProviderResult provideTools(@NotNull ToolProviderRequest request) {
+        Map<String, CompletableFuture<ToolProviderResult>> loads = new LinkedHashMap<>();
+        for (Map.Entry<String, McpClient> entry : clients.entrySet()) {
+            String serverName = entry.getKey();
+            McpClient client = entry.getValue();
+            loads.put(serverName, catalog.isCached(serverName)
+                    ? CompletableFuture.completedFuture(catalog.tools(serverName, client, request))
+                    : CompletableFuture.supplyAsync(() -> catalog.tools(serverName, client, request), executor));
+        }
+
+        ToolProviderResult.Builder builder = ToolProviderResult.builder();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<ToolProviderResult>> load : loads.entrySet()) {
+            ToolProviderResult tools = load.getValue().join();
+            if (tools == null) {
+                unavailable.add(load.getKey());
+                continue;
+            }
+            for (AiServiceTool tool : tools.aiServiceTools()) {
+                builder.add(tool);
+            }
+        }
+        if (!unavailable.isEmpty()) {
+            MCPService.logDebug("MCP servers without tools for this prompt: " + unavailable);
+        }
+        return builder.build();
+    }
+}
@@ -8,9 +8,9 @@ import com.devoxx.genie.ui.topic.AppTopics;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBus;
 
-import dev.langchain4j.mcp.McpToolProvider;
 import dev.langchain4j.mcp.client.DefaultMcpClient;
 import dev.langchain4j.mcp.client.McpClient;
 import dev.langchain4j.mcp.client.transport.McpTransport;
@@ -25,12 +25,18 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 
 /**
- * Service for creating and managing MCP clients based on user configuration
+ * Service for creating and managing MCP clients based on user configuration.
+ *
+ * <p>Clients are pooled for the lifetime of the IDE and their tool catalogs are cached in a
+ * {@link McpToolCatalog}. {@link #warmUp()} starts all enabled servers in parallel when a
+ * project opens, so the first prompt does not pay for process start-up and tool discovery.
  */
 @Slf4j
 public class MCPExecutionService implements Disposable {
@@ -49,17 +55,33 @@ public class MCPExecutionService implements Disposable {
 
     // Cache of MCP clients keyed by server name
     private final Map<String, McpClient> clientCache = new ConcurrentHashMap<>();
+    // One lock per server name so a warm-up and a prompt never start the same server twice
+    private final Map<String, Object> creationLocks = new ConcurrentHashMap<>();
     private final McpClientCreator clientCreator;
+    private final McpToolCatalog toolCatalog;
+    private final Executor executor;
 
     public MCPExecutionService() {
         this.clientCreator = MCPExecutionService::createNewClient;
+        this.executor = AppExecutorUtil.getAppExecutorService();
+        this.toolCatalog = new McpToolCatalog(executor);
     }
 
     /**
      * Package-private constructor for testing with an injectable client creator.
+     * Work that would run in the background runs on the calling thread.
      */
     MCPExecutionService(McpClientCreator clientCreator) {
+        this(clientCreator, new McpToolCatalog(Runnable::run), Runnable::run);
+    }
+
+    /**
+     * Package-private constructor for testing with an injectable catalog and executor.
+     */
+    MCPExecutionService(McpClientCreator clientCreator, McpToolCatalog toolCatalog, Executor executor) {
         this.clientCreator = clientCreator;
+        this.toolCatalog = toolCatalog;
+        this.executor = executor;
     }
 
     public static MCPExecutionService getInstance() {
@@ -88,6 +110,31 @@ public class MCPExecutionService implements Disposable {
             }
         }
         clientCache.clear();
+        toolCatalog.invalidateAll();
+    }
+
+    /**
+     * Start every enabled MCP server in the background, in parallel, and load its tool
+     * catalog. Servers that are already running with a cached catalog are skipped.
+     */
+    public void warmUp() {
+        if (!Boolean.TRUE.equals(DevoxxGenieStateService.getInstance().getMcpEnabled())) {
+            return;
+        }
+        Map<String, MCPServer> mcpServers = DevoxxGenieStateService.getInstance()
+                .getMcpSettings()
+                .getMcpServers();
+        for (MCPServer server : mcpServers.values()) {
+            if (!server.isEnabled() || toolCatalog.isCached(server.getName())) {
+                continue;
+            }
+            executor.execute(() -> {
+                McpClient client = createMcpClient(server);
+                if (client != null) {
+                    toolCatalog.tools(server.getName(), client, McpToolCatalog.WARM_UP_REQUEST);
+                }
+            });
+        }
     }
 
     /**
@@ -178,14 +225,27 @@ public class MCPExecutionService implements Disposable {
             return null;
         }
 
-        // Filter enabled servers, map to clients, and collect
-        List<McpClient> mcpClients = mcpServers.values().stream()
-                .filter(MCPServer::isEnabled)
-                .peek(server -> MCPService.logDebug("Processing MCP server: " + server.getName()))
-                .map(this::createMcpClient)
-                .filter(Objects::nonNull)
-                .peek(client -> MCPService.logDebug("Added MCP client"))
-                .toList();
+        // Start servers that are not running yet in parallel; warmed-up ones come from the pool
+        Map<String, CompletableFuture<McpClient>> pending = new LinkedHashMap<>();
+        for (MCPServer server : mcpServers.values()) {
+            if (!server.isEnabled()) {
+                continue;
+            }
+            MCPService.logDebug("Processing MCP server: " + server.getName());
+            McpClient cached = clientCache.get(server.getName());
+            pending.put(server.getName(), cached != null
+                    ? CompletableFuture.completedFuture(cached)
+                    : CompletableFuture.supplyAsync(() -> createMcpClient(server), executor));
+        }
+
+        Map<String, McpClient> mcpClients = new LinkedHashMap<>();
+        pending.forEach((name, future) -> {
+            McpClient client = future.join();
+            if (client != null) {
+                mcpClients.put(name, client);
+                MCPService.logDebug("Added MCP client");
+            }
+        });
 
         if (mcpClients.isEmpty()) {
             MCPService.logDebug("No MCP clients could be created");
@@ -193,9 +253,7 @@ public class MCPExecutionService implements Disposable {
         }
 
         MCPService.logDebug("Creating MCP Tool Provider with " + mcpClients.size() + " clients");
-        ToolProvider rawProvider = McpToolProvider.builder()
-                .mcpClients(mcpClients)
-                .build();
+        ToolProvider rawProvider = new CachedMcpToolProvider(mcpClients, toolCatalog, executor);
 
         // Wrap with filtering to exclude individually disabled tools.
         ToolProvider filtered = new FilteredMcpToolProvider(rawProvider);
@@ -219,18 +277,32 @@ public class MCPExecutionService implements Disposable {
         String serverName = mcpServer.getName();
 
         // Check if we already have a client for this server
-        if (clientCache.containsKey(serverName)) {
+        McpClient existing = clientCache.get(serverName);
+        if (existing != null) {
             MCPService.logDebug("Reusing existing MCP client for: " + serverName);
-            return clientCache.get(serverName);
+            return existing;
         }
 
+        synchronized (creationLocks.computeIfAbsent(serverName, k -> new Object())) {
+            existing = clientCache.get(serverName);
+            if (existing != null) {
+                return existing;
+            }
+            return createAndCacheClient(mcpServer);
+        }
+    }
+
+    @Nullable
+    private McpClient createAndCacheClient(@NotNull MCPServer mcpServer) {
+        String serverName = mcpServer.getName();
         try {
             MCPService.logDebug("Creating new MCP client for: " + serverName);
 
             McpClient client = clientCreator.create(mcpServer);
 
-            // Cache the client if not null
+            // Cache the client if not null; a new client means a possibly different catalog
             if (client != null) {
+                toolCatalog.invalidate(serverName);
                 clientCache.put(serverName, client);
                 MCPService.logDebug("Added new MCP client to cache for: " + serverName);
             }
@@ -0,0 +1,166 @@
+package com.devoxx.genie.service.mcp;
+
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.mcp.McpToolProvider;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-server cache of MCP tool catalogs (tool specifications bound to their pooled client).
+ *
+ * <p>Listing tools is a JSON-RPC round trip per server; doing it for every prompt adds up
+ * quickly with several servers configured. A catalog is loaded once and then served until its
+ * client is replaced. Once it is older than {@link #REFRESH_AFTER} it is still served, and a
+ * reload runs in the background (stale-while-revalidate), so only a server's first prompt
+ * waits for its tools. A load that fails is not cached, so the next prompt retries it; a
+ * background reload that fails keeps the catalog it would have replaced.
+ *
+ * <p>The reload asks the pooled client, and {@code DefaultMcpClient} answers from its own
+ * tool list, which it drops when the server sends {@code notifications/tools/list_changed}.
+ * A reload therefore normally costs no round trip, and a changed tool list is picked up by
+ * the first prompt after the next reload.
+ */
+@Slf4j
+public class McpToolCatalog {
+
+    /** Age after which a served catalog is reloaded in the background. */
+    static final Duration REFRESH_AFTER = Duration.ofSeconds(30);
+
+    /** Request used when loading outside a prompt, e.g. during warm-up. */
+    static final ToolProviderRequest WARM_UP_REQUEST =
+            new ToolProviderRequest("mcp-tool-catalog", UserMessage.from("list tools"));
+
+    private record Entry(@NotNull ToolProviderResult tools, long loadedAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped on invalidation so a load that started earlier is not stored. */
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    /** Servers with a background reload queued or running, so a burst of prompts starts one. */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final BiFunction<McpClient, ToolProviderRequest, ToolProviderResult> loader;
+    private final LongSupplier clock;
+    private final Executor refreshExecutor;
+
+    /**
+     * @param refreshExecutor runs the background reloads of catalogs older than {@link #REFRESH_AFTER}
+     */
+    public McpToolCatalog(@NotNull Executor refreshExecutor) {
+        this(McpToolCatalog::listTools, System::currentTimeMillis, refreshExecutor);
+    }
+
+    /** Visible for tests. Background reloads run on the calling thread. */
+    McpToolCatalog(@NotNull BiFunction<McpClient, ToolProviderRequest, ToolProviderResult> loader,
+                   @NotNull LongSupplier clock) {
+        this(loader, clock, Runnable::run);
+    }
+
+    /** Visible for tests. */
+    McpToolCatalog(@NotNull BiFunction<McpClient, ToolProviderRequest, ToolProviderResult> loader,
+                   @NotNull LongSupplier clock,
+                   @NotNull Executor refreshExecutor) {
+        this.loader = loader;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Cached tools of {@code serverName}, loading them from {@code client} when missing. A
+     * catalog older than {@link #REFRESH_AFTER} is returned as is and reloaded in the background.
+     *
+     * @return the server's tools, or {@code null} when they could not be listed
+     */
+    public @Nullable ToolProviderResult tools(@NotNull String serverName, @NotNull McpClient client,
+                                              @NotNull ToolProviderRequest request) {
+        Entry entry = entries.get(serverName);
+        if (entry == null) {
+            return load(serverName, client, request);
+        }
+        if (clock.getAsLong() - entry.loadedAt() >= REFRESH_AFTER.toMillis()) {
+            refreshInBackground(serverName, client, request);
+        }
+        return entry.tools();
+    }
+
+    private @Nullable ToolProviderResult load(@NotNull String serverName, @NotNull McpClient client,
+                                              @NotNull ToolProviderRequest request) {
+        long generation = generation(serverName).get();
+        long start = clock.getAsLong();
+        ToolProviderResult tools;
+        try {
+            tools = loader.apply(client, request);
+        } catch (Exception e) {
+            log.warn("Failed to list tools of MCP server {}: {}", serverName, e.getMessage());
+            return null;
+        }
+        if (generation(serverName).get() == generation) {
+            entries.put(serverName, new Entry(tools, clock.getAsLong()));
+        }
+        MCPService.logDebug("Loaded " + tools.aiServiceTools().size() + " tools from " + serverName +
+                " in " + (clock.getAsLong() - start) + " ms");
+        return tools;
+    }
+
+    private void refreshInBackground(@NotNull String serverName, @NotNull McpClient client,
+                                     @NotNull ToolProviderRequest request) {
+        if (!refreshing.add(serverName)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(serverName, client, request);
+                } finally {
+                    refreshing.remove(serverName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(serverName);
+        }
+    }
+
+    /** True when a catalog of {@code serverName} can be served without waiting for the server. */
+    public boolean isCached(@NotNull String serverName) {
+        return entries.containsKey(serverName);
+    }
+
+    /** Drop the catalog of one server, e.g. when its client is replaced. */
+    public void invalidate(@NotNull String serverName) {
+        generation(serverName).incrementAndGet();
+        if (entries.remove(serverName) != null) {
+            MCPService.logDebug("Tool catalog invalidated for: " + serverName);
+        }
+    }
+
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+    }
+
+    private @NotNull AtomicLong generation(@NotNull String serverName) {
+        return generations.computeIfAbsent(serverName, k -> new AtomicLong());
+    }
+
+    /** List the tools of a single client; failures propagate so they are not cached. */
+    private static @NotNull ToolProviderResult listTools(@NotNull McpClient client, @NotNull ToolProviderRequest request) {
+        return McpToolProvider.builder()
+                .mcpClients(List.of(client))
+                .failIfOneServerFails(true)
+                .build()
+                .provideTools(request);
+    }
+}
@@ -0,0 +1,79 @@
+package com.devoxx.genie.service.process;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Bounded, thread-safe line buffer for process output that keeps the head and the tail.
+ *
+ * <p>The first half of the capacity is filled once and kept (the command line echo, the first
+ * error); the second half is a ring of the most recent lines (the summary, the exit reason).
+ * Lines falling out of the ring are counted but not stored, so a chatty process never grows
+ * the buffer beyond its capacity.
+ */
+public final class OutputBuffer {
+
+    static final String TRUNCATION_MARKER = "... (output truncated)";
+    /** Room kept for the marker line, so callers can cap the rendered text without cutting the tail. */
+    private static final int MARKER_RESERVE = 64;
+
+    private final int headCapacity;
+    private final int tailCapacity;
+    private final StringBuilder head = new StringBuilder();
+    private final Deque<String> tail = new ArrayDeque<>();
+    private int tailLength;
+    private boolean headFull;
+    private long omittedLines;
+
+    /**
+     * @param maxChars upper bound of the rendered output, in characters (including the marker
+     *                 line once anything was dropped, for any capacity above {@value #MARKER_RESERVE})
+     */
+    public OutputBuffer(int maxChars) {
+        int capacity = Math.max(0, maxChars);
+        this.headCapacity = capacity / 2;
+        this.tailCapacity = Math.max(0, capacity - headCapacity - MARKER_RESERVE);
+    }
+
+    public synchronized void appendLine(@NotNull String line) {
+        String entry = line + "\n";
+        if (!headFull) {
+            if (head.length() + entry.length() <= headCapacity) {
+                head.append(entry);
+                return;
+            }
+            headFull = true;
+        }
+        if (tailCapacity == 0) {
+            omittedLines++;
+            return;
+        }
+        if (entry.length() > tailCapacity) {
+            // A single huge line: keep its end, it is usually where the message is.
+            entry = entry.substring(entry.length() - tailCapacity);
+        }
+        tail.addLast(entry);
+        tailLength += entry.length();
+        while (tailLength > tailCapacity && !tail.isEmpty()) {
+            tailLength -= tail.removeFirst().length();
+            omittedLines++;
+        }
+    }
+
+    public synchronized boolean isTruncated() {
+        return omittedLines > 0;
+    }
+
+    @Override
+    public synchronized @NotNull String toString() {
+        StringBuilder sb = new StringBuilder(head.length() + tailLength + 64);
+        sb.append(head);
+        if (omittedLines > 0) {
+            sb.append(TRUNCATION_MARKER).append(' ').append(omittedLines).append(" lines omitted ...\n");
+        }
+        tail.forEach(sb::append);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,231 @@
+package com.devoxx.genie.service.process;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Drives an already started {@link Process}: pumps stdout and stderr on their own daemon
+ * threads, enforces a wall-clock timeout and kills the whole process tree when it expires.
+ *
+ * <p>The calling thread only ever blocks in {@link Process#waitFor}, so a process that floods
+ * its pipes or never closes them cannot hold the caller past the timeout. Output goes to a
+ * bounded {@link OutputBuffer} and, line by line, to an optional {@link LineListener} for
+ * live display. Lines longer than {@link #MAX_LINE_CHARS} are passed on in pieces, so a
+ * process that never prints a newline cannot grow a pump's memory either; callers that parse
+ * whole lines pass {@link #UNLIMITED_LINE_CHARS} instead. Shared by the {@code run_command}
+ * and {@code run_tests} agent tools and the CLI task runner.
+ */
+@Slf4j
+public final class ProcessRunner {
+
+    /** How long the pumps may keep draining after the process has exited or was killed. */
+    static final long DRAIN_TIMEOUT_MS = 5_000;
+
+    /** Longest piece of a line held in memory; longer lines (minified JSON, progress bars) are split. */
+    static final int MAX_LINE_CHARS = 16 * 1024;
+
+    /** Line cap that never splits, for output whose lines must be read whole (stream-json events). */
+    public static final int UNLIMITED_LINE_CHARS = Integer.MAX_VALUE;
+
+    /** Receives every output line as it is read. Called from the pump threads. */
+    @FunctionalInterface
+    public interface LineListener {
+        void onLine(@NotNull String line, boolean stderr);
+    }
+
+    /**
+     * @param exitCode the process exit code, or {@code -1} when it timed out
+     * @param output   captured stdout and stderr, interleaved in arrival order
+     */
+    public record Result(int exitCode, boolean timedOut, @NotNull String output) {}
+
+    private ProcessRunner() {
+    }
+
+    /**
+     * Wait for {@code process} while pumping its output, splitting lines longer than
+     * {@link #MAX_LINE_CHARS}.
+     *
+     * @see #run(Process, Duration, OutputBuffer, LineListener, int)
+     */
+    public static @NotNull Result run(@NotNull Process process,
+                                      @Nullable Duration timeout,
+                                      @Nullable OutputBuffer output,
+                                      @Nullable LineListener listener) throws InterruptedException {
+        return run(process, timeout, output, listener, MAX_LINE_CHARS);
+    }
+
+    /**
+     * Wait for {@code process} while pumping its output.
+     *
+     * @param timeout      wall-clock limit; {@code null} waits until the process exits
+     * @param output       buffer receiving both streams, or {@code null} to only notify the listener
+     * @param listener     optional live consumer of each line
+     * @param maxLineChars longest piece of a line passed on at once, or {@link #UNLIMITED_LINE_CHARS}
+     * @throws InterruptedException when the caller is interrupted; the process tree is killed first
+     */
+    public static @NotNull Result run(@NotNull Process process,
+                                      @Nullable Duration timeout,
+                                      @Nullable OutputBuffer output,
+                                      @Nullable LineListener listener,
+                                      int maxLineChars) throws InterruptedException {
+        List<Thread> pumps = Stream.of(
+                        pump(process.getInputStream(), false, output, listener, maxLineChars, process),
+                        pump(process.getErrorStream(), true, output, listener, maxLineChars, process))
+                .filter(Objects::nonNull)
+                .toList();
+
+        try {
+            boolean finished;
+            if (timeout == null) {
+                process.waitFor();
+                finished = true;
+            } else {
+                finished = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (!finished) {
+                log.info("Process {} timed out after {} ms, killing process tree", describe(process), timeout.toMillis());
+                killTree(process);
+            }
+            awaitPumps(pumps);
+            String text = output != null ? output.toString() : "";
+            return new Result(finished ? process.exitValue() : -1, !finished, text);
+        } catch (InterruptedException e) {
+            killTree(process);
+            throw e;
+        }
+    }
+
+    /**
+     * Forcibly terminate {@code process} and everything it spawned. Killing only the shell of
+     * {@code bash -c "..."} would leave the actual command running and holding the pipes open.
+     */
+    public static void killTree(@NotNull Process process) {
+        List<ProcessHandle> descendants = List.of();
+        try {
+            Stream<ProcessHandle> stream = process.descendants();
+            if (stream != null) {
+                descendants = stream.toList();
+            }
+        } catch (UnsupportedOperationException e) {
+            log.debug("Process {} does not expose its descendants", describe(process));
+        }
+        process.destroyForcibly();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private static @Nullable Thread pump(@Nullable InputStream stream, boolean stderr,
+                                         @Nullable OutputBuffer output, @Nullable LineListener listener,
+                                         int maxLineChars, @NotNull Process process) {
+        if (stream == null) {
+            return null;
+        }
+        String streamName = stderr ? "stderr" : "stdout";
+        Thread thread = new Thread(() -> {
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                readLines(reader, maxLineChars, line -> {
+                    if (output != null) {
+                        output.appendLine(line);
+                    }
+                    dispatch(listener, line, stderr);
+                });
+            } catch (IOException e) {
+                // The pipe is closed when the process is killed; nothing left to read.
+                log.debug("{} pump of {} ended: {}", streamName, describe(process), e.getMessage());
+            }
+        }, "process-" + streamName + "-pump");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Splits {@code reader} into lines like {@link java.io.BufferedReader#readLine()} does
+     * ({@code \n}, {@code \r} or {@code \r\n}), but never collects more than
+     * {@code maxLineChars} characters before handing a piece to {@code sink}.
+     */
+    static void readLines(@NotNull Reader reader, int maxLineChars,
+                          @NotNull Consumer<String> sink) throws IOException {
+        char[] chunk = new char[8192];
+        StringBuilder line = new StringBuilder();
+        boolean afterCr = false;
+        // True right after a full-length piece was emitted, so the terminator that follows
+        // it does not produce an extra empty line.
+        boolean split = false;
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = chunk[i];
+                if (c == '\n' && afterCr) {
+                    afterCr = false;
+                    continue;
+                }
+                afterCr = c == '\r';
+                if (c == '\n' || c == '\r') {
+                    if (!split) {
+                        sink.accept(line.toString());
+                    }
+                    line.setLength(0);
+                    split = false;
+                } else {
+                    line.append(c);
+                    split = false;
+                    if (line.length() >= maxLineChars) {
+                        sink.accept(line.toString());
+                        line.setLength(0);
+                        split = true;
+                    }
+                }
+            }
+        }
+        if (!line.isEmpty()) {
+            sink.accept(line.toString());
+        }
+    }
+
+    private static void dispatch(@Nullable LineListener listener, @NotNull String line, boolean stderr) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onLine(line, stderr);
+        } catch (RuntimeException e) {
+            log.debug("Process output listener failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Give the pumps a bounded time to drain what is left in the pipes. A grandchild that
+     * inherited the pipes can keep them open forever; its pump is abandoned (it is a daemon).
+     */
+    private static void awaitPumps(@NotNull List<Thread> pumps) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        for (Thread pump : pumps) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining > 0) {
+                pump.join(remaining);
+            }
+        }
+    }
+
+    private static @NotNull String describe(@NotNull Process process) {
+        try {
+            return "pid " + process.pid();
+        } catch (UnsupportedOperationException e) {
+            return process.toString();
+        }
+    }
+}
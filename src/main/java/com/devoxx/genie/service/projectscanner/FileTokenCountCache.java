@@ -0,0 +1,122 @@
+package com.devoxx.genie.service.projectscanner;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-project cache of file path → token count, one count per tokenizer variant (encoding
+ * name plus any content processing such as Javadoc stripping). Lets "calculate tokens" on a
+ * project or directory sum cached counts instead of re-reading and re-encoding every file.
+ *
+ * <p>An entry is only served while the file's VFS modification stamp, timestamp and length
+ * still match what was recorded, so a stale count is never returned even if an event is
+ * missed. VFS events additionally evict changed, moved, renamed and deleted files (and
+ * everything under a deleted directory) so the cache does not hold counts for files that
+ * are gone.
+ */
+@Service(Service.Level.PROJECT)
+public final class FileTokenCountCache implements Disposable {
+
+    private record Entry(long modificationStamp, long timeStamp, long length, int tokens) {
+        boolean matches(@NotNull VirtualFile file) {
+            return modificationStamp == file.getModificationStamp()
+                    && timeStamp == file.getTimeStamp()
+                    && length == file.getLength();
+        }
+    }
+
+    /** path → (variant → entry). Keyed by path first so VFS eviction is a single remove. */
+    private final ConcurrentMap<String, ConcurrentMap<String, Entry>> counts = new ConcurrentHashMap<>();
+
+    public FileTokenCountCache(@NotNull Project project) {
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+                handleEvents(events);
+            }
+        });
+    }
+
+    /** Visible for tests; no VFS subscription. */
+    FileTokenCountCache() {
+    }
+
+    public static @Nullable FileTokenCountCache getInstance(@NotNull Project project) {
+        return project.getService(FileTokenCountCache.class);
+    }
+
+    /**
+     * Token count for {@code file} under {@code variant}, computing and caching it on a miss.
+     *
+     * @param variant identifies the tokenizer and content processing the count was made with
+     * @param compute reads and tokenizes the file; only called on a miss
+     */
+    public int tokens(@NotNull VirtualFile file, @NotNull String variant, @NotNull ToIntFunction<VirtualFile> compute) {
+        Map<String, Entry> perVariant = counts.get(file.getPath());
+        Entry entry = perVariant == null ? null : perVariant.get(variant);
+        if (entry != null && entry.matches(file)) {
+            return entry.tokens();
+        }
+        // Capture the stamps before reading so a concurrent edit can only make the entry
+        // look stale, never make a count of old content look current.
+        long modificationStamp = file.getModificationStamp();
+        long timeStamp = file.getTimeStamp();
+        long length = file.getLength();
+        int tokens = compute.applyAsInt(file);
+        counts.computeIfAbsent(file.getPath(), p -> new ConcurrentHashMap<>())
+                .put(variant, new Entry(modificationStamp, timeStamp, length, tokens));
+        return tokens;
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    /** Visible for tests. */
+    void handleEvents(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+            if (event instanceof VFileContentChangeEvent) {
+                counts.remove(event.getPath());
+            } else if (event instanceof VFileDeleteEvent) {
+                evictTree(event.getPath());
+            } else if (event instanceof VFileMoveEvent move) {
+                evictTree(move.getOldPath());
+            } else if (event instanceof VFilePropertyChangeEvent property) {
+                // Renames change the path of the file and of everything below it.
+                evictTree(property.getOldPath());
+            }
+        }
+    }
+
+    private void evictTree(@NotNull String path) {
+        counts.remove(path);
+        String prefix = path.endsWith("/") ? path : path + "/";
+        counts.keySet().removeIf(p -> p.startsWith(prefix));
+    }
+
+    @Override
+    public void dispose() {
+        counts.clear();
+    }
+}
@@ -1,6 +1,7 @@
 package com.devoxx.genie.service.projectscanner;
 
 import com.devoxx.genie.model.ScanContentResult;
+import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.ApplicationManager;
 import com.devoxx.genie.util.ReadAccess;
 import com.intellij.openapi.progress.ProgressIndicator;
@@ -12,6 +13,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +30,9 @@ public class ProjectScannerService {
 
     protected TokenCalculator tokenCalculator;
 
+    /** Parallel readers for {@link StreamingContentAssembler}; file reads are mostly I/O-bound. */
+    private static final int SCAN_WORKERS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     // Use a Map to store ProjectFileIndex instances per project
     private final Map<String, ProjectFileIndex> projectFileIndexMap = new HashMap<String, ProjectFileIndex>();
 
@@ -59,6 +64,18 @@ public class ProjectScannerService {
         });
     }
 
+    /**
+     * Scans {@code startDirectory} (or the whole project when null) and assembles its
+     * directory structure and file contents.
+     *
+     * <p>The VFS walk runs in one short read action that only touches metadata. File contents
+     * are then read outside it by a {@link StreamingContentAssembler}, in parallel and
+     * straight into a token-budgeted buffer: once {@code windowContextMaxTokens} is reached no
+     * further files are read. Token calculation skips assembly altogether and sums per-file
+     * counts from the project's {@link FileTokenCountCache}, so {@code content} then holds
+     * only the directory structure. Progress and cancellation follow the current progress
+     * indicator, if any.
+     */
     public ScanContentResult scanProject(Project project,
                                          VirtualFile startDirectory,
                                          int windowContextMaxTokens,
@@ -70,91 +87,94 @@ public class ProjectScannerService {
                 (startDirectory != null ? startDirectory.getPath() : "null"));
 
         ScanContentResult scanContentResult = new ScanContentResult();
-        ReadAccess.run(() -> {
-            fileScanner.reset();
-
-            // Get a valid startDirectory if null
-            VirtualFile resolvedDirectory = startDirectory;
-            if (resolvedDirectory == null) {
-                // Find the project root directory
-                resolvedDirectory = fileScanner.scanProjectModules(project);
-                log.info("Resolved null startDirectory to project root: {}",
-                        (resolvedDirectory != null ? resolvedDirectory.getPath() : "null"));
+        ProgressIndicator indicator = currentProgressIndicator();
+
+        ScanPlan plan = ReadAccess.compute(() ->
+                planScan(project, startDirectory, scanContentResult, projectFileIndex));
+
+        String content;
+        int tokenCount;
+        if (plan.singleFile() != null) {
+            content = handleSingleFile(plan.singleFile());
+            tokenCount = tokenCalculator.calculateTokens(content);
+        } else {
+            StreamingContentAssembler assembler =
+                    new StreamingContentAssembler(contentExtractor, tokenCalculator, SCAN_WORKERS);
+            String header = contentExtractor.combineContent(plan.directoryStructure(), "");
+            // Token calculation only needs the total, which per-file cached counts can answer.
+            StreamingContentAssembler.Result assembled = isTokenCalculation
+                    ? assembler.count(header, plan.files(), FileTokenCountCache.getInstance(project),
+                            tokenCountVariant(), indicator)
+                    : assembler.assemble(header, plan.files(), windowContextMaxTokens, true, indicator);
+            if (indicator != null) {
+                // Workers stop quietly on cancel; surface it to the caller like the sequential scan did.
+                indicator.checkCanceled();
             }
+            content = assembled.content();
+            tokenCount = assembled.tokenCount();
+            if (assembled.truncated()) {
+                log.info("Token budget of {} reached after {} of {} files",
+                        windowContextMaxTokens, assembled.filesEmitted(), plan.files().size());
+            }
+        }
 
-            fileScanner.initGitignoreParser(project, resolvedDirectory);
-
-            log.info("Starting content scan for {}", (startDirectory != null ? startDirectory.getPath() : "entire project"));
-            String content = scanContent(project, startDirectory, windowContextMaxTokens, isTokenCalculation, scanContentResult, projectFileIndex);
-
-            // Log included files for debugging
-            log.info("Files included after scan: {}", fileScanner.getIncludedFiles().size());
-            fileScanner.getIncludedFiles().forEach(file -> {
-                log.info("Including file in result: {}", file);
-                scanContentResult.addFile(file);
-            });
-
-            int tokenCount = tokenCalculator.calculateTokens(content);
-            log.info("FINAL TOKEN COUNT: {} tokens", tokenCount);
-            log.info("Content length: {} characters", content.length());
-            log.info("First 100 chars: {}", content.substring(0, Math.min(100, content.length())));
-            log.info("Last 100 chars: {}", content.substring(Math.max(0, content.length() - 100)));
-            scanContentResult.setTokenCount(tokenCount);
-            scanContentResult.setContent(content);
-            scanContentResult.setFileCount(fileScanner.getFileCount());
-            scanContentResult.setSkippedFileCount(fileScanner.getSkippedFileCount());
-            scanContentResult.setSkippedDirectoryCount(fileScanner.getSkippedDirectoryCount());
-
-            log.info("Scan complete. Files: {}, Skipped files: {}, Skipped directories: {}",
-                    fileScanner.getFileCount(),
-                    fileScanner.getSkippedFileCount(),
-                    fileScanner.getSkippedDirectoryCount());
-        });
+        log.info("Files included after scan: {}", fileScanner.getIncludedFiles().size());
+        fileScanner.getIncludedFiles().forEach(scanContentResult::addFile);
+
+        log.info("FINAL TOKEN COUNT: {} tokens", tokenCount);
+        log.info("Content length: {} characters", content.length());
+        scanContentResult.setTokenCount(tokenCount);
+        scanContentResult.setContent(content);
+        scanContentResult.setFileCount(fileScanner.getFileCount());
+        scanContentResult.setSkippedFileCount(fileScanner.getSkippedFileCount());
+        scanContentResult.setSkippedDirectoryCount(fileScanner.getSkippedDirectoryCount());
+
+        log.info("Scan complete. Files: {}, Skipped files: {}, Skipped directories: {}",
+                fileScanner.getFileCount(),
+                fileScanner.getSkippedFileCount(),
+                fileScanner.getSkippedDirectoryCount());
         return scanContentResult;
     }
 
-    // Changed from private to public for better testability
-    public @NotNull String scanContent(Project project,
-                                       VirtualFile startDirectory,
-                                       int windowContextMaxTokens,
-                                       boolean isTokenCalculation,
+    /** Cache key for per-file token counts: the encoding plus settings that change file content. */
+    private @NotNull String tokenCountVariant() {
+        boolean stripJavadoc = Boolean.TRUE.equals(DevoxxGenieStateService.getInstance().getExcludeJavaDoc());
+        return tokenCalculator.encodingName() + (stripJavadoc ? "/no-javadoc" : "");
+    }
+
+    /** What {@link #planScan} found: either a single file, or a tree plus the files to read. */
+    private record ScanPlan(@Nullable VirtualFile singleFile,
+                            @NotNull String directoryStructure,
+                            @NotNull List<VirtualFile> files) {}
+
+    /** Metadata-only part of the scan; must run inside a read action. */
+    private @NotNull ScanPlan planScan(Project project,
+                                       @Nullable VirtualFile startDirectory,
                                        ScanContentResult scanContentResult,
                                        ProjectFileIndex projectFileIndex) {
-        // We're now using the projectFileIndex parameter directly
-
-        StringBuilder directoryStructure = new StringBuilder();
-        String fileContents;
-
-        if (startDirectory == null) {
-            // Case 1: No directory provided, scan all modules
-            VirtualFile rootDirectory = fileScanner.scanProjectModules(project);
-            directoryStructure.append(fileScanner.generateSourceTreeRecursive(rootDirectory, 0));
-            // Use the provided projectFileIndex
-            List<VirtualFile> files = fileScanner.scanDirectory(projectFileIndex, rootDirectory, scanContentResult);
-            fileContents = extractAllFileContents(files);
-        } else if (startDirectory.isDirectory()) {
-            // Case 2: Directory provided
-            directoryStructure.append(fileScanner.generateSourceTreeRecursive(startDirectory, 0));
-            // Use the provided projectFileIndex
-            List<VirtualFile> files = fileScanner.scanDirectory(projectFileIndex, startDirectory, scanContentResult);
-            fileContents = extractAllFileContents(files);
-        } else {
-            // Case 3: Single file provided
-            return handleSingleFile(startDirectory);
+        fileScanner.reset();
+
+        // Get a valid startDirectory if null
+        VirtualFile resolvedDirectory = startDirectory;
+        if (resolvedDirectory == null) {
+            // Find the project root directory
+            resolvedDirectory = fileScanner.scanProjectModules(project);
+            log.info("Resolved null startDirectory to project root: {}",
+                    (resolvedDirectory != null ? resolvedDirectory.getPath() : "null"));
         }
 
-        String fullContent = contentExtractor.combineContent(directoryStructure.toString(), fileContents);
+        fileScanner.initGitignoreParser(project, resolvedDirectory);
 
-        // For token calculation (Calc tokens for directory), we want the ACTUAL token count
-        // For content to be used in prompts, we need to truncate
-        if (isTokenCalculation) {
-            log.info("Not truncating content for token calculation only");
-            return fullContent;
-        } else {
-            // Only truncate if the content will be used (not for token calculation only)
-            log.info("Truncating content to {} tokens for usage in prompt", windowContextMaxTokens);
-            return tokenCalculator.truncateToTokens(fullContent, windowContextMaxTokens, isTokenCalculation);
+        log.info("Starting content scan for {}", (startDirectory != null ? startDirectory.getPath() : "entire project"));
+        if (resolvedDirectory == null) {
+            return new ScanPlan(null, "", List.of());
         }
+        if (!resolvedDirectory.isDirectory()) {
+            return new ScanPlan(resolvedDirectory, "", List.of());
+        }
+        String directoryStructure = fileScanner.generateSourceTreeRecursive(resolvedDirectory, 0);
+        List<VirtualFile> files = fileScanner.scanDirectory(projectFileIndex, resolvedDirectory, scanContentResult);
+        return new ScanPlan(null, directoryStructure, files);
     }
 
     // Changed from private to public for better testability
@@ -171,37 +191,6 @@ public class ProjectScannerService {
         return result.toString();
     }
 
-    // Changed from private to public for better testability
-    public @NotNull String extractAllFileContents(@NotNull List<VirtualFile> files) {
-        // The file count is known up front, so surface determinate progress when this scan
-        // runs under a progress context (task-236). Outside one, the indicator is null and
-        // behavior is unchanged.
-        ProgressIndicator indicator = currentProgressIndicator();
-        int total = files.size();
-        if (indicator != null && total > 0) {
-            indicator.setIndeterminate(false);
-        }
-
-        StringBuilder contents = new StringBuilder();
-        for (int i = 0; i < total; i++) {
-            VirtualFile file = files.get(i);
-            if (indicator != null) {
-                // Intentional new exit path (task-236): checkCanceled() throws
-                // ProcessCanceledException, also from inside the surrounding ReadAction
-                // (read actions are cancellation-aware). An indicator only exists when the
-                // scan runs under a progress-managed context (Task.Backgroundable /
-                // ProgressManager.runProcess), and that framework always handles PCE —
-                // non-RAG callers (token calc, project-context scans) run without an
-                // indicator and are unaffected.
-                indicator.checkCanceled();
-                indicator.setFraction((i + 1) / (double) total);
-                indicator.setText2(file.getName());
-            }
-            contents.append(contentExtractor.extractFileContent(file));
-        }
-        return contents.toString();
-    }
-
     /** Null-safe lookup of the current progress indicator (null in unit tests / outside tasks). */
     private static ProgressIndicator currentProgressIndicator() {
         if (ApplicationManager.getApplication() == null) {
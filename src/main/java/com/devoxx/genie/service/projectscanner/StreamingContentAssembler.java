@@ -0,0 +1,278 @@
+package com.devoxx.genie.service.projectscanner;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.vfs.VirtualFile;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reads the files selected by {@link FileScanner} with a small pool of workers and streams
+ * their formatted contents, in scan order, into a token-budgeted buffer.
+ *
+ * <p>Compared to building the whole project text and truncating it afterwards, this:
+ * <ul>
+ *   <li>counts tokens per file on the worker that read it, so tokenization is parallel and
+ *       the full text is never re-encoded in one piece;</li>
+ *   <li>stops handing out files once the budget is reached, so a project many times larger
+ *       than the context window is not read in full;</li>
+ *   <li>bounds how far workers may run ahead of the in-order writer
+ *       ({@link #READ_AHEAD_PER_WORKER} files each), keeping the heap at roughly one copy
+ *       of the emitted text.</li>
+ * </ul>
+ * Progress and cancellation go through the optional {@link ProgressIndicator}.
+ */
+@Slf4j
+public class StreamingContentAssembler {
+
+    static final String TRUNCATION_MARKER = "\n--- Project context truncated due to token limit ---\n";
+    static final int READ_AHEAD_PER_WORKER = 4;
+
+    private final ContentExtractor contentExtractor;
+    private final TokenCalculator tokenCalculator;
+    private final int workers;
+
+    public StreamingContentAssembler(@NotNull ContentExtractor contentExtractor,
+                                     @NotNull TokenCalculator tokenCalculator,
+                                     int workers) {
+        this.contentExtractor = contentExtractor;
+        this.tokenCalculator = tokenCalculator;
+        this.workers = Math.max(1, workers);
+    }
+
+    /** Outcome of one assembly run. */
+    public record Result(@NotNull String content, int tokenCount, int filesEmitted, boolean truncated) {}
+
+    /**
+     * @param header     text emitted before any file (directory structure); counts against the budget
+     * @param files      files in the order they should appear
+     * @param maxTokens  token budget; {@link Integer#MAX_VALUE} for "count everything"
+     * @param markTruncation append {@link #TRUNCATION_MARKER} when the budget cut the content short
+     * @param indicator  optional progress indicator; cancelling it stops all workers
+     */
+    public @NotNull Result assemble(@NotNull String header,
+                                    @NotNull List<VirtualFile> files,
+                                    int maxTokens,
+                                    boolean markTruncation,
+                                    @Nullable ProgressIndicator indicator) {
+        Sink sink = new Sink(maxTokens);
+        sink.offer(header, tokenCalculator.countTokens(header));
+
+        int total = files.size();
+        if (indicator != null && total > 0) {
+            indicator.setIndeterminate(false);
+        }
+
+        if (total > 0 && !sink.full) {
+            int poolSize = Math.min(workers, total);
+            ExecutorService pool = newPool(poolSize);
+            Semaphore readAhead = new Semaphore(poolSize * READ_AHEAD_PER_WORKER);
+            AtomicInteger next = new AtomicInteger();
+            try {
+                for (int w = 0; w < poolSize; w++) {
+                    pool.execute(() -> readFiles(files, next, readAhead, sink, indicator));
+                }
+            } finally {
+                pool.shutdown();
+                awaitQuietly(pool);
+            }
+        }
+
+        String content = sink.text.toString();
+        if (sink.truncated && markTruncation) {
+            content += TRUNCATION_MARKER;
+        }
+        log.debug("Assembled {} of {} files, {} tokens{}", sink.filesEmitted, total, sink.tokens,
+                sink.truncated ? " (budget reached)" : "");
+        return new Result(content, sink.tokens, sink.filesEmitted, sink.truncated);
+    }
+
+    /**
+     * Token-count-only variant used by "calculate tokens": no content is assembled, and files
+     * whose count is cached in {@code cache} (for {@code variant}) are not read at all, so a
+     * repeat calculation over an unchanged tree is a sum of cached values.
+     *
+     * @return result whose {@code content} is just the header
+     */
+    public @NotNull Result count(@NotNull String header,
+                                 @NotNull List<VirtualFile> files,
+                                 @Nullable FileTokenCountCache cache,
+                                 @NotNull String variant,
+                                 @Nullable ProgressIndicator indicator) {
+        AtomicLong tokens = new AtomicLong(tokenCalculator.countTokens(header));
+        AtomicInteger counted = new AtomicInteger();
+        int total = files.size();
+        if (indicator != null && total > 0) {
+            indicator.setIndeterminate(false);
+        }
+        ToIntFunction<VirtualFile> tokenize = file -> {
+            String chunk = readQuietly(file);
+            return chunk.isEmpty() ? 0 : tokenCalculator.countTokens(chunk);
+        };
+
+        if (total > 0) {
+            int poolSize = Math.min(workers, total);
+            ExecutorService pool = newPool(poolSize);
+            AtomicInteger next = new AtomicInteger();
+            try {
+                for (int w = 0; w < poolSize; w++) {
+                    pool.execute(() -> {
+                        int index;
+                        while ((index = next.getAndIncrement()) < total) {
+                            if (indicator != null && indicator.isCanceled()) return;
+                            VirtualFile file = files.get(index);
+                            tokens.addAndGet(cache == null
+                                    ? tokenize.applyAsInt(file)
+                                    : cache.tokens(file, variant, tokenize));
+                            int done = counted.incrementAndGet();
+                            if (indicator != null) {
+                                indicator.setFraction(done / (double) total);
+                                indicator.setText2(file.getName());
+                            }
+                        }
+                    });
+                }
+            } finally {
+                pool.shutdown();
+                awaitQuietly(pool);
+            }
+        }
+        int tokenCount = (int) Math.min(Integer.MAX_VALUE, tokens.get());
+        return new Result(header, tokenCount, counted.get(), false);
+    }
+
+    private void readFiles(@NotNull List<VirtualFile> files,
+                           @NotNull AtomicInteger next,
+                           @NotNull Semaphore readAhead,
+                           @NotNull Sink sink,
+                           @Nullable ProgressIndicator indicator) {
+        while (true) {
+            try {
+                readAhead.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            int index = next.getAndIncrement();
+            if (index >= files.size() || sink.isClosed() || (indicator != null && indicator.isCanceled())) {
+                readAhead.release();
+                sink.close();
+                return;
+            }
+            VirtualFile file = files.get(index);
+            String chunk = readQuietly(file);
+            int tokens = chunk.isEmpty() ? 0 : tokenCalculator.countTokens(chunk);
+            int released = sink.complete(index, chunk, tokens);
+            readAhead.release(released);
+            if (indicator != null) {
+                indicator.setFraction(Math.min(1.0, (index + 1) / (double) files.size()));
+                indicator.setText2(file.getName());
+            }
+        }
+    }
+
+    private @NotNull String readQuietly(@NotNull VirtualFile file) {
+        try {
+            return contentExtractor.extractFileContent(file);
+        } catch (RuntimeException e) {
+            log.debug("Failed to read {} for project context: {}", file.getPath(), e.getMessage());
+            return "";
+        }
+    }
+
+    private static @NotNull ExecutorService newPool(int size) {
+        return Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "DevoxxGenie-ProjectScan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void awaitQuietly(@NotNull ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                log.debug("Waiting for project scan workers to finish");
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Re-orders completed files and appends them to the output while the budget allows.
+     * Workers complete out of order; a chunk is only appended once every earlier index has
+     * been appended, so the output matches the sequential scan byte for byte.
+     */
+    private final class Sink {
+        private final int maxTokens;
+        private final StringBuilder text = new StringBuilder();
+        private final Map<Integer, String> pendingText = new HashMap<>();
+        private final Map<Integer, Integer> pendingTokens = new HashMap<>();
+        private int nextToEmit;
+        private int tokens;
+        private int filesEmitted;
+        private boolean full;
+        private boolean truncated;
+        private volatile boolean closed;
+
+        Sink(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        /** @return number of read-ahead permits freed (one per chunk appended or discarded) */
+        synchronized int complete(int index, @NotNull String chunk, int chunkTokens) {
+            pendingText.put(index, chunk);
+            pendingTokens.put(index, chunkTokens);
+            int released = 0;
+            while (pendingText.containsKey(nextToEmit)) {
+                String ready = pendingText.remove(nextToEmit);
+                int readyTokens = pendingTokens.remove(nextToEmit);
+                nextToEmit++;
+                released++;
+                if (!full && offer(ready, readyTokens) && !ready.isEmpty()) {
+                    filesEmitted++;
+                }
+            }
+            return released;
+        }
+
+        /** Appends as much of {@code chunk} as fits; returns true if anything was appended. */
+        synchronized boolean offer(@NotNull String chunk, int chunkTokens) {
+            if (full) return false;
+            if ((long) tokens + chunkTokens <= maxTokens) {
+                text.append(chunk);
+                tokens += chunkTokens;
+                return true;
+            }
+            int remaining = maxTokens - tokens;
+            full = true;
+            truncated = true;
+            closed = true;
+            if (remaining <= 0) return false;
+            String head = tokenCalculator.truncateToTokens(chunk, remaining, true);
+            text.append(head);
+            tokens += tokenCalculator.countTokens(head);
+            return true;
+        }
+    }
+}
@@ -38,6 +38,19 @@ public class TokenCalculator {
         return tokenCount;
     }
 
+    /**
+     * Same count as {@link #calculateTokens(String)} without the per-call logging; used for
+     * per-file counts while streaming project content.
+     */
+    public int countTokens(@NotNull String text) {
+        return encoding.countTokensOrdinary(text);
+    }
+
+    /** Name of the underlying encoding, e.g. {@code cl100k_base}; part of token-count cache keys. */
+    public @NotNull String encodingName() {
+        return encoding.getName();
+    }
+
     public String truncateToTokens(@NotNull String text,
                                    int maxTokens,
                                    boolean isTokenCalculation) {
@@ -0,0 +1,182 @@
+package com.devoxx.genie.service.prompt.threading;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An executor whose concurrency limit is a semaphore rather than a thread count, instrumented
+ * with queue depth, active tasks and wait times.
+ *
+ * <p>In {@link Mode#PLATFORM} mode tasks run on a fixed pool of that many threads, as before.
+ * In {@link Mode#VIRTUAL} mode every task gets its own virtual thread and waits for a permit
+ * there: work that mostly blocks on LLM HTTP calls or tools no longer ties up a platform
+ * thread while it waits. Virtual threads need a Java 21 runtime; the plugin targets Java 17,
+ * so they are created reflectively and {@link #create} falls back to platform threads.
+ */
+@Slf4j
+public final class BoundedExecutor extends AbstractExecutorService {
+
+    public enum Mode { PLATFORM, VIRTUAL }
+
+    /**
+     * Point-in-time view of one pool.
+     *
+     * @param queued tasks submitted but not yet running (waiting for a thread or a permit)
+     */
+    public record Metrics(@NotNull String name, @NotNull Mode mode, int maxConcurrency,
+                          int active, int queued, long completed, double averageWaitMs, double maxWaitMs) {}
+
+    private final String name;
+    private final Mode mode;
+    private final int maxConcurrency;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private BoundedExecutor(@NotNull String name, @NotNull Mode mode, int maxConcurrency,
+                            @NotNull ExecutorService delegate) {
+        this.name = name;
+        this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * @param threadFactory used for the platform threads, and as the fallback when virtual
+     *                      threads are requested but not available
+     */
+    public static @NotNull BoundedExecutor create(@NotNull String name, @NotNull Mode mode, int maxConcurrency,
+                                                  @NotNull ThreadFactory threadFactory) {
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor(name);
+            if (virtual != null) {
+                return new BoundedExecutor(name, Mode.VIRTUAL, maxConcurrency, virtual);
+            }
+            log.warn("Virtual threads are not available on this runtime, {} uses platform threads", name);
+        }
+        return new BoundedExecutor(name, Mode.PLATFORM, maxConcurrency,
+                Executors.newFixedThreadPool(maxConcurrency, threadFactory));
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        ExecutorService probe = newVirtualThreadPerTaskExecutor("probe");
+        if (probe == null) {
+            return false;
+        }
+        probe.shutdown();
+        return true;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> runWithPermit(command, submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void runWithPermit(@NotNull Runnable command, long submittedAt) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // Cancelled (or shut down) while waiting for a permit: the task never starts.
+            queued.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        queued.decrementAndGet();
+        recordWait(System.nanoTime() - submittedAt);
+        active.incrementAndGet();
+        try {
+            command.run();
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        started.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public @NotNull Metrics metrics() {
+        long startedCount = started.get();
+        double averageWaitMs = startedCount == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / startedCount;
+        return new Metrics(name, mode, maxConcurrency, active.get(), queued.get(), completed.get(),
+                averageWaitMs, maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    public @NotNull Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /** Returns the wrapped tasks that never started; they are not the submitted instances. */
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix + "-", 1).factory())},
+     * or {@code null} when the runtime has no (non-preview) virtual threads.
+     */
+    private static @Nullable ExecutorService newVirtualThreadPerTaskExecutor(@NotNull String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.devoxx.genie.service.prompt.threading;
 
+import com.devoxx.genie.service.agent.SubAgentAdmission;
+import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.ApplicationManager;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.devoxx.genie.model.Constant.SUB_AGENT_MAX_PARALLELISM;
 
 /**
  * Centralized thread pool manager for the application.
@@ -16,6 +22,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Getter
 public class ThreadPoolManager {
 
+    /** Pool concurrency limits when tasks run on virtual threads and only wait for a permit. */
+    static final int VIRTUAL_PROMPT_CONCURRENCY = 64;
+    static final int VIRTUAL_SUB_AGENT_CONCURRENCY = 4 * SUB_AGENT_MAX_PARALLELISM;
+    static final int VIRTUAL_SPEC_TASK_CONCURRENCY = 32;
+
     private final ExecutorService promptExecutionPool;
 
     private final ExecutorService subAgentPool;
@@ -24,29 +35,69 @@ public class ThreadPoolManager {
     private final ExecutorService specTaskPool;
 
     private final ScheduledExecutorService scheduledTaskPool;
-    
+
+    /** Provider limits for sub-agents, shared by every agent run in every project. */
+    private final SubAgentAdmission subAgentAdmission = new SubAgentAdmission();
+
+    private final BoundedExecutor.Mode mode;
+
     public static ThreadPoolManager getInstance() {
         return ApplicationManager.getApplication().getService(ThreadPoolManager.class);
     }
-    
+
     public ThreadPoolManager() {
+        this(readVirtualThreadSetting());
+    }
+
+    /**
+     * @param virtualThreads run prompt, sub-agent and spec tasks on virtual threads, bounded by
+     *                       semaphores instead of pool size; falls back to platform threads on
+     *                       runtimes without them. The scheduled pool always uses platform threads.
+     */
+    public ThreadPoolManager(boolean virtualThreads) {
         int cores = Runtime.getRuntime().availableProcessors();
-        
+        if (virtualThreads && !BoundedExecutor.isVirtualThreadSupported()) {
+            log.warn("Virtual thread pools requested but not available on this runtime, using platform threads");
+            virtualThreads = false;
+        }
+        mode = virtualThreads ? BoundedExecutor.Mode.VIRTUAL : BoundedExecutor.Mode.PLATFORM;
+
         // Create thread pools with custom thread factories for better naming
-        promptExecutionPool = Executors.newFixedThreadPool(cores,
+        promptExecutionPool = BoundedExecutor.create("prompt-exec", mode,
+            virtualThreads ? Math.max(cores, VIRTUAL_PROMPT_CONCURRENCY) : cores,
             new NamedThreadFactory("prompt-exec"));
-        // Dedicated pool for parallel sub-agents (max 5 concurrent sub-agents)
-        subAgentPool = Executors.newFixedThreadPool(5,
+        // Dedicated pool for parallel sub-agents, one slot per possible sub-agent; how many
+        // actually call a model at once is decided per provider by SubAgentAdmission
+        subAgentPool = BoundedExecutor.create("sub-agent", mode,
+            virtualThreads ? VIRTUAL_SUB_AGENT_CONCURRENCY : SUB_AGENT_MAX_PARALLELISM,
             new NamedThreadFactory("sub-agent"));
         // Dedicated pool for parallel spec task execution (max 8, matching UI max)
-        specTaskPool = Executors.newFixedThreadPool(8,
+        specTaskPool = BoundedExecutor.create("spec-task", mode,
+            virtualThreads ? VIRTUAL_SPEC_TASK_CONCURRENCY : 8,
             new NamedThreadFactory("spec-task"));
         scheduledTaskPool = Executors.newScheduledThreadPool(2,
             new NamedThreadFactory("scheduled-task"));
 
-        log.info("ThreadPoolManager initialized with {} threads for prompt execution, 5 for sub-agents, 8 for spec tasks", cores);
+        log.info("ThreadPoolManager initialized on {} threads: {}", mode, getMetrics());
+    }
+
+    private static boolean readVirtualThreadSetting() {
+        try {
+            return Boolean.TRUE.equals(DevoxxGenieStateService.getInstance().getVirtualThreadPoolsEnabled());
+        } catch (Exception e) {
+            log.debug("Could not read virtual thread setting, using platform threads", e);
+            return false;
+        }
     }
-    
+
+    /** Current queue depth, active tasks and wait times of the prompt, sub-agent and spec task pools. */
+    public @NotNull List<BoundedExecutor.Metrics> getMetrics() {
+        return Stream.of(promptExecutionPool, subAgentPool, specTaskPool)
+            .filter(BoundedExecutor.class::isInstance)
+            .map(pool -> ((BoundedExecutor) pool).metrics())
+            .toList();
+    }
+
     /**
      * Shuts down all thread pools managed by this class.
      * Should be called during application shutdown.
@@ -0,0 +1,260 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Tunes the embed stage of {@link IndexingPipeline} at run time instead of relying on batch
+ * size and concurrency constants picked for one machine.
+ *
+ * <p>Embed workers call {@link #acquire()} / {@link #release()} around every {@code embedAll}
+ * call. Outcomes are reported via {@link #record} by the model returned from {@link #measure},
+ * which sits between the embedding cache and the backend: cache hits cost almost nothing, so
+ * timing them would set a best latency no real request can match. Every
+ * {@link #WINDOW_BATCHES} backend calls the controller compares the window's throughput
+ * (approximate tokens/sec) with the previous one:
+ * <ul>
+ *   <li><b>Improving</b> — keep growing along the same axis: batch size first (×1.5), then
+ *       in-flight requests (+1) once bigger batches stop paying off.</li>
+ *   <li><b>Regressing</b> — undo the last step and mark that axis saturated.</li>
+ *   <li><b>Failure or latency spike</b> (a batch slower per segment than
+ *       {@link #LATENCY_SPIKE_FACTOR}× the best window) — multiplicative back-off on both axes.</li>
+ * </ul>
+ * Every decision is reported to the {@code decisionListener} with the observed numbers, so the
+ * RAG activity log shows why a run was slow.
+ */
+@Slf4j
+final class AdaptiveEmbeddingController {
+
+    static final int MIN_BATCH_SIZE = 8;
+    static final int MAX_BATCH_SIZE = 256;
+    static final int MAX_IN_FLIGHT = 6;
+    static final int WINDOW_BATCHES = 4;
+    /** Relative throughput change below which a window counts as "no change". */
+    static final double SIGNIFICANT_CHANGE = 0.05;
+    static final double LATENCY_SPIKE_FACTOR = 3.0;
+    /** Rough chars-per-token ratio for source code; only used for relative comparisons. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private enum Step { NONE, GROW_BATCH, GROW_IN_FLIGHT }
+
+    private final boolean adaptive;
+    private final Consumer<String> decisionListener;
+    /** Set on a thread while its embed calls are kept out of the window; see {@link #unmeasured}. */
+    private final ThreadLocal<Boolean> unmeasured = ThreadLocal.withInitial(() -> false);
+
+    private int batchSize;
+    private int inFlightLimit;
+    private int inFlight;
+
+    private int windowBatches;
+    private long windowTokens;
+    private long windowSegments;
+    private long windowNanos;
+    private long windowStartNanos;
+    private boolean windowFailed;
+    private double windowWorstNanosPerSegment;
+
+    private double previousThroughput;
+    private double bestNanosPerSegment = Double.MAX_VALUE;
+    private Step lastStep = Step.NONE;
+    private boolean batchSaturated;
+    private boolean inFlightSaturated;
+
+    private AdaptiveEmbeddingController(int batchSize, int inFlightLimit, boolean adaptive,
+                                        @NotNull Consumer<String> decisionListener) {
+        this.batchSize = batchSize;
+        this.inFlightLimit = inFlightLimit;
+        this.adaptive = adaptive;
+        this.decisionListener = decisionListener;
+    }
+
+    /** Controller that starts at the given values and adapts them as batches complete. */
+    static @NotNull AdaptiveEmbeddingController adaptive(int initialBatchSize, int initialInFlight,
+                                                         @NotNull Consumer<String> decisionListener) {
+        return new AdaptiveEmbeddingController(initialBatchSize, initialInFlight, true, decisionListener);
+    }
+
+    /** Controller that never changes its values; used by tests and single-file indexing. */
+    static @NotNull AdaptiveEmbeddingController fixed(int batchSize, int inFlight) {
+        return new AdaptiveEmbeddingController(batchSize, inFlight, false, message -> {});
+    }
+
+    /** Upper bound on embed workers the pipeline should start. */
+    int maxWorkers() {
+        return adaptive ? MAX_IN_FLIGHT : inFlightLimit;
+    }
+
+    synchronized int batchSize() {
+        return batchSize;
+    }
+
+    synchronized int inFlightLimit() {
+        return inFlightLimit;
+    }
+
+    /** Blocks until fewer than {@link #inFlightLimit()} embed calls are running. */
+    synchronized void acquire() throws InterruptedException {
+        while (inFlight >= inFlightLimit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Decorates the backend model so every call that reaches it is reported via {@link #record},
+     * except calls made inside {@link #unmeasured}.
+     * Wrap this in the embedding cache, not the other way round, so only cache misses are timed.
+     */
+    @NotNull EmbeddingModel measure(@NotNull EmbeddingModel backend) {
+        return new EmbeddingModel() {
+            @Override
+            public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+                if (unmeasured.get()) {
+                    return backend.embedAll(textSegments);
+                }
+                long start = System.nanoTime();
+                long chars = textSegments.stream().mapToLong(s -> s.text().length()).sum();
+                try {
+                    Response<List<Embedding>> response = backend.embedAll(textSegments);
+                    record(textSegments.size(), chars, System.nanoTime() - start, false);
+                    return response;
+                } catch (RuntimeException e) {
+                    record(textSegments.size(), chars, System.nanoTime() - start, true);
+                    throw e;
+                }
+            }
+
+            @Override
+            public int dimension() {
+                return backend.dimension();
+            }
+        };
+    }
+
+    /**
+     * Runs {@code calls} on this thread without reporting the embed calls it makes. The
+     * pipeline's per-segment fallback after a failed batch runs here: one-segment calls say
+     * nothing about how the backend handles batches and would read as a latency spike.
+     */
+    void unmeasured(@NotNull Runnable calls) {
+        unmeasured.set(true);
+        try {
+            calls.run();
+        } finally {
+            unmeasured.remove();
+        }
+    }
+
+    /**
+     * Report one finished {@code embedAll} call to the backend.
+     *
+     * @param segments number of segments in the batch
+     * @param chars    total characters embedded
+     * @param nanos    wall-clock latency of the call
+     * @param failed   true if the batch call threw (timeout, server error)
+     */
+    synchronized void record(int segments, long chars, long nanos, boolean failed) {
+        if (!adaptive || segments == 0) return;
+        if (windowBatches == 0) {
+            windowStartNanos = System.nanoTime() - nanos;
+        }
+        windowBatches++;
+        windowSegments += segments;
+        windowTokens += Math.max(1, chars / CHARS_PER_TOKEN);
+        windowNanos += nanos;
+        windowFailed |= failed;
+        windowWorstNanosPerSegment = Math.max(windowWorstNanosPerSegment, nanos / (double) segments);
+        if (windowBatches >= WINDOW_BATCHES) {
+            evaluateWindow();
+        }
+    }
+
+    private void evaluateWindow() {
+        double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - windowStartNanos) / 1e9);
+        double throughput = windowTokens / elapsedSeconds;
+        double avgLatencyMs = windowNanos / 1e6 / windowBatches;
+        double nanosPerSegment = windowNanos / (double) windowSegments;
+        boolean spike = bestNanosPerSegment != Double.MAX_VALUE
+                && windowWorstNanosPerSegment > LATENCY_SPIKE_FACTOR * bestNanosPerSegment;
+
+        String observed = String.format("%.0f tok/s, %.0f ms/batch", throughput, avgLatencyMs);
+        if (windowFailed || spike) {
+            batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+            inFlightLimit = Math.max(1, inFlightLimit - 1);
+            lastStep = Step.NONE;
+            batchSaturated = true;
+            inFlightSaturated = true;
+            report("backing off after " + (windowFailed ? "failed batch" : "latency spike"), observed);
+        } else {
+            bestNanosPerSegment = Math.min(bestNanosPerSegment, nanosPerSegment);
+            if (previousThroughput > 0 && throughput < previousThroughput * (1 - SIGNIFICANT_CHANGE)) {
+                undoLastStep(observed);
+            } else if (previousThroughput == 0 || throughput > previousThroughput * (1 + SIGNIFICANT_CHANGE)) {
+                grow(observed);
+            }
+            previousThroughput = throughput;
+        }
+        resetWindow();
+    }
+
+    private void grow(@NotNull String observed) {
+        if (!batchSaturated && batchSize < MAX_BATCH_SIZE) {
+            batchSize = Math.min(MAX_BATCH_SIZE, batchSize + Math.max(1, batchSize / 2));
+            lastStep = Step.GROW_BATCH;
+            report("throughput improving, growing batch", observed);
+        } else if (!inFlightSaturated && inFlightLimit < MAX_IN_FLIGHT) {
+            inFlightLimit++;
+            lastStep = Step.GROW_IN_FLIGHT;
+            notifyAll();
+            report("throughput improving, adding in-flight request", observed);
+        } else {
+            lastStep = Step.NONE;
+        }
+    }
+
+    private void undoLastStep(@NotNull String observed) {
+        switch (lastStep) {
+            case GROW_BATCH -> {
+                batchSize = Math.max(MIN_BATCH_SIZE, batchSize * 2 / 3);
+                batchSaturated = true;
+                report("larger batch regressed throughput, reverting", observed);
+            }
+            case GROW_IN_FLIGHT -> {
+                inFlightLimit = Math.max(1, inFlightLimit - 1);
+                inFlightSaturated = true;
+                report("extra in-flight request regressed throughput, reverting", observed);
+            }
+            case NONE -> log.debug("Embedding throughput dipped without a recent change ({})", observed);
+        }
+        lastStep = Step.NONE;
+    }
+
+    private void report(@NotNull String reason, @NotNull String observed) {
+        String message = String.format("Embedding tuner: %s → batch=%d, inFlight=%d (%s)",
+                reason, batchSize, inFlightLimit, observed);
+        log.info(message);
+        decisionListener.accept(message);
+    }
+
+    private void resetWindow() {
+        windowBatches = 0;
+        windowTokens = 0;
+        windowSegments = 0;
+        windowNanos = 0;
+        windowFailed = false;
+        windowWorstNanosPerSegment = 0;
+    }
+}
@@ -0,0 +1,379 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Staged RAG indexing pipeline. Replaces the "one worker reads, splits, embeds and writes a
+ * file end-to-end" loop, which left the embedding server idle during disk I/O and store
+ * writes.
+ *
+ * <pre>
+ *   paths ─▶ [read ×R] ─▶ files ─▶ [split+filter ×S] ─▶ segments ─▶ [embed ×E] ─▶ batches ─▶ [write ×1]
+ * </pre>
+ *
+ * <p>Every hand-off is a bounded queue, so a slow stage back-pressures the ones in front of it
+ * instead of buffering the whole project in memory. The embed stage drains the segment queue
+ * across file boundaries, so small files are packed into full {@code embedAll} batches.
+ * A file counts as done once the writer has stored its last segment; only then is it
+ * recorded in the manifest via {@link Listener#onFileIndexed}.
+ *
+ * <p>Batch size and the number of concurrent embed calls are owned by an
+ * {@link AdaptiveEmbeddingController}, which learns latencies from the model the caller
+ * wrapped with {@link AdaptiveEmbeddingController#measure}. Each stage keeps its own item counter; {@link #describeThroughput()} renders them for
+ * the progress indicator.
+ */
+@Slf4j
+final class IndexingPipeline {
+
+    static final int READER_THREADS = 2;
+    static final int SPLITTER_THREADS = 1;
+    static final int WRITER_THREADS = 1;
+    /** Files waiting to be split. Small: file contents are the largest items in flight. */
+    static final int FILE_QUEUE_CAPACITY = 16;
+    /** How long an embed worker waits to top up a partial batch before sending it as-is. */
+    static final long BATCH_FILL_WAIT_MS = 20;
+
+    private static final long POLL_MS = 50;
+
+    /** Splits file content into stamped, quality-filtered segments ready to embed. */
+    @FunctionalInterface
+    interface Chunker {
+        @NotNull List<TextSegment> chunk(@NotNull Path path, @NotNull String content, long lastModified);
+    }
+
+    interface Listener {
+        /** Called once per file that produced at least one stored segment. */
+        void onFileIndexed(@NotNull Path path, int segmentCount);
+
+        /** Called once per input file when it leaves the pipeline (indexed, skipped or failed). */
+        void onFileCompleted(@NotNull Path path, int completedFiles);
+
+        /** Called after each batch the writer added to the store. */
+        default void onSegmentsStored(int segmentCount) {}
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final EmbeddingStore<TextSegment> store;
+    private final Chunker chunker;
+    private final Predicate<Path> needsIndexing;
+    private final Listener listener;
+    private final BooleanSupplier cancelled;
+    private final AdaptiveEmbeddingController controller;
+    private final int embedThreads;
+
+    private final Queue<Path> pending = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<ReadFile> files = new ArrayBlockingQueue<>(FILE_QUEUE_CAPACITY);
+    private final BlockingQueue<PendingSegment> segments;
+    private final BlockingQueue<EmbeddedBatch> batches;
+
+    private volatile boolean readersDone;
+    private volatile boolean splittersDone;
+    private volatile boolean embeddersDone;
+
+    private final AtomicInteger completedFiles = new AtomicInteger();
+    private final AtomicLong filesRead = new AtomicLong();
+    private final AtomicLong segmentsSplit = new AtomicLong();
+    private final AtomicLong segmentsEmbedded = new AtomicLong();
+    private final AtomicLong segmentsWritten = new AtomicLong();
+    private final AtomicLong embedNanos = new AtomicLong();
+    private volatile long startNanos;
+
+    IndexingPipeline(@NotNull EmbeddingModel embeddingModel,
+                     @NotNull EmbeddingStore<TextSegment> store,
+                     @NotNull Chunker chunker,
+                     @NotNull Predicate<Path> needsIndexing,
+                     @NotNull Listener listener,
+                     @NotNull BooleanSupplier cancelled,
+                     @NotNull AdaptiveEmbeddingController controller) {
+        this.embeddingModel = embeddingModel;
+        this.store = store;
+        this.chunker = chunker;
+        this.needsIndexing = needsIndexing;
+        this.listener = listener;
+        this.cancelled = cancelled;
+        this.controller = controller;
+        this.embedThreads = controller.maxWorkers();
+        this.segments = new ArrayBlockingQueue<>(AdaptiveEmbeddingController.MAX_BATCH_SIZE * 2);
+        this.batches = new ArrayBlockingQueue<>(embedThreads * 2);
+    }
+
+    /** Runs every file through the pipeline and blocks until all stages drained or were cancelled. */
+    void run(@NotNull Collection<Path> input) throws InterruptedException {
+        pending.addAll(input);
+        startNanos = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(
+                READER_THREADS + SPLITTER_THREADS + embedThreads + WRITER_THREADS,
+                r -> {
+                    Thread t = new Thread(r, "DevoxxGenie-Indexer");
+                    t.setDaemon(true);
+                    return t;
+                });
+        try {
+            AtomicInteger readers = new AtomicInteger(READER_THREADS);
+            AtomicInteger splitters = new AtomicInteger(SPLITTER_THREADS);
+            AtomicInteger embedders = new AtomicInteger(embedThreads);
+            for (int i = 0; i < READER_THREADS; i++) {
+                pool.execute(() -> runStage("read", this::readLoop, readers, () -> readersDone = true));
+            }
+            for (int i = 0; i < SPLITTER_THREADS; i++) {
+                pool.execute(() -> runStage("split", this::splitLoop, splitters, () -> splittersDone = true));
+            }
+            for (int i = 0; i < embedThreads; i++) {
+                pool.execute(() -> runStage("embed", this::embedLoop, embedders, () -> embeddersDone = true));
+            }
+            for (int i = 0; i < WRITER_THREADS; i++) {
+                pool.execute(() -> runStage("write", this::writeLoop, new AtomicInteger(1), () -> {}));
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(POLL_MS, TimeUnit.MILLISECONDS)) {
+                // Wake-up only; workers observe cancellation themselves.
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** One-line per-stage summary, e.g. for {@code ProgressIndicator.setText2}. */
+    @NotNull String describeThroughput() {
+        double elapsed = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        double embedSeconds = embedNanos.get() / 1e9;
+        return String.format("read %d · split %d · embedded %d (%.0f seg/s, model busy %.0f%%, batch %d ×%d) · written %d",
+                filesRead.get(),
+                segmentsSplit.get(),
+                segmentsEmbedded.get(),
+                segmentsEmbedded.get() / elapsed,
+                Math.min(100.0, 100.0 * embedSeconds / elapsed),
+                controller.batchSize(),
+                controller.inFlightLimit(),
+                segmentsWritten.get());
+    }
+
+    private interface StageLoop {
+        void run() throws InterruptedException;
+    }
+
+    private void runStage(String name, StageLoop loop, AtomicInteger remainingWorkers, Runnable onStageDone) {
+        try {
+            loop.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Indexer {} stage failed: {}", name, e.getMessage());
+        } finally {
+            if (remainingWorkers.decrementAndGet() == 0) {
+                onStageDone.run();
+            }
+        }
+    }
+
+    private void readLoop() throws InterruptedException {
+        Path path;
+        while (!cancelled.getAsBoolean() && (path = pending.poll()) != null) {
+            if (!needsIndexing.test(path)) {
+                log.debug("File already indexed (content hash matches): {}", path);
+                completeFile(path);
+                continue;
+            }
+            try {
+                String content = Files.readString(path);
+                long lastModified = Files.getLastModifiedTime(path).toMillis();
+                filesRead.incrementAndGet();
+                if (content.isBlank()) {
+                    completeFile(path);
+                    continue;
+                }
+                if (!offer(files, new ReadFile(path, content, lastModified))) return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error processing file: {} - {}", path, e.getMessage());
+                completeFile(path);
+            }
+        }
+    }
+
+    private void splitLoop() throws InterruptedException {
+        while (!cancelled.getAsBoolean()) {
+            ReadFile file = files.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            if (file == null) {
+                if (readersDone && files.isEmpty()) return;
+                continue;
+            }
+            List<TextSegment> chunks;
+            try {
+                chunks = chunker.chunk(file.path(), file.content(), file.lastModified());
+            } catch (RuntimeException e) {
+                log.warn("Error splitting file: {} - {}", file.path(), e.getMessage());
+                chunks = List.of();
+            }
+            if (chunks.isEmpty()) {
+                completeFile(file.path());
+                continue;
+            }
+            FileProgress progress = new FileProgress(file.path(), chunks.size());
+            for (TextSegment chunk : chunks) {
+                if (!offer(segments, new PendingSegment(chunk, progress))) return;
+                segmentsSplit.incrementAndGet();
+            }
+        }
+    }
+
+    private void embedLoop() throws InterruptedException {
+        while (!cancelled.getAsBoolean()) {
+            PendingSegment first = segments.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                if (splittersDone && segments.isEmpty()) return;
+                continue;
+            }
+            // The controller bounds how many embed calls run at once and how big each batch
+            // is; both move during the run as it measures throughput.
+            controller.acquire();
+            EmbeddedBatch embedded;
+            try {
+                embedded = embed(fillBatch(first, controller.batchSize()));
+            } finally {
+                controller.release();
+            }
+            if (!offer(batches, embedded)) return;
+        }
+    }
+
+    private @NotNull List<PendingSegment> fillBatch(@NotNull PendingSegment first, int batchSize)
+            throws InterruptedException {
+        List<PendingSegment> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        // Top up across file boundaries; give upstream a brief chance before shipping a
+        // partial batch so tiny files don't each cost a round trip.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_FILL_WAIT_MS);
+        while (batch.size() < batchSize) {
+            segments.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize || splittersDone) break;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            PendingSegment next = segments.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeLoop() throws InterruptedException {
+        while (!cancelled.getAsBoolean()) {
+            EmbeddedBatch batch = batches.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            if (batch == null) {
+                if (embeddersDone && batches.isEmpty()) return;
+                continue;
+            }
+            if (!batch.embeddings().isEmpty()) {
+                try {
+                    store.addAll(batch.embeddings(), batch.segments().stream().map(PendingSegment::segment).toList());
+                    segmentsWritten.addAndGet(batch.embeddings().size());
+                    listener.onSegmentsStored(batch.embeddings().size());
+                    batch.segments().forEach(s -> s.progress().stored.incrementAndGet());
+                } catch (RuntimeException e) {
+                    log.warn("Store write failed for a batch of {} segments: {}", batch.embeddings().size(), e.getMessage());
+                }
+            }
+            batch.segments().forEach(s -> segmentFinished(s.progress()));
+            batch.dropped().forEach(s -> segmentFinished(s.progress()));
+        }
+    }
+
+    /**
+     * Some embedding backends choke on a single bad segment and reject the whole batch. Fall
+     * back to per-segment so one malformed chunk doesn't poison the rest of the batch.
+     */
+    private @NotNull EmbeddedBatch embed(@NotNull List<PendingSegment> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Embedding> embeddings = embeddingModel.embedAll(
+                    batch.stream().map(PendingSegment::segment).toList()).content();
+            segmentsEmbedded.addAndGet(embeddings.size());
+            return new EmbeddedBatch(embeddings, batch, List.of());
+        } catch (Exception batchEx) {
+            log.warn("Batch embed failed ({}); falling back to per-segment for this batch", batchEx.getMessage());
+            List<Embedding> embeddings = new ArrayList<>(batch.size());
+            List<PendingSegment> kept = new ArrayList<>(batch.size());
+            List<PendingSegment> dropped = new ArrayList<>();
+            // The failed batch has been recorded; the single-segment retries are not batches
+            // the controller should learn from
+            controller.unmeasured(() -> {
+                for (PendingSegment segment : batch) {
+                    try {
+                        embeddings.add(embeddingModel.embed(segment.segment().text()).content());
+                        kept.add(segment);
+                    } catch (Exception singleEx) {
+                        log.warn("Skipping segment that failed to embed: {}", singleEx.getMessage());
+                        dropped.add(segment);
+                    }
+                }
+            });
+            segmentsEmbedded.addAndGet(embeddings.size());
+            return new EmbeddedBatch(embeddings, kept, dropped);
+        } finally {
+            embedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void segmentFinished(@NotNull FileProgress progress) {
+        if (progress.remaining.decrementAndGet() > 0) return;
+        int stored = progress.stored.get();
+        if (stored > 0) {
+            listener.onFileIndexed(progress.path, stored);
+        }
+        completeFile(progress.path);
+    }
+
+    private void completeFile(@NotNull Path path) {
+        listener.onFileCompleted(path, completedFiles.incrementAndGet());
+    }
+
+    /** Blocking put that gives up (returns false) once the run is cancelled. */
+    private <T> boolean offer(@NotNull BlockingQueue<T> queue, @NotNull T item) throws InterruptedException {
+        while (!queue.offer(item, POLL_MS, TimeUnit.MILLISECONDS)) {
+            if (cancelled.getAsBoolean()) return false;
+        }
+        return true;
+    }
+
+    private record ReadFile(Path path, String content, long lastModified) {}
+
+    private record PendingSegment(TextSegment segment, FileProgress progress) {}
+
+    private record EmbeddedBatch(List<Embedding> embeddings,
+                                 List<PendingSegment> segments,
+                                 List<PendingSegment> dropped) {}
+
+    /** Tracks how many of a file's segments are still in flight. */
+    private static final class FileProgress {
+        private final Path path;
+        private final AtomicInteger remaining;
+        private final AtomicInteger stored = new AtomicInteger();
+
+        private FileProgress(Path path, int segmentCount) {
+            this.path = path;
+            this.remaining = new AtomicInteger(segmentCount);
+        }
+    }
+}
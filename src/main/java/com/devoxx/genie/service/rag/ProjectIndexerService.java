@@ -3,9 +3,13 @@ package com.devoxx.genie.service.rag;
 import com.devoxx.genie.model.ScanContentResult;
 import com.devoxx.genie.service.chromadb.ChromaEmbeddingService;
 import com.devoxx.genie.service.projectscanner.ProjectScannerService;
+import com.devoxx.genie.service.rag.cache.EmbeddingCacheService;
+import com.devoxx.genie.service.rag.lexical.Bm25Index;
+import com.devoxx.genie.service.rag.lexical.LexicalIndexService;
 import com.devoxx.genie.service.rag.manifest.IndexManifest;
 import com.devoxx.genie.service.rag.manifest.IndexManifestService;
 import com.devoxx.genie.service.rag.manifest.InMemoryIndexManifest;
+import com.devoxx.genie.service.rag.store.LocalEmbeddingStore;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.ide.util.DelegatingProgressIndicator;
 import com.intellij.openapi.application.ApplicationManager;
@@ -51,13 +55,14 @@ public final class ProjectIndexerService {
     /** Chunk overlap in tokens; non-zero so a symbol straddling a boundary isn't lost. */
     static final int CHUNK_OVERLAP_TOKENS = 50;
 
-    /** Max segments per Ollama {@code embedAll} call. Keeps individual requests small enough
-     *  to avoid timeouts while still avoiding the N+1 cost of one-call-per-segment. */
+    /** Segments per Ollama {@code embedAll} call: fixed for single-file indexing, the starting
+     *  point for {@link AdaptiveEmbeddingController} in bulk runs. Keeps individual requests
+     *  small enough to avoid timeouts while still avoiding the N+1 cost of one-call-per-segment. */
     static final int EMBEDDING_BATCH_SIZE = 64;
 
-    /** Number of files processed in parallel during bulk indexing. Conservative default —
-     *  Ollama serializes embed requests by default and the embedding model also competes
-     *  for CPU, so going above 4 typically regresses throughput. */
+    /** Initial number of concurrent embedding calls in the bulk-indexing pipeline. Conservative
+     *  default — Ollama serializes embed requests by default and the embedding model also
+     *  competes for CPU, so going above 4 typically regresses throughput. */
     static final int INDEXING_PARALLELISM = 2;
 
     /**
@@ -78,6 +83,13 @@ public final class ProjectIndexerService {
      */
     private IndexManifest manifest = new InMemoryIndexManifest();
 
+    /**
+     * BM25 index kept in step with the vector store so hybrid search can match exact
+     * identifiers. Same defaulting as {@link #manifest}: non-persistent until a project-scoped
+     * flow swaps in the per-project index.
+     */
+    private Bm25Index lexicalIndex = new Bm25Index(null);
+
     // Flag to indicate if indexing should be cancelled
     private final AtomicBoolean cancelIndexing = new AtomicBoolean(false);
 
@@ -186,6 +198,7 @@ public final class ProjectIndexerService {
 
         chromaEmbeddingService.init(project);
         this.manifest = IndexManifestService.getInstance().forProject(project);
+        this.lexicalIndex = LexicalIndexService.getInstance().forProject(project);
 
         String basePath = project.getBasePath();
         if (basePath == null) {
@@ -200,7 +213,7 @@ public final class ProjectIndexerService {
         }
 
         // Phase 1 (scan): run under a scaled sub-indicator so the determinate progress the
-        // scanner reports (ProjectScannerService.extractAllFileContents) lands in the 0.0→0.5
+        // scanner reports (StreamingContentAssembler) lands in the 0.0→0.5
         // half of the shared bar instead of sweeping it 0→100% on its own.
         ScanContentResult scanResult = indicator == null
                 ? projectScannerService.scanProject(project, baseDir, Integer.MAX_VALUE, false)
@@ -250,6 +263,19 @@ public final class ProjectIndexerService {
             }
         }
 
+        if (!forceReindex) {
+            // The pipeline below only re-chunks stale files, so files indexed before the BM25
+            // index existed (or before it was wiped) would otherwise never reach it.
+            backfillLexicalIndex(project);
+        }
+
+        if (forceReindex && chromaEmbeddingService.getEmbeddingStore() instanceof LocalEmbeddingStore localStore) {
+            // A forced run re-adds every chunk. The embedded store gives each row a fresh ID, so
+            // keeping the old rows would leave every chunk in it twice.
+            localStore.removeAll();
+            chromaEmbeddingService.markStoreChanged();
+        }
+
         int totalFiles = filesToProcess.size();
 
         if (indicator != null) {
@@ -260,64 +286,74 @@ public final class ProjectIndexerService {
             indicator.setText2("");
         }
 
-        // Bounded parallel pool: a handful of file-processing threads share access to the
-        // batched embedAll / Chroma writes. We still cap progress + cancellation checks at the
-        // file boundary, since per-file work is the meaningful unit.
-        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(
-                INDEXING_PARALLELISM,
-                r -> {
-                    Thread t = new Thread(r, "DevoxxGenie-Indexer");
-                    t.setDaemon(true);
-                    return t;
-                });
-        java.util.concurrent.atomic.AtomicInteger processedCount = new java.util.concurrent.atomic.AtomicInteger();
+        // Staged pipeline (read → split → embed → write) with bounded queues between stages,
+        // so the embedding server is kept busy while other workers do disk I/O and store
+        // writes. Progress and cancellation are still reported at the file boundary.
         java.util.concurrent.atomic.AtomicInteger maxReported = new java.util.concurrent.atomic.AtomicInteger();
-        try {
-            java.util.List<java.util.concurrent.Future<?>> futures = new java.util.ArrayList<>(totalFiles);
-            for (Path path : filesToProcess) {
-                futures.add(pool.submit(() -> {
+        java.util.concurrent.atomic.AtomicReference<IndexingPipeline> pipelineRef = new java.util.concurrent.atomic.AtomicReference<>();
+        IndexingPipeline.Listener listener = new IndexingPipeline.Listener() {
+            @Override
+            public void onFileIndexed(@NotNull Path path, int segmentCount) {
+                manifest.markIndexed(path, segmentCount);
+                log.debug("File successfully indexed ({} segments): {}", segmentCount, path);
+            }
+
+            @Override
+            public void onSegmentsStored(int segmentCount) {
+                chromaEmbeddingService.markStoreChanged();
+            }
+
+            @Override
+            public void onFileCompleted(@NotNull Path path, int done) {
+                int progress = (int) (((double) done / totalFiles) * 100);
+                String fileName = path.getFileName().toString();
+                if (indicator != null && !indicator.isCanceled()
+                        && maxReported.accumulateAndGet(done, Math::max) == done) {
+                    // ProgressIndicator API is thread-safe; no EDT hop needed. The max-guard
+                    // keeps parallel workers from briefly rolling the bar/text backwards.
+                    indicator.setFraction(SCAN_PHASE_END + (done / (double) totalFiles) * (1.0 - SCAN_PHASE_END));
+                    indicator.setText2(String.format("Indexing (2/2): %d of %d: %s — %s",
+                            done, totalFiles, fileName, pipelineRef.get().describeThroughput()));
+                }
+                SwingUtilities.invokeLater(() -> {
+                    progressBar.setVisible(true);
+                    progressLabel.setVisible(true);
+                    progressBar.setValue(progress);
+                    progressLabel.setText(String.format("Processing %d of %d: %s", done, totalFiles, fileName));
+                });
+            }
+        };
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(
+                EMBEDDING_BATCH_SIZE, INDEXING_PARALLELISM,
+                decision -> RAGEventPublisher.publishIndexerStatus(project, decision));
+        IndexingPipeline pipeline = new IndexingPipeline(
+                indexingEmbeddingModel(controller),
+                chromaEmbeddingService.getEmbeddingStore(),
+                this::buildAndIndexLexically,
+                path -> forceReindex || !manifest.isCurrent(path),
+                listener,
+                () -> {
                     // Bridge IDE progress-indicator cancellation into the indexer's own flag so
-                    // pressing Cancel on the background task stops the loop just like the
+                    // pressing Cancel on the background task stops the pipeline just like the
                     // settings panel's Stop button does.
                     if (indicator != null && indicator.isCanceled()) {
                         cancelIndexing.set(true);
                     }
-                    if (isIndexingCancelled()) return;
-                    indexFile(path, forceReindex);
-                    int done = processedCount.incrementAndGet();
-                    int progress = (int) (((double) done / totalFiles) * 100);
-                    String fileName = path.getFileName().toString();
-                    if (indicator != null && !indicator.isCanceled()
-                            && maxReported.accumulateAndGet(done, Math::max) == done) {
-                        // ProgressIndicator API is thread-safe; no EDT hop needed. The max-guard
-                        // keeps parallel workers from briefly rolling the bar/text backwards.
-                        indicator.setFraction(SCAN_PHASE_END + (done / (double) totalFiles) * (1.0 - SCAN_PHASE_END));
-                        indicator.setText2(String.format("Indexing (2/2): %d of %d: %s", done, totalFiles, fileName));
-                    }
-                    SwingUtilities.invokeLater(() -> {
-                        progressBar.setVisible(true);
-                        progressLabel.setVisible(true);
-                        progressBar.setValue(progress);
-                        progressLabel.setText(String.format("Processing %d of %d: %s", done, totalFiles, fileName));
-                    });
-                }));
-            }
-            for (java.util.concurrent.Future<?> f : futures) {
-                if (indicator != null && indicator.isCanceled()) {
-                    cancelIndexing.set(true);
-                }
-                if (isIndexingCancelled()) break;
-                try {
-                    f.get();
-                } catch (java.util.concurrent.ExecutionException ee) {
-                    log.warn("Indexer task failed: {}", ee.getCause() == null ? ee.getMessage() : ee.getCause().getMessage());
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+                    return isIndexingCancelled();
+                },
+                controller);
+        pipelineRef.set(pipeline);
+        try {
+            try {
+                pipeline.run(filesToProcess);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                cancelIndexing.set(true);
             }
+            log.info("RAG indexing pipeline finished: {}", pipeline.describeThroughput());
+            RAGEventPublisher.publishIndexerStatus(project, "Indexing finished: " + pipeline.describeThroughput());
             if (isIndexingCancelled()) {
-                int processed = processedCount.get();
+                int processed = maxReported.get();
                 log.info("Indexing cancelled after processing {} of {} files", processed, totalFiles);
                 SwingUtilities.invokeLater(() -> {
                     progressBar.setValue(100);
@@ -326,8 +362,12 @@ public final class ProjectIndexerService {
                 });
             }
         } finally {
-            pool.shutdownNow();
+            // Store before manifest: a crash in between then leaves files re-indexed rather
+            // than recorded as indexed with no vectors behind them.
+            chromaEmbeddingService.flush();
             manifest.flush();
+            lexicalIndex.flush();
+            flushEmbeddingCache();
             resetCancellationFlag();
         }
     }
@@ -339,7 +379,10 @@ public final class ProjectIndexerService {
      */
     public void indexFile(Path filePath) {
         indexFile(filePath, false);
+        chromaEmbeddingService.flush();
         manifest.flush();
+        lexicalIndex.flush();
+        flushEmbeddingCache();
     }
 
     /**
@@ -353,6 +396,7 @@ public final class ProjectIndexerService {
         if (files.isEmpty()) return;
         chromaEmbeddingService.init(project);
         this.manifest = IndexManifestService.getInstance().forProject(project);
+        this.lexicalIndex = LexicalIndexService.getInstance().forProject(project);
         List<String> ragExcluded = DevoxxGenieStateService.getInstance().getRagExcludedDirectories();
         String basePath = project.getBasePath();
         Path projectBasePath = basePath != null ? Path.of(basePath) : null;
@@ -374,10 +418,59 @@ public final class ProjectIndexerService {
                 indexFile(file, true);
             }
         } finally {
+            chromaEmbeddingService.flush();
             manifest.flush();
+            lexicalIndex.flush();
+            flushEmbeddingCache();
         }
     }
 
+    /**
+     * Give every file the manifest tracks its chunks in the project's BM25 index, re-reading
+     * and re-splitting only the files the index is missing — no embedding calls. Needed once
+     * for projects indexed before hybrid search existed, and after the lexical index file was
+     * lost; until it has run, {@link SemanticSearchService} keeps retrieval dense-only rather
+     * than fusing against a partial index. Tracked files that no longer exist are dropped
+     * from the manifest and the vector store instead.
+     *
+     * <p>Works on the project's own manifest and index rather than this service's current
+     * ones, so it can run from a search without disturbing an indexing run.
+     *
+     * @return true when the lexical index now covers every file the manifest tracks
+     */
+    public boolean backfillLexicalIndex(@NotNull Project project) {
+        IndexManifest projectManifest = IndexManifestService.getInstance().forProject(project);
+        Bm25Index projectIndex = LexicalIndexService.getInstance().forProject(project);
+        List<Path> missing = new ArrayList<>();
+        int added = 0;
+        for (Path file : projectManifest.trackedPaths()) {
+            String key = file.toAbsolutePath().toString();
+            if (projectIndex.containsFile(key)) continue;
+            if (!Files.exists(file)) {
+                missing.add(file);
+                continue;
+            }
+            try {
+                String content = Files.readString(file);
+                List<TextSegment> segments = buildSegments(file, content, Files.getLastModifiedTime(file).toMillis());
+                projectIndex.replaceFile(key, segments.stream().map(TextSegment::text).toList());
+                added++;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not add {} to the lexical index: {}", file, e.getMessage());
+            }
+        }
+        for (Path file : missing) {
+            removeVectorsFromStore(file);
+            projectManifest.markRemoved(file);
+        }
+        projectManifest.flush();
+        projectIndex.flush();
+        if (added > 0 || !missing.isEmpty()) {
+            log.info("Lexical index backfill: added {} file(s), dropped {} deleted file(s)", added, missing.size());
+        }
+        return projectIndex.covers(projectManifest.trackedPaths());
+    }
+
     /**
      * Returns true if {@code path} is covered by any entry in {@code excluded}. Each entry is
      * treated as a path prefix and matched against <em>either</em> the file's absolute path
@@ -449,6 +542,7 @@ public final class ProjectIndexerService {
         if (files.isEmpty()) return;
         chromaEmbeddingService.init(project);
         this.manifest = IndexManifestService.getInstance().forProject(project);
+        this.lexicalIndex = LexicalIndexService.getInstance().forProject(project);
         try {
             for (Path file : files) {
                 if (!manifest.isTracked(file)) continue;
@@ -456,15 +550,24 @@ public final class ProjectIndexerService {
                 manifest.markRemoved(file);
             }
         } finally {
+            chromaEmbeddingService.flush();
             manifest.flush();
+            lexicalIndex.flush();
+            flushEmbeddingCache();
         }
     }
 
     private void removeChunksFromStore(@NotNull Path file) {
+        lexicalIndex.removeFile(file.toAbsolutePath().toString());
+        removeVectorsFromStore(file);
+    }
+
+    private void removeVectorsFromStore(@NotNull Path file) {
         try {
             Filter filter = MetadataFilterBuilder.metadataKey(FILE_PATH)
                     .isEqualTo(file.toAbsolutePath().toString());
             chromaEmbeddingService.getEmbeddingStore().removeAll(filter);
+            chromaEmbeddingService.markStoreChanged();
         } catch (Exception e) {
             // EmbeddingStore.removeAll(Filter) is a default method and a few legacy stores
             // throw UnsupportedOperationException. Log and continue — at worst we leave stale
@@ -498,13 +601,14 @@ public final class ProjectIndexerService {
      */
     private void storeSegments(@NotNull List<TextSegment> segments) {
         if (segments.isEmpty()) return;
-        EmbeddingModel embeddingModel = chromaEmbeddingService.getEmbeddingModel();
+        EmbeddingModel embeddingModel = indexingEmbeddingModel(null);
         for (int from = 0; from < segments.size(); from += EMBEDDING_BATCH_SIZE) {
             int to = Math.min(from + EMBEDDING_BATCH_SIZE, segments.size());
             List<TextSegment> batch = segments.subList(from, to);
             try {
                 List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
                 chromaEmbeddingService.getEmbeddingStore().addAll(embeddings, batch);
+                chromaEmbeddingService.markStoreChanged();
             } catch (Exception batchEx) {
                 // Some embedding backends choke on a single bad segment and reject the whole
                 // batch. Fall back to per-segment so one malformed chunk doesn't poison the
@@ -514,6 +618,7 @@ public final class ProjectIndexerService {
                     try {
                         Embedding embedding = embeddingModel.embed(segment.text()).content();
                         chromaEmbeddingService.getEmbeddingStore().add(embedding, segment);
+                        chromaEmbeddingService.markStoreChanged();
                     } catch (Exception singleEx) {
                         log.warn("Skipping segment that failed to embed: {}", singleEx.getMessage());
                     }
@@ -522,6 +627,30 @@ public final class ProjectIndexerService {
         }
     }
 
+    /**
+     * Embedding model used for indexing: the configured model behind the persistent
+     * chunk-level {@link EmbeddingCacheService}, so chunks whose text was embedded before —
+     * in this or an earlier run, before or after a collection drop — are not re-embedded.
+     * Falls back to the bare model when no application is running (unit tests).
+     *
+     * @param controller when non-null, times the calls that miss the cache and reach the model
+     */
+    private @NotNull EmbeddingModel indexingEmbeddingModel(@Nullable AdaptiveEmbeddingController controller) {
+        EmbeddingModel model = chromaEmbeddingService.getEmbeddingModel();
+        if (controller != null) {
+            model = controller.measure(model);
+        }
+        EmbeddingCacheService cache = EmbeddingCacheService.getInstance();
+        return cache == null ? model : cache.wrap(model, ChromaEmbeddingService.EMBEDDING_MODEL_NAME);
+    }
+
+    private static void flushEmbeddingCache() {
+        EmbeddingCacheService cache = EmbeddingCacheService.getInstance();
+        if (cache != null) {
+            cache.flush();
+        }
+    }
+
     /** Returns the number of segments stored for this file (0 if blank / unreadable). */
     private int processPath(Path path) {
         try {
@@ -532,30 +661,7 @@ public final class ProjectIndexerService {
                 return 0;
             }
 
-            Document document = Document.from(content);
-            List<TextSegment> rawSegments = splitterFor(path).split(document);
-            long lastModified = Files.getLastModifiedTime(path).toMillis();
-            long indexedAt = System.currentTimeMillis();
-            String absolutePath = path.toAbsolutePath().toString();
-
-            List<TextSegment> segments = new ArrayList<>(rawSegments.size());
-            int dropped = 0;
-            for (TextSegment segment : rawSegments) {
-                if (ChunkQualityFilter.isLowContent(segment.text())) {
-                    dropped++;
-                    continue;
-                }
-                Metadata metadata = new Metadata();
-                metadata.put(FILE_PATH, absolutePath);
-                metadata.put(LAST_MODIFIED, lastModified);
-                metadata.put(INDEXED_AT, indexedAt);
-                metadata.put(EMBEDDING_SCHEMA_VERSION_KEY, CURRENT_EMBEDDING_SCHEMA_VERSION);
-                segments.add(new TextSegment(segment.text(), metadata));
-            }
-            if (dropped > 0) {
-                log.debug("Dropped {} low-content chunk(s) from {}", dropped, path);
-            }
-
+            List<TextSegment> segments = buildAndIndexLexically(path, content, Files.getLastModifiedTime(path).toMillis());
             storeSegments(segments);
             return segments.size();
         } catch (IOException e) {
@@ -564,6 +670,48 @@ public final class ProjectIndexerService {
         }
     }
 
+    /**
+     * {@link #buildSegments} plus replacing the file's chunks in the BM25 index, so the
+     * lexical index is built in the same pass as the embeddings and never needs its own
+     * re-read of the project.
+     */
+    private @NotNull List<TextSegment> buildAndIndexLexically(@NotNull Path path, @NotNull String content, long lastModified) {
+        List<TextSegment> segments = buildSegments(path, content, lastModified);
+        lexicalIndex.replaceFile(path.toAbsolutePath().toString(),
+                segments.stream().map(TextSegment::text).toList());
+        return segments;
+    }
+
+    /**
+     * Split {@code content} with the splitter for {@code path}, drop low-content chunks and
+     * stamp the survivors with the metadata retrieval and removal rely on. Shared by the
+     * single-file path and the {@link IndexingPipeline} split stage.
+     */
+    @NotNull List<TextSegment> buildSegments(@NotNull Path path, @NotNull String content, long lastModified) {
+        List<TextSegment> rawSegments = splitterFor(path).split(Document.from(content));
+        long indexedAt = System.currentTimeMillis();
+        String absolutePath = path.toAbsolutePath().toString();
+
+        List<TextSegment> segments = new ArrayList<>(rawSegments.size());
+        int dropped = 0;
+        for (TextSegment segment : rawSegments) {
+            if (ChunkQualityFilter.isLowContent(segment.text())) {
+                dropped++;
+                continue;
+            }
+            Metadata metadata = new Metadata();
+            metadata.put(FILE_PATH, absolutePath);
+            metadata.put(LAST_MODIFIED, lastModified);
+            metadata.put(INDEXED_AT, indexedAt);
+            metadata.put(EMBEDDING_SCHEMA_VERSION_KEY, CURRENT_EMBEDDING_SCHEMA_VERSION);
+            segments.add(new TextSegment(segment.text(), metadata));
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} low-content chunk(s) from {}", dropped, path);
+        }
+        return segments;
+    }
+
     /**
      * Maps a sub-phase's 0.0→1.0 progress into a [from, to] slice of the parent indicator
      * and prefixes its detail text with the phase label. Cancellation, text and all other
@@ -7,6 +7,9 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -34,6 +37,18 @@ public final class QueryExpansionFuser {
 
     private QueryExpansionFuser() {} // utility
 
+    /**
+     * Issue one retrieval per query variant, one after another, and fuse the results.
+     * Equivalent to {@link #expandAndFuse(Collection, Function, int, Executor)} with a
+     * caller-runs executor.
+     */
+    public static @NotNull List<SearchResult> expandAndFuse(
+            @NotNull Collection<String> variants,
+            @NotNull Function<String, List<SearchResult>> retrieve,
+            int maxResults) {
+        return expandAndFuse(variants, retrieve, maxResults, Runnable::run);
+    }
+
     /**
      * Issue one retrieval per query variant and fuse the results.
      *
@@ -43,23 +58,77 @@ public final class QueryExpansionFuser {
      *                    per variant; ordering of returned results is treated as rank order.
      * @param maxResults  upper bound on the fused list size; the {@code maxResults} highest
      *                    RRF-scored unique results are returned
+     * @param executor    runs the per-variant retrievals; with a pooled executor the variants'
+     *                    embed + store round-trips overlap instead of adding up. Rankings are
+     *                    fused in variant order regardless of completion order, so the result
+     *                    is identical to sequential retrieval.
      * @return RRF-ranked, deduplicated list of {@link SearchResult}s, descending by fused score
      */
     public static @NotNull List<SearchResult> expandAndFuse(
             @NotNull Collection<String> variants,
             @NotNull Function<String, List<SearchResult>> retrieve,
-            int maxResults) {
+            int maxResults,
+            @NotNull Executor executor) {
         if (variants.isEmpty() || maxResults <= 0) return List.of();
 
-        // Two parallel maps keyed by (filePath, content) so chunks that match across variants
+        List<CompletableFuture<List<SearchResult>>> pending = new ArrayList<>(variants.size());
+        for (String variant : variants) {
+            pending.add(CompletableFuture.supplyAsync(() -> retrieve.apply(variant), executor));
+        }
+
+        List<List<SearchResult>> rankings = new ArrayList<>(variants.size());
+        for (CompletableFuture<List<SearchResult>> future : pending) {
+            List<SearchResult> hits;
+            try {
+                hits = future.join();
+            } catch (CompletionException e) {
+                // Same contract as the sequential loop: a failing retrieval fails the search.
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw e;
+            }
+            if (hits != null) rankings.add(hits);
+        }
+        return fuse(rankings, maxResults);
+    }
+
+    /**
+     * RRF-fuse already-retrieved ranked lists. Used directly for hybrid retrieval, where the
+     * inputs are the dense (vector) and lexical (BM25) result lists for the same query; their
+     * raw scores live on different scales, which is exactly what rank-based fusion ignores.
+     *
+     * @param rankings   ranked result lists; order within each list is treated as rank order
+     * @param maxResults upper bound on the fused list size
+     * @return RRF-ranked, deduplicated list; for duplicates the first-seen result (and thus
+     *         its original score) is kept, so list order decides whose score is shown
+     */
+    public static @NotNull List<SearchResult> fuse(@NotNull List<List<SearchResult>> rankings, int maxResults) {
+        return fuse(rankings, maxResults, false);
+    }
+
+    /**
+     * Like {@link #fuse(List, int)}, but each returned result carries its fused score instead
+     * of the score from the list it was first seen in. The RRF sum is scaled by its maximum
+     * ({@code rankings.size() / (k + 1)}, first in every list), so a chunk ranked first by all
+     * retrievers scores 1.0 and one ranked first by only one of two scores about 0.5. Used for
+     * hybrid retrieval, where a lexical hit has no similarity to show.
+     */
+    public static @NotNull List<SearchResult> fuseWithFusedScores(@NotNull List<List<SearchResult>> rankings,
+                                                                  int maxResults) {
+        return fuse(rankings, maxResults, true);
+    }
+
+    private static @NotNull List<SearchResult> fuse(@NotNull List<List<SearchResult>> rankings,
+                                                    int maxResults,
+                                                    boolean fusedScores) {
+        if (rankings.isEmpty() || maxResults <= 0) return List.of();
+
+        // Two parallel maps keyed by (filePath, content) so chunks that match across lists
         // accumulate score. Using LinkedHashMap preserves insertion order which gives us a
         // stable tiebreaker when scores tie.
         Map<DedupKey, Double> scores = new LinkedHashMap<>();
         Map<DedupKey, SearchResult> chosen = new LinkedHashMap<>();
 
-        for (String variant : variants) {
-            List<SearchResult> hits = retrieve.apply(variant);
-            if (hits == null) continue;
+        for (List<SearchResult> hits : rankings) {
             for (int i = 0; i < hits.size(); i++) {
                 SearchResult hit = hits.get(i);
                 DedupKey key = DedupKey.of(hit);
@@ -69,10 +138,16 @@ public final class QueryExpansionFuser {
             }
         }
 
+        double maxScore = rankings.size() / (double) (RRF_K + 1);
         return scores.entrySet().stream()
                 .sorted(Map.Entry.<DedupKey, Double>comparingByValue().reversed())
                 .limit(maxResults)
-                .map(e -> chosen.get(e.getKey()))
+                .map(e -> {
+                    SearchResult hit = chosen.get(e.getKey());
+                    return fusedScores
+                            ? new SearchResult(hit.filePath(), e.getValue() / maxScore, hit.content())
+                            : hit;
+                })
                 .collect(java.util.stream.Collectors.toCollection(ArrayList::new));
     }
 
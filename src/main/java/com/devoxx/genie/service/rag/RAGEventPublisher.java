@@ -80,6 +80,25 @@ public final class RAGEventPublisher {
         }
     }
 
+    /**
+     * Publish an indexing status line (e.g. an embedding tuner decision) to the same RAG log
+     * stream as retrievals, so slow indexing runs can be diagnosed from the log panel.
+     */
+    public static void publishIndexerStatus(@Nullable Project project, @NotNull String status) {
+        RAGLogMessage message = RAGLogMessage.builder()
+                .projectLocationHash(project != null ? project.getLocationHash() : null)
+                .embeddingModel(safeEmbeddingModelName())
+                .indexerStatus(status)
+                .build();
+        try {
+            if (ApplicationManager.getApplication() == null) return;
+            MessageBus bus = ApplicationManager.getApplication().getMessageBus();
+            bus.syncPublisher(AppTopics.RAG_LOG_MSG).onRAGLoggingMessage(message);
+        } catch (Exception e) {
+            log.debug("Could not publish RAG indexer status to message bus: {}", e.getMessage());
+        }
+    }
+
     private static String safeEmbeddingModelName() {
         try {
             return ChromaEmbeddingService.EMBEDDING_MODEL_NAME;
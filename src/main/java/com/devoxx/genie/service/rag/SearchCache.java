@@ -0,0 +1,109 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Two small LRU caches in front of {@link SemanticSearchService}:
+ * <ul>
+ *   <li><b>Query embeddings</b> — keyed by (embedding model, query text). Agent loops and
+ *       query expansion re-issue the same strings often, and every miss is a round-trip to
+ *       the embedding provider.</li>
+ *   <li><b>Search results</b> — keyed by (store key, index generation, query vector, minScore,
+ *       maxResults). The store key names the backend and project, and the generation changes
+ *       on every manifest or vector store mutation, so entries from before a (re)index simply
+ *       stop matching instead of needing explicit invalidation.</li>
+ * </ul>
+ * Both maps follow the same access-ordered {@link LinkedHashMap} pattern as
+ * {@link com.devoxx.genie.completion.CompletionCache}.
+ */
+final class SearchCache {
+
+    static final int MAX_EMBEDDINGS = 256;
+    static final int MAX_RESULTS = 128;
+
+    private final Map<EmbeddingKey, Embedding> embeddings = lru(MAX_EMBEDDINGS);
+    private final Map<ResultKey, List<SearchResult>> results = lru(MAX_RESULTS);
+
+    /**
+     * Return the cached embedding for {@code query} under {@code model}, computing it with
+     * {@code compute} on a miss. The provider call runs outside the lock so concurrent
+     * expansion variants are not serialised behind each other.
+     */
+    @NotNull Embedding embedding(@NotNull Object model, @NotNull String query,
+                                 @NotNull Supplier<Embedding> compute) {
+        EmbeddingKey key = new EmbeddingKey(model, query);
+        synchronized (embeddings) {
+            Embedding cached = embeddings.get(key);
+            if (cached != null) return cached;
+        }
+        Embedding computed = compute.get();
+        synchronized (embeddings) {
+            embeddings.put(key, computed);
+        }
+        return computed;
+    }
+
+    @Nullable List<SearchResult> results(@NotNull String store, long generation, @NotNull Embedding query,
+                                         double minScore, int maxResults) {
+        synchronized (results) {
+            return results.get(new ResultKey(store, generation, new VectorKey(query.vector()), minScore, maxResults));
+        }
+    }
+
+    void putResults(@NotNull String store, long generation, @NotNull Embedding query,
+                    double minScore, int maxResults, @NotNull List<SearchResult> hits) {
+        synchronized (results) {
+            results.put(new ResultKey(store, generation, new VectorKey(query.vector()), minScore, maxResults),
+                    List.copyOf(hits));
+        }
+    }
+
+    void clear() {
+        synchronized (embeddings) {
+            embeddings.clear();
+        }
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    private static <K, V> @NotNull Map<K, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Model is compared by identity: switching provider or model yields a new instance. */
+    private record EmbeddingKey(Object model, String query) {}
+
+    private record ResultKey(String store, long generation, VectorKey vector, double minScore, int maxResults) {}
+
+    /** Value-equality wrapper; arrays only have identity equality on their own. */
+    private record VectorKey(float[] values) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof VectorKey other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+
+        @Override
+        public String toString() {
+            return "VectorKey[dim=" + values.length + "]";
+        }
+    }
+}
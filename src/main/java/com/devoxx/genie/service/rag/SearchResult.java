@@ -4,7 +4,8 @@ package com.devoxx.genie.service.rag;
  * A single semantic-search hit: which chunk matched the query, where it came from, and how well.
  *
  * @param filePath absolute path of the source file the chunk was extracted from
- * @param score    similarity score (0.0–1.0) returned by the vector store
+ * @param score    similarity score (0.0–1.0) returned by the vector store, or the normalised
+ *                 fused score (0.0–1.0) when hybrid retrieval combined dense and lexical hits
  * @param content  the chunk text as it was embedded and stored (NOT the full file contents)
  */
 public record SearchResult(String filePath, Double score, String content) {
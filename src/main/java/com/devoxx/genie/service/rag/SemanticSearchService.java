@@ -1,15 +1,23 @@
 package com.devoxx.genie.service.rag;
 
 import com.devoxx.genie.service.chromadb.ChromaEmbeddingService;
+import com.devoxx.genie.service.rag.lexical.Bm25Index;
+import com.devoxx.genie.service.rag.lexical.LexicalIndexService;
+import com.devoxx.genie.service.rag.manifest.IndexManifest;
+import com.devoxx.genie.service.rag.manifest.IndexManifestService;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.rag.query.Query;
 import dev.langchain4j.rag.query.transformer.ExpandingQueryTransformer;
 import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +26,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.devoxx.genie.service.rag.IndexerConstants.FILE_PATH;
 
@@ -27,6 +38,9 @@ public final class SemanticSearchService {
 
     private final ChromaEmbeddingService embeddingService;
     private final DevoxxGenieStateService stateService;
+    private final SearchCache cache = new SearchCache();
+    private final Map<String, LexicalCoverage> lexicalCoverage = new ConcurrentHashMap<>();
+    private final Set<String> backfillsRunning = ConcurrentHashMap.newKeySet();
 
     @NotNull
     public static SemanticSearchService getInstance() {
@@ -60,19 +74,95 @@ public final class SemanticSearchService {
      * <p>When expansion is disabled or unavailable, falls back to single-query embedding +
      * store lookup — identical to the previous behavior.
      *
+     * <p>When hybrid search is enabled, the dense results are additionally fused with BM25
+     * hits from the project's lexical index (see {@link #fuseWithLexical}).
+     *
+     * <p>Query embeddings and per-query store results are cached (see {@link SearchCache});
+     * result entries are keyed on the project's index generation, so any (re)index or store
+     * write makes them unreachable.
+     *
      * <p>Returns one {@link SearchResult} per matching chunk (so multiple chunks from the
      * same file are preserved). Results are ordered by descending score.
      */
     public @NotNull List<SearchResult> search(Project project, String query, @Nullable ChatModel chatModel) {
         embeddingService.init(project);
 
-        if (chatModel != null && Boolean.TRUE.equals(stateService.getRagQueryExpansionEnabled())) {
-            return searchWithExpansion(query, chatModel);
+        List<SearchResult> dense = chatModel != null && Boolean.TRUE.equals(stateService.getRagQueryExpansionEnabled())
+                ? searchWithExpansion(project, query, chatModel)
+                : singleQuerySearch(project, query);
+        if (!Boolean.TRUE.equals(stateService.getRagHybridSearchEnabled())) {
+            return dense;
+        }
+        return fuseWithLexical(project, query, dense);
+    }
+
+    /**
+     * Hybrid retrieval: RRF-fuse the dense hits with the project's BM25 hits for the raw
+     * query. Exact identifiers and error codes that embed poorly still surface via the
+     * lexical list; the lexical lookup needs no embedding call. Fused results carry their
+     * normalised RRF score rather than a similarity, since lexical hits have none.
+     */
+    private @NotNull List<SearchResult> fuseWithLexical(@NotNull Project project,
+                                                        @NotNull String query,
+                                                        @NotNull List<SearchResult> dense) {
+        Bm25Index lexicalIndex = LexicalIndexService.getInstance().forProject(project);
+        if (!lexicalIndexCoversManifest(project, lexicalIndex)) {
+            // A partial index would only know recently (re)indexed files and pull them to the
+            // top of every fused list; stay dense-only until the backfill has run.
+            requestLexicalBackfill(project);
+            return dense;
+        }
+        int maxResults = stateService.getIndexerMaxResults();
+        List<SearchResult> lexical = lexicalIndex.search(query, maxResults);
+        if (lexical.isEmpty()) {
+            return dense;
+        }
+        return QueryExpansionFuser.fuseWithFusedScores(List.of(dense, lexical), maxResults);
+    }
+
+    /**
+     * Whether the lexical index has chunks for every file the manifest tracks. Memoised per
+     * project on both generations, so the manifest walk only repeats after an index change.
+     */
+    private boolean lexicalIndexCoversManifest(@NotNull Project project, @NotNull Bm25Index lexicalIndex) {
+        IndexManifestService manifests = ApplicationManager.getApplication().getService(IndexManifestService.class);
+        if (manifests == null) {
+            return true;
+        }
+        IndexManifest manifest = manifests.forProject(project);
+        long manifestGeneration = manifest.generation();
+        long lexicalGeneration = lexicalIndex.generation();
+        LexicalCoverage known = lexicalCoverage.get(project.getLocationHash());
+        if (known != null && known.manifestGeneration() == manifestGeneration
+                && known.lexicalGeneration() == lexicalGeneration) {
+            return known.covered();
+        }
+        boolean covered = lexicalIndex.covers(manifest.trackedPaths());
+        lexicalCoverage.put(project.getLocationHash(),
+                new LexicalCoverage(manifestGeneration, lexicalGeneration, covered));
+        return covered;
+    }
+
+    /** Start at most one background backfill per project; a later search re-checks coverage. */
+    private void requestLexicalBackfill(@NotNull Project project) {
+        String key = project.getLocationHash();
+        if (!backfillsRunning.add(key)) {
+            return;
         }
-        return singleQuerySearch(query);
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                ProjectIndexerService.getInstance().backfillLexicalIndex(project);
+            } catch (RuntimeException e) {
+                log.warn("Lexical index backfill failed: {}", e.getMessage());
+            } finally {
+                backfillsRunning.remove(key);
+            }
+        });
     }
 
-    private @NotNull List<SearchResult> searchWithExpansion(String query, @NotNull ChatModel chatModel) {
+    private @NotNull List<SearchResult> searchWithExpansion(@NotNull Project project,
+                                                            String query,
+                                                            @NotNull ChatModel chatModel) {
         int n = stateService.getRagQueryExpansionN() == null ? 3 : stateService.getRagQueryExpansionN();
         LinkedHashSet<String> variants = new LinkedHashSet<>();
         variants.add(query); // keep the original as the unexpanded baseline
@@ -85,27 +175,63 @@ public final class SemanticSearchService {
             // rather than aborting the whole prompt. The single-query baseline is still useful.
             log.warn("Query expansion failed ({}); falling back to original query", e.getMessage());
         }
+        // Variants are independent embed + store round-trips, so run them concurrently.
         return QueryExpansionFuser.expandAndFuse(
                 variants,
-                this::singleQuerySearch,
-                stateService.getIndexerMaxResults());
+                variant -> singleQuerySearch(project, variant),
+                stateService.getIndexerMaxResults(),
+                AppExecutorUtil.getAppExecutorService());
     }
 
-    private @NotNull List<SearchResult> singleQuerySearch(@NotNull String query) {
-        Embedding queryEmbedding = embeddingService.getEmbeddingModel().embed(query).content();
+    private @NotNull List<SearchResult> singleQuerySearch(@NotNull Project project, @NotNull String query) {
+        EmbeddingModel embeddingModel = embeddingService.getEmbeddingModel();
+        EmbeddingStore<TextSegment> store = embeddingService.getEmbeddingStore();
+        double minScore = stateService.getIndexerMinScore();
+        int maxResults = stateService.getIndexerMaxResults();
+
+        Embedding queryEmbedding = cache.embedding(embeddingModel, query,
+                () -> embeddingModel.embed(query).content());
+        String storeKey = embeddingService.storeKey(project);
+        Long generation = indexGeneration(project);
+        if (generation != null) {
+            List<SearchResult> cached = cache.results(storeKey, generation, queryEmbedding, minScore, maxResults);
+            if (cached != null) {
+                return new ArrayList<>(cached);
+            }
+        }
+
         EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
                 .queryEmbedding(queryEmbedding)
-                .minScore(stateService.getIndexerMinScore())
-                .maxResults(stateService.getIndexerMaxResults())
+                .minScore(minScore)
+                .maxResults(maxResults)
                 .build();
 
         List<SearchResult> results = new ArrayList<>();
-        embeddingService.getEmbeddingStore().search(request)
+        store.search(request)
                 .matches()
                 .forEach(match -> {
                     String filePath = match.embedded().metadata().getString(FILE_PATH);
                     results.add(new SearchResult(filePath, match.score(), match.embedded().text()));
                 });
+        if (generation != null) {
+            cache.putResults(storeKey, generation, queryEmbedding, minScore, maxResults, results);
+        }
         return results;
     }
+
+    /**
+     * Generation of the project's index: the manifest's plus the vector store's, which also
+     * moves when chunks are dropped without a manifest change (e.g. a file that became blank).
+     * Both only grow, so the sum changes whenever either does. Null when no manifest service
+     * is available (headless tests) — in which case results are not cached, since nothing
+     * would tell us when they go stale.
+     */
+    private @Nullable Long indexGeneration(@NotNull Project project) {
+        IndexManifestService manifests = ApplicationManager.getApplication().getService(IndexManifestService.class);
+        return manifests == null
+                ? null
+                : manifests.forProject(project).generation() + embeddingService.storeGeneration();
+    }
+
+    private record LexicalCoverage(long manifestGeneration, long lexicalGeneration, boolean covered) {}
 }
@@ -0,0 +1,62 @@
+package com.devoxx.genie.service.rag.cache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link EmbeddingModel} decorator that serves chunks from an {@link EmbeddingCacheService}
+ * and forwards only the misses to the real model, in one {@code embedAll} call.
+ */
+final class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final EmbeddingCacheService.ModelCache cache;
+
+    CachingEmbeddingModel(@NotNull EmbeddingModel delegate, @NotNull EmbeddingCacheService.ModelCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        Embedding[] result = new Embedding[textSegments.size()];
+        String[] hashes = new String[textSegments.size()];
+        List<TextSegment> misses = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+
+        for (int i = 0; i < textSegments.size(); i++) {
+            hashes[i] = EmbeddingCacheService.hash(textSegments.get(i).text());
+            float[] cached = cache.get(hashes[i]);
+            if (cached != null) {
+                // Copy: callers (and some stores) normalise vectors in place.
+                result[i] = Embedding.from(cached.clone());
+            } else {
+                misses.add(textSegments.get(i));
+                missIndexes.add(i);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<Embedding> embedded = delegate.embedAll(misses).content();
+            for (int m = 0; m < embedded.size(); m++) {
+                int index = missIndexes.get(m);
+                Embedding embedding = embedded.get(m);
+                result[index] = embedding;
+                cache.put(hashes[index], embedding.vector().clone());
+            }
+        }
+        return Response.from(Arrays.asList(result));
+    }
+
+    @Override
+    public int dimension() {
+        return delegate.dimension();
+    }
+}
@@ -0,0 +1,338 @@
+package com.devoxx.genie.service.rag.cache;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persistent chunk-level embedding cache keyed by (embedding model, SHA-1 of chunk text).
+ *
+ * <p>The index manifest decides <em>which files</em> need re-indexing; this cache decides
+ * <em>which chunks</em> actually need the embedding model. A one-line edit re-splits the file,
+ * but every unchanged chunk comes back as a cache hit, and a full rebuild after
+ * {@code forceReindex}, a dropped collection or a schema bump mostly costs store writes.
+ *
+ * <p>One append-only file per model under {@code {systemPath}/DevoxxGenie/}. Each record is
+ * {@code [20-byte hash][int dimension][dimension × float32]}; a torn record at the tail (crash
+ * mid-append) is truncated away on load. Vectors are read back from the log on a hit, so memory
+ * only holds an offset per record; the log is bounded per model by {@link #MAX_BYTES_PER_MODEL}
+ * with LRU eviction. The cache is independent of any project or collection, so
+ * identical chunks shared between projects are embedded once.
+ */
+@Slf4j
+@Service
+public final class EmbeddingCacheService {
+
+    /**
+     * Budget per model, in record bytes on disk: about 170,000 chunks at 768 dimensions, which
+     * covers a large project several times over. Past it the least recently used vectors are
+     * evicted.
+     */
+    static final long MAX_BYTES_PER_MODEL = 512L * 1024 * 1024;
+
+    /** New vectors held in memory before they are appended to the log without waiting for {@link #flush()}. */
+    static final long MAX_UNFLUSHED_BYTES = 8L * 1024 * 1024;
+
+    private static final int HASH_BYTES = 20;
+
+    private final Path directory;
+    private final long maxBytesPerModel;
+    private final ConcurrentMap<String, ModelCache> perModel = new ConcurrentHashMap<>();
+
+    public EmbeddingCacheService() {
+        this(Paths.get(PathManager.getSystemPath(), "DevoxxGenie"));
+    }
+
+    EmbeddingCacheService(@NotNull Path directory) {
+        this(directory, MAX_BYTES_PER_MODEL);
+    }
+
+    EmbeddingCacheService(@NotNull Path directory, long maxBytesPerModel) {
+        this.directory = directory;
+        this.maxBytesPerModel = maxBytesPerModel;
+    }
+
+    /** Returns the application service, or null when no application is running (unit tests). */
+    public static @Nullable EmbeddingCacheService getInstance() {
+        return ApplicationManager.getApplication() == null
+                ? null
+                : ApplicationManager.getApplication().getService(EmbeddingCacheService.class);
+    }
+
+    /** Decorate {@code delegate} so {@code embedAll} only sends cache misses to the model. */
+    public @NotNull EmbeddingModel wrap(@NotNull EmbeddingModel delegate, @NotNull String modelName) {
+        return new CachingEmbeddingModel(delegate, forModel(modelName));
+    }
+
+    /** Append pending entries for every model to disk. */
+    public void flush() {
+        perModel.values().forEach(ModelCache::flush);
+    }
+
+    @NotNull ModelCache forModel(@NotNull String modelName) {
+        return perModel.computeIfAbsent(modelName,
+                name -> new ModelCache(directory.resolve("embedding-cache-" + name.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin"),
+                        maxBytesPerModel));
+    }
+
+    static @NotNull String hash(@NotNull String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Vectors for one embedding model. Only the record offsets are held in memory; a hit reads
+     * its vector back from the log, so the budget is {@code maxBytes} of records on disk, with
+     * the least recently used evicted past it. The log is rewritten with just the live records
+     * once it grows past twice that.
+     */
+    static final class ModelCache {
+        /** Offset of a record not yet appended to the log. */
+        private static final long UNFLUSHED = -1;
+
+        private final Path file;
+        private final long maxBytes;
+        /** Access-ordered, so iteration runs from least to most recently used. */
+        private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, Pending> unflushed = new LinkedHashMap<>();
+        private long bytes;
+        private long unflushedBytes;
+        private long fileBytes;
+        private @Nullable FileChannel reader;
+
+        private ModelCache(@NotNull Path file, long maxBytes) {
+            this.file = file;
+            this.maxBytes = maxBytes;
+            load();
+        }
+
+        /** Cached vector for {@code hash}, or null on a miss. */
+        synchronized float[] get(@NotNull String hash) {
+            Slot slot = slots.get(hash);
+            if (slot == null) return null;
+            if (slot.offset == UNFLUSHED) return unflushed.get(hash).vector();
+            try {
+                return readVector(slot);
+            } catch (IOException e) {
+                log.warn("Failed to read embedding cache {}: {}", file, e.getMessage());
+                slots.remove(hash);
+                bytes -= recordBytes(slot.dimension);
+                return null;
+            }
+        }
+
+        synchronized void put(@NotNull String hash, float[] vector) {
+            if (slots.containsKey(hash)) return;
+            Slot slot = new Slot(UNFLUSHED, vector.length);
+            unflushed.put(hash, new Pending(slot, vector));
+            unflushedBytes += recordBytes(vector.length);
+            admit(hash, slot);
+            if (unflushedBytes > MAX_UNFLUSHED_BYTES) {
+                flush();
+            }
+        }
+
+        synchronized int size() {
+            return slots.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        synchronized void flush() {
+            if (unflushed.isEmpty()) return;
+            try {
+                Files.createDirectories(file.getParent());
+                if (fileBytes + unflushedBytes > 2 * maxBytes) {
+                    rewrite();
+                } else {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                        for (Map.Entry<String, Pending> entry : unflushed.entrySet()) {
+                            writeRecord(out, entry.getKey(), entry.getValue().vector());
+                        }
+                    }
+                    for (Pending pending : unflushed.values()) {
+                        pending.slot().offset = fileBytes;
+                        fileBytes += recordBytes(pending.slot().dimension);
+                    }
+                }
+                unflushed.clear();
+                unflushedBytes = 0;
+            } catch (IOException e) {
+                log.warn("Failed to flush embedding cache to {}: {}", file, e.getMessage());
+            }
+        }
+
+        private void admit(@NotNull String hash, @NotNull Slot slot) {
+            Slot previous = slots.put(hash, slot);
+            if (previous != null) {
+                bytes -= recordBytes(previous.dimension);
+            }
+            bytes += recordBytes(slot.dimension);
+            Iterator<Map.Entry<String, Slot>> eldest = slots.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Slot> entry = eldest.next();
+                eldest.remove();
+                if (unflushed.remove(entry.getKey()) != null) {
+                    unflushedBytes -= recordBytes(entry.getValue().dimension);
+                }
+                bytes -= recordBytes(entry.getValue().dimension);
+            }
+        }
+
+        private float[] readVector(@NotNull Slot slot) throws IOException {
+            if (reader == null) {
+                reader = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(slot.dimension * Float.BYTES);
+            long position = slot.offset + HASH_BYTES + Integer.BYTES;
+            while (buffer.hasRemaining()) {
+                if (reader.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Record past the end of the log");
+                }
+            }
+            float[] vector = new float[slot.dimension];
+            buffer.flip().asFloatBuffer().get(vector);
+            return vector;
+        }
+
+        private void closeReader() {
+            if (reader == null) return;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.debug("Failed to close embedding cache {}: {}", file, e.getMessage());
+            }
+            reader = null;
+        }
+
+        /** Replaces the log with the live records, least recently used first, so a reload keeps the order. */
+        private void rewrite() throws IOException {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                    Slot slot = entry.getValue();
+                    float[] vector = slot.offset == UNFLUSHED ? unflushed.get(entry.getKey()).vector() : readVector(slot);
+                    writeRecord(out, entry.getKey(), vector);
+                }
+            }
+            // Windows refuses to replace a file that is still open
+            closeReader();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            long offset = 0;
+            for (Slot slot : slots.values()) {
+                slot.offset = offset;
+                offset += recordBytes(slot.dimension);
+            }
+            fileBytes = offset;
+        }
+
+        private void load() {
+            if (!Files.exists(file)) return;
+            long validBytes = 0;
+            boolean torn = false;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                byte[] hash = new byte[HASH_BYTES];
+                while (true) {
+                    try {
+                        in.readFully(hash);
+                    } catch (EOFException endOfLog) {
+                        break;
+                    }
+                    int dimension;
+                    try {
+                        dimension = in.readInt();
+                        if (dimension <= 0 || dimension > 65_536) {
+                            log.warn("Corrupt embedding cache record in {}; keeping {} entries", file, slots.size());
+                            torn = true;
+                            break;
+                        }
+                        in.skipNBytes((long) dimension * Float.BYTES);
+                    } catch (EOFException tornTail) {
+                        // Crash mid-append: the partial record is dropped below
+                        torn = true;
+                        break;
+                    }
+                    admit(HexFormat.of().formatHex(hash), new Slot(validBytes, dimension));
+                    validBytes += recordBytes(dimension);
+                }
+                torn |= Files.size(file) > validBytes;
+            } catch (IOException e) {
+                log.warn("Failed to load embedding cache from {}: {}", file, e.getMessage());
+            }
+            fileBytes = validBytes;
+            if (torn) {
+                truncateTo(validBytes);
+            }
+        }
+
+        /** Cuts a torn or corrupt tail off the log, so later appends start on a record boundary. */
+        private void truncateTo(long validBytes) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            } catch (IOException e) {
+                // Appending after garbage would misalign every later load; rewrite instead
+                log.warn("Failed to truncate embedding cache {}: {}", file, e.getMessage());
+                fileBytes = Long.MAX_VALUE / 2;
+            }
+        }
+
+        private static void writeRecord(@NotNull DataOutputStream out, @NotNull String hash, float[] vector)
+                throws IOException {
+            out.write(HexFormat.of().parseHex(hash));
+            out.writeInt(vector.length);
+            for (float v : vector) {
+                out.writeFloat(v);
+            }
+        }
+
+        private static long recordBytes(int dimension) {
+            return HASH_BYTES + Integer.BYTES + (long) dimension * Float.BYTES;
+        }
+
+        private record Pending(@NotNull Slot slot, float[] vector) {}
+
+        /** Where a record starts in the log, or {@link #UNFLUSHED}. */
+        private static final class Slot {
+            long offset;
+            final int dimension;
+
+            Slot(long offset, int dimension) {
+                this.offset = offset;
+                this.dimension = dimension;
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.devoxx.genie.service.rag.lexical;
+
+import com.devoxx.genie.service.rag.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-project BM25 inverted index over the same chunks that are embedded for RAG. Dense
+ * retrieval ranks exact identifiers (class names, error codes, config keys) poorly; a lexical
+ * lookup finds them in microseconds without an embedding call, and the two result lists are
+ * fused with Reciprocal Rank Fusion in {@code SemanticSearchService}.
+ *
+ * <p>Tokenisation keeps every identifier whole (lower-cased) and additionally emits its
+ * camelCase / snake_case parts, so {@code ProjectIndexerService} matches both the exact
+ * identifier and a query for "indexer service".
+ *
+ * <p>Hits are scored by the share of the query's attainable BM25 weight they match (see
+ * {@link #search(String, int, double)}), not relative to the best hit, so a chunk that merely
+ * shares one common word with the query does not pass as a strong match.
+ *
+ * <p>Documents are chunks; a file's chunks are replaced as a unit. Removed chunks are
+ * tombstoned in memory and dropped when the index is written by {@link #flush()}, which
+ * renumbers live documents and persists documents plus postings in one binary file (tmp +
+ * atomic move, like the index manifest).
+ */
+@Slf4j
+public class Bm25Index {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    /**
+     * Default floor for {@link #search(String, int)}: hits matching less than this share of the
+     * query's attainable weight are dropped before they can be fused with dense results.
+     */
+    public static final double MIN_SCORE = 0.3;
+
+    private static final int MAGIC = 0x44474C31; // "DGL1"
+    private static final Pattern WORD = Pattern.compile("[A-Za-z0-9_]+");
+    private static final Pattern CAMEL_BOUNDARY =
+            Pattern.compile("(?<=[a-z0-9])(?=[A-Z])|(?<=[A-Z])(?=[A-Z][a-z])|_+");
+
+    private final @Nullable Path storagePath;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Indexed by doc id; {@code null} marks a removed chunk. */
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<String, int[]> docsByFile = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long totalLength;
+    private int liveDocs;
+    private long generation;
+    private boolean dirty;
+
+    public Bm25Index(@Nullable Path storagePath) {
+        this.storagePath = storagePath;
+        if (storagePath != null) {
+            loadFromDisk();
+        }
+    }
+
+    /** Replace every chunk of {@code filePath} with {@code chunks}. */
+    public void replaceFile(@NotNull String filePath, @NotNull List<String> chunks) {
+        lock.writeLock().lock();
+        try {
+            removeFileLocked(filePath);
+            if (chunks.isEmpty()) return;
+            int[] ids = new int[chunks.size()];
+            for (int i = 0; i < chunks.size(); i++) {
+                ids[i] = addDocLocked(filePath, chunks.get(i));
+            }
+            docsByFile.put(filePath, ids);
+            generation++;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeFile(@NotNull String filePath) {
+        lock.writeLock().lock();
+        try {
+            removeFileLocked(filePath);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** True iff {@code filePath} currently has chunks in the index. */
+    public boolean containsFile(@NotNull String filePath) {
+        lock.readLock().lock();
+        try {
+            return docsByFile.containsKey(filePath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True iff every one of {@code files} has chunks in the index, i.e. the index covers what
+     * the manifest reports as indexed and can be fused with dense results without skewing them
+     * towards the few files it does know.
+     */
+    public boolean covers(@NotNull Collection<Path> files) {
+        lock.readLock().lock();
+        try {
+            for (Path file : files) {
+                if (!docsByFile.containsKey(file.toAbsolutePath().toString())) return false;
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Monotonic counter bumped on every change, so callers can memoise {@link #covers}. */
+    public long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** {@link #search(String, int, double)} with the {@link #MIN_SCORE} floor. */
+    public @NotNull List<SearchResult> search(@NotNull String query, int maxResults) {
+        return search(query, maxResults, MIN_SCORE);
+    }
+
+    /**
+     * Top {@code maxResults} chunks by BM25 score, descending. Each score is the hit's raw BM25
+     * divided by the query's attainable weight — the sum over its distinct terms of
+     * {@code idf * (K1 + 1)}, the saturation limit of a term's contribution — so it lies in
+     * (0, 1) and does not depend on the other hits. Hits below {@code minScore} are dropped.
+     * Empty for a query with no known terms.
+     */
+    public @NotNull List<SearchResult> search(@NotNull String query, int maxResults, double minScore) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || maxResults <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) return List.of();
+            double avgLength = (double) totalLength / liveDocs;
+            double attainable = 0;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                int df = list == null ? 0 : list.liveCount(docs);
+                double idf = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                // Terms the index has never seen still count towards the attainable weight: a
+                // hit that matches one word of a five-word query is a weak match.
+                attainable += idf * (K1 + 1);
+                if (df == 0) continue;
+                for (int i = 0; i < list.size; i++) {
+                    Doc doc = docs.get(list.docIds[i]);
+                    if (doc == null) continue;
+                    int tf = list.freqs[i];
+                    double norm = tf + K1 * (1 - B + B * doc.length() / avgLength);
+                    scores.merge(list.docIds[i], idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            double threshold = minScore * attainable;
+            PriorityQueue<Map.Entry<Integer, Double>> heap =
+                    new PriorityQueue<>(maxResults + 1, Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                if (entry.getValue() < threshold) continue;
+                heap.offer(entry);
+                if (heap.size() > maxResults) heap.poll();
+            }
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                ranked.add(heap.poll());
+            }
+            Collections.reverse(ranked);
+            List<SearchResult> results = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, Double> hit : ranked) {
+                Doc doc = docs.get(hit.getKey());
+                results.add(new SearchResult(doc.filePath(), hit.getValue() / attainable, doc.text()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower-cased identifiers plus their camelCase / snake_case parts (parts shorter than 2 chars dropped). */
+    static @NotNull List<String> tokenize(@NotNull String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String word = matcher.group();
+            tokens.add(word.toLowerCase());
+            String[] parts = CAMEL_BOUNDARY.split(word);
+            if (parts.length > 1) {
+                for (String part : parts) {
+                    if (part.length() >= 2) tokens.add(part.toLowerCase());
+                }
+            }
+        }
+        return tokens;
+    }
+
+    public void flush() {
+        if (storagePath == null) return;
+        lock.writeLock().lock();
+        try {
+            if (!dirty) return;
+            compactLocked();
+            Files.createDirectories(storagePath.getParent());
+            Path tmp = storagePath.resolveSibling(storagePath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(docs.size());
+                for (Doc doc : docs) {
+                    out.writeUTF(doc.filePath());
+                    byte[] text = doc.text().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(text.length);
+                    out.write(text);
+                    out.writeInt(doc.length());
+                }
+                out.writeInt(postings.size());
+                for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    Postings list = entry.getValue();
+                    out.writeInt(list.size);
+                    for (int i = 0; i < list.size; i++) {
+                        out.writeInt(list.docIds[i]);
+                        out.writeInt(list.freqs[i]);
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to flush lexical index to {}: {}", storagePath, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int addDocLocked(@NotNull String filePath, @NotNull String text) {
+        int id = docs.size();
+        List<String> tokens = tokenize(text);
+        docs.add(new Doc(filePath, text, tokens.size()));
+        totalLength += tokens.size();
+        liveDocs++;
+        Map<String, Integer> tf = new HashMap<>();
+        for (String token : tokens) {
+            tf.merge(token, 1, Integer::sum);
+        }
+        tf.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new Postings()).add(id, freq));
+        return id;
+    }
+
+    private void removeFileLocked(@NotNull String filePath) {
+        int[] ids = docsByFile.remove(filePath);
+        if (ids == null) return;
+        for (int id : ids) {
+            Doc doc = docs.get(id);
+            if (doc == null) continue;
+            totalLength -= doc.length();
+            liveDocs--;
+            docs.set(id, null);
+        }
+        generation++;
+        dirty = true;
+    }
+
+    /** Drop tombstoned docs and renumber the survivors densely. */
+    private void compactLocked() {
+        if (liveDocs == docs.size()) return;
+        int[] remap = new int[docs.size()];
+        List<Doc> live = new ArrayList<>(liveDocs);
+        for (int id = 0; id < docs.size(); id++) {
+            Doc doc = docs.get(id);
+            remap[id] = doc == null ? -1 : live.size();
+            if (doc != null) live.add(doc);
+        }
+        docs.clear();
+        docs.addAll(live);
+        docsByFile.replaceAll((file, ids) -> Arrays.stream(ids).map(id -> remap[id]).toArray());
+        postings.values().forEach(list -> list.remap(remap));
+        postings.values().removeIf(list -> list.size == 0);
+    }
+
+    private void loadFromDisk() {
+        if (!Files.exists(storagePath)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storagePath)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Unrecognised lexical index format in {}; starting empty", storagePath);
+                return;
+            }
+            int docCount = in.readInt();
+            Map<String, List<Integer>> byFile = new HashMap<>();
+            for (int id = 0; id < docCount; id++) {
+                String filePath = in.readUTF();
+                byte[] text = new byte[in.readInt()];
+                in.readFully(text);
+                int length = in.readInt();
+                docs.add(new Doc(filePath, new String(text, StandardCharsets.UTF_8), length));
+                totalLength += length;
+                byFile.computeIfAbsent(filePath, f -> new ArrayList<>()).add(id);
+            }
+            liveDocs = docCount;
+            byFile.forEach((file, ids) -> docsByFile.put(file, ids.stream().mapToInt(Integer::intValue).toArray()));
+            int termCount = in.readInt();
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                Postings list = new Postings();
+                for (int i = 0; i < size; i++) {
+                    list.add(in.readInt(), in.readInt());
+                }
+                postings.put(term, list);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load lexical index from {}; starting empty: {}", storagePath, e.getMessage());
+            docs.clear();
+            docsByFile.clear();
+            postings.clear();
+            totalLength = 0;
+            liveDocs = 0;
+        }
+    }
+
+    private record Doc(String filePath, String text, int length) {}
+
+    /** Growable parallel int arrays: doc ids and term frequencies. */
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int docId, int freq) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docIds[size] = docId;
+            freqs[size] = freq;
+            size++;
+        }
+
+        int liveCount(@NotNull List<Doc> docs) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (docs.get(docIds[i]) != null) count++;
+            }
+            return count;
+        }
+
+        void remap(int[] remap) {
+            int write = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[docIds[i]];
+                if (mapped < 0) continue;
+                docIds[write] = mapped;
+                freqs[write] = freqs[i];
+                write++;
+            }
+            size = write;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.devoxx.genie.service.rag.lexical;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out the {@link Bm25Index} for a given project, caching one per
+ * {@code project.getLocationHash()}. Stored next to the index manifest under
+ * {@code {systemPath}/DevoxxGenie/} so wiping that directory resets every RAG artefact.
+ */
+@Service
+public final class LexicalIndexService {
+
+    private final ConcurrentMap<String, Bm25Index> perProject = new ConcurrentHashMap<>();
+
+    @NotNull
+    public static LexicalIndexService getInstance() {
+        return ApplicationManager.getApplication().getService(LexicalIndexService.class);
+    }
+
+    @NotNull
+    public Bm25Index forProject(@NotNull Project project) {
+        return perProject.computeIfAbsent(project.getLocationHash(),
+                hash -> new Bm25Index(indexPath(hash)));
+    }
+
+    /** Visible for tests that want to swap in a non-persistent index. */
+    public void overrideForProject(@NotNull Project project, @NotNull Bm25Index index) {
+        perProject.put(project.getLocationHash(), index);
+    }
+
+    public static Path indexPath(@NotNull String projectLocationHash) {
+        return Paths.get(PathManager.getSystemPath(), "DevoxxGenie",
+                "lexical-index-" + projectLocationHash + ".bin");
+    }
+}
@@ -3,6 +3,7 @@ package com.devoxx.genie.service.rag.manifest;
 import com.devoxx.genie.service.rag.IndexerConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -12,6 +13,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Volatile, process-local manifest. Used by tests and as the default when no Project
@@ -23,6 +25,13 @@ public class InMemoryIndexManifest implements IndexManifest {
 
     protected final ConcurrentMap<String, IndexManifestEntry> entries = new ConcurrentHashMap<>();
 
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
     @Override
     public boolean isTracked(@NotNull Path file) {
         return entries.containsKey(file.toAbsolutePath().toString());
@@ -63,25 +72,37 @@ public class InMemoryIndexManifest implements IndexManifest {
         } catch (IOException e) {
             lastModified = 0L;
         }
-        entries.put(key, new IndexManifestEntry(
+        IndexManifestEntry entry = new IndexManifestEntry(
                 hash,
                 lastModified,
                 System.currentTimeMillis(),
                 segmentCount,
-                IndexerConstants.CURRENT_EMBEDDING_SCHEMA_VERSION));
-        onMutated();
+                IndexerConstants.CURRENT_EMBEDDING_SCHEMA_VERSION);
+        entries.put(key, entry);
+        generation.incrementAndGet();
+        onEntryChanged(key, entry);
     }
 
     @Override
     public void markRemoved(@NotNull Path file) {
-        if (entries.remove(file.toAbsolutePath().toString()) != null) {
-            onMutated();
+        String key = file.toAbsolutePath().toString();
+        if (entries.remove(key) != null) {
+            generation.incrementAndGet();
+            onEntryChanged(key, null);
         }
     }
 
     /** Hook for persistent subclasses; called after every mutation. Default is no-op. */
     protected void onMutated() {}
 
+    /**
+     * Per-entry variant of {@link #onMutated()} for subclasses that persist incrementally.
+     * {@code entry} is null when {@code key} was removed. Default delegates to {@code onMutated()}.
+     */
+    protected void onEntryChanged(@NotNull String key, @Nullable IndexManifestEntry entry) {
+        onMutated();
+    }
+
     static String sha1OrNull(@NotNull Path file) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-1");
@@ -31,6 +31,25 @@ public interface IndexManifest {
     /** Drop {@code file} from the manifest (e.g. file deleted). */
     void markRemoved(@NotNull Path file);
 
+    /**
+     * Monotonic counter bumped on every {@link #markIndexed} / {@link #markRemoved}. Search
+     * caches key their entries on it so results computed before a (re)index are never served
+     * afterwards. Default impl returns a constant for stubs that never mutate.
+     */
+    default long generation() {
+        return 0L;
+    }
+
+    /**
+     * Forget every tracked file, so the next index run re-processes the whole project. Used
+     * when the vector store lost content the manifest still reports as indexed.
+     */
+    default void invalidateAll() {
+        for (Path file : trackedPaths()) {
+            markRemoved(file);
+        }
+    }
+
     /** Persist any in-memory state. No-op for in-memory implementations. */
     default void flush() {}
 
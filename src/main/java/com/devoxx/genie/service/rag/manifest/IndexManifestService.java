@@ -16,6 +16,9 @@ import java.util.concurrent.ConcurrentMap;
  * {@code project.getLocationHash()}. Manifests live alongside the per-project ChromaDB
  * volume — both under {@code {systemPath}/DevoxxGenie/} — so a clean re-index can be
  * performed by simply wiping that directory.
+ *
+ * <p>New manifests use the binary {@link LogFileIndexManifest}; an existing JSON manifest
+ * from earlier versions is imported into it once and then deleted.
  */
 @Service
 public final class IndexManifestService {
@@ -30,7 +33,7 @@ public final class IndexManifestService {
     @NotNull
     public IndexManifest forProject(@NotNull Project project) {
         return perProject.computeIfAbsent(project.getLocationHash(),
-                hash -> new JsonFileIndexManifest(manifestPath(hash)));
+                hash -> new LogFileIndexManifest(logManifestPath(hash), manifestPath(hash)));
     }
 
     /** Visible for tests that want to swap in an {@link InMemoryIndexManifest}. */
@@ -38,8 +41,14 @@ public final class IndexManifestService {
         perProject.put(project.getLocationHash(), manifest);
     }
 
+    /** Legacy JSON manifest location; only read for migration. */
     public static Path manifestPath(@NotNull String projectLocationHash) {
         return Paths.get(PathManager.getSystemPath(), "DevoxxGenie",
                 "index-manifest-" + projectLocationHash + ".json");
     }
+
+    public static Path logManifestPath(@NotNull String projectLocationHash) {
+        return Paths.get(PathManager.getSystemPath(), "DevoxxGenie",
+                "index-manifest-" + projectLocationHash + ".log");
+    }
 }
@@ -0,0 +1,309 @@
+package com.devoxx.genie.service.rag.manifest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, log-structured manifest. Replaces {@link JsonFileIndexManifest} as the
+ * per-project default: the JSON variant rewrites every entry on each flush, which at tens of
+ * thousands of tracked files turns every watcher-triggered flush into a multi-megabyte write.
+ *
+ * <p>On disk: a 4-byte magic header followed by framed records
+ * {@code [int length][payload][int crc32(payload)]}. A payload is either a PUT (key + entry)
+ * or a DEL (key). Mutations are buffered (coalesced per key) and {@link #flush()} appends only
+ * what changed since the last flush.
+ *
+ * <ul>
+ *   <li><b>Crash safety</b> — on load, records are replayed until the first short or
+ *       CRC-mismatched frame; the torn tail is truncated so later appends start clean.</li>
+ *   <li><b>Compaction</b> — once the log holds more than {@link #COMPACTION_MIN_RECORDS}
+ *       records and over {@link #COMPACTION_RATIO}× the live entry count, the next flush
+ *       rewrites a snapshot via tmp + atomic move instead of appending.</li>
+ *   <li><b>Migration</b> — if no log exists yet but the legacy JSON manifest does, its entries
+ *       are imported, written as a compacted log, and the JSON file is deleted.</li>
+ * </ul>
+ */
+@Slf4j
+public class LogFileIndexManifest extends InMemoryIndexManifest {
+
+    static final int MAGIC = 0x44474D31; // "DGM1"
+    static final int COMPACTION_MIN_RECORDS = 4096;
+    static final int COMPACTION_RATIO = 2;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DEL = 2;
+    /** Upper bound for a single record; anything larger is treated as corruption. */
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path storagePath;
+    /** Pending changes since the last flush, coalesced per key; a null entry means removal. */
+    private final Map<String, IndexManifestEntry> pending = new LinkedHashMap<>();
+    /** Guarded by {@code this}: records currently in the log file, valid or superseded. */
+    private long recordsOnDisk;
+    /** Guarded by {@code this}: the file must be rewritten (bad header, torn tail, migration). */
+    private boolean rewriteNeeded;
+
+    public LogFileIndexManifest(@NotNull Path storagePath) {
+        this(storagePath, null);
+    }
+
+    /**
+     * @param storagePath    location of the binary log
+     * @param legacyJsonPath JSON manifest to import once when {@code storagePath} does not
+     *                       exist yet; may be null
+     */
+    public LogFileIndexManifest(@NotNull Path storagePath, @Nullable Path legacyJsonPath) {
+        this.storagePath = storagePath;
+        if (Files.exists(storagePath)) {
+            loadFromDisk();
+        } else if (legacyJsonPath != null && Files.exists(legacyJsonPath)) {
+            migrateFrom(legacyJsonPath);
+        }
+    }
+
+    @Override
+    protected void onEntryChanged(@NotNull String key, @Nullable IndexManifestEntry entry) {
+        synchronized (pending) {
+            // Remove first so a re-put moves the key to the end and keeps append order causal.
+            pending.remove(key);
+            pending.put(key, entry);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        Map<String, IndexManifestEntry> batch;
+        synchronized (pending) {
+            if (pending.isEmpty() && !rewriteNeeded) return;
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        try {
+            Files.createDirectories(storagePath.getParent());
+            if (rewriteNeeded || shouldCompact(batch.size())) {
+                // The snapshot already reflects every change in the batch.
+                compact();
+            } else {
+                append(batch);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to flush index manifest to {}: {}", storagePath, e.getMessage());
+            requeue(batch);
+        }
+    }
+
+    /** Records currently in the log file, including superseded ones; visible for tests. */
+    synchronized long recordsOnDisk() {
+        return recordsOnDisk;
+    }
+
+    private boolean shouldCompact(int incoming) {
+        long total = recordsOnDisk + incoming;
+        return total > COMPACTION_MIN_RECORDS && total > (long) COMPACTION_RATIO * entries.size();
+    }
+
+    private void append(@NotNull Map<String, IndexManifestEntry> batch) throws IOException {
+        boolean fresh = !Files.exists(storagePath);
+        try (FileChannel channel = FileChannel.open(storagePath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024))) {
+            if (fresh) {
+                out.writeInt(MAGIC);
+            }
+            for (Map.Entry<String, IndexManifestEntry> change : batch.entrySet()) {
+                writeRecord(out, change.getKey(), change.getValue());
+            }
+            out.flush();
+            channel.force(false);
+        }
+        recordsOnDisk += batch.size();
+    }
+
+    private void compact() throws IOException {
+        Path tmp = storagePath.resolveSibling(storagePath.getFileName().toString() + ".tmp");
+        // Snapshot first so concurrent mutations either land in it or stay pending for the
+        // next append — replaying a PUT twice is harmless.
+        Map<String, IndexManifestEntry> snapshot = Map.copyOf(entries);
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            for (Map.Entry<String, IndexManifestEntry> e : snapshot.entrySet()) {
+                writeRecord(out, e.getKey(), e.getValue());
+            }
+            out.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(tmp, storagePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        recordsOnDisk = snapshot.size();
+        rewriteNeeded = false;
+    }
+
+    private void requeue(@NotNull Map<String, IndexManifestEntry> batch) {
+        synchronized (pending) {
+            // Changes queued while we were writing are newer; keep them over the failed batch.
+            Map<String, IndexManifestEntry> newer = new LinkedHashMap<>(pending);
+            pending.clear();
+            pending.putAll(batch);
+            for (Map.Entry<String, IndexManifestEntry> change : newer.entrySet()) {
+                pending.remove(change.getKey());
+                pending.put(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    private static void writeRecord(@NotNull DataOutputStream out, @NotNull String key,
+                                    @Nullable IndexManifestEntry entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream payload = new DataOutputStream(buffer);
+        if (entry == null) {
+            payload.writeByte(OP_DEL);
+            payload.writeUTF(key);
+        } else {
+            payload.writeByte(OP_PUT);
+            payload.writeUTF(key);
+            payload.writeUTF(entry.contentHash());
+            payload.writeLong(entry.lastModified());
+            payload.writeLong(entry.indexedAt());
+            payload.writeInt(entry.segmentCount());
+            payload.writeUTF(entry.schemaVersion() == null ? "" : entry.schemaVersion());
+        }
+        payload.flush();
+        byte[] bytes = buffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private void loadFromDisk() {
+        long validBytes = 0;
+        long records = 0;
+        boolean torn = false;
+        try (InputStream raw = Files.newInputStream(storagePath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Index manifest {} has an unknown header; starting fresh", storagePath);
+                rewriteNeeded = true;
+                return;
+            }
+            validBytes = Integer.BYTES;
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException endOfLog) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    torn = true;
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                int expectedCrc;
+                try {
+                    in.readFully(bytes);
+                    expectedCrc = in.readInt();
+                } catch (EOFException partialRecord) {
+                    torn = true;
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                if ((int) crc.getValue() != expectedCrc) {
+                    torn = true;
+                    break;
+                }
+                apply(bytes);
+                records++;
+                validBytes += Integer.BYTES + length + Integer.BYTES;
+            }
+        } catch (EOFException emptyFile) {
+            rewriteNeeded = true;
+            return;
+        } catch (IOException e) {
+            log.warn("Failed to load index manifest from {}; starting fresh: {}", storagePath, e.getMessage());
+            entries.clear();
+            rewriteNeeded = true;
+            return;
+        }
+        recordsOnDisk = records;
+        if (torn) {
+            log.warn("Index manifest {} has a torn tail after {} records; truncating", storagePath, records);
+            truncateTo(validBytes);
+        }
+    }
+
+    private void apply(byte[] bytes) throws IOException {
+        DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte op = payload.readByte();
+        String key = payload.readUTF();
+        if (op == OP_DEL) {
+            entries.remove(key);
+        } else if (op == OP_PUT) {
+            String contentHash = payload.readUTF();
+            long lastModified = payload.readLong();
+            long indexedAt = payload.readLong();
+            int segmentCount = payload.readInt();
+            String schemaVersion = payload.readUTF();
+            entries.put(key, new IndexManifestEntry(contentHash, lastModified, indexedAt, segmentCount,
+                    schemaVersion.isEmpty() ? null : schemaVersion));
+        } else {
+            throw new IOException("Unknown manifest record type " + op);
+        }
+    }
+
+    private void truncateTo(long validBytes) {
+        try (FileChannel channel = FileChannel.open(storagePath, StandardOpenOption.WRITE)) {
+            channel.truncate(validBytes);
+        } catch (IOException e) {
+            // Appending after garbage would hide new records behind it; rewrite instead.
+            log.warn("Failed to truncate index manifest {}: {}", storagePath, e.getMessage());
+            rewriteNeeded = true;
+        }
+    }
+
+    private void migrateFrom(@NotNull Path legacyJsonPath) {
+        JsonFileIndexManifest legacy = new JsonFileIndexManifest(legacyJsonPath);
+        entries.putAll(legacy.entries);
+        try {
+            Files.createDirectories(storagePath.getParent());
+            compact();
+            Files.deleteIfExists(legacyJsonPath);
+            log.info("Migrated {} index manifest entries from {} to {}",
+                    entries.size(), legacyJsonPath, storagePath);
+        } catch (IOException e) {
+            // Keep the JSON file so the next start retries; the entries are usable in memory.
+            log.warn("Failed to migrate index manifest {}: {}", legacyJsonPath, e.getMessage());
+            rewriteNeeded = true;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.devoxx.genie.service.rag.store;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.RelevanceScore;
+import dev.langchain4j.store.embedding.filter.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-process {@link EmbeddingStore} used as an alternative to the Docker-hosted ChromaDB.
+ * Avoids the JSON/HTTP round trip on every search and store write, and lets indexing work
+ * offline.
+ *
+ * <p>Layout on disk: one {@code store.bin} per project directory holding a header
+ * ({@code magic, dimension, count}), {@code count × dimension} little-endian float32 values,
+ * then a compact binary side index (per row the id, chunk text and metadata entries, in the
+ * same order as the vector rows) and an end marker. Vectors and side index share one file so
+ * a single move replaces both; they can never be out of step. The file is read and written
+ * with plain {@link FileChannel} transfers through a heap buffer — nothing stays mapped, so
+ * the next flush can always replace it (a live mapping blocks that on Windows).
+ *
+ * <p>When a store file exists but cannot be loaded (truncated or corrupt), the store starts
+ * empty and {@link #lostOnLoad()} reports it, so the caller can invalidate the index manifest
+ * instead of trusting it.
+ *
+ * <p>Vectors are L2-normalised on insert and kept in one contiguous {@code float[]}, so a
+ * search is a brute-force dot-product scan over a flat array (a loop the JIT auto-vectorises)
+ * feeding a bounded min-heap for the top-k. At the chunk counts a single project produces
+ * (tens of thousands) this is sub-millisecond and exact, so no approximate index is kept.
+ *
+ * <p>Mutations only touch memory and set a dirty flag; {@link #flush()} persists the file
+ * atomically (tmp + move), mirroring {@code JsonFileIndexManifest}.
+ */
+@Slf4j
+public class LocalEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+    static final String STORE_FILE = "store.bin";
+
+    private static final int STORE_MAGIC = 0x44474532;  // "DGE2"
+    private static final int END_MAGIC = 0x44474545;    // "DGEE"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    /** Heap buffer size for vector I/O; a multiple of {@code Float.BYTES}. */
+    private static final int IO_CHUNK_BYTES = 1 << 20;
+
+    // Metadata value type tags for the side index.
+    private static final byte T_STRING = 0;
+    private static final byte T_LONG = 1;
+    private static final byte T_INT = 2;
+    private static final byte T_DOUBLE = 3;
+    private static final byte T_FLOAT = 4;
+    private static final byte T_UUID = 5;
+
+    private final @Nullable Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int dimension;
+    private int size;
+    private float[] vectors = new float[0];
+    private final List<String> ids = new ArrayList<>();
+    private final List<TextSegment> segments = new ArrayList<>();
+    private boolean dirty;
+    private boolean lostOnLoad;
+
+    /** Creates a store persisted under {@code directory}; existing content is loaded eagerly. */
+    public LocalEmbeddingStore(@Nullable Path directory) {
+        this.directory = directory;
+        if (directory != null) {
+            loadFromDisk();
+        }
+    }
+
+    /**
+     * True when persisted content existed but could not be loaded, so the store started empty
+     * and whatever the index manifest records as indexed is missing from it.
+     */
+    public boolean lostOnLoad() {
+        return lostOnLoad;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String add(Embedding embedding) {
+        String id = UUID.randomUUID().toString();
+        add(id, embedding);
+        return id;
+    }
+
+    @Override
+    public void add(String id, Embedding embedding) {
+        addAll(List.of(id), List.of(embedding), null);
+    }
+
+    @Override
+    public String add(Embedding embedding, TextSegment textSegment) {
+        String id = UUID.randomUUID().toString();
+        addAll(List.of(id), List.of(embedding), List.of(textSegment));
+        return id;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings) {
+        List<String> generated = generateIds(embeddings.size());
+        addAll(generated, embeddings, null);
+        return generated;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
+        List<String> generated = generateIds(embeddings.size());
+        addAll(generated, embeddings, embedded);
+        return generated;
+    }
+
+    @Override
+    public void addAll(List<String> newIds, List<Embedding> embeddings, @Nullable List<TextSegment> embedded) {
+        if (embeddings.isEmpty()) return;
+        if (newIds.size() != embeddings.size() || (embedded != null && embedded.size() != embeddings.size())) {
+            throw new IllegalArgumentException("ids, embeddings and embedded must have the same size");
+        }
+        lock.writeLock().lock();
+        try {
+            // Validate the whole batch first so a mismatch leaves the store untouched
+            int batchDimension = size == 0 ? embeddings.get(0).dimension() : dimension;
+            for (Embedding embedding : embeddings) {
+                if (embedding.dimension() != batchDimension) {
+                    throw new IllegalArgumentException("Embedding dimension " + embedding.dimension()
+                            + " does not match store dimension " + batchDimension);
+                }
+            }
+            dimension = batchDimension;
+            ensureCapacity(size + embeddings.size());
+            for (int i = 0; i < embeddings.size(); i++) {
+                float[] vector = embeddings.get(i).vector();
+                int offset = size * dimension;
+                System.arraycopy(vector, 0, vectors, offset, dimension);
+                normalize(vectors, offset, dimension);
+                ids.add(newIds.get(i));
+                segments.add(embedded == null ? null : embedded.get(i));
+                size++;
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> idsToRemove) {
+        if (idsToRemove.isEmpty()) return;
+        Set<String> wanted = new HashSet<>(idsToRemove);
+        removeWhere(row -> wanted.contains(ids.get(row)));
+    }
+
+    @Override
+    public void removeAll(Filter filter) {
+        removeWhere(row -> {
+            TextSegment segment = segments.get(row);
+            return segment != null && filter.test(segment.metadata());
+        });
+    }
+
+    @Override
+    public void removeAll() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            vectors = new float[0];
+            ids.clear();
+            segments.clear();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+        float[] query = request.queryEmbedding().vector().clone();
+        Filter filter = request.filter();
+        int maxResults = Math.max(1, request.maxResults());
+        double minScore = request.minScore();
+
+        lock.readLock().lock();
+        try {
+            if (size == 0) return new EmbeddingSearchResult<>(List.of());
+            if (query.length != dimension) {
+                throw new IllegalArgumentException("Query dimension " + query.length
+                        + " does not match store dimension " + dimension);
+            }
+            normalize(query, 0, dimension);
+
+            // Min-heap on score: the root is the weakest of the current top-k.
+            PriorityQueue<ScoredRow> heap = new PriorityQueue<>(maxResults + 1,
+                    Comparator.comparingDouble(ScoredRow::score));
+            for (int row = 0; row < size; row++) {
+                double score = RelevanceScore.fromCosineSimilarity(dot(query, vectors, row * dimension, dimension));
+                if (score < minScore) continue;
+                if (heap.size() == maxResults && score <= heap.peek().score()) continue;
+                if (filter != null) {
+                    TextSegment segment = segments.get(row);
+                    if (segment == null || !filter.test(segment.metadata())) continue;
+                }
+                heap.offer(new ScoredRow(row, score));
+                if (heap.size() > maxResults) heap.poll();
+            }
+
+            List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                ScoredRow hit = heap.poll();
+                int offset = hit.row() * dimension;
+                Embedding embedding = Embedding.from(Arrays.copyOfRange(vectors, offset, offset + dimension));
+                matches.add(new EmbeddingMatch<>(hit.score(), ids.get(hit.row()), embedding, segments.get(hit.row())));
+            }
+            // Heap drains weakest-first; callers expect descending score.
+            Collections.reverse(matches);
+            return new EmbeddingSearchResult<>(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Persist vectors and side index if anything changed since the last flush. */
+    public synchronized void flush() {
+        if (directory == null) return;
+        lock.readLock().lock();
+        try {
+            if (!dirty) return;
+            Files.createDirectories(directory);
+            writeStore(directory.resolve(STORE_FILE));
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to flush local vector store to {}: {}", directory, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static float dot(float[] query, float[] data, int offset, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += query[i] * data[offset + i];
+        }
+        return sum;
+    }
+
+    private static void normalize(float[] data, int offset, int length) {
+        double norm = 0;
+        for (int i = 0; i < length; i++) {
+            norm += data[offset + i] * data[offset + i];
+        }
+        if (norm == 0) return;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < length; i++) {
+            data[offset + i] *= inv;
+        }
+    }
+
+    private void ensureCapacity(int rows) {
+        long needed = (long) rows * dimension;
+        if (needed <= vectors.length) return;
+        long grown = Math.max(needed, (long) vectors.length * 3 / 2 + dimension);
+        vectors = Arrays.copyOf(vectors, (int) Math.min(grown, Integer.MAX_VALUE - 8));
+    }
+
+    /** Compacts rows in place, dropping every row for which {@code predicate} is true. */
+    private void removeWhere(@NotNull IntPredicate predicate) {
+        lock.writeLock().lock();
+        try {
+            int write = 0;
+            for (int read = 0; read < size; read++) {
+                if (predicate.test(read)) continue;
+                if (write != read) {
+                    System.arraycopy(vectors, read * dimension, vectors, write * dimension, dimension);
+                    ids.set(write, ids.get(read));
+                    segments.set(write, segments.get(read));
+                }
+                write++;
+            }
+            if (write == size) return;
+            ids.subList(write, size).clear();
+            segments.subList(write, size).clear();
+            size = write;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeStore(@NotNull Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeVectors(channel);
+            // The channel stays open (and positioned after the vectors) until the block ends
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            writeSegments(out);
+            out.writeInt(END_MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        moveAtomically(tmp, target);
+    }
+
+    private void writeVectors(@NotNull FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(STORE_MAGIC).putInt(dimension).putInt(size);
+        int total = size * dimension;
+        int written = 0;
+        while (true) {
+            int n = Math.min(buffer.remaining() / Float.BYTES, total - written);
+            buffer.asFloatBuffer().put(vectors, written, n);
+            buffer.position(buffer.position() + n * Float.BYTES);
+            written += n;
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            if (written == total) return;
+        }
+    }
+
+    private void writeSegments(@NotNull DataOutputStream out) throws IOException {
+        for (int row = 0; row < size; row++) {
+            writeString(out, ids.get(row));
+            TextSegment segment = segments.get(row);
+            out.writeBoolean(segment != null);
+            if (segment == null) continue;
+            writeString(out, segment.text());
+            Map<String, Object> meta = segment.metadata().toMap();
+            out.writeInt(meta.size());
+            for (Map.Entry<String, Object> entry : meta.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        }
+    }
+
+    private void loadFromDisk() {
+        Path storeFile = directory.resolve(STORE_FILE);
+        if (!Files.exists(storeFile)) return;
+        try (FileChannel channel = FileChannel.open(storeFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            if (header.getInt() != STORE_MAGIC) {
+                throw new IOException("unrecognised format");
+            }
+            int dim = header.getInt();
+            int count = header.getInt();
+            if (dim < 0 || count < 0 || (long) dim * count > Integer.MAX_VALUE - 8) {
+                throw new IOException("bad header (dimension " + dim + ", count " + count + ")");
+            }
+            float[] loaded = readVectors(channel, count * dim);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            List<String> loadedIds = new ArrayList<>(count);
+            List<TextSegment> loadedSegments = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                loadedIds.add(readString(in));
+                if (!in.readBoolean()) {
+                    loadedSegments.add(null);
+                    continue;
+                }
+                String text = readString(in);
+                int entries = in.readInt();
+                Metadata metadata = new Metadata();
+                for (int e = 0; e < entries; e++) {
+                    String key = readString(in);
+                    putValue(metadata, key, in);
+                }
+                loadedSegments.add(TextSegment.from(text, metadata));
+            }
+            if (in.readInt() != END_MAGIC) {
+                throw new IOException("missing end marker");
+            }
+
+            this.dimension = dim;
+            this.size = count;
+            this.vectors = loaded;
+            this.ids.addAll(loadedIds);
+            this.segments.addAll(loadedSegments);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load local vector store from {}; starting empty: {}", directory, e.getMessage());
+            lostOnLoad = true;
+        }
+    }
+
+    private static float[] readVectors(@NotNull FileChannel channel, int total) throws IOException {
+        float[] loaded = new float[total];
+        ByteBuffer buffer = ByteBuffer.allocate(IO_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (read < total) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (long) (total - read) * Float.BYTES));
+            readFully(channel, buffer);
+            int n = buffer.remaining() / Float.BYTES;
+            buffer.asFloatBuffer().get(loaded, read, n);
+            read += n;
+        }
+        return loaded;
+    }
+
+    /** Fills {@code buffer} from the channel's position and flips it for reading. */
+    private static void readFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("truncated local vector store");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @NotNull String readString(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long l) {
+            out.writeByte(T_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(T_INT);
+            out.writeInt(i);
+        } else if (value instanceof Double d) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Float f) {
+            out.writeByte(T_FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof UUID u) {
+            out.writeByte(T_UUID);
+            writeString(out, u.toString());
+        } else {
+            out.writeByte(T_STRING);
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    private static void putValue(@NotNull Metadata metadata, @NotNull String key, @NotNull DataInputStream in)
+            throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case T_LONG -> metadata.put(key, in.readLong());
+            case T_INT -> metadata.put(key, in.readInt());
+            case T_DOUBLE -> metadata.put(key, in.readDouble());
+            case T_FLOAT -> metadata.put(key, in.readFloat());
+            case T_UUID -> metadata.put(key, UUID.fromString(readString(in)));
+            case T_STRING -> metadata.put(key, readString(in));
+            default -> throw new IOException("Unknown metadata type tag " + type);
+        }
+    }
+
+    private static void moveAtomically(@NotNull Path tmp, @NotNull Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static @NotNull List<String> generateIds(int count) {
+        List<String> generated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            generated.add(UUID.randomUUID().toString());
+        }
+        return generated;
+    }
+
+    private record ScoredRow(int row, double score) {}
+}
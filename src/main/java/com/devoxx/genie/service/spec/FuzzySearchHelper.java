@@ -4,6 +4,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Fuzzy search utility for matching queries against task titles, descriptions, and IDs.
@@ -12,7 +14,7 @@ import java.util.*;
  */
 public final class FuzzySearchHelper {
 
-    private static final double DEFAULT_THRESHOLD = 0.3;
+    static final double DEFAULT_THRESHOLD = 0.3;
 
     private FuzzySearchHelper() {
     }
@@ -43,6 +45,57 @@ public final class FuzzySearchHelper {
         return Math.max(tokenScore, Math.max(subsequenceScore, trigramScore));
     }
 
+    /**
+     * Same score as {@link #score(String, String)}, using the precomputed forms of both sides.
+     * Returns 0.0 when either side is null (a null or empty string).
+     */
+    public static double score(@Nullable PreparedQuery query, @Nullable PreparedText text) {
+        return score(query, text, null);
+    }
+
+    /**
+     * {@link #score(PreparedQuery, PreparedText)}, skipping the words that cannot score against
+     * a query token.
+     *
+     * @param scoringWords per query token, every word that may score against it, or null when
+     *                     any word may
+     */
+    static double score(@Nullable PreparedQuery query, @Nullable PreparedText text,
+                        @Nullable List<Set<String>> scoringWords) {
+        if (query == null || text == null) {
+            return 0.0;
+        }
+
+        if (text.lower.contains(query.lower)) {
+            return 1.0;
+        }
+
+        double tokenScore = tokenMatchScore(query, text, scoringWords);
+        double subsequenceScore = subsequenceMatchScore(query.lower, text.lower);
+        double trigramScore = trigramSimilarityScore(query.trigrams, text.trigrams);
+
+        return Math.max(tokenScore, Math.max(subsequenceScore, trigramScore));
+    }
+
+    /**
+     * The best {@link #score(PreparedQuery, PreparedText, List)} over the first
+     * {@code fieldCount} fields, the same value as {@link #scoreMultiField}.
+     */
+    static double scoreMultiField(@NotNull PreparedQuery query, @Nullable PreparedText @NotNull [] fields,
+                                  int fieldCount, @Nullable List<Set<String>> scoringWords) {
+        // An exact substring anywhere is the top score, so the other fields need no scoring
+        for (int i = 0; i < fieldCount; i++) {
+            if (fields[i] != null && fields[i].lower.contains(query.lower)) {
+                return 1.0;
+            }
+        }
+        double best = 0.0;
+        for (int i = 0; i < fieldCount; i++) {
+            best = Math.max(best, score(query, fields[i], scoringWords));
+        }
+        return best;
+    }
+
     /**
      * Returns true if the query fuzzy-matches the text using the default threshold.
      */
@@ -106,6 +159,180 @@ public final class FuzzySearchHelper {
         return (totalScore / scoredTokens) * 0.9;
     }
 
+    /** {@link #tokenMatchScore(String, String)} with the per-word scores memoized per query. */
+    private static double tokenMatchScore(@NotNull PreparedQuery query, @NotNull PreparedText text,
+                                          @Nullable List<Set<String>> scoringWords) {
+        if (query.tokens.length == 0) {
+            return 0.0;
+        }
+
+        double totalScore = 0.0;
+        for (int i = 0; i < query.tokens.length; i++) {
+            String token = query.tokens[i];
+            if (text.lower.contains(token)) {
+                totalScore += 1.0;
+            } else {
+                double bestWordScore = 0.0;
+                for (String word : text.words) {
+                    if (scoringWords == null || scoringWords.get(i).contains(word)) {
+                        bestWordScore = Math.max(bestWordScore, query.wordScore(i, word));
+                    }
+                }
+                totalScore += bestWordScore;
+            }
+        }
+
+        return (totalScore / query.tokens.length) * 0.9;
+    }
+
+    /**
+     * Whether {@link #score(PreparedQuery, PreparedText)} can reach {@code minScore}, worked out
+     * from which of the query's trigrams occur in the text and which query tokens some word of
+     * the text matches, plus at most one pass over the text. An index can skip texts for which
+     * this is false and still return exactly what scoring every text would.
+     * <p>
+     * Each strategy is bounded on its own: an exact substring needs every query trigram; a token
+     * scores only if all its trigrams occur or a word matches it; the trigram score is exact. A
+     * subsequence run of three or more characters is a run of shared trigrams, which caps the
+     * consecutive-run bonus; only when that cap still reaches the threshold is the subsequence
+     * scored for real, which is a cheap character scan.
+     *
+     * @param presentTrigrams bit {@code i} set when the query trigram starting at character
+     *                        {@code i} occurs in the text
+     * @param matchedTokens   bit {@code j} set when query token {@code j} scores against some
+     *                        word of the text
+     * @throws IllegalStateException when the query is not {@link PreparedQuery#isBoundable()}
+     */
+    static boolean mayScore(@NotNull PreparedQuery query, @NotNull PreparedText text,
+                            long presentTrigrams, long matchedTokens, double minScore) {
+        if (!query.isBoundable()) {
+            throw new IllegalStateException("Query cannot be bounded: " + query.lower);
+        }
+        int queryLen = query.lower.length();
+        int positions = queryLen - 2;
+        long allPositions = positions == Long.SIZE ? -1L : (1L << positions) - 1;
+        if ((presentTrigrams & allPositions) == allPositions) {
+            return true;
+        }
+
+        int tokensFound = 0;
+        for (int i = 0; i < query.tokens.length; i++) {
+            long tokenPositions = query.tokenTrigramPositions[i];
+            if ((presentTrigrams & tokenPositions) == tokenPositions || (matchedTokens & (1L << i)) != 0) {
+                tokensFound++;
+            }
+        }
+        if (((double) tokensFound / query.tokens.length) * 0.9 >= minScore) {
+            return true;
+        }
+
+        long commonCount = 0;
+        for (long trigramPositions : query.trigramPositions().values()) {
+            if ((presentTrigrams & trigramPositions) != 0) {
+                commonCount++;
+            }
+        }
+        if (!text.trigrams.isEmpty()
+                && (2.0 * commonCount) / (query.trigrams.size() + text.trigrams.size()) * 0.7 >= minScore) {
+            return true;
+        }
+
+        double baseScore = Math.min((double) queryLen / text.lower.length(), 1.0);
+        if (Math.min(baseScore * 0.5 + runBonusBound(queryLen, presentTrigrams) * 0.3, 0.7) < minScore) {
+            return false;
+        }
+        return subsequenceMatchScore(query.lower, text.lower) >= minScore;
+    }
+
+    /**
+     * How long a text can be and still make {@link #mayScore} true when at most the query
+     * trigrams in {@code presentTrigrams} occur in it and no query token matches a word of it.
+     * An index can then skip every longer text it did not reach through a rarer trigram or a
+     * word. Adding trigrams to {@code presentTrigrams} never lowers the limits.
+     *
+     * @return the limits, or {@code null} when a text of any length may reach {@code minScore}
+     * @throws IllegalStateException when the query is not {@link PreparedQuery#isBoundable()}
+     */
+    static @Nullable ShortTextLimits shortTextLimits(@NotNull PreparedQuery query, long presentTrigrams,
+                                                     double minScore) {
+        if (!query.isBoundable()) {
+            throw new IllegalStateException("Query cannot be bounded: " + query.lower);
+        }
+        if (minScore <= 0.0) {
+            return null;
+        }
+        int queryLen = query.lower.length();
+        int positions = queryLen - 2;
+        long allPositions = positions == Long.SIZE ? -1L : (1L << positions) - 1;
+        if ((presentTrigrams & allPositions) == allPositions) {
+            return null;
+        }
+
+        int tokensFound = 0;
+        for (long tokenPositions : query.tokenTrigramPositions) {
+            if ((presentTrigrams & tokenPositions) == tokenPositions) {
+                tokensFound++;
+            }
+        }
+        if (((double) tokensFound / query.tokens.length) * 0.9 >= minScore) {
+            return null;
+        }
+
+        // Subsequence: the run bonus no longer depends on the text, only the base score does.
+        // The limits are rounded up so a rounding error can only keep a text.
+        double runBonus = runBonusBound(queryLen, presentTrigrams) * 0.3;
+        if (runBonus >= minScore) {
+            return null;
+        }
+        double minBaseScore = (minScore - runBonus) / 0.5;
+        int maxLength = minBaseScore > 1.0 ? 0 : (int) (queryLen / minBaseScore) + 1;
+
+        // Trigram similarity: only query trigrams that may be present count
+        long commonCount = 0;
+        for (long trigramPositions : query.trigramPositions().values()) {
+            if ((presentTrigrams & trigramPositions) != 0) {
+                commonCount++;
+            }
+        }
+        int maxTrigrams = commonCount == 0 ? 0
+                : (int) (2.0 * commonCount * 0.7 / minScore - query.trigrams.size()) + 1;
+        return new ShortTextLimits(maxLength, Math.max(maxTrigrams, 0));
+    }
+
+    /**
+     * Upper bound on the consecutive-run bonus of {@link #subsequenceMatchScore}, divided by the
+     * query length. A run of n characters is worth (n - 1) / 2 bonus per character, and only
+     * characters inside a stretch of present trigrams can be in a run longer than two.
+     */
+    private static double runBonusBound(int queryLen, long presentTrigrams) {
+        int positions = queryLen - 2;
+        double bonus = 0.0;
+        int covered = 0;
+        int coveredEnd = 0;
+        for (int i = 0; i < positions; ) {
+            if ((presentTrigrams & (1L << i)) == 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < positions && (presentTrigrams & (1L << i)) != 0) {
+                i++;
+            }
+            int chars = i - start + 2;
+            bonus += chars * (chars - 1) / 2.0;
+            covered += (i + 2) - Math.max(start, coveredEnd);
+            coveredEnd = i + 2;
+        }
+        bonus += (queryLen - covered) / 2.0;
+        return bonus / queryLen;
+    }
+
+    /**
+     * Texts that {@link #mayScore} can only accept by length: those no longer than
+     * {@code maxLength} characters, or with between one and {@code maxTrigrams} distinct trigrams.
+     */
+    record ShortTextLimits(int maxLength, int maxTrigrams) {}
+
     /**
      * Subsequence matching: checks if the characters of the query appear in order in the text.
      * Rewards consecutive character runs.
@@ -118,30 +345,25 @@ public final class FuzzySearchHelper {
             return 0.0;
         }
 
-        int qi = 0;
+        // Greedy left-to-right match; a character matched right after the previous one
+        // extends the current run
         int matchedConsecutive = 0;
         int totalConsecutiveBonus = 0;
-        boolean lastWasMatch = false;
-
-        for (int ti = 0; ti < textLen && qi < queryLen; ti++) {
-            if (query.charAt(qi) == text.charAt(ti)) {
-                qi++;
-                if (lastWasMatch) {
-                    matchedConsecutive++;
-                    totalConsecutiveBonus += matchedConsecutive;
-                } else {
-                    matchedConsecutive = 0;
-                }
-                lastWasMatch = true;
+        int lastMatch = -2;
+
+        for (int qi = 0; qi < queryLen; qi++) {
+            int ti = text.indexOf(query.charAt(qi), lastMatch + 1);
+            if (ti < 0) {
+                // Not all query characters found in order
+                return 0.0;
+            }
+            if (ti == lastMatch + 1) {
+                matchedConsecutive++;
+                totalConsecutiveBonus += matchedConsecutive;
             } else {
-                lastWasMatch = false;
                 matchedConsecutive = 0;
             }
-        }
-
-        // Not all query characters found in order
-        if (qi < queryLen) {
-            return 0.0;
+            lastMatch = ti;
         }
 
         // Base score: ratio of query length to text length, capped
@@ -158,9 +380,10 @@ public final class FuzzySearchHelper {
      * Max score: 0.7
      */
     static double trigramSimilarityScore(@NotNull String query, @NotNull String text) {
-        Set<String> queryTrigrams = buildTrigrams(query);
-        Set<String> textTrigrams = buildTrigrams(text);
+        return trigramSimilarityScore(buildTrigrams(query), buildTrigrams(text));
+    }
 
+    private static double trigramSimilarityScore(@NotNull Set<String> queryTrigrams, @NotNull Set<String> textTrigrams) {
         if (queryTrigrams.isEmpty() || textTrigrams.isEmpty()) {
             return 0.0;
         }
@@ -193,8 +416,8 @@ public final class FuzzySearchHelper {
             return 0.0;
         }
 
-        int distance = levenshteinDistance(a, b);
         int threshold = Math.max(1, maxLen / 3);
+        int distance = levenshteinDistance(a, b, threshold);
         if (distance > threshold) {
             return 0.0;
         }
@@ -202,23 +425,48 @@ public final class FuzzySearchHelper {
         return (1.0 - (double) distance / maxLen) * 0.6;
     }
 
+    /**
+     * Whether a token can score against a word (be its prefix, be inside it or be within
+     * {@link #editDistanceScore} range of it) given how many of the token's bigrams the word
+     * contains. A word containing the token has all of them; every edit destroys at most two,
+     * so a word within edit distance k of the token shares at least {@code maxLen - 1 - 2k}.
+     *
+     * @param sharedBigrams at least the number of the token's bigrams, counted with repeats,
+     *                      that also occur in the word
+     */
+    static boolean mayMatchWord(int tokenLength, int wordLength, int sharedBigrams) {
+        if (wordLength >= tokenLength && sharedBigrams >= tokenLength - 1) {
+            return true;
+        }
+        int lenDiff = Math.abs(tokenLength - wordLength);
+        int maxLen = Math.max(tokenLength, wordLength);
+        int threshold = Math.max(1, maxLen / 3);
+        if (maxLen == 0 || lenDiff > Math.max(2, maxLen / 3) || lenDiff > threshold) {
+            return false;
+        }
+        return sharedBigrams >= maxLen - 1 - 2 * threshold;
+    }
+
     private static double scoreTokenAgainstWords(@NotNull String token, @NotNull String[] textWords) {
         double bestWordScore = 0.0;
         for (String word : textWords) {
-            if (word.startsWith(token)) {
-                bestWordScore = Math.max(bestWordScore, 0.8);
-            } else if (word.contains(token)) {
-                bestWordScore = Math.max(bestWordScore, 0.6);
-            } else {
-                // Check edit distance for short tokens (typo tolerance)
-                double editScore = editDistanceScore(token, word);
-                bestWordScore = Math.max(bestWordScore, editScore);
-            }
+            bestWordScore = Math.max(bestWordScore, scoreTokenAgainstWord(token, word));
         }
         return bestWordScore;
     }
 
-    private static int levenshteinDistance(@NotNull String a, @NotNull String b) {
+    private static double scoreTokenAgainstWord(@NotNull String token, @NotNull String word) {
+        if (word.startsWith(token)) {
+            return 0.8;
+        } else if (word.contains(token)) {
+            return 0.6;
+        }
+        // Check edit distance for short tokens (typo tolerance)
+        return editDistanceScore(token, word);
+    }
+
+    /** Levenshtein distance, or {@code limit + 1} as soon as it is known to exceed {@code limit}. */
+    private static int levenshteinDistance(@NotNull String a, @NotNull String b, int limit) {
         int lenA = a.length();
         int lenB = b.length();
         int[] prev = new int[lenB + 1];
@@ -230,9 +478,15 @@ public final class FuzzySearchHelper {
 
         for (int i = 1; i <= lenA; i++) {
             curr[0] = i;
+            int rowMin = curr[0];
             for (int j = 1; j <= lenB; j++) {
                 int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
                 curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            // The distance is at least the smallest value in any row
+            if (rowMin > limit) {
+                return limit + 1;
             }
             int[] tmp = prev;
             prev = curr;
@@ -249,4 +503,129 @@ public final class FuzzySearchHelper {
         }
         return trigrams;
     }
+
+    /**
+     * A text field lower-cased, split into distinct words and cut into trigrams once, so it can
+     * be scored against many queries without redoing that work each time.
+     */
+    public static final class PreparedText {
+        private final String lower;
+        private final String[] words;
+        private final Set<String> trigrams;
+
+        private PreparedText(@NotNull String lower) {
+            this.lower = lower;
+            this.words = new LinkedHashSet<>(Arrays.asList(lower.split("\\s+"))).toArray(String[]::new);
+            this.trigrams = buildTrigrams(lower);
+        }
+
+        /** Returns null for a null or empty text, which never matches. */
+        public static @Nullable PreparedText of(@Nullable String text) {
+            return text == null || text.isEmpty() ? null : new PreparedText(text.toLowerCase());
+        }
+
+        @NotNull String[] words() {
+            return words;
+        }
+
+        @NotNull Set<String> trigrams() {
+            return trigrams;
+        }
+
+        int length() {
+            return lower.length();
+        }
+    }
+
+    /**
+     * A query lower-cased, tokenized and cut into trigrams once. Also memoizes how well each
+     * query token matches each word seen, since most words recur across many texts. Not
+     * thread-safe: use one instance per search.
+     */
+    public static final class PreparedQuery {
+        private static final Pattern TOKEN = Pattern.compile("\\S+");
+
+        private final String lower;
+        private final String[] tokens;
+        private final Set<String> trigrams;
+        private final List<Map<String, Double>> wordScores = new ArrayList<>();
+        /** Each distinct trigram's start positions as a bit mask, or null when not boundable. */
+        private final @Nullable Map<String, Long> trigramPositions;
+        /** The trigram positions inside each token, or null when not boundable. */
+        private final long @Nullable [] tokenTrigramPositions;
+
+        private PreparedQuery(@NotNull String lower) {
+            this.lower = lower;
+            List<String> tokenList = new ArrayList<>();
+            List<Integer> tokenStarts = new ArrayList<>();
+            Matcher matcher = TOKEN.matcher(lower);
+            while (matcher.find()) {
+                tokenList.add(matcher.group());
+                tokenStarts.add(matcher.start());
+            }
+            this.tokens = tokenList.toArray(String[]::new);
+            this.trigrams = buildTrigrams(lower);
+            for (int i = 0; i < tokens.length; i++) {
+                wordScores.add(new HashMap<>());
+            }
+
+            // A token under three characters matches by containment without sharing a trigram,
+            // and positions past 64 do not fit the masks
+            boolean boundable = lower.length() >= 3 && lower.length() - 2 <= Long.SIZE
+                    && tokens.length > 0 && tokens.length <= Long.SIZE
+                    && tokenList.stream().allMatch(t -> t.length() >= 3);
+            if (!boundable) {
+                this.trigramPositions = null;
+                this.tokenTrigramPositions = null;
+                return;
+            }
+            Map<String, Long> positions = new HashMap<>();
+            for (int i = 0; i <= lower.length() - 3; i++) {
+                positions.merge(lower.substring(i, i + 3), 1L << i, (x, y) -> x | y);
+            }
+            this.trigramPositions = positions;
+            this.tokenTrigramPositions = new long[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                int start = tokenStarts.get(i);
+                for (int p = start; p <= start + tokens[i].length() - 3; p++) {
+                    tokenTrigramPositions[i] |= 1L << p;
+                }
+            }
+        }
+
+        /** Returns null for a null or empty query, which matches nothing. */
+        public static @Nullable PreparedQuery of(@Nullable String query) {
+            return query == null || query.isEmpty() ? null : new PreparedQuery(query.toLowerCase());
+        }
+
+        /** Whether {@link FuzzySearchHelper#mayScore} applies to this query. */
+        boolean isBoundable() {
+            return trigramPositions != null;
+        }
+
+        /** Each distinct trigram of a boundable query with the bit mask of where it starts. */
+        @NotNull Map<String, Long> trigramPositions() {
+            if (trigramPositions == null) {
+                throw new IllegalStateException("Query cannot be bounded: " + lower);
+            }
+            return trigramPositions;
+        }
+
+        int tokenCount() {
+            return tokens.length;
+        }
+
+        @NotNull String token(int token) {
+            return tokens[token];
+        }
+
+        /** Whether query token {@code token} scores against {@code word}. */
+        boolean tokenMatches(int token, @NotNull String word) {
+            return wordScore(token, word) > 0.0;
+        }
+
+        private double wordScore(int token, @NotNull String word) {
+            return wordScores.get(token).computeIfAbsent(word, w -> scoreTokenAgainstWord(tokens[token], w));
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.devoxx.genie.service.spec;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Callback for changes to the spec and document caches of {@link SpecService}.
+ *
+ * <p>Called synchronously on whichever thread applied the change: a VFS event thread, a
+ * pooled thread running a spec tool, or the EDT when the UI calls {@link SpecService#refresh()}
+ * or one of its write methods. Implementations must therefore be cheap, must not block, and
+ * must hop to the EDT themselves (e.g. {@code invokeLater}) for UI work.
+ */
+@FunctionalInterface
+public interface SpecChangeListener {
+
+    /** Called after the caches were updated; {@code changes} names what was touched. */
+    void specsChanged(@NotNull SpecChangeSet changes);
+}
@@ -0,0 +1,46 @@
+package com.devoxx.genie.service.spec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The tasks and documents one cache update touched. IDs are upper-cased so lookups are
+ * case-insensitive, matching {@link SpecService#getSpec(String)}.
+ *
+ * @param updatedTaskIds tasks that were added or re-parsed
+ * @param removedTaskIds tasks whose file was deleted, moved out of the backlog, or no longer parses
+ * @param archivedTaskIds tasks added to, re-parsed in, or removed from the archive
+ */
+public record SpecChangeSet(@NotNull Set<String> updatedTaskIds,
+                            @NotNull Set<String> removedTaskIds,
+                            @NotNull Set<String> updatedDocumentIds,
+                            @NotNull Set<String> removedDocumentIds,
+                            @NotNull Set<String> archivedTaskIds) {
+
+    public static final SpecChangeSet EMPTY = new SpecChangeSet(Set.of(), Set.of(), Set.of(), Set.of(), Set.of());
+
+    public SpecChangeSet {
+        updatedTaskIds = Set.copyOf(updatedTaskIds);
+        removedTaskIds = Set.copyOf(removedTaskIds);
+        updatedDocumentIds = Set.copyOf(updatedDocumentIds);
+        removedDocumentIds = Set.copyOf(removedDocumentIds);
+        archivedTaskIds = Set.copyOf(archivedTaskIds);
+    }
+
+    public boolean isEmpty() {
+        return updatedTaskIds.isEmpty() && removedTaskIds.isEmpty()
+                && updatedDocumentIds.isEmpty() && removedDocumentIds.isEmpty()
+                && archivedTaskIds.isEmpty();
+    }
+
+    public boolean affectsTask(@NotNull String taskId) {
+        String key = normalizeId(taskId);
+        return updatedTaskIds.contains(key) || removedTaskIds.contains(key);
+    }
+
+    static @NotNull String normalizeId(@NotNull String id) {
+        return id.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,610 @@
+package com.devoxx.genie.service.spec;
+
+import com.devoxx.genie.service.spec.FuzzySearchHelper.PreparedQuery;
+import com.devoxx.genie.service.spec.FuzzySearchHelper.PreparedText;
+import com.devoxx.genie.service.spec.FuzzySearchHelper.ShortTextLimits;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search index for one kind of backlog item, keyed by file path.
+ * Each item's searchable fields are lower-cased, split into words and cut into trigrams when
+ * the item is put, so a query only does the comparisons. Lookups by ID are a map hit.
+ * <p>
+ * The trigrams and words also go into postings, which give for every item the query trigrams
+ * and tokens it contains. From those {@link FuzzySearchHelper#mayScore} rules out items that
+ * cannot reach the threshold, and only the rest are scored in full, so the results are the
+ * same as scoring everything. Queries it does not cover (tokens under three characters, very
+ * long queries) still score every item.
+ * <p>
+ * Three things keep a query from touching every item. The words a token may match are found
+ * through a bigram index over the vocabulary instead of trying every word. The query trigrams
+ * occurring in most items are set aside: {@link FuzzySearchHelper#shortTextLimits} shows that
+ * an item holding nothing but those can only score when one of its fields is short, and short
+ * fields are looked up by length. Only the fields reached one of these ways are checked.
+ */
+final class SpecSearchIndex<T> {
+
+    /** Absorbs rounding between a bound and the score it caps. */
+    private static final double BOUND_SLACK = 1e-9;
+
+    private final Function<T, String> idOf;
+    private final Function<T, String>[] fields;
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    /** Normalized ID to the item last put with that ID. */
+    private final Map<String, T> byId = new ConcurrentHashMap<>();
+
+    // Everything below is guarded by postingsLock. Postings refer to entries by slot.
+    private final ReadWriteLock postingsLock = new ReentrantReadWriteLock();
+    private final List<Entry<T>> slots = new ArrayList<>();
+    private final IntList freeSlots = new IntList();
+    /** Trigram to the slots of the items containing it, with a bit per field it occurs in. */
+    private final Map<String, Postings> trigramPostings = new HashMap<>();
+    /** Word to the slots of the items containing it, with a bit per field it occurs in. */
+    private final Map<String, Postings> wordPostings = new HashMap<>();
+    private final Vocabulary vocabulary = new Vocabulary();
+    /** Per field, text length to the slots whose field has that length. */
+    private final List<NavigableMap<Integer, IntList>> byLength = new ArrayList<>();
+    /** Per field, distinct trigram count to the slots whose field has that many. */
+    private final List<NavigableMap<Integer, IntList>> byTrigramCount = new ArrayList<>();
+
+    /**
+     * @param idOf   the item's ID, looked up case-insensitively
+     * @param fields the searchable text fields, in the order {@link #search} scores them
+     */
+    @SafeVarargs
+    SpecSearchIndex(@NotNull Function<T, String> idOf, @NotNull Function<T, String>... fields) {
+        if (fields.length > Integer.SIZE) {
+            throw new IllegalArgumentException("At most " + Integer.SIZE + " fields can be indexed");
+        }
+        this.idOf = idOf;
+        this.fields = fields;
+        for (int i = 0; i < fields.length; i++) {
+            byLength.add(new TreeMap<>());
+            byTrigramCount.add(new TreeMap<>());
+        }
+    }
+
+    /** Indexes {@code item} under {@code key}, returning the item it replaced, if any. */
+    @Nullable T put(@NotNull String key, @NotNull T item) {
+        PreparedText[] prepared = new PreparedText[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            prepared[i] = PreparedText.of(fields[i].apply(item));
+        }
+        Entry<T> previous;
+        postingsLock.writeLock().lock();
+        try {
+            previous = entries.get(key);
+            int slot;
+            if (previous != null) {
+                unpost(previous);
+                slot = previous.slot;
+            } else {
+                slot = freeSlots.isEmpty() ? slots.size() : freeSlots.removeLast();
+            }
+            Entry<T> entry = new Entry<>(item, prepared, slot);
+            if (slot == slots.size()) {
+                slots.add(entry);
+            } else {
+                slots.set(slot, entry);
+            }
+            entries.put(key, entry);
+            post(entry);
+        } finally {
+            postingsLock.writeLock().unlock();
+        }
+        byId.put(SpecChangeSet.normalizeId(idOf.apply(item)), item);
+        if (previous != null) {
+            unlinkId(previous.item);
+        }
+        return previous != null ? previous.item : null;
+    }
+
+    /** Drops the item indexed under {@code key}, returning it, if any. */
+    @Nullable T remove(@NotNull String key) {
+        Entry<T> previous;
+        postingsLock.writeLock().lock();
+        try {
+            previous = entries.remove(key);
+            if (previous != null) {
+                unpost(previous);
+                slots.set(previous.slot, null);
+                freeSlots.add(previous.slot);
+            }
+        } finally {
+            postingsLock.writeLock().unlock();
+        }
+        if (previous == null) {
+            return null;
+        }
+        unlinkId(previous.item);
+        return previous.item;
+    }
+
+    @Nullable T findById(@NotNull String id) {
+        return byId.get(SpecChangeSet.normalizeId(id));
+    }
+
+    @NotNull List<T> values() {
+        List<T> values = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries.values()) {
+            values.add(entry.item);
+        }
+        return values;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        postingsLock.writeLock().lock();
+        try {
+            entries.clear();
+            slots.clear();
+            freeSlots.clear();
+            trigramPostings.clear();
+            wordPostings.clear();
+            vocabulary.clear();
+            byLength.forEach(Map::clear);
+            byTrigramCount.forEach(Map::clear);
+        } finally {
+            postingsLock.writeLock().unlock();
+        }
+        byId.clear();
+    }
+
+    /**
+     * Scores the items accepted by {@code filter} against the first {@code fieldCount} fields,
+     * keeping the best field score — the same value as {@link FuzzySearchHelper#scoreMultiField}
+     * — and returns those scoring at least {@code minScore}.
+     */
+    @NotNull Stream<Map.Entry<T, Double>> search(@NotNull PreparedQuery query, int fieldCount, double minScore,
+                                                 @NotNull Predicate<? super T> filter) {
+        Candidates<T> candidates;
+        postingsLock.readLock().lock();
+        try {
+            candidates = candidates(query, fieldCount, minScore - BOUND_SLACK);
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+        return candidates.entries().stream()
+                .filter(entry -> filter.test(entry.item))
+                .map(entry -> Map.entry(entry.item, FuzzySearchHelper.scoreMultiField(
+                        query, entry.fields, fieldCount, candidates.scoringWords())))
+                .filter(scored -> scored.getValue() >= minScore);
+    }
+
+    /**
+     * @param entries      the entries that may reach the threshold
+     * @param scoringWords per query token, the indexed words that score against it, or null
+     *                     when they were not looked up
+     */
+    private record Candidates<T>(@NotNull List<Entry<T>> entries, @Nullable List<Set<String>> scoringWords) {}
+
+    /** The entries that may score at least {@code minScore}. Needs the postings read lock. */
+    private @NotNull Candidates<T> candidates(@NotNull PreparedQuery query, int fieldCount, double minScore) {
+        if (!query.isBoundable()) {
+            List<Entry<T>> all = new ArrayList<>(entries.size());
+            for (Entry<T> entry : slots) {
+                if (entry != null) {
+                    all.add(entry);
+                }
+            }
+            return new Candidates<>(all, null);
+        }
+
+        int fieldMask = fieldCount == Integer.SIZE ? -1 : (1 << fieldCount) - 1;
+        long[] presentTrigrams = new long[slots.size() * fieldCount];
+        long[] matchedTokens = new long[slots.size() * fieldCount];
+        // Per slot, the fields reached through a rare trigram, a word or their length
+        int[] reached = new int[slots.size()];
+
+        // Common trigrams are marked for the bounds but do not by themselves reach an item
+        long commonTrigrams = 0;
+        ShortTextLimits limits = FuzzySearchHelper.shortTextLimits(query, 0L, minScore);
+        List<Map.Entry<String, Long>> byFrequency = new ArrayList<>(query.trigramPositions().entrySet());
+        byFrequency.sort(Comparator.comparingInt((Map.Entry<String, Long> trigram) -> postingsSize(trigram.getKey()))
+                .reversed());
+        for (Map.Entry<String, Long> trigram : byFrequency) {
+            if (limits == null) {
+                break;
+            }
+            long widened = commonTrigrams | trigram.getValue();
+            ShortTextLimits widenedLimits = FuzzySearchHelper.shortTextLimits(query, widened, minScore);
+            if (widenedLimits == null || shortFieldCount(widenedLimits, fieldCount)
+                    - shortFieldCount(limits, fieldCount) > postingsSize(trigram.getKey())) {
+                break;
+            }
+            commonTrigrams = widened;
+            limits = widenedLimits;
+        }
+        for (Map.Entry<String, Long> trigram : byFrequency) {
+            Postings postings = trigramPostings.get(trigram.getKey());
+            if (postings != null) {
+                boolean common = limits != null && (trigram.getValue() & ~commonTrigrams) == 0;
+                mark(postings, fieldCount, fieldMask, trigram.getValue(), presentTrigrams, common ? null : reached);
+            }
+        }
+
+        List<Set<String>> scoringWords = new ArrayList<>(query.tokenCount());
+        for (int token = 0; token < query.tokenCount(); token++) {
+            Set<String> words = matchingWords(query, token);
+            for (String word : words) {
+                mark(wordPostings.get(word), fieldCount, fieldMask, 1L << token, matchedTokens, reached);
+            }
+            scoringWords.add(words);
+        }
+
+        if (limits == null) {
+            Arrays.fill(reached, fieldMask);
+        } else {
+            for (int field = 0; field < fieldCount; field++) {
+                int fieldBit = 1 << field;
+                for (IntList shortFields : shortFields(limits, field)) {
+                    for (int i = 0; i < shortFields.size; i++) {
+                        reached[shortFields.values[i]] |= fieldBit;
+                    }
+                }
+            }
+        }
+
+        List<Entry<T>> candidates = new ArrayList<>();
+        for (int slot = 0; slot < reached.length; slot++) {
+            Entry<T> entry = slots.get(slot);
+            if (reached[slot] != 0 && entry != null && entry.mayScore(query, reached[slot], minScore,
+                    presentTrigrams, matchedTokens, slot * fieldCount)) {
+                candidates.add(entry);
+            }
+        }
+        return new Candidates<>(candidates, scoringWords);
+    }
+
+    /**
+     * The indexed words query token {@code token} may score against, found through the
+     * vocabulary's bigram and length index and then checked exactly.
+     */
+    private @NotNull Set<String> matchingWords(@NotNull PreparedQuery query, int token) {
+        String text = query.token(token);
+        Map<String, Integer> bigrams = new HashMap<>();
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            bigrams.merge(text.substring(i, i + 2), 1, Integer::sum);
+        }
+        int[] shared = new int[vocabulary.capacity()];
+        IntList seen = new IntList();
+        bigrams.forEach((bigram, count) -> {
+            IntList ids = vocabulary.byBigram.get(bigram);
+            if (ids != null) {
+                for (int i = 0; i < ids.size; i++) {
+                    int id = ids.values[i];
+                    if (shared[id] == 0) {
+                        seen.add(id);
+                    }
+                    shared[id] += count;
+                }
+            }
+        });
+
+        Set<String> matching = new HashSet<>();
+        for (int i = 0; i < seen.size; i++) {
+            String word = vocabulary.word(seen.values[i]);
+            if (FuzzySearchHelper.mayMatchWord(text.length(), word.length(), shared[seen.values[i]])
+                    && query.tokenMatches(token, word)) {
+                matching.add(word);
+            }
+        }
+        // Very short words can be within edit distance without sharing a bigram
+        vocabulary.byLength.forEach((length, ids) -> {
+            if (FuzzySearchHelper.mayMatchWord(text.length(), length, 0)) {
+                for (int i = 0; i < ids.size; i++) {
+                    String word = vocabulary.word(ids.values[i]);
+                    if (shared[ids.values[i]] == 0 && query.tokenMatches(token, word)) {
+                        matching.add(word);
+                    }
+                }
+            }
+        });
+        return matching;
+    }
+
+    /**
+     * ORs {@code bits} into the mask of every posted field below {@code fieldCount}, and marks
+     * those fields in {@code reached} unless that is null.
+     */
+    private static void mark(@NotNull Postings postings, int fieldCount, int fieldMask, long bits,
+                             long @NotNull [] masks, int @Nullable [] reached) {
+        for (int i = 0; i < postings.size; i++) {
+            int fieldBits = postings.fieldBits[i] & fieldMask;
+            if (fieldBits == 0) {
+                continue;
+            }
+            int slot = postings.slots[i];
+            if (reached != null) {
+                reached[slot] |= fieldBits;
+            }
+            int base = slot * fieldCount;
+            for (; fieldBits != 0; fieldBits &= fieldBits - 1) {
+                masks[base + Integer.numberOfTrailingZeros(fieldBits)] |= bits;
+            }
+        }
+    }
+
+    private int postingsSize(@NotNull String trigram) {
+        Postings postings = trigramPostings.get(trigram);
+        return postings != null ? postings.size : 0;
+    }
+
+    /** How many of the first {@code fieldCount} fields the limits keep; fields may be counted twice. */
+    private int shortFieldCount(@NotNull ShortTextLimits limits, int fieldCount) {
+        int count = 0;
+        for (int field = 0; field < fieldCount; field++) {
+            for (IntList shortFields : shortFields(limits, field)) {
+                count += shortFields.size;
+            }
+        }
+        return count;
+    }
+
+    /** The slots, grouped by length, whose {@code field} is within {@code limits}. */
+    private @NotNull List<IntList> shortFields(@NotNull ShortTextLimits limits, int field) {
+        List<IntList> shortFields = new ArrayList<>(byLength.get(field).headMap(limits.maxLength(), true).values());
+        if (limits.maxTrigrams() >= 1) {
+            shortFields.addAll(byTrigramCount.get(field).subMap(1, true, limits.maxTrigrams(), true).values());
+        }
+        return shortFields;
+    }
+
+    /** Adds the entry's trigrams, words and field lengths to the index. Needs the postings write lock. */
+    private void post(@NotNull Entry<T> entry) {
+        Map<String, Integer> trigramBits = new HashMap<>();
+        Map<String, Integer> wordBits = new HashMap<>();
+        for (int i = 0; i < entry.fields.length; i++) {
+            PreparedText field = entry.fields[i];
+            if (field == null) {
+                continue;
+            }
+            int fieldBit = 1 << i;
+            for (String trigram : field.trigrams()) {
+                trigramBits.merge(trigram, fieldBit, (a, b) -> a | b);
+            }
+            for (String word : field.words()) {
+                wordBits.merge(word, fieldBit, (a, b) -> a | b);
+            }
+            byLength.get(i).computeIfAbsent(field.length(), l -> new IntList()).add(entry.slot);
+            byTrigramCount.get(i).computeIfAbsent(field.trigrams().size(), c -> new IntList()).add(entry.slot);
+        }
+        trigramBits.forEach((trigram, bits) ->
+                trigramPostings.computeIfAbsent(trigram, t -> new Postings()).add(entry.slot, bits));
+        wordBits.forEach((word, bits) -> wordPostings.computeIfAbsent(word, w -> {
+            vocabulary.add(w);
+            return new Postings();
+        }).add(entry.slot, bits));
+    }
+
+    /** Removes the entry from the index. Needs the postings write lock. */
+    private void unpost(@NotNull Entry<T> entry) {
+        for (int i = 0; i < entry.fields.length; i++) {
+            PreparedText field = entry.fields[i];
+            if (field == null) {
+                continue;
+            }
+            for (String trigram : field.trigrams()) {
+                removePosting(trigramPostings, trigram, entry.slot);
+            }
+            for (String word : field.words()) {
+                if (removePosting(wordPostings, word, entry.slot)) {
+                    vocabulary.remove(word);
+                }
+            }
+            removeFrom(byLength.get(i), field.length(), entry.slot);
+            removeFrom(byTrigramCount.get(i), field.trigrams().size(), entry.slot);
+        }
+    }
+
+    /** Returns true when that was the last posting of {@code term}. */
+    private static boolean removePosting(@NotNull Map<String, Postings> postings,
+                                         @NotNull String term, int slot) {
+        Postings slots = postings.get(term);
+        if (slots != null && slots.remove(slot) && slots.size == 0) {
+            postings.remove(term);
+            return true;
+        }
+        return false;
+    }
+
+    private static <K> void removeFrom(@NotNull Map<K, IntList> index, @NotNull K key, int value) {
+        IntList values = index.get(key);
+        if (values != null && values.remove(value) && values.size == 0) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Releases the ID of an item leaving the index. When two files share an ID the lookup
+     * falls back to the one that is left, as a scan over the values would.
+     */
+    private void unlinkId(@NotNull T item) {
+        String id = SpecChangeSet.normalizeId(idOf.apply(item));
+        if (byId.get(id) != item) {
+            return;
+        }
+        T replacement = null;
+        for (Entry<T> entry : entries.values()) {
+            if (id.equals(SpecChangeSet.normalizeId(idOf.apply(entry.item)))) {
+                replacement = entry.item;
+                break;
+            }
+        }
+        if (replacement != null) {
+            byId.put(id, replacement);
+        } else {
+            byId.remove(id);
+        }
+    }
+
+    private record Entry<T>(@NotNull T item, @Nullable PreparedText @NotNull [] fields, int slot) {
+        /**
+         * Whether one of the fields in {@code fieldBits} may reach {@code minScore}, given the
+         * masks of the entry's fields starting at {@code offset}.
+         */
+        boolean mayScore(@NotNull PreparedQuery query, int fieldBits, double minScore,
+                         long @NotNull [] presentTrigrams, long @NotNull [] matchedTokens, int offset) {
+            for (; fieldBits != 0; fieldBits &= fieldBits - 1) {
+                int i = Integer.numberOfTrailingZeros(fieldBits);
+                PreparedText field = fields[i];
+                if (field != null && FuzzySearchHelper.mayScore(query, field,
+                        presentTrigrams[offset + i], matchedTokens[offset + i], minScore)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The distinct words of the indexed fields, by bigram and by length, so a query token finds
+     * the words it may match without trying every word. Words get dense ids that are reused.
+     */
+    private static final class Vocabulary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> words = new ArrayList<>();
+        private final IntList freeIds = new IntList();
+        private final Map<String, IntList> byBigram = new HashMap<>();
+        private final Map<Integer, IntList> byLength = new HashMap<>();
+
+        void add(@NotNull String word) {
+            int id = freeIds.isEmpty() ? words.size() : freeIds.removeLast();
+            if (id == words.size()) {
+                words.add(word);
+            } else {
+                words.set(id, word);
+            }
+            ids.put(word, id);
+            for (String bigram : bigrams(word)) {
+                byBigram.computeIfAbsent(bigram, b -> new IntList()).add(id);
+            }
+            byLength.computeIfAbsent(word.length(), l -> new IntList()).add(id);
+        }
+
+        void remove(@NotNull String word) {
+            Integer id = ids.remove(word);
+            if (id == null) {
+                return;
+            }
+            for (String bigram : bigrams(word)) {
+                removeFrom(byBigram, bigram, id);
+            }
+            removeFrom(byLength, word.length(), id);
+            words.set(id, null);
+            freeIds.add(id);
+        }
+
+        void clear() {
+            ids.clear();
+            words.clear();
+            freeIds.clear();
+            byBigram.clear();
+            byLength.clear();
+        }
+
+        int capacity() {
+            return words.size();
+        }
+
+        @NotNull String word(int id) {
+            return words.get(id);
+        }
+
+        private static @NotNull List<String> bigrams(@NotNull String word) {
+            List<String> bigrams = new ArrayList<>();
+            for (int i = 0; i + 2 <= word.length(); i++) {
+                String bigram = word.substring(i, i + 2);
+                if (!bigrams.contains(bigram)) {
+                    bigrams.add(bigram);
+                }
+            }
+            return bigrams;
+        }
+    }
+
+    /** Unordered growable list of ints; removal moves the last value into the hole. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /** Removes one occurrence of {@code value}, returning whether there was one. */
+        boolean remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /** Slots of the items containing a term, each with a bit per field the term occurs in. */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int[] fieldBits = new int[4];
+        int size;
+
+        void add(int slot, int bits) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fieldBits = Arrays.copyOf(fieldBits, size * 2);
+            }
+            slots[size] = slot;
+            fieldBits[size++] = bits;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    fieldBits[i] = fieldBits[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.devoxx.genie.model.spec.BacklogConfig;
 import com.devoxx.genie.model.spec.BacklogDocument;
 import com.devoxx.genie.model.spec.DefinitionOfDoneItem;
 import com.devoxx.genie.model.spec.TaskSpec;
+import com.devoxx.genie.service.spec.FuzzySearchHelper.PreparedQuery;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.devoxx.genie.ui.topic.AppTopics;
 import com.intellij.openapi.Disposable;
@@ -18,9 +19,13 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
 import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -33,25 +38,43 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
  * Project-scoped service that discovers, parses, and caches Backlog.md task spec files and documents.
- * Watches for file system changes in the spec directory (default: "backlog/").
+ * Watches for file system changes in the spec directory (default: "backlog/") and applies them
+ * per file, debounced, so an edit re-parses only the files it touched.
  * Provides write operations for creating, updating, completing, and archiving tasks and documents.
  */
 @Slf4j
 @Service(Service.Level.PROJECT)
 public final class SpecService implements Disposable {
 
+    private static final long VFS_DEBOUNCE_MS = 300;
+
     private final Project project;
-    private final Map<String, TaskSpec> specCache = new ConcurrentHashMap<>();
-    private final Map<String, BacklogDocument> documentCache = new ConcurrentHashMap<>();
-    private final List<Runnable> changeListeners = new ArrayList<>();
+    /** Active tasks; searchable by title, description and ID, in that order. */
+    private final SpecSearchIndex<TaskSpec> specCache = new SpecSearchIndex<>(
+            TaskSpec::getId, TaskSpec::getTitle, TaskSpec::getDescription, TaskSpec::getId);
+    private final SpecSearchIndex<TaskSpec> archivedCache = new SpecSearchIndex<>(
+            TaskSpec::getId, TaskSpec::getTitle, TaskSpec::getDescription);
+    private final SpecSearchIndex<BacklogDocument> documentCache = new SpecSearchIndex<>(
+            BacklogDocument::getId, BacklogDocument::getTitle, BacklogDocument::getContent);
+    /** Modification stamp of every file last read into a cache, keyed like the caches. */
+    private final Map<String, FileStamp> fileStamps = new ConcurrentHashMap<>();
+    private final List<SpecChangeListener> changeListeners = new CopyOnWriteArrayList<>();
     private final ReentrantLock writeLock = new ReentrantLock();
     private final AtomicBoolean pendingCliBacklogMutation = new AtomicBoolean(false);
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+    private final Object pendingLock = new Object();
+    private final Set<Path> pendingChanged = new HashSet<>();
+    private final Set<Path> pendingRemoved = new HashSet<>();
+    private boolean flushScheduled;
     private MessageBusConnection messageBusConnection;
 
     public SpecService(@NotNull Project project) {
@@ -70,7 +93,7 @@ public final class SpecService implements Disposable {
      * Returns all cached task specs.
      */
     public @NotNull List<TaskSpec> getAllSpecs() {
-        return new ArrayList<>(specCache.values());
+        return specCache.values();
     }
 
     /**
@@ -86,10 +109,7 @@ public final class SpecService implements Disposable {
      * Returns a spec by its ID.
      */
     public @Nullable TaskSpec getSpec(@NotNull String id) {
-        return specCache.values().stream()
-                .filter(spec -> id.equalsIgnoreCase(spec.getId()))
-                .findFirst()
-                .orElse(null);
+        return specCache.findById(id);
     }
 
     /**
@@ -120,25 +140,25 @@ public final class SpecService implements Disposable {
                                                       @Nullable List<String> labels,
                                                       @Nullable String search,
                                                       int limit) {
-        Stream<TaskSpec> stream = specCache.values().stream();
+        Predicate<TaskSpec> filter = s -> true;
 
         if (status != null && !status.isEmpty()) {
-            stream = stream.filter(s -> status.equalsIgnoreCase(s.getStatus()));
+            filter = filter.and(s -> status.equalsIgnoreCase(s.getStatus()));
         }
         if (assignee != null && !assignee.isEmpty()) {
-            stream = stream.filter(s -> s.getAssignees() != null &&
+            filter = filter.and(s -> s.getAssignees() != null &&
                     s.getAssignees().stream().anyMatch(a -> a.equalsIgnoreCase(assignee)));
         }
         if (labels != null && !labels.isEmpty()) {
-            stream = stream.filter(s -> s.getLabels() != null &&
+            filter = filter.and(s -> s.getLabels() != null &&
                     labels.stream().allMatch(l -> s.getLabels().stream().anyMatch(sl -> sl.equalsIgnoreCase(l))));
         }
 
-        if (search != null && !search.isEmpty()) {
+        PreparedQuery query = PreparedQuery.of(search);
+        if (query != null) {
             // Score, filter, and sort by relevance
-            List<Map.Entry<TaskSpec, Double>> scored = stream
-                    .map(s -> Map.entry(s, FuzzySearchHelper.scoreMultiField(search, s.getTitle(), s.getDescription(), s.getId())))
-                    .filter(e -> e.getValue() >= 0.3)
+            List<Map.Entry<TaskSpec, Double>> scored = specCache
+                    .search(query, 3, FuzzySearchHelper.DEFAULT_THRESHOLD, filter)
                     .sorted(Map.Entry.<TaskSpec, Double>comparingByValue().reversed())
                     .toList();
 
@@ -149,6 +169,7 @@ public final class SpecService implements Disposable {
             return resultStream.toList();
         }
 
+        Stream<TaskSpec> stream = specCache.values().stream().filter(filter);
         if (limit > 0) {
             stream = stream.limit(limit);
         }
@@ -164,23 +185,25 @@ public final class SpecService implements Disposable {
                                                 @Nullable String status,
                                                 @Nullable String priority,
                                                 int limit) {
-        java.util.Map<String, TaskSpec> candidates = new java.util.LinkedHashMap<>();
-        specCache.values().forEach(spec -> candidates.put(spec.getId().toUpperCase(java.util.Locale.ROOT), spec));
-        getArchivedTasks().forEach(spec -> candidates.putIfAbsent(spec.getId().toUpperCase(java.util.Locale.ROOT), spec));
-
-        Stream<TaskSpec> stream = candidates.values().stream();
+        PreparedQuery prepared = PreparedQuery.of(query);
+        if (prepared == null) {
+            return List.of();
+        }
 
+        Predicate<TaskSpec> filter = s -> true;
         if (status != null && !status.isEmpty()) {
-            stream = stream.filter(s -> status.equalsIgnoreCase(s.getStatus()));
+            filter = filter.and(s -> status.equalsIgnoreCase(s.getStatus()));
         }
         if (priority != null && !priority.isEmpty()) {
-            stream = stream.filter(s -> priority.equalsIgnoreCase(s.getPriority()));
+            filter = filter.and(s -> priority.equalsIgnoreCase(s.getPriority()));
         }
+        // An active task shadows an archived copy with the same ID
+        Predicate<TaskSpec> archivedFilter = filter.and(s -> specCache.findById(s.getId()) == null);
 
         // Score each spec and filter out non-matches, then sort by relevance
-        List<Map.Entry<TaskSpec, Double>> scored = stream
-                .map(s -> Map.entry(s, FuzzySearchHelper.scoreMultiField(query, s.getTitle(), s.getDescription())))
-                .filter(e -> e.getValue() >= 0.3)
+        List<Map.Entry<TaskSpec, Double>> scored = Stream.concat(
+                        specCache.search(prepared, 2, FuzzySearchHelper.DEFAULT_THRESHOLD, filter),
+                        archivedCache.search(prepared, 2, FuzzySearchHelper.DEFAULT_THRESHOLD, archivedFilter))
                 .sorted(Map.Entry.<TaskSpec, Double>comparingByValue().reversed())
                 .toList();
 
@@ -251,7 +274,7 @@ public final class SpecService implements Disposable {
             String content = SpecFrontmatterGenerator.generate(spec);
             Files.writeString(filePath, content, StandardCharsets.UTF_8);
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(filePath), List.of(), true);
             return spec;
         } finally {
             writeLock.unlock();
@@ -268,10 +291,11 @@ public final class SpecService implements Disposable {
                 throw new IOException("Task has no file path");
             }
             spec.setUpdatedAt(LocalDateTime.now(java.time.ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            Path filePath = Paths.get(spec.getFilePath());
             String content = SpecFrontmatterGenerator.generate(spec);
-            Files.writeString(Paths.get(spec.getFilePath()), content, StandardCharsets.UTF_8);
+            Files.writeString(filePath, content, StandardCharsets.UTF_8);
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(filePath), List.of(), true);
         } finally {
             writeLock.unlock();
         }
@@ -292,11 +316,12 @@ public final class SpecService implements Disposable {
             spec.setStatus("Done");
             spec.setUpdatedAt(LocalDateTime.now(java.time.ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
 
+            Path filePath = Paths.get(spec.getFilePath());
             String content = SpecFrontmatterGenerator.generate(spec);
-            Files.writeString(Paths.get(spec.getFilePath()), content, StandardCharsets.UTF_8);
+            Files.writeString(filePath, content, StandardCharsets.UTF_8);
 
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(filePath), List.of(), true);
         } finally {
             writeLock.unlock();
         }
@@ -325,7 +350,7 @@ public final class SpecService implements Disposable {
             Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
 
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(target), List.of(source), true);
         } finally {
             writeLock.unlock();
         }
@@ -352,55 +377,32 @@ public final class SpecService implements Disposable {
             }
             Files.createDirectories(archiveDir);
 
-            int count = 0;
+            List<Path> archived = new ArrayList<>();
+            List<Path> targets = new ArrayList<>();
             for (TaskSpec spec : doneTasks) {
                 if (spec.getFilePath() == null) continue;
                 Path source = Paths.get(spec.getFilePath());
                 if (!Files.exists(source)) continue;
                 Path target = archiveDir.resolve(source.getFileName());
                 Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
-                count++;
+                archived.add(source);
+                targets.add(target);
             }
 
             refreshVfs();
-            refresh();
-            return count;
+            applyFileChanges(targets, archived, true);
+            return archived.size();
         } finally {
             writeLock.unlock();
         }
     }
 
     /**
-     * Returns all archived tasks by scanning the archive/tasks/ directory.
+     * Returns all archived tasks, kept in their own cache alongside the active ones.
      * These are NOT part of the normal specCache.
      */
     public @NotNull List<TaskSpec> getArchivedTasks() {
-        BacklogConfigService configService = BacklogConfigService.getInstance(project);
-        Path archiveDir = configService.getArchiveTasksDir();
-        if (archiveDir == null || !Files.isDirectory(archiveDir)) {
-            return List.of();
-        }
-
-        List<TaskSpec> archived = new ArrayList<>();
-        try (Stream<Path> files = Files.walk(archiveDir)) {
-            files.filter(p -> p.toString().endsWith(".md"))
-                    .filter(Files::isRegularFile)
-                    .forEach(file -> {
-                        try {
-                            String content = Files.readString(file, StandardCharsets.UTF_8);
-                            TaskSpec spec = SpecFrontmatterParser.parse(content, file.toAbsolutePath().toString());
-                            if (spec != null && spec.getId() != null) {
-                                spec.setLastModified(Files.getLastModifiedTime(file).toMillis());
-                                archived.add(spec);
-                            }
-                        } catch (IOException e) {
-                            log.warn("Failed to read archived task file: {}", file, e);
-                        }
-                    });
-        } catch (IOException e) {
-            log.warn("Failed to scan archive directory: {}", archiveDir, e);
-        }
-        return archived;
+        return archivedCache.values();
     }
 
     /**
@@ -409,12 +411,7 @@ public final class SpecService implements Disposable {
     public void unarchiveTask(@NotNull String id) throws IOException {
         writeLock.lock();
         try {
-            // Find the task in the archive directory
-            List<TaskSpec> archivedTasks = getArchivedTasks();
-            TaskSpec spec = archivedTasks.stream()
-                    .filter(s -> id.equalsIgnoreCase(s.getId()))
-                    .findFirst()
-                    .orElse(null);
+            TaskSpec spec = archivedCache.findById(id);
 
             if (spec == null) {
                 throw new IOException("Archived task not found: " + id);
@@ -432,7 +429,7 @@ public final class SpecService implements Disposable {
             Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
 
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(target), List.of(source), true);
         } finally {
             writeLock.unlock();
         }
@@ -444,17 +441,14 @@ public final class SpecService implements Disposable {
      * Returns all cached documents.
      */
     public @NotNull List<BacklogDocument> getAllDocuments() {
-        return new ArrayList<>(documentCache.values());
+        return documentCache.values();
     }
 
     /**
      * Returns a document by its ID.
      */
     public @Nullable BacklogDocument getDocument(@NotNull String id) {
-        return documentCache.values().stream()
-                .filter(doc -> id.equalsIgnoreCase(doc.getId()))
-                .findFirst()
-                .orElse(null);
+        return documentCache.findById(id);
     }
 
     /**
@@ -486,7 +480,7 @@ public final class SpecService implements Disposable {
             String fileContent = SpecFrontmatterGenerator.generateDocument(doc);
             Files.writeString(filePath, fileContent, StandardCharsets.UTF_8);
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(filePath), List.of(), true);
             return doc;
         } finally {
             writeLock.unlock();
@@ -508,10 +502,11 @@ public final class SpecService implements Disposable {
                 doc.setTitle(title);
             }
 
+            Path filePath = Paths.get(doc.getFilePath());
             String fileContent = SpecFrontmatterGenerator.generateDocument(doc);
-            Files.writeString(Paths.get(doc.getFilePath()), fileContent, StandardCharsets.UTF_8);
+            Files.writeString(filePath, fileContent, StandardCharsets.UTF_8);
             refreshVfs();
-            refresh();
+            applyFileChanges(List.of(filePath), List.of(), true);
         } finally {
             writeLock.unlock();
         }
@@ -522,9 +517,12 @@ public final class SpecService implements Disposable {
      * Results are ranked by relevance score (best matches first).
      */
     public @NotNull List<BacklogDocument> searchDocuments(@NotNull String query, int limit) {
-        List<Map.Entry<BacklogDocument, Double>> scored = documentCache.values().stream()
-                .map(d -> Map.entry(d, FuzzySearchHelper.scoreMultiField(query, d.getTitle(), d.getContent())))
-                .filter(e -> e.getValue() >= 0.3)
+        PreparedQuery prepared = PreparedQuery.of(query);
+        if (prepared == null) {
+            return List.of();
+        }
+        List<Map.Entry<BacklogDocument, Double>> scored = documentCache
+                .search(prepared, 2, FuzzySearchHelper.DEFAULT_THRESHOLD, d -> true)
                 .sorted(Map.Entry.<BacklogDocument, Double>comparingByValue().reversed())
                 .toList();
 
@@ -548,39 +546,34 @@ public final class SpecService implements Disposable {
     // ===== Refresh & Listeners =====
 
     /**
-     * Force a full refresh of all caches by re-scanning the spec directory.
+     * Re-scans the spec directory and brings both caches in line with it. Files whose
+     * modification stamp is unchanged are not re-read; entries whose file is gone are dropped.
+     * Always notifies listeners, even when nothing changed, since callers use it as "reload".
      * Uses writeLock to prevent race conditions between VFS watcher and explicit refreshes.
      */
     public void refresh() {
+        SpecChangeSet changes;
         writeLock.lock();
         try {
-            specCache.clear();
-            documentCache.clear();
-
-            Path specDir = getSpecDirectoryPath();
-            if (specDir == null || !Files.isDirectory(specDir)) {
-                log.debug("Spec directory not found for project: {}", project.getName());
-                return;
-            }
-
-            try {
-                discoverAndParseSpecs(specDir);
-                discoverAndParseDocs(specDir);
-                log.info("Loaded {} task specs and {} documents from {}", specCache.size(), documentCache.size(), specDir);
-            } catch (IOException e) {
-                log.warn("Failed to scan spec directory: {}", e.getMessage());
-            }
+            changes = rescan();
         } finally {
             writeLock.unlock();
         }
 
-        notifyListeners();
+        notifyListeners(changes);
     }
 
     /**
      * Add a listener that will be called when specs change.
      */
     public void addChangeListener(@NotNull Runnable listener) {
+        changeListeners.add(new RunnableListener(listener));
+    }
+
+    /**
+     * Add a listener that receives the set of tasks and documents each change touched.
+     */
+    public void addChangeListener(@NotNull SpecChangeListener listener) {
         changeListeners.add(listener);
     }
 
@@ -588,76 +581,244 @@ public final class SpecService implements Disposable {
      * Remove a previously registered change listener.
      */
     public void removeChangeListener(@NotNull Runnable listener) {
+        changeListeners.remove(new RunnableListener(listener));
+    }
+
+    /**
+     * Remove a previously registered change-set listener.
+     */
+    public void removeChangeListener(@NotNull SpecChangeListener listener) {
         changeListeners.remove(listener);
     }
 
-    private void discoverAndParseSpecs(@NotNull Path specDir) throws IOException {
-        // Scan .md files in tasks/, completed/, and root of spec dir (but not docs/)
-        Path tasksDir = specDir.resolve("tasks");
-        Path completedDir = specDir.resolve("completed");
+    /**
+     * Updates the caches for the given files only: {@code removed} paths (files or whole
+     * directories) are dropped first, then every {@code changed} path is re-read from disk —
+     * a changed path that no longer exists counts as removed, a directory is walked.
+     * Listeners are notified only when a task or document actually changed.
+     *
+     * @param force re-parse changed files even if their modification stamp is unchanged
+     *              (used after our own writes, which may land within the stamp's resolution)
+     */
+    void applyFileChanges(@NotNull Collection<Path> changed, @NotNull Collection<Path> removed, boolean force) {
+        SpecChangeSet changes;
+        writeLock.lock();
+        try {
+            Path specDir = getSpecDirectoryPath();
+            if (specDir == null) {
+                return;
+            }
+            ChangeCollector collector = new ChangeCollector();
+            for (Path path : removed) {
+                removeTree(cacheKey(path), collector);
+            }
+            for (Path path : changed) {
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.walk(path)) {
+                        files.filter(Files::isRegularFile).forEach(file -> updateFile(file, specDir, force, collector));
+                    } catch (IOException e) {
+                        log.warn("Failed to scan spec directory: {}", path, e);
+                    }
+                } else {
+                    updateFile(path, specDir, force, collector);
+                }
+            }
+            changes = collector.build();
+        } finally {
+            writeLock.unlock();
+        }
 
-        scanTasksIn(tasksDir);
-        scanTasksIn(completedDir);
+        if (!changes.isEmpty()) {
+            notifyListeners(changes);
+        }
+    }
+
+    private @NotNull SpecChangeSet rescan() {
+        ChangeCollector collector = new ChangeCollector();
+        Set<String> present = new HashSet<>();
+
+        Path specDir = getSpecDirectoryPath();
+        if (specDir == null || !Files.isDirectory(specDir)) {
+            log.debug("Spec directory not found for project: {}", project.getName());
+        } else {
+            try {
+                for (Path file : listSpecFiles(specDir)) {
+                    present.add(cacheKey(file));
+                    updateFile(file, specDir, false, collector);
+                }
+                log.info("Loaded {} task specs, {} archived tasks and {} documents from {}",
+                        specCache.size(), archivedCache.size(), documentCache.size(), specDir);
+            } catch (IOException e) {
+                // Keep what is cached rather than dropping everything the scan did not reach
+                log.warn("Failed to scan spec directory: {}", e.getMessage());
+                return collector.build();
+            }
+        }
+
+        for (String key : List.copyOf(fileStamps.keySet())) {
+            if (!present.contains(key)) {
+                removeFile(key, collector);
+            }
+        }
+        return collector.build();
+    }
+
+    /** Task files in tasks/, completed/ and the spec dir root, then docs/, then archive/tasks/. */
+    private @NotNull List<Path> listSpecFiles(@NotNull Path specDir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        collectMarkdownFiles(specDir.resolve("tasks"), files);
+        collectMarkdownFiles(specDir.resolve("completed"), files);
 
         // Also scan root-level .md files (backward compatible with flat layout)
-        try (Stream<Path> files = Files.list(specDir)) {
-            files.filter(p -> p.toString().endsWith(".md"))
+        try (Stream<Path> rootFiles = Files.list(specDir)) {
+            rootFiles.filter(p -> p.toString().endsWith(".md"))
                     .filter(Files::isRegularFile)
-                    .forEach(this::parseAndCacheSpec);
+                    .forEach(files::add);
         }
+
+        collectMarkdownFiles(specDir.resolve("docs"), files);
+        collectMarkdownFiles(archiveTasksDir(specDir), files);
+        return files;
     }
 
-    private void scanTasksIn(@NotNull Path dir) {
+    private void collectMarkdownFiles(@NotNull Path dir, @NotNull List<Path> files) {
         if (!Files.isDirectory(dir)) {
             return;
         }
-        try (Stream<Path> files = Files.walk(dir)) {
-            files.filter(p -> p.toString().endsWith(".md"))
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.filter(p -> p.toString().endsWith(".md"))
                     .filter(Files::isRegularFile)
-                    .forEach(this::parseAndCacheSpec);
+                    .forEach(files::add);
         } catch (IOException e) {
             log.warn("Failed to scan tasks in: {}", dir);
         }
     }
 
-    private void discoverAndParseDocs(@NotNull Path specDir) throws IOException {
-        Path docsDir = specDir.resolve("docs");
-        if (!Files.isDirectory(docsDir)) {
+    /**
+     * Re-reads one file into the task or document cache, unless its stamp is unchanged.
+     * Files outside the scanned locations are ignored; a missing file is removed.
+     */
+    private void updateFile(@NotNull Path file, @NotNull Path specDir, boolean force, @NotNull ChangeCollector collector) {
+        FileKind kind = kindOf(file, specDir);
+        if (kind == null) {
             return;
         }
-        try (Stream<Path> files = Files.walk(docsDir)) {
-            files.filter(p -> p.toString().endsWith(".md"))
-                    .filter(Files::isRegularFile)
-                    .forEach(this::parseAndCacheDocument);
+        String key = cacheKey(file);
+        if (!Files.isRegularFile(file)) {
+            removeFile(key, collector);
+            return;
         }
-    }
 
-    private void parseAndCacheSpec(@NotNull Path file) {
+        String content;
+        FileStamp stamp;
         try {
-            String content = Files.readString(file, StandardCharsets.UTF_8);
-            TaskSpec spec = SpecFrontmatterParser.parse(content, file.toAbsolutePath().toString());
-            if (spec != null && spec.getId() != null) {
-                spec.setLastModified(Files.getLastModifiedTime(file).toMillis());
-                specCache.put(spec.getFilePath(), spec);
+            stamp = new FileStamp(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+            if (!force && stamp.equals(fileStamps.get(key))) {
+                return;
             }
+            content = Files.readString(file, StandardCharsets.UTF_8);
         } catch (IOException e) {
             log.warn("Failed to read spec file: {}", file, e);
+            return;
         }
-    }
+        // Recorded even when the file does not parse, so an unchanged broken file is not re-read
+        fileStamps.put(key, stamp);
 
-    private void parseAndCacheDocument(@NotNull Path file) {
-        try {
-            String content = Files.readString(file, StandardCharsets.UTF_8);
-            BacklogDocument doc = parseDocument(content, file.toAbsolutePath().toString());
+        if (kind == FileKind.ARCHIVED_TASK) {
+            TaskSpec spec = SpecFrontmatterParser.parse(content, key);
+            TaskSpec previous;
+            if (spec != null && spec.getId() != null) {
+                spec.setLastModified(stamp.lastModified());
+                previous = archivedCache.put(key, spec);
+                collector.archivedTasks.add(SpecChangeSet.normalizeId(spec.getId()));
+            } else {
+                previous = archivedCache.remove(key);
+            }
+            if (previous != null) {
+                collector.archivedTasks.add(SpecChangeSet.normalizeId(previous.getId()));
+            }
+        } else if (kind == FileKind.TASK) {
+            TaskSpec spec = SpecFrontmatterParser.parse(content, key);
+            TaskSpec previous;
+            if (spec != null && spec.getId() != null) {
+                spec.setLastModified(stamp.lastModified());
+                previous = specCache.put(key, spec);
+                collector.updatedTasks.add(SpecChangeSet.normalizeId(spec.getId()));
+            } else {
+                previous = specCache.remove(key);
+            }
+            if (previous != null) {
+                collector.removedTasks.add(SpecChangeSet.normalizeId(previous.getId()));
+            }
+        } else {
+            BacklogDocument doc = parseDocument(content, key);
+            BacklogDocument previous;
             if (doc != null && doc.getId() != null) {
-                doc.setLastModified(Files.getLastModifiedTime(file).toMillis());
-                documentCache.put(doc.getFilePath(), doc);
+                doc.setLastModified(stamp.lastModified());
+                previous = documentCache.put(key, doc);
+                collector.updatedDocuments.add(SpecChangeSet.normalizeId(doc.getId()));
+            } else {
+                previous = documentCache.remove(key);
             }
-        } catch (IOException e) {
-            log.warn("Failed to read document file: {}", file, e);
+            if (previous != null) {
+                collector.removedDocuments.add(SpecChangeSet.normalizeId(previous.getId()));
+            }
+        }
+    }
+
+    /** Removes the entry for {@code key} and every entry below it, if {@code key} is a directory. */
+    private void removeTree(@NotNull String key, @NotNull ChangeCollector collector) {
+        String prefix = key + java.io.File.separator;
+        for (String cached : List.copyOf(fileStamps.keySet())) {
+            if (cached.equals(key) || cached.startsWith(prefix)) {
+                removeFile(cached, collector);
+            }
+        }
+    }
+
+    private void removeFile(@NotNull String key, @NotNull ChangeCollector collector) {
+        fileStamps.remove(key);
+        TaskSpec spec = specCache.remove(key);
+        if (spec != null) {
+            collector.removedTasks.add(SpecChangeSet.normalizeId(spec.getId()));
+        }
+        BacklogDocument doc = documentCache.remove(key);
+        if (doc != null) {
+            collector.removedDocuments.add(SpecChangeSet.normalizeId(doc.getId()));
+        }
+        TaskSpec archived = archivedCache.remove(key);
+        if (archived != null) {
+            collector.archivedTasks.add(SpecChangeSet.normalizeId(archived.getId()));
         }
     }
 
+    private static @Nullable FileKind kindOf(@NotNull Path file, @NotNull Path specDir) {
+        if (!file.toString().endsWith(".md") || !file.startsWith(specDir)) {
+            return null;
+        }
+        if (file.startsWith(specDir.resolve("docs"))) {
+            return FileKind.DOCUMENT;
+        }
+        if (file.startsWith(archiveTasksDir(specDir))) {
+            return FileKind.ARCHIVED_TASK;
+        }
+        if (specDir.equals(file.getParent())
+                || file.startsWith(specDir.resolve("tasks"))
+                || file.startsWith(specDir.resolve("completed"))) {
+            return FileKind.TASK;
+        }
+        return null;
+    }
+
+    /** Same location as {@link BacklogConfigService#getArchiveTasksDir()}. */
+    private static @NotNull Path archiveTasksDir(@NotNull Path specDir) {
+        return specDir.resolve("archive").resolve("tasks");
+    }
+
+    private static @NotNull String cacheKey(@NotNull Path file) {
+        return file.toAbsolutePath().toString();
+    }
+
     private @Nullable BacklogDocument parseDocument(@NotNull String content, @NotNull String filePath) {
         // Reuse frontmatter regex pattern
         java.util.regex.Matcher matcher = java.util.regex.Pattern.compile(
@@ -708,15 +869,17 @@ public final class SpecService implements Disposable {
         messageBusConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
             @Override
             public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
-                boolean specChanged = false;
+                Path specDir = getSpecDirectoryPath();
+                if (specDir == null) {
+                    return;
+                }
+                Set<Path> changed = new HashSet<>();
+                Set<Path> removed = new HashSet<>();
                 for (VFileEvent event : events) {
-                    if (isSpecFileEvent(event)) {
-                        specChanged = true;
-                        break;
-                    }
+                    collectSpecPaths(event, specDir, changed, removed);
                 }
-                if (specChanged) {
-                    ApplicationManager.getApplication().executeOnPooledThread(() -> refresh());
+                if (!changed.isEmpty() || !removed.isEmpty()) {
+                    scheduleFileChanges(changed, removed);
                 }
             }
         });
@@ -743,27 +906,70 @@ public final class SpecService implements Disposable {
         return toolName != null && toolName.startsWith("mcp__backlog__task");
     }
 
-    private boolean isSpecFileEvent(@NotNull VFileEvent event) {
-        Path specDir = getSpecDirectoryPath();
-        if (specDir == null) {
-            return false;
+    /**
+     * Sorts the paths a VFS event touched below the spec directory into changed and removed.
+     * A move or rename removes the old path and changes the new one.
+     */
+    static void collectSpecPaths(@NotNull VFileEvent event, @NotNull Path specDir,
+                                 @NotNull Set<Path> changed, @NotNull Set<Path> removed) {
+        if (event instanceof VFileMoveEvent move) {
+            addSpecPath(move.getOldPath(), specDir, removed);
+            addSpecPath(move.getNewPath(), specDir, changed);
+        } else if (event instanceof VFilePropertyChangeEvent property) {
+            if (property.isRename()) {
+                addSpecPath(property.getOldPath(), specDir, removed);
+                addSpecPath(property.getNewPath(), specDir, changed);
+            }
+        } else if (event instanceof VFileCopyEvent copy) {
+            addSpecPath(copy.getNewParent().getPath() + "/" + copy.getNewChildName(), specDir, changed);
+        } else if (event instanceof VFileDeleteEvent) {
+            addSpecPath(event.getPath(), specDir, removed);
+        } else if (event instanceof VFileCreateEvent || event instanceof VFileContentChangeEvent) {
+            addSpecPath(event.getPath(), specDir, changed);
         }
+    }
 
-        String path = null;
-        if (event instanceof VFileCreateEvent || event instanceof VFileDeleteEvent || event instanceof VFileContentChangeEvent) {
-            VirtualFile file = event.getFile();
-            if (file != null) {
-                path = file.getPath();
-            } else {
-                path = event.getPath();
+    private static void addSpecPath(@NotNull String path, @NotNull Path specDir, @NotNull Set<Path> target) {
+        try {
+            Path file = Paths.get(path);
+            if (file.startsWith(specDir)) {
+                target.add(file);
             }
+        } catch (InvalidPathException e) {
+            log.debug("Ignoring unsupported VFS path: {}", path);
         }
+    }
 
-        if (path == null) {
-            return false;
+    /**
+     * Queues VFS changes and applies them once {@link #VFS_DEBOUNCE_MS} after the first one,
+     * so a burst of edits (an agent rewriting tasks in a loop) costs one cache update.
+     */
+    private void scheduleFileChanges(@NotNull Set<Path> changed, @NotNull Set<Path> removed) {
+        synchronized (pendingLock) {
+            pendingChanged.addAll(changed);
+            pendingRemoved.addAll(removed);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
         }
+        AppExecutorUtil.getAppScheduledExecutorService()
+                .schedule(this::flushPendingFileChanges, VFS_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
 
-        return path.startsWith(specDir.toString()) && path.endsWith(".md");
+    private void flushPendingFileChanges() {
+        List<Path> changed;
+        List<Path> removed;
+        synchronized (pendingLock) {
+            changed = new ArrayList<>(pendingChanged);
+            removed = new ArrayList<>(pendingRemoved);
+            pendingChanged.clear();
+            pendingRemoved.clear();
+            flushScheduled = false;
+        }
+        if (!disposed.get()) {
+            applyFileChanges(changed, removed, false);
+        }
     }
 
     /**
@@ -794,19 +1000,49 @@ public final class SpecService implements Disposable {
         }
     }
 
-    private void notifyListeners() {
-        for (Runnable listener : changeListeners) {
-            listener.run();
+    private void notifyListeners(@NotNull SpecChangeSet changes) {
+        for (SpecChangeListener listener : changeListeners) {
+            listener.specsChanged(changes);
         }
     }
 
     @Override
     public void dispose() {
+        disposed.set(true);
         if (messageBusConnection != null) {
             messageBusConnection.disconnect();
         }
         specCache.clear();
+        archivedCache.clear();
         documentCache.clear();
+        fileStamps.clear();
         changeListeners.clear();
     }
+
+    private enum FileKind { TASK, ARCHIVED_TASK, DOCUMENT }
+
+    private record FileStamp(long lastModified, long size) {}
+
+    /** Adapts a plain Runnable; equal by delegate so it can be removed again. */
+    private record RunnableListener(@NotNull Runnable delegate) implements SpecChangeListener {
+        @Override
+        public void specsChanged(@NotNull SpecChangeSet changes) {
+            delegate.run();
+        }
+    }
+
+    private static final class ChangeCollector {
+        private final Set<String> updatedTasks = new HashSet<>();
+        private final Set<String> removedTasks = new HashSet<>();
+        private final Set<String> updatedDocuments = new HashSet<>();
+        private final Set<String> removedDocuments = new HashSet<>();
+        private final Set<String> archivedTasks = new HashSet<>();
+
+        /** An ID that was removed from one file and written to another counts as updated. */
+        @NotNull SpecChangeSet build() {
+            removedTasks.removeAll(updatedTasks);
+            removedDocuments.removeAll(updatedDocuments);
+            return new SpecChangeSet(updatedTasks, removedTasks, updatedDocuments, removedDocuments, archivedTasks);
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.devoxx.genie.service.spec;
 
 import com.devoxx.genie.model.spec.TaskSpec;
 
+import java.util.List;
+
 /**
  * Callback interface for monitoring spec task runner progress.
  * All methods are called on the EDT.
@@ -20,6 +22,13 @@ public interface SpecTaskRunnerListener {
     /** Called when a task is skipped (timeout, unsatisfied deps, deleted, etc.). */
     void onTaskSkipped(TaskSpec task, int index, int total, String reason);
 
+    /**
+     * Called just before a parallel run finishes with its critical path: the chain of dependent
+     * tasks whose run times add up to the most, first task first, and that total.
+     */
+    default void onCriticalPath(List<TaskSpec> path, long durationMs) {
+    }
+
     /** Called when the entire run finishes. */
     void onRunFinished(int completed, int skipped, int total, SpecTaskRunnerService.RunnerState finalState);
 }
@@ -22,20 +22,19 @@ import javax.swing.Timer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 
 
 /**
  * Project-scoped service that executes spec tasks in dependency order.
  * Supports both sequential execution (one task at a time) and parallel
- * execution (independent tasks within a dependency layer run concurrently).
+ * execution (independent tasks run concurrently).
  * The execution mode is controlled by the specExecutionMode setting.
  *
- * <p>In parallel mode, tasks are grouped into topological layers using
- * {@link TaskDependencySorter#sortByLayers}. All tasks in a layer execute
- * concurrently, and the runner proceeds to the next layer only after all
- * tasks in the current layer complete.</p>
+ * <p>In parallel mode, a {@link TaskDagScheduler} starts each task as soon as its own
+ * dependencies have completed, with at most maxConcurrency tasks running at once.
+ * A task that fails or is not marked Done takes its downstream tasks with it.
+ * All parallel bookkeeping happens on the EDT, where task completion is reported.</p>
  */
 @Slf4j
 @Service(Service.Level.PROJECT)
@@ -60,7 +59,7 @@ public final class SpecTaskRunnerService implements Disposable {
     private int completedCount;
     @Getter
     private int skippedCount;
-    private Runnable specChangeListener;
+    private SpecChangeListener specChangeListener;
 
     // Grace timer: after prompt execution completes, wait briefly for the spec
     // file to be updated to "Done" before skipping the task and advancing.
@@ -83,8 +82,8 @@ public final class SpecTaskRunnerService implements Disposable {
     @Getter
     private ExecutionMode executionMode = ExecutionMode.SEQUENTIAL;
     private int maxConcurrency = 4;
-    private List<List<TaskSpec>> layers = Collections.emptyList();
-    private int currentLayerIndex = -1;
+    private @Nullable TaskDagScheduler scheduler;
+    private long parallelRunStartTime;
 
     /** Per-task grace timers for parallel mode (task ID -> Timer). */
     private final ConcurrentHashMap<String, Timer> parallelGraceTimers = new ConcurrentHashMap<>();
@@ -92,31 +91,8 @@ public final class SpecTaskRunnerService implements Disposable {
     /** Per-task "done while executing" flags for parallel mode. */
     private final ConcurrentHashMap<String, Boolean> parallelTaskDoneFlags = new ConcurrentHashMap<>();
 
-    /** Latch for the current layer — counts down as each task completes/skips. */
-    private volatile CountDownLatch layerLatch;
-
-    /** Tasks currently executing in the active layer. */
-    private final Set<String> activeLayerTaskIds = ConcurrentHashMap.newKeySet();
-
-    /** Track per-task results within a layer for deterministic reporting. */
-    private final ConcurrentHashMap<String, LayerTaskResult> layerTaskResults = new ConcurrentHashMap<>();
-
-    /** Result of a single task within a parallel layer. */
-    static final class LayerTaskResult {
-        final TaskSpec task;
-        final boolean completed;
-        final boolean skipped;
-        final String skipReason;
-        final long elapsedMs;
-
-        LayerTaskResult(TaskSpec task, boolean completed, boolean skipped, String skipReason, long elapsedMs) {
-            this.task = task;
-            this.completed = completed;
-            this.skipped = skipped;
-            this.skipReason = skipReason;
-            this.elapsedMs = elapsedMs;
-        }
-    }
+    /** Why each skipped task of the parallel run was skipped, for the run summary. */
+    private final ConcurrentHashMap<String, String> parallelSkipReasons = new ConcurrentHashMap<>();
 
     public SpecTaskRunnerService(@NotNull Project project) {
         this.project = project;
@@ -175,7 +151,9 @@ public final class SpecTaskRunnerService implements Disposable {
         cliMode = "cli".equalsIgnoreCase(runnerMode);
 
         if (executionMode == ExecutionMode.PARALLEL) {
+            List<List<TaskSpec>> layers;
             try {
+                // Layers give a dependencies-first order with the usual tie-breaking, and reject cycles
                 layers = TaskDependencySorter.sortByLayers(tasks, allSpecs);
                 orderedTasks = layers.stream().flatMap(List::stream).toList();
             } catch (CircularDependencyException e) {
@@ -184,10 +162,12 @@ public final class SpecTaskRunnerService implements Disposable {
                 notifyRunFinished(RunnerState.ERROR);
                 throw new RuntimeException(e.getMessage(), e);
             }
+            scheduler = new TaskDagScheduler(orderedTasks, maxConcurrency);
 
-            log.info("Parallel execution: {} layers, maxConcurrency={}", layers.size(), maxConcurrency);
+            log.info("Parallel execution: {} tasks in {} dependency levels, maxConcurrency={}",
+                    orderedTasks.size(), layers.size(), maxConcurrency);
             for (int i = 0; i < layers.size(); i++) {
-                log.info("  Layer {}: {}", i,
+                log.info("  Level {}: {}", i,
                         layers.get(i).stream()
                                 .map(t -> t.getId() != null ? t.getId() : "?")
                                 .collect(Collectors.joining(", ")));
@@ -209,7 +189,6 @@ public final class SpecTaskRunnerService implements Disposable {
         }
 
         currentTaskIndex = -1;
-        currentLayerIndex = -1;
         completedCount = 0;
         skippedCount = 0;
         completedTaskIds.clear();
@@ -227,7 +206,8 @@ public final class SpecTaskRunnerService implements Disposable {
         notifyRunStarted();
 
         if (executionMode == ExecutionMode.PARALLEL) {
-            executeNextLayer();
+            parallelRunStartTime = System.currentTimeMillis();
+            dispatchReadyTasks();
         } else {
             submitNextTask();
         }
@@ -262,12 +242,9 @@ public final class SpecTaskRunnerService implements Disposable {
         }
         state = RunnerState.CANCELLED;
 
-        // Release any pending layer latch so the parallel executor thread can proceed
-        CountDownLatch latch = layerLatch;
-        if (latch != null) {
-            while (latch.getCount() > 0) {
-                latch.countDown();
-            }
+        // Nothing that has not started yet will start
+        if (scheduler != null) {
+            scheduler.cancelPending();
         }
 
         // Cancel all parallel grace timers
@@ -285,7 +262,8 @@ public final class SpecTaskRunnerService implements Disposable {
 
     /**
      * Called when a CLI tool exits with a non-zero exit code.
-     * In parallel mode, only the specific task fails; the layer continues.
+     * In parallel mode, only the specific task and the tasks depending on it fail;
+     * independent tasks continue.
      */
     public void notifyCliTaskFailed(int exitCode, @NotNull String errorOutput, @Nullable String taskId) {
         if (state != RunnerState.WAITING_FOR_COMPLETION) {
@@ -497,7 +475,12 @@ public final class SpecTaskRunnerService implements Disposable {
         if (cliTool == null) {
             log.error("CLI tool '{}' not found or not enabled. Available tools: {}", toolName,
                     stateService.getCliTools());
-            skipTask(task, "CLI tool '" + toolName + "' not found or not enabled");
+            String reason = "CLI tool '" + toolName + "' not found or not enabled";
+            if (executionMode == ExecutionMode.PARALLEL) {
+                skipParallelTask(task, reason);
+            } else {
+                skipTask(task, reason);
+            }
             return;
         }
 
@@ -532,20 +515,20 @@ public final class SpecTaskRunnerService implements Disposable {
                 .orElse(null);
     }
 
-    private void onSpecsChanged() {
+    private void onSpecsChanged(@NotNull SpecChangeSet changes) {
         ApplicationManager.getApplication().invokeLater(() -> {
             if (state != RunnerState.WAITING_FOR_COMPLETION) {
                 return;
             }
 
             if (executionMode == ExecutionMode.PARALLEL) {
-                onSpecsChangedParallel();
+                onSpecsChangedParallel(changes);
                 return;
             }
 
-            // Sequential mode
+            // Sequential mode — only a change to the running task can complete it
             TaskSpec current = getCurrentTask();
-            if (current == null || current.getId() == null) {
+            if (current == null || current.getId() == null || !changes.affectsTask(current.getId())) {
                 return;
             }
 
@@ -583,135 +566,134 @@ public final class SpecTaskRunnerService implements Disposable {
         submitNextTask();
     }
 
-    // ===== Parallel Layer Execution =====
+    // ===== Parallel DAG Execution =====
 
     /**
-     * Execute the next layer of independent tasks in parallel.
-     * Called from the EDT after the previous layer completes.
+     * Start every task the scheduler has ready, up to maxConcurrency running at once, then
+     * finish the run if nothing is left. Called at the start of the run and whenever a running
+     * task finishes, so a task starts as soon as its own dependencies are done.
      */
-    private void executeNextLayer() {
-        currentLayerIndex++;
-
-        if (currentLayerIndex >= layers.size()) {
-            finish(RunnerState.ALL_COMPLETED);
+    private void dispatchReadyTasks() {
+        TaskDagScheduler dag = scheduler;
+        if (dag == null) {
             return;
         }
-
         if (state == RunnerState.CANCELLED) {
             finish(RunnerState.CANCELLED);
             return;
         }
 
-        List<TaskSpec> layer = layers.get(currentLayerIndex);
-        log.info("=== Starting layer {}/{} ({} tasks) ===",
-                currentLayerIndex + 1, layers.size(), layer.size());
+        // Tasks that turn out to be done or unrunnable are settled on the spot, which can
+        // release their dependents within the same loop
+        TaskSpec next;
+        while ((next = dag.nextTask()) != null) {
+            startParallelTask(next);
+        }
 
-        // Pre-filter: check for already-done or missing tasks
-        List<TaskSpec> tasksToExecute = new ArrayList<>();
-        for (TaskSpec task : layer) {
-            TaskSpec fresh = SpecService.getInstance(project).getSpec(task.getId());
-            if (fresh == null) {
-                skippedCount++;
-                notifyTaskSkipped(task, "Task file not found");
-                continue;
-            }
-            if ("Done".equalsIgnoreCase(fresh.getStatus())) {
-                completedCount++;
-                if (fresh.getId() != null) {
-                    completedTaskIds.add(fresh.getId().toLowerCase());
-                }
-                notifyTaskCompleted(fresh);
-                continue;
-            }
-            // Check unsatisfied dependencies
-            List<TaskSpec> allSpecs = SpecService.getInstance(project).getAllSpecs();
-            List<String> unsatisfied = TaskDependencySorter.getUnsatisfiedDependencies(
-                    fresh, completedTaskIds, selectedTaskIds, allSpecs);
-            if (!unsatisfied.isEmpty()) {
-                skippedCount++;
-                notifyTaskSkipped(fresh, "Unsatisfied dependencies: " + String.join(", ", unsatisfied));
-                continue;
-            }
-            tasksToExecute.add(fresh);
+        if (dag.isFinished()) {
+            reportRunSummary(dag);
+            notifyCriticalPath(dag.criticalPath(), dag.criticalPathMs());
+            finish(RunnerState.ALL_COMPLETED);
+        } else {
+            state = RunnerState.WAITING_FOR_COMPLETION;
         }
+    }
 
-        if (tasksToExecute.isEmpty()) {
-            log.info("Layer {}: all tasks already done or skipped, proceeding to next layer",
-                    currentLayerIndex + 1);
-            executeNextLayer();
+    /**
+     * Start a task the scheduler released, unless it is already Done, gone, or still waiting
+     * on a dependency outside the run.
+     */
+    private void startParallelTask(@NotNull TaskSpec task) {
+        TaskSpec fresh = SpecService.getInstance(project).getSpec(task.getId());
+        if (fresh == null) {
+            skipParallelTask(task, "Task file not found");
+            return;
+        }
+        if ("Done".equalsIgnoreCase(fresh.getStatus())) {
+            completeParallelTask(fresh);
+            return;
+        }
+        List<TaskSpec> allSpecs = SpecService.getInstance(project).getAllSpecs();
+        List<String> unsatisfied = TaskDependencySorter.getUnsatisfiedDependencies(
+                fresh, completedTaskIds, selectedTaskIds, allSpecs);
+        if (!unsatisfied.isEmpty()) {
+            skipParallelTask(fresh, "Unsatisfied dependencies: " + String.join(", ", unsatisfied));
             return;
         }
 
-        log.info("Layer {}: executing {} tasks (concurrency capped at {})",
-                currentLayerIndex + 1, tasksToExecute.size(), maxConcurrency);
-
+        log.info("Starting parallel task {} ({} running, cap {})",
+                fresh.getId(), scheduler != null ? scheduler.runningCount() : 0, maxConcurrency);
         state = RunnerState.WAITING_FOR_COMPLETION;
-        layerLatch = new CountDownLatch(tasksToExecute.size());
-        activeLayerTaskIds.clear();
-        layerTaskResults.clear();
-        parallelTaskDoneFlags.clear();
-
-        long layerStartTime = System.currentTimeMillis();
 
-        // Submit all tasks in this layer
-        for (TaskSpec task : tasksToExecute) {
-            String tid = task.getId() != null ? task.getId() : "?";
-            activeLayerTaskIds.add(tid);
-
-            // Update the flat index for listener reporting
-            currentTaskIndex = orderedTasks.indexOf(task);
-            notifyTaskStarted(task);
+        // Update the flat index for listener reporting
+        currentTaskIndex = orderedTasks.indexOf(task);
+        notifyTaskStarted(fresh);
 
-            if (cliMode) {
-                submitTaskViaCli(task);
-            } else {
-                // In parallel LLM mode, each task needs its own fresh conversation.
-                // The message bus / prompt submission is inherently single-threaded.
-                // Parallel mode provides real concurrency only for CLI mode.
-                submitTaskViaLlm(task);
-            }
+        if (cliMode) {
+            submitTaskViaCli(fresh);
+        } else {
+            // In parallel LLM mode, each task needs its own fresh conversation.
+            // The message bus / prompt submission is inherently single-threaded.
+            // Parallel mode provides real concurrency only for CLI mode.
+            submitTaskViaLlm(fresh);
         }
+    }
 
-        // Wait for all tasks in the layer on a background thread, then advance
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            try {
-                layerLatch.await();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.info("Layer latch interrupted");
-            }
-
-            long layerElapsed = System.currentTimeMillis() - layerStartTime;
+    /** Count a running task as completed; its dependents become ready. Does not dispatch. */
+    private void completeParallelTask(@NotNull TaskSpec task) {
+        if (scheduler == null || !scheduler.isRunning(task.getId())) {
+            return;
+        }
+        markTaskCompleted(task);
+        scheduler.complete(task.getId());
+    }
 
-            // Report layer summary (deterministic order)
-            reportLayerSummary(tasksToExecute, layerElapsed);
+    /** Count a running task as skipped, along with every task downstream of it. Does not dispatch. */
+    private void skipParallelTask(@NotNull TaskSpec task, @NotNull String reason) {
+        if (scheduler == null || !scheduler.isRunning(task.getId())) {
+            return;
+        }
+        log.info("Skipping parallel task {}: {}", task.getId(), reason);
+        skippedCount++;
+        parallelSkipReasons.put(task.getId(), reason);
+        notifyTaskSkipped(task, reason);
 
-            // Advance to next layer on EDT
-            ApplicationManager.getApplication().invokeLater(() -> {
-                if (state == RunnerState.CANCELLED) {
-                    finish(RunnerState.CANCELLED);
-                    return;
-                }
-                state = RunnerState.RUNNING_TASK;
-                executeNextLayer();
-            });
-        });
+        String downstreamReason = "Dependency " + task.getId() + " did not complete";
+        for (TaskSpec downstream : scheduler.fail(task.getId())) {
+            skippedCount++;
+            parallelSkipReasons.put(downstream.getId(), downstreamReason);
+            notifyTaskSkipped(downstream, downstreamReason);
+        }
     }
 
     /**
      * Handle specs-changed events in parallel mode.
-     * Check all active layer tasks for completion.
+     * Check all running tasks for completion.
      */
-    private void onSpecsChangedParallel() {
-        for (String taskId : activeLayerTaskIds) {
+    private void onSpecsChangedParallel(@NotNull SpecChangeSet changes) {
+        if (scheduler == null) {
+            return;
+        }
+        boolean finishedAny = false;
+        for (String taskId : scheduler.runningTaskIds()) {
+            if (!changes.affectsTask(taskId)) {
+                continue;
+            }
             TaskSpec fresh = SpecService.getInstance(project).getSpec(taskId);
             if (fresh == null) {
                 log.debug("Parallel task {} not found in spec cache, waiting", taskId);
                 continue;
             }
             if ("Done".equalsIgnoreCase(fresh.getStatus())) {
+                if (parallelGraceTimers.containsKey(taskId)) {
+                    // The prompt already finished and we were only waiting for the status
+                    log.info("Parallel task {} marked Done during grace period, counting as completed", taskId);
+                    cancelParallelGraceTimer(taskId);
+                    completeParallelTask(fresh);
+                    finishedAny = true;
+                    continue;
+                }
                 log.info("Parallel task {} detected as Done (deferring advance until prompt completes)", taskId);
-                cancelParallelGraceTimer(taskId);
                 parallelTaskDoneFlags.put(taskId, true);
 
                 if (cliMode) {
@@ -719,14 +701,17 @@ public final class SpecTaskRunnerService implements Disposable {
                 }
             }
         }
+        if (finishedAny) {
+            dispatchReadyTasks();
+        }
     }
 
     /**
      * Handle completion of a specific task in parallel mode.
      */
     private void handleParallelTaskCompletion(@NotNull String taskId) {
-        if (!activeLayerTaskIds.contains(taskId)) {
-            log.debug("Parallel task {} not in active layer, ignoring completion", taskId);
+        if (scheduler == null || !scheduler.isRunning(taskId)) {
+            log.debug("Parallel task {} is not running, ignoring completion", taskId);
             return;
         }
 
@@ -736,11 +721,11 @@ public final class SpecTaskRunnerService implements Disposable {
             cancelParallelGraceTimer(taskId);
             TaskSpec fresh = SpecService.getInstance(project).getSpec(taskId);
             if (fresh != null) {
-                markTaskCompleted(fresh);
-                layerTaskResults.put(taskId, new LayerTaskResult(fresh, true, false, null, 0));
+                completeParallelTask(fresh);
+            } else {
+                skipParallelTask(findRunTask(taskId), "Task file not found");
             }
-            activeLayerTaskIds.remove(taskId);
-            layerLatch.countDown();
+            dispatchReadyTasks();
             return;
         }
 
@@ -749,22 +734,19 @@ public final class SpecTaskRunnerService implements Disposable {
         cancelParallelGraceTimer(taskId);
 
         Timer timer = new Timer(3000, e -> {
-            TaskSpec fresh = SpecService.getInstance(project).getSpec(taskId);
-            if (fresh != null && "Done".equalsIgnoreCase(fresh.getStatus())) {
-                return; // Already handled
-            }
+            parallelGraceTimers.remove(taskId);
             if (state != RunnerState.WAITING_FOR_COMPLETION) {
                 return;
             }
-            log.warn("Parallel task {} not marked Done after grace period, skipping", taskId);
-            skippedCount++;
-            if (fresh != null) {
-                notifyTaskSkipped(fresh, "Prompt execution completed but task was not marked Done");
-                layerTaskResults.put(taskId, new LayerTaskResult(fresh, false, true,
-                        "Prompt execution completed but task was not marked Done", 0));
+            TaskSpec fresh = SpecService.getInstance(project).getSpec(taskId);
+            if (fresh != null && "Done".equalsIgnoreCase(fresh.getStatus())) {
+                completeParallelTask(fresh);
+            } else {
+                log.warn("Parallel task {} not marked Done after grace period, skipping", taskId);
+                skipParallelTask(fresh != null ? fresh : findRunTask(taskId),
+                        "Prompt execution completed but task was not marked Done");
             }
-            activeLayerTaskIds.remove(taskId);
-            layerLatch.countDown();
+            dispatchReadyTasks();
         });
         timer.setRepeats(false);
         parallelGraceTimers.put(taskId, timer);
@@ -775,11 +757,12 @@ public final class SpecTaskRunnerService implements Disposable {
      * Handle failure of a specific task in parallel mode.
      */
     private void handleParallelTaskFailure(@NotNull String taskId, int exitCode, @NotNull String errorOutput) {
-        if (!activeLayerTaskIds.contains(taskId)) {
+        if (scheduler == null || !scheduler.isRunning(taskId)) {
             return;
         }
 
         cancelParallelGraceTimer(taskId);
+        parallelTaskDoneFlags.remove(taskId);
 
         String firstLine = errorOutput.lines()
                 .filter(l -> !l.isBlank())
@@ -788,16 +771,18 @@ public final class SpecTaskRunnerService implements Disposable {
         String reason = "CLI tool failed (exit code " + exitCode + "): " + firstLine;
 
         log.error("Parallel CLI task {} failed: {}", taskId, reason);
-        skippedCount++;
 
         TaskSpec fresh = SpecService.getInstance(project).getSpec(taskId);
-        if (fresh != null) {
-            notifyTaskSkipped(fresh, reason);
-            layerTaskResults.put(taskId, new LayerTaskResult(fresh, false, true, reason, 0));
-        }
+        skipParallelTask(fresh != null ? fresh : findRunTask(taskId), reason);
+        dispatchReadyTasks();
+    }
 
-        activeLayerTaskIds.remove(taskId);
-        layerLatch.countDown();
+    /** The task of this run with the given ID, as it was when the run started. */
+    private @NotNull TaskSpec findRunTask(@NotNull String taskId) {
+        return orderedTasks.stream()
+                .filter(t -> taskId.equalsIgnoreCase(t.getId()))
+                .findFirst()
+                .orElseGet(() -> TaskSpec.builder().id(taskId).build());
     }
 
     private void cancelParallelGraceTimer(@NotNull String taskId) {
@@ -815,39 +800,54 @@ public final class SpecTaskRunnerService implements Disposable {
     }
 
     /**
-     * Report a deterministic layer summary after all tasks complete.
-     * Results are sorted by the original task order within the layer.
+     * Report a deterministic run summary once every task has finished: results in task order
+     * with queue-wait and run times, followed by the critical path.
      */
-    private void reportLayerSummary(@NotNull List<TaskSpec> layerTasks, long elapsedMs) {
-        int layerCompleted = 0;
-        int layerSkipped = 0;
+    private void reportRunSummary(@NotNull TaskDagScheduler dag) {
+        int runCompleted = 0;
+        int runSkipped = 0;
 
         StringBuilder sb = new StringBuilder();
-        sb.append(String.format("=== Layer %d completed (%dms) ===%n",
-                currentLayerIndex + 1, elapsedMs));
+        sb.append(String.format("=== Parallel run completed (%dms) ===%n",
+                System.currentTimeMillis() - parallelRunStartTime));
 
-        for (TaskSpec task : layerTasks) {
+        for (TaskSpec task : orderedTasks) {
             String tid = task.getId() != null ? task.getId() : "?";
             String title = task.getTitle() != null ? task.getTitle() : "";
-            LayerTaskResult result = layerTaskResults.get(tid);
-            if (result == null) {
+            TaskDagScheduler.TaskState taskState = dag.stateOf(tid);
+            if (taskState == TaskDagScheduler.TaskState.COMPLETED) {
+                runCompleted++;
+                sb.append(formatCompletedLine(tid, title, dag.timingOf(tid)));
+            } else if (taskState == TaskDagScheduler.TaskState.SKIPPED) {
+                runSkipped++;
+                sb.append(formatSkipLine(tid, title, parallelSkipReasons.get(tid)));
+            } else {
                 sb.append(String.format("  [???]  %s%n", tid));
-            } else if (result.completed) {
-                layerCompleted++;
-                sb.append(String.format("  [OK]   %s: %s%n", tid, title));
-            } else if (result.skipped) {
-                layerSkipped++;
-                sb.append(formatSkipLine(tid, title, result.skipReason));
             }
         }
 
         sb.append(String.format("  Total: %d completed, %d skipped out of %d%n",
-                layerCompleted, layerSkipped, layerTasks.size()));
+                runCompleted, runSkipped, orderedTasks.size()));
+
+        List<TaskSpec> criticalPath = dag.criticalPath();
+        if (!criticalPath.isEmpty()) {
+            sb.append(String.format("  Critical path: %s (%dms)%n",
+                    criticalPath.stream().map(TaskSpec::getId).collect(Collectors.joining(" -> ")),
+                    dag.criticalPathMs()));
+        }
 
         log.info(sb.toString());
         printToCliConsole(sb.toString());
     }
 
+    static String formatCompletedLine(String tid, String title, @Nullable TaskDagScheduler.TaskTiming timing) {
+        if (timing == null) {
+            return String.format("  [OK]   %s: %s%n", tid, title);
+        }
+        return String.format("  [OK]   %s: %s (waited %dms, ran %dms)%n",
+                tid, title, timing.queueWaitMs(), timing.runMs());
+    }
+
     static String formatSkipLine(String tid, String title, String skipReason) {
         String reason = skipReason != null ? skipReason : "unknown";
         return String.format("  [SKIP] %s: %s (%s)%n", tid, title, reason);
@@ -882,9 +882,8 @@ public final class SpecTaskRunnerService implements Disposable {
         // Reset mode flags
         cliMode = false;
         executionMode = ExecutionMode.SEQUENTIAL;
-        layers = Collections.emptyList();
-        activeLayerTaskIds.clear();
-        layerTaskResults.clear();
+        scheduler = null;
+        parallelSkipReasons.clear();
         parallelTaskDoneFlags.clear();
     }
 
@@ -923,6 +922,12 @@ public final class SpecTaskRunnerService implements Disposable {
         }
     }
 
+    private void notifyCriticalPath(@NotNull List<TaskSpec> path, long durationMs) {
+        for (SpecTaskRunnerListener l : listeners) {
+            l.onCriticalPath(path, durationMs);
+        }
+    }
+
     private void notifyRunFinished(@NotNull RunnerState finalState) {
         int total = orderedTasks.size();
         for (SpecTaskRunnerListener l : listeners) {
@@ -953,5 +958,6 @@ public final class SpecTaskRunnerService implements Disposable {
         state = RunnerState.IDLE;
         cliMode = false;
         executionMode = ExecutionMode.SEQUENTIAL;
+        scheduler = null;
     }
 }
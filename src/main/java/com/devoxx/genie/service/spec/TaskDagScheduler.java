@@ -0,0 +1,300 @@
+package com.devoxx.genie.service.spec;
+
+import com.devoxx.genie.model.spec.TaskSpec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Dependency-driven scheduler for a parallel spec task run.
+ * A task becomes ready as soon as all of its selected dependencies have completed — not when
+ * its whole topological layer has — and at most {@code maxConcurrency} tasks run at once.
+ * Ready tasks start in the given task order, so ties resolve like {@link TaskDependencySorter}.
+ *
+ * <p>When a task fails or is skipped, every task that depends on it (directly or transitively)
+ * is skipped without being started. Per-task queue-wait and run times are recorded, and the
+ * critical path — the chain of dependent tasks with the longest total run time — is available
+ * once the run is over.</p>
+ *
+ * <p>Not thread-safe: the runner drives it from the EDT only.</p>
+ */
+final class TaskDagScheduler {
+
+    enum TaskState {
+        /** Waiting for at least one dependency to complete. */
+        BLOCKED,
+        /** All dependencies completed; waiting for a free slot. */
+        READY,
+        RUNNING,
+        COMPLETED,
+        /** Failed, skipped, or never started because a dependency did not complete. */
+        SKIPPED
+    }
+
+    /**
+     * Timing of one task.
+     *
+     * @param queueWaitMs time between becoming ready and starting
+     * @param runMs       time between starting and finishing; 0 for a task that never started
+     */
+    record TaskTiming(long queueWaitMs, long runMs) {}
+
+    private final LongSupplier clock;
+    private final int maxConcurrency;
+    /** Keyed by lower-cased ID, in task order. */
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private int runningCount;
+
+    TaskDagScheduler(@NotNull List<TaskSpec> orderedTasks, int maxConcurrency) {
+        this(orderedTasks, maxConcurrency, System::currentTimeMillis);
+    }
+
+    /**
+     * @param orderedTasks tasks in start priority order, dependencies first
+     *                     (see {@link TaskDependencySorter#sortByLayers}); tasks without an ID are ignored
+     */
+    TaskDagScheduler(@NotNull List<TaskSpec> orderedTasks, int maxConcurrency, @NotNull LongSupplier clock) {
+        this.clock = clock;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+
+        for (TaskSpec task : orderedTasks) {
+            if (task.getId() != null) {
+                nodes.putIfAbsent(key(task.getId()), new Node(task, nodes.size()));
+            }
+        }
+        for (Node node : nodes.values()) {
+            List<String> deps = node.task.getDependencies();
+            if (deps == null) continue;
+            for (String dep : deps) {
+                Node dependency = nodes.get(key(dep));
+                if (dependency != null && dependency != node && node.dependencies.add(dependency)) {
+                    dependency.dependents.add(node);
+                }
+            }
+        }
+
+        long now = clock.getAsLong();
+        for (Node node : nodes.values()) {
+            if (node.dependencies.isEmpty()) {
+                markReady(node, now);
+            }
+        }
+    }
+
+    /**
+     * Claims the next ready task if a slot is free, marking it running.
+     * The caller either starts it or reports it straight back via {@link #complete} or {@link #fail}.
+     *
+     * @return the task to start, or null if none is ready or all slots are taken
+     */
+    @Nullable TaskSpec nextTask() {
+        if (runningCount >= maxConcurrency) {
+            return null;
+        }
+        for (Node node : nodes.values()) {
+            if (node.state == TaskState.READY) {
+                node.state = TaskState.RUNNING;
+                node.startedAt = clock.getAsLong();
+                runningCount++;
+                return node.task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks a running task as completed and releases the dependents it was the last blocker of.
+     *
+     * @return the tasks that became ready, in task order
+     */
+    @NotNull List<TaskSpec> complete(@NotNull String taskId) {
+        Node node = runningNode(taskId);
+        if (node == null) {
+            return List.of();
+        }
+        long now = finish(node, TaskState.COMPLETED);
+
+        List<Node> released = new ArrayList<>();
+        for (Node dependent : node.dependents) {
+            if (dependent.state == TaskState.BLOCKED
+                    && dependent.dependencies.stream().allMatch(d -> d.state == TaskState.COMPLETED)) {
+                markReady(dependent, now);
+                released.add(dependent);
+            }
+        }
+        return inTaskOrder(released);
+    }
+
+    /**
+     * Marks a running task as failed and skips every task downstream of it.
+     *
+     * @return the downstream tasks that will no longer run, in task order
+     */
+    @NotNull List<TaskSpec> fail(@NotNull String taskId) {
+        Node node = runningNode(taskId);
+        if (node == null) {
+            return List.of();
+        }
+        finish(node, TaskState.SKIPPED);
+
+        List<Node> cancelled = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>(node.dependents);
+        while (!pending.isEmpty()) {
+            Node dependent = pending.pop();
+            if (dependent.state == TaskState.BLOCKED) {
+                dependent.state = TaskState.SKIPPED;
+                cancelled.add(dependent);
+                pending.addAll(dependent.dependents);
+            }
+        }
+        return inTaskOrder(cancelled);
+    }
+
+    /**
+     * Skips every task that has not started yet, e.g. when the run is cancelled.
+     *
+     * @return the tasks that will no longer run, in task order
+     */
+    @NotNull List<TaskSpec> cancelPending() {
+        List<TaskSpec> cancelled = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.state == TaskState.BLOCKED || node.state == TaskState.READY) {
+                node.state = TaskState.SKIPPED;
+                cancelled.add(node.task);
+            }
+        }
+        return cancelled;
+    }
+
+    boolean isRunning(@NotNull String taskId) {
+        return runningNode(taskId) != null;
+    }
+
+    @NotNull Set<String> runningTaskIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Node node : nodes.values()) {
+            if (node.state == TaskState.RUNNING) {
+                ids.add(node.task.getId());
+            }
+        }
+        return ids;
+    }
+
+    int runningCount() {
+        return runningCount;
+    }
+
+    /** True once no task is running and none is left to start. */
+    boolean isFinished() {
+        return nodes.values().stream()
+                .allMatch(n -> n.state == TaskState.COMPLETED || n.state == TaskState.SKIPPED);
+    }
+
+    @Nullable TaskState stateOf(@NotNull String taskId) {
+        Node node = nodes.get(key(taskId));
+        return node != null ? node.state : null;
+    }
+
+    /** Timing of a finished task, or null if it never started or is still running. */
+    @Nullable TaskTiming timingOf(@NotNull String taskId) {
+        Node node = nodes.get(key(taskId));
+        if (node == null || node.finishedAt < 0 || node.startedAt < 0) {
+            return null;
+        }
+        return new TaskTiming(node.startedAt - node.readyAt, node.finishedAt - node.startedAt);
+    }
+
+    /**
+     * The chain of dependent tasks whose run times add up to the most, first task first.
+     * Tasks that never ran count as zero, so only tasks that finished appear in it.
+     */
+    @NotNull List<TaskSpec> criticalPath() {
+        Map<Node, Long> longest = new HashMap<>();
+        Map<Node, Node> previous = new HashMap<>();
+        Node end = null;
+        // Dependencies come before dependents in task order, so one pass suffices
+        for (Node node : nodes.values()) {
+            long best = 0;
+            Node bestPrevious = null;
+            for (Node dependency : node.dependencies) {
+                long length = longest.getOrDefault(dependency, 0L);
+                if (length > best) {
+                    best = length;
+                    bestPrevious = dependency;
+                }
+            }
+            long total = best + runMs(node);
+            longest.put(node, total);
+            previous.put(node, bestPrevious);
+            if (runMs(node) > 0 && (end == null || total > longest.get(end))) {
+                end = node;
+            }
+        }
+
+        LinkedList<TaskSpec> path = new LinkedList<>();
+        for (Node node = end; node != null; node = previous.get(node)) {
+            path.addFirst(node.task);
+        }
+        return path;
+    }
+
+    /** Sum of the run times along {@link #criticalPath()}. */
+    long criticalPathMs() {
+        long total = 0;
+        for (TaskSpec task : criticalPath()) {
+            total += runMs(nodes.get(key(task.getId())));
+        }
+        return total;
+    }
+
+    private long finish(@NotNull Node node, @NotNull TaskState finalState) {
+        long now = clock.getAsLong();
+        node.state = finalState;
+        node.finishedAt = now;
+        runningCount--;
+        return now;
+    }
+
+    private void markReady(@NotNull Node node, long now) {
+        node.state = TaskState.READY;
+        node.readyAt = now;
+    }
+
+    private @Nullable Node runningNode(@NotNull String taskId) {
+        Node node = nodes.get(key(taskId));
+        return node != null && node.state == TaskState.RUNNING ? node : null;
+    }
+
+    private static @NotNull List<TaskSpec> inTaskOrder(@NotNull List<Node> nodes) {
+        return nodes.stream()
+                .sorted(Comparator.comparingInt(n -> n.order))
+                .map(n -> n.task)
+                .toList();
+    }
+
+    private static long runMs(@NotNull Node node) {
+        return node.startedAt >= 0 && node.finishedAt >= 0 ? node.finishedAt - node.startedAt : 0;
+    }
+
+    private static @NotNull String key(@NotNull String id) {
+        return id.toLowerCase();
+    }
+
+    private static final class Node {
+        final TaskSpec task;
+        final int order;
+        final Set<Node> dependencies = new LinkedHashSet<>();
+        final List<Node> dependents = new ArrayList<>();
+        TaskState state = TaskState.BLOCKED;
+        long readyAt = -1;
+        long startedAt = -1;
+        long finishedAt = -1;
+
+        Node(@NotNull TaskSpec task, int order) {
+            this.task = task;
+            this.order = order;
+        }
+    }
+}
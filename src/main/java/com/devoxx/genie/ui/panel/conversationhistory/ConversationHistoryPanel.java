@@ -14,18 +14,23 @@ import com.intellij.notification.NotificationGroupManager;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.ui.popup.JBPopup;
+import com.intellij.ui.DocumentAdapter;
 import com.intellij.ui.JBColor;
+import com.intellij.ui.SearchTextField;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.table.JBTable;
+import com.intellij.util.Alarm;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.UIUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -44,6 +49,12 @@ import static com.devoxx.genie.ui.component.button.ButtonFactory.createActionBut
 import static com.devoxx.genie.ui.util.DevoxxGenieIconsUtil.TrashIcon;
 
 public class ConversationHistoryPanel extends JPanel implements ConversationSelectionListener {
+    /** Conversation headers fetched per page; the next page loads when scrolling near the end. */
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 200;
+    /** Quiet time after the last keystroke before the search query runs. */
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+
     private final transient ConversationStorageService storageService;
     private final ConversationTableModel tableModel;
     private final JBTable table;
@@ -51,6 +62,14 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
     private final String tabId;
     private transient JBPopup activePopup;
     private transient ConversationSelectionListener directSelectionListener;
+    private final SearchTextField searchField = new SearchTextField(false);
+    private final transient Alarm searchAlarm;
+    /** Whether the last page fetched was full, i.e. more headers may follow. */
+    private boolean morePages;
+    private int loadedCount;
+    /** Bumped by every reload; storage results of an older reload are dropped. EDT only. */
+    private int loadGeneration;
+    private boolean pageLoading;
 
     /** Row currently under the mouse pointer, or -1; drives the hover highlight. */
     private int hoveredRow = -1;
@@ -66,6 +85,7 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
         setLayout(new BorderLayout());
 
         storageService = ConversationStorageService.getInstance();
+        searchAlarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, project);
 
         // Create table model
         tableModel = new ConversationTableModel();
@@ -177,8 +197,25 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
         // Add table to scroll pane
         JBScrollPane scrollPane = new JBScrollPane(table);
         scrollPane.setBorder(JBUI.Borders.empty());
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            BoundedRangeModel model = scrollPane.getVerticalScrollBar().getModel();
+            if (!e.getValueIsAdjusting() && model.getValue() + model.getExtent() >= model.getMaximum() - table.getRowHeight() * 5) {
+                loadNextPage();
+            }
+        });
         add(scrollPane, BorderLayout.CENTER);
 
+        // Full-text search over titles and messages
+        searchField.getTextEditor().getEmptyText().setText("Search conversations");
+        searchField.addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                searchAlarm.cancelAllRequests();
+                searchAlarm.addRequest(ConversationHistoryPanel.this::loadConversations, SEARCH_DEBOUNCE_MS);
+            }
+        });
+        add(searchField, BorderLayout.NORTH);
+
         // Add delete all button
         add(createActionButton("Delete All", TrashIcon, e -> showDeleteAllConfirmationDialog()), BorderLayout.SOUTH);
 
@@ -198,18 +235,69 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
         this.activePopup = popup;
     }
 
+    /**
+     * Reloads the first page of conversation headers (newest first), or the search results
+     * when the search field has text. Messages are loaded only when a conversation is opened.
+     * The query runs on a pooled thread; the table is updated on the EDT once it returns,
+     * unless a newer reload has started in the meantime.
+     */
     public void loadConversations() {
-        List<Conversation> conversations = storageService.getConversations(project);
-        // Conversations parked for (undoable) deletion are hidden but not yet removed
-        // from storage — see PendingConversationDeletionManager.
+        String query = searchField.getText();
+        int generation = ++loadGeneration;
+        pageLoading = false;
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<Conversation> conversations = withoutPendingDeletions(query.isBlank()
+                    ? storageService.getConversationHeaders(project, 0, PAGE_SIZE)
+                    : storageService.searchConversations(project, query, SEARCH_LIMIT));
+            onEdt(() -> {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                loadedCount = query.isBlank() ? conversations.size() : 0;
+                morePages = query.isBlank() && conversations.size() == PAGE_SIZE;
+                hoveredRow = -1;
+                tableModel.setConversations(conversations);
+            });
+        });
+    }
+
+    private void loadNextPage() {
+        if (!morePages || pageLoading) {
+            return;
+        }
+        pageLoading = true;
+        int generation = loadGeneration;
+        int offset = loadedCount;
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<Conversation> page = storageService.getConversationHeaders(project, offset, PAGE_SIZE);
+            int fetched = page.size();
+            List<Conversation> visible = withoutPendingDeletions(page);
+            onEdt(() -> {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                pageLoading = false;
+                loadedCount += fetched;
+                morePages = fetched == PAGE_SIZE;
+                tableModel.addConversations(visible);
+            });
+        });
+    }
+
+    private void onEdt(@NotNull Runnable runnable) {
+        ApplicationManager.getApplication().invokeLater(runnable, ModalityState.stateForComponent(this));
+    }
+
+    /**
+     * Conversations parked for (undoable) deletion are hidden but not yet removed
+     * from storage — see PendingConversationDeletionManager.
+     */
+    private static @NotNull List<Conversation> withoutPendingDeletions(@NotNull List<Conversation> conversations) {
         Set<String> pendingDeletion = PendingConversationDeletionManager.getInstance().pendingIds();
         if (!pendingDeletion.isEmpty()) {
             conversations.removeIf(c -> pendingDeletion.contains(c.getId()));
         }
-        conversations.sort((c1, c2) -> c2.getTimestamp().compareTo(c1.getTimestamp()));
-        hoveredRow = -1;
-        tableModel.setConversations(conversations);
-        tableModel.fireTableDataChanged();
+        return conversations;
     }
 
     private void setHoveredRow(int row) {
@@ -224,12 +312,18 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
         if (row < 0 || row >= tableModel.getRowCount()) {
             return;
         }
-        Conversation conversation = tableModel.getConversationAt(row);
-        updateChatMemory(conversation);
-        onConversationSelected(conversation);
-        if (activePopup != null && !activePopup.isDisposed()) {
-            activePopup.cancel();
-        }
+        // The table holds headers only; fetch the messages now that the conversation is opened.
+        Conversation header = tableModel.getConversationAt(row);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            Conversation conversation = storageService.loadMessages(header);
+            onEdt(() -> {
+                updateChatMemory(conversation);
+                onConversationSelected(conversation);
+                if (activePopup != null && !activePopup.isDisposed()) {
+                    activePopup.cancel();
+                }
+            });
+        });
     }
 
     @Override
@@ -260,6 +354,15 @@ public class ConversationHistoryPanel extends JPanel implements ConversationSele
             fireTableDataChanged();
         }
 
+        public void addConversations(List<Conversation> page) {
+            if (page.isEmpty()) {
+                return;
+            }
+            int first = conversations.size();
+            conversations.addAll(page);
+            fireTableRowsInserted(first, conversations.size() - 1);
+        }
+
         public Conversation getConversationAt(int row) {
             return conversations.get(row);
         }
@@ -395,6 +395,9 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
     }
 
     private static @NotNull String formatRagRow(@NotNull RAGLogMessage m) {
+        if (m.getIndexerStatus() != null) {
+            return "RAG indexer: " + m.getIndexerStatus();
+        }
         // Single-line summary. The multi-line bullet list of hits used to be inlined here,
         // but the resulting tall variable-height JList cells caused continuous repaint of the
         // tool window (visible as IDE-wide flicker) while MCP/Agent rows — always single-line —
@@ -427,6 +430,9 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
     }
 
     private static @NotNull String formatRagForClipboard(@NotNull RAGLogMessage m) {
+        if (m.getIndexerStatus() != null) {
+            return "RAG indexer — " + m.getIndexerStatus();
+        }
         StringBuilder sb = new StringBuilder();
         sb.append("RAG retrieval — query: ").append(m.getQuery() == null ? "" : m.getQuery().replace('\n', ' '))
           .append(" (").append(m.getDurationMs()).append("ms");
@@ -443,6 +449,9 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
     }
 
     private static @NotNull String formatRagFullContent(@NotNull RAGLogMessage m) {
+        if (m.getIndexerStatus() != null) {
+            return "=== RAG Indexer ===\n" + m.getIndexerStatus() + "\n";
+        }
         StringBuilder sb = new StringBuilder();
         sb.append("=== RAG Retrieval ===\n");
         sb.append("Query: ").append(m.getQuery()).append("\n");
@@ -530,6 +539,7 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
                                                       @NotNull Function<String, String> contentFormatter) {
         StringBuilder sb = new StringBuilder();
         if (message.getAgentType() != AgentType.INTERMEDIATE_RESPONSE
+                && message.getAgentType() != AgentType.TOOL_OUTPUT
                 && message.getAgentType() != AgentType.SYSTEM_PROMPT) {
             sb.append("[").append(message.getCallNumber()).append("/").append(message.getMaxCalls()).append("] ");
         }
@@ -556,6 +566,10 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
                 sb.append("✖ Approval denied for ").append(message.getToolName());
                 break;
             case INTERMEDIATE_RESPONSE: formatIntermediateResponse(sb, message, contentFormatter); break;
+            case TOOL_OUTPUT:
+                sb.append("⋯ ");
+                if (message.getResult() != null) sb.append(contentFormatter.apply(message.getResult()));
+                break;
             case SUB_AGENT_STARTED:
                 sb.append("⬇ Sub-agent started: ").append(message.getSubAgentId());
                 break;
@@ -860,7 +874,7 @@ public class AgentMcpLogPanel extends SimpleToolWindowPanel implements ActivityL
                     case LOOP_LIMIT                                          -> LIMIT_COLOR;
                     case APPROVAL_REQUESTED, APPROVAL_GRANTED,
                          APPROVAL_DENIED                                     -> APPROVAL_COLOR;
-                    case INTERMEDIATE_RESPONSE                               -> JBColor.foreground();
+                    case INTERMEDIATE_RESPONSE, TOOL_OUTPUT                  -> JBColor.foreground();
                     case SUB_AGENT_STARTED -> null;
                     case SUB_AGENT_COMPLETED -> null;
                     case SUB_AGENT_ERROR -> null;
@@ -66,6 +66,9 @@ public class SpecBrowserPanel extends SimpleToolWindowPanel implements SpecTaskR
     private final JBSplitter splitter;
     private final transient SpecTreeCellRenderer cellRenderer;
     private final SpecTaskRunnerProgressPanel progressPanel;
+    /** Critical path of the parallel run in progress, reported just before it finishes. */
+    private List<TaskSpec> criticalPath = List.of();
+    private long criticalPathMs;
     private final SpecStatisticsPanel statisticsPanel;
 
     // Checkbox tracking for To Do tasks
@@ -621,6 +624,7 @@ public class SpecBrowserPanel extends SimpleToolWindowPanel implements SpecTaskR
 
     @Override
     public void onRunStarted(int totalTasks) {
+        criticalPath = List.of();
         NotificationUtil.sendNotification(project, "Starting batch run of " + totalTasks + " task(s)");
     }
 
@@ -642,9 +646,17 @@ public class SpecBrowserPanel extends SimpleToolWindowPanel implements SpecTaskR
                 String.format("Task %s skipped: %s", task.getDisplayLabel(), reason));
     }
 
+    @Override
+    public void onCriticalPath(List<TaskSpec> path, long durationMs) {
+        criticalPath = path;
+        criticalPathMs = durationMs;
+    }
+
     @Override
     public void onRunFinished(int completed, int skipped, int total, SpecTaskRunnerService.RunnerState finalState) {
         progressPanel.showCompleted(completed, skipped, total);
+        progressPanel.showCriticalPath(criticalPath, criticalPathMs);
+        criticalPath = List.of();
         checkedTaskIds.clear();
         specTree.repaint();
 
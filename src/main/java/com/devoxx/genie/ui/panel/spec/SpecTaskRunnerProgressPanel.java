@@ -1,21 +1,27 @@
 package com.devoxx.genie.ui.panel.spec;
 
 import com.devoxx.genie.model.spec.TaskSpec;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.components.JBLabel;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Inline progress indicator panel for the spec task runner.
- * Shows current task progress and a determinate progress bar.
+ * Shows current task progress and a determinate progress bar, and after a parallel run
+ * the critical path that bounded its duration.
  */
 public class SpecTaskRunnerProgressPanel extends JPanel {
 
     private final JBLabel statusLabel;
     private final JProgressBar progressBar;
+    private final JBLabel criticalPathLabel;
+    private Timer hideTimer;
 
     public SpecTaskRunnerProgressPanel() {
         super(new BorderLayout(8, 0));
@@ -30,8 +36,14 @@ public class SpecTaskRunnerProgressPanel extends JPanel {
         progressBar.setPreferredSize(new Dimension(120, 14));
         progressBar.setStringPainted(false);
 
+        criticalPathLabel = new JBLabel();
+        criticalPathLabel.setFont(criticalPathLabel.getFont().deriveFont(Font.PLAIN, 11f));
+        criticalPathLabel.setForeground(JBColor.GRAY);
+        criticalPathLabel.setVisible(false);
+
         add(statusLabel, BorderLayout.CENTER);
         add(progressBar, BorderLayout.EAST);
+        add(criticalPathLabel, BorderLayout.SOUTH);
 
         setVisible(false);
     }
@@ -42,6 +54,7 @@ public class SpecTaskRunnerProgressPanel extends JPanel {
     public void update(@NotNull TaskSpec task, int index, int total) {
         String label = String.format("Running task %d/%d: %s", index + 1, total, task.getDisplayLabel());
         statusLabel.setText(label);
+        clearCriticalPath();
         progressBar.setMinimum(0);
         progressBar.setMaximum(total);
         progressBar.setValue(index);
@@ -53,6 +66,7 @@ public class SpecTaskRunnerProgressPanel extends JPanel {
      */
     public void update(@NotNull String label, int index, int total) {
         statusLabel.setText(label);
+        clearCriticalPath();
         progressBar.setMinimum(0);
         progressBar.setMaximum(total);
         progressBar.setValue(index);
@@ -75,11 +89,31 @@ public class SpecTaskRunnerProgressPanel extends JPanel {
         setVisible(true);
 
         // Auto-hide after 10 seconds
-        Timer hideTimer = new Timer(10_000, e -> hidePanel());
+        stopHideTimer();
+        hideTimer = new Timer(10_000, e -> hidePanel());
         hideTimer.setRepeats(false);
         hideTimer.start();
     }
 
+    /**
+     * Show the critical path of a finished parallel run below the summary. The panel then stays
+     * visible until the next run, since the path is what to look at when the run was slow.
+     */
+    public void showCriticalPath(@NotNull List<TaskSpec> path, long durationMs) {
+        if (path.isEmpty()) {
+            return;
+        }
+        criticalPathLabel.setText(String.format("Critical path: %s (%s)",
+                path.stream().map(TaskSpec::getId).collect(Collectors.joining(" \u2192 ")),
+                formatDuration(durationMs)));
+        criticalPathLabel.setToolTipText(path.stream()
+                .map(t -> StringUtil.escapeXmlEntities(t.getDisplayLabel()))
+                .collect(Collectors.joining("<br>", "<html>", "</html>")));
+        criticalPathLabel.setVisible(true);
+        stopHideTimer();
+        setVisible(true);
+    }
+
     /**
      * Hide the progress panel.
      * Note: named hidePanel() to avoid collision with Component.hide()
@@ -88,4 +122,25 @@ public class SpecTaskRunnerProgressPanel extends JPanel {
     public void hidePanel() {
         setVisible(false);
     }
+
+    private void clearCriticalPath() {
+        criticalPathLabel.setText("");
+        criticalPathLabel.setToolTipText(null);
+        criticalPathLabel.setVisible(false);
+    }
+
+    private void stopHideTimer() {
+        if (hideTimer != null) {
+            hideTimer.stop();
+            hideTimer = null;
+        }
+    }
+
+    static @NotNull String formatDuration(long ms) {
+        long seconds = ms / 1000;
+        if (seconds < 60) {
+            return seconds > 0 ? seconds + "s" : ms + "ms";
+        }
+        return String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
 }
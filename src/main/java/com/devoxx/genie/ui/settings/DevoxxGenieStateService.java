@@ -128,6 +128,12 @@ public final class DevoxxGenieStateService implements PersistentStateComponent<D
     private Integer indexerPort = 8000;
     private Integer indexerMaxResults = 10;
     private Double indexerMinScore = 0.7;
+    /**
+     * When true, RAG vectors live in an in-process store, kept in memory and saved to one file
+     * under the IDE system directory, instead of the Docker-hosted ChromaDB. No container is
+     * needed and searches skip the HTTP round trip.
+     */
+    private Boolean ragEmbeddedVectorStoreEnabled = false;
 
     // Local LLM URL fields
     private String ollamaModelUrl = OLLAMA_MODEL_URL;
@@ -337,6 +343,11 @@ public final class DevoxxGenieStateService implements PersistentStateComponent<D
     private Integer chatMemorySize = MAX_MEMORY;
     private Integer maxOutputTokens = MAX_OUTPUT_TOKENS;
 
+    // Conversation history retention (0 = no limit), applied by ConversationStorageService
+    private Integer conversationRetentionDays = 0;
+    private Integer conversationRetentionMaxCount = 0;
+    private Integer conversationRetentionMaxSizeMb = CONVERSATION_RETENTION_MAX_SIZE_MB;
+
     private String systemPrompt = SYSTEM_PROMPT;
     private String testPrompt = TEST_PROMPT;
     private String reviewPrompt = REVIEW_PROMPT;
@@ -407,6 +418,13 @@ public final class DevoxxGenieStateService implements PersistentStateComponent<D
     private Boolean ragQueryExpansionEnabled = false;
     /** Number of paraphrased variants to generate per query when expansion is enabled. */
     private Integer ragQueryExpansionN = 3;
+    /**
+     * When true, semantic search results are RRF-fused with hits from a per-project BM25
+     * index built during indexing, so exact identifiers and error codes rank well. Falls back
+     * to dense-only results until the lexical index covers every indexed file; projects indexed
+     * before it existed get a one-off backfill that re-chunks their files without embedding.
+     */
+    private Boolean ragHybridSearchEnabled = true;
 
     /**
      * Directories the RAG indexer should skip, in addition to the global "Scan & Copy Project"
@@ -438,6 +456,12 @@ public final class DevoxxGenieStateService implements PersistentStateComponent<D
      */
     private String agentCommandBlacklistAction = COMMAND_BLACKLIST_ACTION_ASK;
     private Boolean agentDebugLogsEnabled = false;
+    /**
+     * Run prompt, sub-agent and spec tasks on virtual threads (Java 21 runtimes) with
+     * semaphore-bounded concurrency. Read once when the thread pools are created, so a change
+     * takes effect after an IDE restart.
+     */
+    private Boolean virtualThreadPoolsEnabled = false;
     /**
      * When enabled, the full request/response exchanged with the LLM provider (messages, tool
      * calls, token usage) is captured and shown in the Activity Log panel, with likely secrets
@@ -543,6 +567,9 @@ public final class DevoxxGenieStateService implements PersistentStateComponent<D
     private Integer inlineCompletionTimeoutMs = 5000;
     private Double inlineCompletionTemperature = 0.0;
     private Integer inlineCompletionDebounceMs = 300;
+    private Integer inlineCompletionPrefixTokens = 1024;
+    private Integer inlineCompletionSuffixTokens = 256;
+    private Boolean inlineCompletionOpenFilesContext = false;
 
 
     // Model config cache
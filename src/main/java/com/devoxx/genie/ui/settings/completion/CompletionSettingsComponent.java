@@ -33,6 +33,9 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
     private final JBIntSpinner maxTokensSpinner;
     private final JBIntSpinner timeoutSpinner;
     private final JBIntSpinner debounceSpinner;
+    private final JBIntSpinner prefixTokensSpinner;
+    private final JBIntSpinner suffixTokensSpinner;
+    private final JCheckBox openFilesContextCheckBox;
 
     public CompletionSettingsComponent() {
         DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
@@ -46,6 +49,10 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
         maxTokensSpinner = new JBIntSpinner(state.getInlineCompletionMaxTokens(), 16, 256, 8);
         timeoutSpinner = new JBIntSpinner(state.getInlineCompletionTimeoutMs(), 1000, 30000, 500);
         debounceSpinner = new JBIntSpinner(state.getInlineCompletionDebounceMs(), 100, 2000, 50);
+        prefixTokensSpinner = new JBIntSpinner(state.getInlineCompletionPrefixTokens(), 128, 8192, 128);
+        suffixTokensSpinner = new JBIntSpinner(state.getInlineCompletionSuffixTokens(), 0, 4096, 64);
+        openFilesContextCheckBox = new JCheckBox("Include relevant snippets from other open files",
+                Boolean.TRUE.equals(state.getInlineCompletionOpenFilesContext()));
 
         setupPanel();
         loadModelsForProvider(state.getInlineCompletionModel());
@@ -106,6 +113,24 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
                 "Inline completion uses Fill-in-the-Middle (FIM) APIs from Ollama or LM Studio. " +
                 "Provider URLs are configured in the main DevoxxGenie LLM Providers settings.");
 
+        // --- Context ---
+        addSection(contentPanel, gbc, "Context");
+
+        JPanel prefixTokensRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        prefixTokensRow.add(new JBLabel("Prefix tokens:"));
+        prefixTokensRow.add(prefixTokensSpinner);
+        addFullWidthRow(contentPanel, gbc, prefixTokensRow);
+
+        JPanel suffixTokensRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        suffixTokensRow.add(new JBLabel("Suffix tokens:"));
+        suffixTokensRow.add(suffixTokensSpinner);
+        addFullWidthRow(contentPanel, gbc, suffixTokensRow);
+
+        addFullWidthRow(contentPanel, gbc, openFilesContextCheckBox);
+        addHelpText(contentPanel, gbc,
+                "Code before and after the cursor is sent in whole lines up to these token budgets. " +
+                "Snippets from other open files add context at the cost of a slightly longer prompt.");
+
         // Filler
         gbc.weighty = 1.0;
         gbc.gridy++;
@@ -235,6 +260,9 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
         maxTokensSpinner.setEnabled(enabled);
         timeoutSpinner.setEnabled(enabled);
         debounceSpinner.setEnabled(enabled);
+        prefixTokensSpinner.setEnabled(enabled);
+        suffixTokensSpinner.setEnabled(enabled);
+        openFilesContextCheckBox.setEnabled(enabled);
     }
 
     private static String displayNameToProvider(String displayName) {
@@ -256,7 +284,10 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
                 !state.getInlineCompletionModel().equals(getSelectedModel()) ||
                 !state.getInlineCompletionMaxTokens().equals(maxTokensSpinner.getNumber()) ||
                 !state.getInlineCompletionTimeoutMs().equals(timeoutSpinner.getNumber()) ||
-                !state.getInlineCompletionDebounceMs().equals(debounceSpinner.getNumber());
+                !state.getInlineCompletionDebounceMs().equals(debounceSpinner.getNumber()) ||
+                !state.getInlineCompletionPrefixTokens().equals(prefixTokensSpinner.getNumber()) ||
+                !state.getInlineCompletionSuffixTokens().equals(suffixTokensSpinner.getNumber()) ||
+                !Boolean.valueOf(openFilesContextCheckBox.isSelected()).equals(state.getInlineCompletionOpenFilesContext());
     }
 
     public void apply() {
@@ -266,6 +297,9 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
         state.setInlineCompletionMaxTokens(maxTokensSpinner.getNumber());
         state.setInlineCompletionTimeoutMs(timeoutSpinner.getNumber());
         state.setInlineCompletionDebounceMs(debounceSpinner.getNumber());
+        state.setInlineCompletionPrefixTokens(prefixTokensSpinner.getNumber());
+        state.setInlineCompletionSuffixTokens(suffixTokensSpinner.getNumber());
+        state.setInlineCompletionOpenFilesContext(openFilesContextCheckBox.isSelected());
     }
 
     public void reset() {
@@ -274,6 +308,9 @@ public class CompletionSettingsComponent extends AbstractSettingsComponent {
         maxTokensSpinner.setNumber(state.getInlineCompletionMaxTokens());
         timeoutSpinner.setNumber(state.getInlineCompletionTimeoutMs());
         debounceSpinner.setNumber(state.getInlineCompletionDebounceMs());
+        prefixTokensSpinner.setNumber(state.getInlineCompletionPrefixTokens());
+        suffixTokensSpinner.setNumber(state.getInlineCompletionSuffixTokens());
+        openFilesContextCheckBox.setSelected(Boolean.TRUE.equals(state.getInlineCompletionOpenFilesContext()));
         loadModelsForProvider(state.getInlineCompletionModel());
         updateEnabledState();
     }
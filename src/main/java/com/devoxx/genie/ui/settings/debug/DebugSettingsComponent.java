@@ -1,5 +1,9 @@
 package com.devoxx.genie.ui.settings.debug;
 
+import com.devoxx.genie.completion.CompletionCache;
+import com.devoxx.genie.completion.InlineCompletionService;
+import com.devoxx.genie.service.prompt.threading.BoundedExecutor;
+import com.devoxx.genie.service.prompt.threading.ThreadPoolManager;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
@@ -8,12 +12,14 @@ import com.intellij.util.ui.UIUtil;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
 
 /**
  * Central settings UI for all debug logging options. Raw Request/Response logging lives here;
  * the MCP and agent debug log checkboxes are mirrored from their original settings pages
  * (MCP Settings and Agent Mode) — both places edit the same underlying setting, so changing
- * one is reflected in the other.
+ * one is reflected in the other. The page also hosts the thread pool mode and its live metrics,
+ * and the inline completion cache counters.
  */
 public class DebugSettingsComponent {
 
@@ -21,6 +27,9 @@ public class DebugSettingsComponent {
     private final JBCheckBox rawRequestResponseLoggingCheckBox;
     private final JBCheckBox mcpLoggingCheckBox;
     private final JBCheckBox agentDebugLogsCheckBox;
+    private final JBCheckBox virtualThreadPoolsCheckBox;
+    private final JBLabel poolMetricsLabel = new JBLabel();
+    private final JBLabel completionCacheLabel = new JBLabel();
 
     public DebugSettingsComponent() {
         DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
@@ -34,6 +43,9 @@ public class DebugSettingsComponent {
         agentDebugLogsCheckBox = new JBCheckBox("Enable agent debug logs");
         agentDebugLogsCheckBox.setSelected(Boolean.TRUE.equals(state.getAgentDebugLogsEnabled()));
 
+        virtualThreadPoolsCheckBox = new JBCheckBox("Run prompts and agent tasks on virtual threads");
+        virtualThreadPoolsCheckBox.setSelected(Boolean.TRUE.equals(state.getVirtualThreadPoolsEnabled()));
+
         panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBorder(JBUI.Borders.empty(12));
@@ -62,9 +74,67 @@ public class DebugSettingsComponent {
                         "filterable to \"Show Agents Only\". " +
                         "Also available in Settings → DevoxxGenie → Agent Mode (both edit the same setting).");
 
+        panel.add(Box.createVerticalStrut(16));
+
+        addOption(virtualThreadPoolsCheckBox,
+                "Runs prompt, sub-agent and spec tasks on virtual threads, with the number running at " +
+                        "once bounded per pool, so tasks waiting on the LLM or a tool no longer hold a " +
+                        "platform thread. Requires a Java 21 IDE runtime (otherwise platform threads are " +
+                        "kept). <b>Takes effect after restarting the IDE.</b>");
+
+        JButton refreshMetricsButton = new JButton("Refresh");
+        refreshMetricsButton.addActionListener(e -> refreshMetrics());
+        poolMetricsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        completionCacheLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        refreshMetricsButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.add(Box.createVerticalStrut(6));
+        panel.add(poolMetricsLabel);
+        panel.add(Box.createVerticalStrut(6));
+        panel.add(completionCacheLabel);
+        panel.add(refreshMetricsButton);
+        refreshMetrics();
+
         panel.add(Box.createVerticalGlue());
     }
 
+    private void refreshMetrics() {
+        refreshPoolMetrics();
+        refreshCompletionCacheStats();
+    }
+
+    private void refreshPoolMetrics() {
+        List<BoundedExecutor.Metrics> metrics;
+        try {
+            metrics = ThreadPoolManager.getInstance().getMetrics();
+        } catch (Exception e) {
+            poolMetricsLabel.setText("Thread pool metrics unavailable");
+            return;
+        }
+        StringBuilder html = new StringBuilder("<html><table><tr><th align='left'>Pool</th><th>Mode</th>"
+                + "<th>Limit</th><th>Active</th><th>Queued</th><th>Completed</th><th>Avg wait</th><th>Max wait</th></tr>");
+        for (BoundedExecutor.Metrics m : metrics) {
+            html.append(String.format("<tr><td>%s</td><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%d</td>"
+                            + "<td>%.1f ms</td><td>%.1f ms</td></tr>",
+                    m.name(), m.mode().name().toLowerCase(), m.maxConcurrency(), m.active(), m.queued(),
+                    m.completed(), m.averageWaitMs(), m.maxWaitMs()));
+        }
+        poolMetricsLabel.setText(html.append("</table></html>").toString());
+    }
+
+    private void refreshCompletionCacheStats() {
+        CompletionCache.Stats stats;
+        try {
+            stats = InlineCompletionService.getInstance().getCacheStats();
+        } catch (Exception e) {
+            completionCacheLabel.setText("Inline completion cache stats unavailable");
+            return;
+        }
+        completionCacheLabel.setText(String.format("<html>Inline completion cache: %d lookups, "
+                        + "%d exact + %d speculative hits (%.0f%%), %d evictions, %d KB</html>",
+                stats.lookups(), stats.exactHits(), stats.speculativeHits(), stats.hitRate() * 100,
+                stats.evictions(), stats.bytes() / 1024));
+    }
+
     private void addOption(JBCheckBox checkBox, String descriptionHtml) {
         JBLabel description = new JBLabel(
                 "<html><body style='width:480px'>" + descriptionHtml + "</body></html>");
@@ -86,7 +156,8 @@ public class DebugSettingsComponent {
         DevoxxGenieStateService state = DevoxxGenieStateService.getInstance();
         return rawRequestResponseLoggingCheckBox.isSelected() != Boolean.TRUE.equals(state.getRawRequestResponseLoggingEnabled())
                 || mcpLoggingCheckBox.isSelected() != Boolean.TRUE.equals(state.getMcpDebugLogsEnabled())
-                || agentDebugLogsCheckBox.isSelected() != Boolean.TRUE.equals(state.getAgentDebugLogsEnabled());
+                || agentDebugLogsCheckBox.isSelected() != Boolean.TRUE.equals(state.getAgentDebugLogsEnabled())
+                || virtualThreadPoolsCheckBox.isSelected() != Boolean.TRUE.equals(state.getVirtualThreadPoolsEnabled());
     }
 
     public void apply() {
@@ -94,6 +165,7 @@ public class DebugSettingsComponent {
         state.setRawRequestResponseLoggingEnabled(rawRequestResponseLoggingCheckBox.isSelected());
         state.setMcpDebugLogsEnabled(mcpLoggingCheckBox.isSelected());
         state.setAgentDebugLogsEnabled(agentDebugLogsCheckBox.isSelected());
+        state.setVirtualThreadPoolsEnabled(virtualThreadPoolsCheckBox.isSelected());
     }
 
     public void reset() {
@@ -101,6 +173,8 @@ public class DebugSettingsComponent {
         rawRequestResponseLoggingCheckBox.setSelected(Boolean.TRUE.equals(state.getRawRequestResponseLoggingEnabled()));
         mcpLoggingCheckBox.setSelected(Boolean.TRUE.equals(state.getMcpDebugLogsEnabled()));
         agentDebugLogsCheckBox.setSelected(Boolean.TRUE.equals(state.getAgentDebugLogsEnabled()));
+        virtualThreadPoolsCheckBox.setSelected(Boolean.TRUE.equals(state.getVirtualThreadPoolsEnabled()));
+        refreshMetrics();
     }
 
     public boolean isAnyLoggingSelected() {
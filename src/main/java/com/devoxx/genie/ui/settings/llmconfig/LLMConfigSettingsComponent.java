@@ -1,5 +1,6 @@
 package com.devoxx.genie.ui.settings.llmconfig;
 
+import com.devoxx.genie.service.conversations.ConversationStorageService;
 import com.devoxx.genie.ui.settings.AbstractSettingsComponent;
 import com.intellij.ide.ui.UINumericRange;
 import com.intellij.ui.JBIntSpinner;
@@ -22,6 +23,10 @@ public class LLMConfigSettingsComponent extends AbstractSettingsComponent {
 
     private final JCheckBox useFileInEditorCheckBox = new JCheckBox("", stateService.getUseFileInEditor());
 
+    private final JBIntSpinner retentionDaysField = new JBIntSpinner(new UINumericRange(stateService.getConversationRetentionDays(), 0, 3650));
+    private final JBIntSpinner retentionMaxCountField = new JBIntSpinner(new UINumericRange(stateService.getConversationRetentionMaxCount(), 0, 100_000));
+    private final JBIntSpinner retentionMaxSizeMbField = new JBIntSpinner(new UINumericRange(stateService.getConversationRetentionMaxSizeMb(), 0, 10_000));
+
     public LLMConfigSettingsComponent() {
         addListeners();
     }
@@ -115,6 +120,48 @@ public class LLMConfigSettingsComponent extends AbstractSettingsComponent {
         gbc.gridx = 1;
         panel.add(useFileInEditorCheckBox, gbc);
 
+        gbc.gridy++;
+        gbc.gridx = 0;
+        gbc.gridwidth = 2;
+        panel.add(new JXTitledSeparator("Conversation History (0 = no limit)"), gbc);
+
+        gbc.gridy++;
+        gbc.gridwidth = 1;
+        panel.add(new JLabel("Delete conversations older than (days)"), gbc);
+        gbc.gridx = 1;
+        panel.add(retentionDaysField, gbc);
+
+        gbc.gridy++;
+        gbc.gridx = 0;
+        panel.add(new JLabel("Maximum conversations per project"), gbc);
+        gbc.gridx = 1;
+        panel.add(retentionMaxCountField, gbc);
+
+        gbc.gridy++;
+        gbc.gridx = 0;
+        var maxSizeLabel = new JLabel("Maximum history size (MB)");
+        maxSizeLabel.setToolTipText("Oldest conversations are deleted and the database compacted when the history grows beyond this size");
+        panel.add(maxSizeLabel, gbc);
+        gbc.gridx = 1;
+        panel.add(retentionMaxSizeMbField, gbc);
+
+        gbc.gridy++;
+        gbc.gridx = 0;
+        panel.add(new JLabel("Last cleanup"), gbc);
+        gbc.gridx = 1;
+        panel.add(new JLabel(describeLastRetention()), gbc);
+
         return panel;
     }
+
+    private static String describeLastRetention() {
+        ConversationStorageService storage = ConversationStorageService.getInstanceIfCreated();
+        ConversationStorageService.RetentionReport report = storage != null ? storage.getLastRetentionReport() : null;
+        if (report == null) {
+            return "Not run yet in this session";
+        }
+        return String.format("Deleted %d conversations, reclaimed %d KB (%d KB -> %d KB) in %d ms",
+                report.deletedConversations(), report.reclaimedBytes() / 1024,
+                report.bytesBefore() / 1024, report.bytesAfter() / 1024, report.durationMs());
+    }
 }
@@ -1,6 +1,5 @@
 package com.devoxx.genie.ui.settings.llmconfig;
 
-import com.devoxx.genie.service.DevoxxGenieSettingsService;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.options.Configurable;
 import org.jetbrains.annotations.Nls;
@@ -45,7 +44,7 @@ public class LLMConfigSettingsConfigurable implements Configurable {
      */
     @Override
     public boolean isModified() {
-        DevoxxGenieSettingsService stateService = DevoxxGenieStateService.getInstance();
+        DevoxxGenieStateService stateService = DevoxxGenieStateService.getInstance();
 
         boolean isModified = false;
 
@@ -56,6 +55,9 @@ public class LLMConfigSettingsConfigurable implements Configurable {
         isModified |= llmConfigSettingsComponent.getTimeoutField().getNumber() != stateService.getTimeout();
         isModified |= llmConfigSettingsComponent.getRetryField().getNumber() != stateService.getMaxRetries();
         isModified |= llmConfigSettingsComponent.getUseFileInEditorCheckBox().isSelected() != stateService.getUseFileInEditor();
+        isModified |= llmConfigSettingsComponent.getRetentionDaysField().getNumber() != stateService.getConversationRetentionDays();
+        isModified |= llmConfigSettingsComponent.getRetentionMaxCountField().getNumber() != stateService.getConversationRetentionMaxCount();
+        isModified |= llmConfigSettingsComponent.getRetentionMaxSizeMbField().getNumber() != stateService.getConversationRetentionMaxSizeMb();
         return isModified;
     }
 
@@ -75,6 +77,10 @@ public class LLMConfigSettingsConfigurable implements Configurable {
         stateService.setMaxRetries(llmConfigSettingsComponent.getRetryField().getNumber());
 
         stateService.setUseFileInEditor(llmConfigSettingsComponent.getUseFileInEditorCheckBox().isSelected());
+
+        stateService.setConversationRetentionDays(llmConfigSettingsComponent.getRetentionDaysField().getNumber());
+        stateService.setConversationRetentionMaxCount(llmConfigSettingsComponent.getRetentionMaxCountField().getNumber());
+        stateService.setConversationRetentionMaxSizeMb(llmConfigSettingsComponent.getRetentionMaxSizeMbField().getNumber());
     }
 
     /**
@@ -93,5 +99,9 @@ public class LLMConfigSettingsConfigurable implements Configurable {
         llmConfigSettingsComponent.getRetryField().setNumber(stateService.getMaxRetries());
 
         llmConfigSettingsComponent.getUseFileInEditorCheckBox().setSelected(stateService.getUseFileInEditor());
+
+        llmConfigSettingsComponent.getRetentionDaysField().setNumber(stateService.getConversationRetentionDays());
+        llmConfigSettingsComponent.getRetentionMaxCountField().setNumber(stateService.getConversationRetentionMaxCount());
+        llmConfigSettingsComponent.getRetentionMaxSizeMbField().setNumber(stateService.getConversationRetentionMaxSizeMb());
     }
 }
@@ -63,6 +63,16 @@ public class RAGSettingsComponent extends AbstractSettingsComponent {
     @Getter
     private final JSpinner minScoreField = new JSpinner(new SpinnerNumberModel(stateService.getIndexerMinScore().doubleValue(), 0.0d, 1.0d, 0.01d));
 
+    @Getter
+    private final JBCheckBox embeddedVectorStoreCheckBox = new JBCheckBox(
+            "Use embedded vector store (no Docker required)",
+            Boolean.TRUE.equals(stateService.getRagEmbeddedVectorStoreEnabled()));
+
+    @Getter
+    private final JBCheckBox hybridSearchCheckBox = new JBCheckBox(
+            "Combine vector search with keyword (BM25) search",
+            Boolean.TRUE.equals(stateService.getRagHybridSearchEnabled()));
+
     @Getter
     private final JBCheckBox queryExpansionCheckBox = new JBCheckBox(
             "Enable LLM query expansion (one extra LLM call per RAG search)",
@@ -126,6 +136,7 @@ public class RAGSettingsComponent extends AbstractSettingsComponent {
         });
         // Variants spinner is only meaningful when query expansion is on.
         queryExpansionCheckBox.addActionListener(e -> updateComponentsEnabled());
+        embeddedVectorStoreCheckBox.addActionListener(e -> updateComponentsEnabled());
     }
 
     private void addProgressSection(@NotNull JPanel panel, @NotNull GridBagConstraints gbc) {
@@ -214,12 +225,20 @@ public class RAGSettingsComponent extends AbstractSettingsComponent {
 
     private void addRAGSettingsSection(JPanel panel, GridBagConstraints gbc) {
         addSection(panel, gbc, RAG_SETTINGS_SECTION_TITLE);
+        addSettingRow(panel, gbc, "Vector store", leftAligned(embeddedVectorStoreCheckBox));
+        addHelpText(panel, gbc, "Store vectors in a per-project file inside the IDE instead of the ChromaDB " +
+                "Docker container. Searches run in-process and indexing works offline. Switching " +
+                "backends re-indexes the project into the newly selected store.");
         addSettingRow(panel, gbc, "Chroma DB port", leftAligned(portIndexer));
         addSettingRow(panel, gbc, "Minimum score", leftAligned(minScoreField));
         addHelpText(panel, gbc, "Set the minimum score threshold for semantic search results. A lower value will include more results.");
         addSettingRow(panel, gbc, "Maximum results", leftAligned(maxResultsSpinner));
         addHelpText(panel, gbc, "How many results do you want to include in prompt window context?");
 
+        addSettingRow(panel, gbc, "Hybrid search", leftAligned(hybridSearchCheckBox));
+        addHelpText(panel, gbc, "Fuse semantic hits with exact keyword matches from a local index built " +
+                "during indexing. Helps queries for class names, identifiers and error codes.");
+
         addSettingRow(panel, gbc, "Query expansion", leftAligned(queryExpansionCheckBox));
         addHelpText(panel, gbc, "Paraphrase the query into multiple variants and fuse the per-variant results " +
                 "(Reciprocal Rank Fusion). Improves retrieval on meta-style questions such as " +
@@ -324,7 +343,8 @@ public class RAGSettingsComponent extends AbstractSettingsComponent {
     // Flag to track if indexing is currently running
     private boolean isIndexing = false;
     
-    private void startIndexing() {
+    /** Starts a full re-index of the project, or stops the one that is running. */
+    void startIndexing() {
         if (!enableIndexerCheckBox.isSelected()) {
             return;
         }
@@ -495,11 +515,14 @@ public class RAGSettingsComponent extends AbstractSettingsComponent {
      */
     private void updateComponentsEnabled() {
         boolean enabled = enableIndexerCheckBox.isSelected();
-        portIndexer.setEnabled(enabled);
+        embeddedVectorStoreCheckBox.setEnabled(enabled);
+        // The Chroma port is irrelevant when vectors are stored in-process.
+        portIndexer.setEnabled(enabled && !embeddedVectorStoreCheckBox.isSelected());
         maxResultsSpinner.setEnabled(enabled);
         minScoreField.setEnabled(enabled);
         actionButton.setEnabled(enabled);
         collectionsTable.setEnabled(enabled);
+        hybridSearchCheckBox.setEnabled(enabled);
         queryExpansionCheckBox.setEnabled(enabled);
         // Variants spinner is doubly-gated: master switch + the expansion sub-switch.
         queryExpansionVariantsSpinner.setEnabled(enabled && queryExpansionCheckBox.isSelected());
@@ -1,5 +1,6 @@
 package com.devoxx.genie.ui.settings.rag;
 
+import com.devoxx.genie.service.chromadb.ChromaEmbeddingService;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.devoxx.genie.ui.topic.AppTopics;
 import com.intellij.openapi.options.Configurable;
@@ -54,6 +55,10 @@ public class RAGSettingsConfigurable implements Configurable {
         isModified |= ragSettingsComponent.getPortIndexer().getNumber() != stateService.getIndexerPort();
         isModified |= ragSettingsComponent.getMaxResultsSpinner().getNumber() != stateService.getIndexerMaxResults();
         isModified |= ragSettingsComponent.getMinScoreField().getValue() != stateService.getIndexerMinScore();
+        isModified |= ragSettingsComponent.getEmbeddedVectorStoreCheckBox().isSelected()
+                != Boolean.TRUE.equals(stateService.getRagEmbeddedVectorStoreEnabled());
+        isModified |= ragSettingsComponent.getHybridSearchCheckBox().isSelected()
+                != Boolean.TRUE.equals(stateService.getRagHybridSearchEnabled());
         isModified |= ragSettingsComponent.getQueryExpansionCheckBox().isSelected()
                 != Boolean.TRUE.equals(stateService.getRagQueryExpansionEnabled());
         int storedN = stateService.getRagQueryExpansionN() == null ? 3 : stateService.getRagQueryExpansionN();
@@ -73,11 +78,15 @@ public class RAGSettingsConfigurable implements Configurable {
 
         boolean oldValue = stateService.getRagEnabled();
         boolean newValue = ragSettingsComponent.getEnableIndexerCheckBox().isSelected();
+        boolean backendSwitched = ragSettingsComponent.getEmbeddedVectorStoreCheckBox().isSelected()
+                != Boolean.TRUE.equals(stateService.getRagEmbeddedVectorStoreEnabled());
 
         stateService.setRagEnabled(ragSettingsComponent.getEnableIndexerCheckBox().isSelected());
         stateService.setIndexerPort(ragSettingsComponent.getPortIndexer().getNumber());
         stateService.setIndexerMinScore((Double) ragSettingsComponent.getMinScoreField().getValue());
         stateService.setIndexerMaxResults(ragSettingsComponent.getMaxResultsSpinner().getNumber());
+        stateService.setRagEmbeddedVectorStoreEnabled(ragSettingsComponent.getEmbeddedVectorStoreCheckBox().isSelected());
+        stateService.setRagHybridSearchEnabled(ragSettingsComponent.getHybridSearchCheckBox().isSelected());
         stateService.setRagQueryExpansionEnabled(ragSettingsComponent.getQueryExpansionCheckBox().isSelected());
         stateService.setRagQueryExpansionN(ragSettingsComponent.getQueryExpansionVariantsSpinner().getNumber());
         stateService.setRagExcludedDirectories(
@@ -91,6 +100,15 @@ public class RAGSettingsConfigurable implements Configurable {
                     .syncPublisher(AppTopics.RAG_STATE_TOPIC)
                     .onRAGStateChanged(newValue);
         }
+
+        if (backendSwitched) {
+            // The manifest is shared by both backends, but the newly selected store holds none
+            // of the other one's chunks: forget what was indexed and rebuild it in the new store.
+            ChromaEmbeddingService.getInstance().invalidateManifest(project);
+            if (newValue) {
+                ragSettingsComponent.startIndexing();
+            }
+        }
     }
 
     /**
@@ -103,6 +121,10 @@ public class RAGSettingsConfigurable implements Configurable {
         ragSettingsComponent.getPortIndexer().setNumber(stateService.getIndexerPort());
         ragSettingsComponent.getMinScoreField().setValue(stateService.getIndexerMinScore());
         ragSettingsComponent.getMaxResultsSpinner().setNumber(stateService.getIndexerMaxResults());
+        ragSettingsComponent.getEmbeddedVectorStoreCheckBox().setSelected(
+                Boolean.TRUE.equals(stateService.getRagEmbeddedVectorStoreEnabled()));
+        ragSettingsComponent.getHybridSearchCheckBox().setSelected(
+                Boolean.TRUE.equals(stateService.getRagHybridSearchEnabled()));
         ragSettingsComponent.getQueryExpansionCheckBox().setSelected(
                 Boolean.TRUE.equals(stateService.getRagQueryExpansionEnabled()));
         ragSettingsComponent.getQueryExpansionVariantsSpinner().setNumber(
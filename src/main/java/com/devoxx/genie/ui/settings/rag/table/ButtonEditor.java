@@ -2,6 +2,7 @@ package com.devoxx.genie.ui.settings.rag.table;
 
 import com.devoxx.genie.service.chromadb.ChromaDBManager;
 import com.devoxx.genie.service.chromadb.ChromaDockerService;
+import com.devoxx.genie.service.chromadb.ChromaEmbeddingService;
 import com.devoxx.genie.service.chromadb.model.ChromaCollection;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.devoxx.genie.ui.util.NotificationUtil;
@@ -84,11 +85,18 @@ public class ButtonEditor extends DefaultCellEditor {
 
                 String collectionName = (String) tableModel.getValueAt(row, 0);
                 if (collectionName != null && confirmDeletion(collectionName)) {
-                    // Delete collection first
-                    ChromaDBManager.getInstance(project).deleteCollection(collectionName);
-
-                    // Delete the associated volume data
-                    dockerService.deleteCollectionData(project, collectionName);
+                    ChromaEmbeddingService embeddingService = ChromaEmbeddingService.getInstance();
+                    if (embeddingService.isEmbeddedStoreSelected()) {
+                        // The embedded store holds this project only; clearing it is the delete
+                        embeddingService.clearLocalStore(project);
+                    } else {
+                        // Delete collection first
+                        ChromaDBManager.getInstance(project).deleteCollection(collectionName);
+
+                        // Delete the associated volume data
+                        dockerService.deleteCollectionData(project, collectionName);
+                        embeddingService.markStoreChanged();
+                    }
 
                     // Then reload table data
                     safeLoadCollections();
@@ -138,6 +146,18 @@ public class ButtonEditor extends DefaultCellEditor {
                     return;
                 }
 
+                ChromaEmbeddingService embeddingService = ChromaEmbeddingService.getInstance();
+                if (embeddingService.isEmbeddedStoreSelected()) {
+                    // No ChromaDB to ask: show the project's in-process store as its one collection
+                    tableModel.addRow(new Object[]{
+                            ChromaEmbeddingService.collectionName(project),
+                            embeddingService.localStore(project).size(),
+                            DELETE_LABEL
+                    });
+                    tableModel.fireTableDataChanged();
+                    return;
+                }
+
                 // Load collections
                 List<ChromaCollection> collections = ChromaDBManager.getInstance(project).listCollections();
 
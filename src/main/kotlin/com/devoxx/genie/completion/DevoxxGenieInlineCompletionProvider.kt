@@ -8,9 +8,17 @@ import com.intellij.codeInsight.inline.completion.suggestion.InlineCompletionSin
 import com.intellij.codeInsight.inline.completion.suggestion.InlineCompletionSuggestion
 import com.intellij.codeInsight.inline.completion.suggestion.InlineCompletionSuggestionUpdateManager
 import com.intellij.codeInsight.lookup.LookupManager
+import com.intellij.lang.LanguageCommenters
 import com.intellij.openapi.editor.Editor
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.withContext
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
 import kotlin.time.Duration
 import kotlin.time.Duration.Companion.milliseconds
 
@@ -55,40 +63,64 @@ class DevoxxGenieInlineCompletionProvider : DebouncedInlineCompletionProvider()
 
         val document = request.document
         val offset = request.startOffset
-
-        val completionText = withContext(Dispatchers.IO) {
-            val context = EditorContextExtractor.extract(document, offset)
-            InlineCompletionService.getInstance()
-                .getCompletion(context.prefix, context.suffix)
-        }
-
-        if (completionText.isNullOrEmpty()) {
-            return InlineCompletionSuggestion.Empty
-        }
+        val fileKey = request.editor.virtualFile?.path
 
         // Extract the suffix on the current line (text after cursor to end of line)
         val lineNumber = document.getLineNumber(offset)
         val lineEnd = document.getLineEndOffset(lineNumber)
         val lineSuffix = document.getText(com.intellij.openapi.util.TextRange(offset, lineEnd))
 
-        val processed = CompletionPostProcessor.process(completionText, lineSuffix)
-        if (processed.isEmpty) {
-            return InlineCompletionSuggestion.Empty
-        }
+        // Immutable snapshots: no full-document copy is made to build the context.
+        val text = document.immutableCharSequence
+        val openFiles = collectOpenFiles(project, request.editor.virtualFile)
+        val commentPrefix = LanguageCommenters.INSTANCE.forLanguage(request.file.language)
+            ?.lineCommentPrefix?.trim() ?: "//"
 
         return InlineCompletionSingleSuggestion.build {
-            for (element in processed.elements()) {
-                when (element) {
-                    is CompletionPostProcessor.GrayText ->
-                        emit(InlineCompletionGrayTextElement(element.text()))
-
-                    is CompletionPostProcessor.SkipText ->
-                        emit(InlineCompletionSkipTextElement(element.text()))
+            var first = true
+            streamLines(
+                Dispatchers.IO,
+                produce = { onLine ->
+                    val service = InlineCompletionService.getInstance()
+                    val context = service.buildContext(text, offset, openFiles, commentPrefix)
+                    service.getCompletion(fileKey, context.prefix, context.suffix) { line -> onLine(line) }
+                },
+                cancelProducer = { InlineCompletionService.getInstance().cancelActiveRequests() },
+            ) { line ->
+                if (!first) {
+                    emit(InlineCompletionGrayTextElement("\n" + line))
+                } else {
+                    first = false
+                    for (element in CompletionPostProcessor.processFirstLine(line, lineSuffix)) {
+                        when (element) {
+                            is CompletionPostProcessor.GrayText ->
+                                emit(InlineCompletionGrayTextElement(element.text()))
+
+                            is CompletionPostProcessor.SkipText ->
+                                emit(InlineCompletionSkipTextElement(element.text()))
+                        }
+                    }
                 }
             }
         }
     }
 
+    /**
+     * Snapshots of the other open, already-loaded text documents, used as a source of
+     * cross-file snippets when that option is enabled.
+     */
+    private fun collectOpenFiles(project: Project, current: VirtualFile?): List<FimContextBuilder.OpenFile> {
+        if (DevoxxGenieStateService.getInstance().inlineCompletionOpenFilesContext != true) return emptyList()
+        val documents = FileDocumentManager.getInstance()
+        return FileEditorManager.getInstance(project).openFiles.asSequence()
+            .filter { it != current && it.isValid && !it.fileType.isBinary && it.length <= MAX_OPEN_FILE_BYTES }
+            .mapNotNull { file ->
+                documents.getCachedDocument(file)?.let { FimContextBuilder.OpenFile(file.name, it.immutableCharSequence) }
+            }
+            .take(MAX_OPEN_FILES)
+            .toList()
+    }
+
     private fun isEditorSuitable(editor: Editor): Boolean {
         if (editor.isViewer) return false
 
@@ -109,5 +141,46 @@ class DevoxxGenieInlineCompletionProvider : DebouncedInlineCompletionProvider()
 
     companion object {
         private const val MAX_FILE_SIZE = 500_000L
+        private const val MAX_OPEN_FILE_BYTES = 200_000L
+        private const val MAX_OPEN_FILES = 8
+
+        /**
+         * Runs the blocking [produce] on [dispatcher] and hands each line it reports to [consume]
+         * as soon as it arrives, so the first line can be shown before generation has finished.
+         *
+         * If the consumer stops before every line was consumed (cancelled because the user kept
+         * typing, or [consume] threw), [cancelProducer] is called to stop the request server-side:
+         * coroutine cancellation alone cannot interrupt the blocking HTTP call.
+         */
+        internal suspend fun streamLines(
+            dispatcher: CoroutineDispatcher,
+            produce: (onLine: (String) -> Unit) -> Unit,
+            cancelProducer: () -> Unit,
+            consume: suspend (String) -> Unit,
+        ) {
+            val lines = Channel<String>(Channel.UNLIMITED)
+            coroutineScope {
+                val producer = launch(dispatcher) {
+                    try {
+                        produce { line -> lines.trySend(line) }
+                    } finally {
+                        lines.close()
+                    }
+                }
+                var consumedAll = false
+                try {
+                    for (line in lines) {
+                        consume(line)
+                    }
+                    consumedAll = true
+                } finally {
+                    // A cancelled producer is still "cancelling", not completed, while its blocking
+                    // call runs, so check completion rather than isActive.
+                    if (!consumedAll && !producer.isCompleted) {
+                        cancelProducer()
+                    }
+                }
+            }
+        }
     }
 }
@@ -8,6 +8,8 @@ import androidx.compose.foundation.shape.RoundedCornerShape
 import androidx.compose.foundation.text.BasicText
 import androidx.compose.foundation.text.selection.SelectionContainer
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.key
+import androidx.compose.runtime.remember
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.layout.onSizeChanged
@@ -27,6 +29,7 @@ import com.devoxx.genie.ui.compose.model.ActivityStatus
 import com.devoxx.genie.ui.compose.model.MessageUiModel
 import com.devoxx.genie.ui.compose.model.TerminalState
 import com.devoxx.genie.ui.compose.theme.*
+import com.devoxx.genie.ui.compose.util.MarkdownBlockSplitter
 import com.mikepenz.markdown.compose.Markdown
 import com.mikepenz.markdown.compose.components.MarkdownComponent
 import com.mikepenz.markdown.compose.components.markdownComponents
@@ -176,6 +179,7 @@ private fun codeBlockWithCopy(isDark: Boolean): MarkdownComponent = { model ->
 private fun MarkdownContent(
     content: String,
     textColor: Color = DevoxxGenieThemeAccessor.colors.textPrimary,
+    selectable: Boolean = true,
 ) {
     val colors = DevoxxGenieThemeAccessor.colors
     val typography = DevoxxGenieThemeAccessor.typography
@@ -216,7 +220,7 @@ private fun MarkdownContent(
         table = baseStyle,
     )
 
-    SelectionContainer {
+    val markdown = @Composable {
         Markdown(
             content = content,
             colors = mdColors,
@@ -231,6 +235,34 @@ private fun MarkdownContent(
             retainState = true,
         )
     }
+    if (selectable) SelectionContainer { markdown() } else markdown()
+}
+
+/**
+ * Renders [content] as one Markdown renderer per top-level block (see [MarkdownBlockSplitter]).
+ * While a response streams, finished blocks keep their content string, so Compose skips them
+ * and they are parsed and highlighted once; only the open tail is re-parsed on each flush.
+ * Reference link definitions are handed to every block that may use them.
+ */
+@Composable
+private fun IncrementalMarkdownContent(
+    content: String,
+    textColor: Color = DevoxxGenieThemeAccessor.colors.textPrimary,
+) {
+    val splitter = remember { MarkdownBlockSplitter() }
+    val blocks = remember(content) { splitter.split(content) }
+    SelectionContainer {
+        Column {
+            blocks.stable.forEachIndexed { index, block ->
+                key(index) {
+                    MarkdownContent(content = blocks.withLinkDefinitions(block), textColor = textColor, selectable = false)
+                }
+            }
+            if (blocks.tail.isNotBlank()) {
+                MarkdownContent(content = blocks.tailWithLinkDefinitions(), textColor = textColor, selectable = false)
+            }
+        }
+    }
 }
 
 
@@ -259,7 +291,7 @@ fun ThinkingBubble(
             ),
         )
         Spacer(Modifier.height(8.dp))
-        MarkdownContent(
+        IncrementalMarkdownContent(
             content = thinkingMarkdown,
             textColor = colors.textSecondary,
         )
@@ -329,7 +361,7 @@ fun AiBubble(
 
         // AI Response content — rendered as Markdown
         if (message.aiResponseMarkdown.isNotBlank()) {
-            MarkdownContent(content = message.aiResponseMarkdown)
+            IncrementalMarkdownContent(content = message.aiResponseMarkdown)
 
             // In-flight affordance: once the first token replaces the ThinkingIndicator,
             // this caret is the only signal that the response is still streaming.
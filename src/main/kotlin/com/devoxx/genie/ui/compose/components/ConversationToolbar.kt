@@ -5,23 +5,30 @@ import androidx.compose.foundation.layout.Row
 import androidx.compose.foundation.layout.fillMaxWidth
 import androidx.compose.foundation.layout.padding
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.derivedStateOf
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.remember
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.unit.dp
-import com.devoxx.genie.ui.compose.model.MessageUiModel
+import com.devoxx.genie.ui.compose.model.ObservableMessage
 import com.devoxx.genie.ui.compose.util.ChatTranscriptFormatter
 
 /**
  * A thin toolbar rendered above the chat's [LazyColumn] containing a "Copy chat"
  * button that copies the full Markdown transcript of the conversation.
  *
- * Hidden whenever there is no message with a non-blank user prompt.
+ * Hidden whenever there is no message with a non-blank user prompt. The transcript is
+ * built on click, so streaming updates do not recompose the toolbar.
  */
 @Composable
 fun ConversationToolbar(
-    messages: List<MessageUiModel>,
+    messages: List<ObservableMessage>,
     modifier: Modifier = Modifier,
 ) {
-    if (messages.none { it.userPrompt.isNotBlank() }) return
+    val hasPrompt by remember(messages) {
+        derivedStateOf { messages.any { it.message.userPrompt.isNotBlank() } }
+    }
+    if (!hasPrompt) return
 
     Row(
         modifier = modifier
@@ -30,7 +37,7 @@ fun ConversationToolbar(
         horizontalArrangement = Arrangement.End,
     ) {
         CopyButton(
-            textToCopy = ChatTranscriptFormatter.toMarkdown(messages),
+            text = { ChatTranscriptFormatter.toMarkdown(messages.map { it.message }) },
             label = "\u2398 Copy chat",
             copiedLabel = "\u2713 Chat copied",
         )
@@ -14,13 +14,24 @@ import java.awt.datatransfer.StringSelection
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
 
-@OptIn(ExperimentalComposeUiApi::class)
 @Composable
 fun CopyButton(
     textToCopy: String,
     modifier: Modifier = Modifier,
     label: String = "\u2398 Copy",
     copiedLabel: String = "\u2713 Copied",
+) {
+    CopyButton(text = { textToCopy }, modifier = modifier, label = label, copiedLabel = copiedLabel)
+}
+
+/** Builds the copied [text] only on click, for content that is expensive to assemble. */
+@OptIn(ExperimentalComposeUiApi::class)
+@Composable
+fun CopyButton(
+    text: () -> String,
+    modifier: Modifier = Modifier,
+    label: String = "\u2398 Copy",
+    copiedLabel: String = "\u2713 Copied",
 ) {
     val clipboard = LocalClipboard.current
     val coroutineScope = rememberCoroutineScope()
@@ -38,7 +49,7 @@ fun CopyButton(
             .padding(4.dp)
             .clickable {
                 coroutineScope.launch {
-                    clipboard.setClipEntry(ClipEntry(StringSelection(textToCopy)))
+                    clipboard.setClipEntry(ClipEntry(StringSelection(text())))
                 }
                 copied = true
             },
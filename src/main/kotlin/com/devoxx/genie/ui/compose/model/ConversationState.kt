@@ -35,8 +35,22 @@ sealed class ConversationState {
         val hasMcpServers: Boolean = false,
     ) : ConversationState()
 
+    /**
+     * [entries] changes only when messages are added, moved or removed; the content of a
+     * message is observed through its own [ObservableMessage]. Two Chat states are equal
+     * when they hold the same message holders, whatever those currently contain.
+     */
     data class Chat(
-        val messages: List<MessageUiModel> = emptyList(),
+        val entries: List<ObservableMessage> = emptyList(),
         val isRestoringConversation: Boolean = false,
-    ) : ConversationState()
+    ) : ConversationState() {
+
+        private val byId: Map<String, ObservableMessage> by lazy { entries.associateBy { it.id } }
+
+        /** Current content of every message. Composables should read [entries] instead. */
+        val messages: List<MessageUiModel>
+            get() = entries.map { it.message }
+
+        fun find(messageId: String): ObservableMessage? = byId[messageId]
+    }
 }
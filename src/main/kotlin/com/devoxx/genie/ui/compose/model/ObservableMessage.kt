@@ -0,0 +1,21 @@
+package com.devoxx.genie.ui.compose.model
+
+import androidx.compose.runtime.Stable
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.setValue
+
+/**
+ * One message of a chat, held in its own snapshot state. Streaming tokens and activity events
+ * replace [message] in place, so only the composables that read this message (its bubble)
+ * recompose — the conversation's list of messages is rebuilt only when a message is added,
+ * moved or removed.
+ */
+@Stable
+class ObservableMessage(initial: MessageUiModel) {
+
+    /** Fixed for the holder's lifetime; updates must keep [MessageUiModel.id] unchanged. */
+    val id: String = initial.id
+
+    var message: MessageUiModel by mutableStateOf(initial)
+}
@@ -39,13 +39,14 @@ import com.devoxx.genie.ui.compose.components.ConversationToolbar
 import com.devoxx.genie.ui.compose.components.MessagePair
 import com.devoxx.genie.ui.compose.model.ChangedFileUiModel
 import com.devoxx.genie.ui.compose.model.MessageUiModel
+import com.devoxx.genie.ui.compose.model.ObservableMessage
 import com.devoxx.genie.ui.compose.theme.DevoxxBlue
 import com.devoxx.genie.ui.compose.util.IdeAnimations
 import kotlinx.coroutines.launch
 
 @Composable
 fun ChatScreen(
-    messages: List<MessageUiModel>,
+    messages: List<ObservableMessage>,
     onFileClick: (String) -> Unit,
     modifier: Modifier = Modifier,
     onChangedFileClick: (ChangedFileUiModel) -> Unit = {},
@@ -133,12 +134,20 @@ fun ChatScreen(
     // The isScrollInProgress guard is essential: a streaming token must never start a
     // programmatic scroll while the user is dragging/flinging upward, otherwise the reader
     // is snapped back down to the start of the message below them.
-    LaunchedEffect(messages.lastOrNull()?.aiResponseMarkdown) {
-        if (autoFollow && messages.isNotEmpty() && !listState.isScrollInProgress) {
-            listState.animateScrollToItem(messages.size)
+    // Observed through snapshotFlow rather than read here, so a streamed token recomposes
+    // only the last bubble and not the whole screen.
+    LaunchedEffect(messages) {
+        snapshotFlow { messages.lastOrNull()?.message?.aiResponseMarkdown }.collect {
+            if (autoFollow && messages.isNotEmpty() && !listState.isScrollInProgress) {
+                listState.animateScrollToItem(messages.size)
+            }
         }
     }
 
+    val showScrollToBottom by remember(messages) {
+        derivedStateOf { shouldShowScrollToBottom(autoFollow, listOfNotNull(messages.lastOrNull()?.message)) }
+    }
+
     Column(modifier = modifier.fillMaxSize()) {
         ConversationToolbar(messages = messages)
         Box(modifier = Modifier.fillMaxSize()) {
@@ -152,7 +161,9 @@ fun ChatScreen(
                 itemsIndexed(
                     items = messages,
                     key = { _, message -> message.id },
-                ) { _, message ->
+                ) { _, entry ->
+                    // Reading the holder here scopes this message's updates to its own item.
+                    val message = entry.message
                     // Play the entrance exactly once: the first time this id is ever
                     // composed, and only for messages inserted while the chat is live.
                     // Computed in `remember(message.id)` so an item scrolled out and back
@@ -186,7 +197,7 @@ fun ChatScreen(
             }
 
             ScrollToBottomButton(
-                visible = shouldShowScrollToBottom(autoFollow, messages),
+                visible = showScrollToBottom,
                 onClick = {
                     autoFollow = true
                     coroutineScope.launch {
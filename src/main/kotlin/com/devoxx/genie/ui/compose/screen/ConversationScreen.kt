@@ -71,7 +71,7 @@ fun ConversationScreen(
                 }
                 is ConversationState.Chat -> {
                     ChatScreen(
-                        messages = s.messages,
+                        messages = s.entries,
                         onFileClick = onFileClick,
                         onChangedFileClick = onChangedFileClick,
                         onRetryClick = onRetryClick,
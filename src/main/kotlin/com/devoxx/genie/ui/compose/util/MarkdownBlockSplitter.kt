@@ -0,0 +1,138 @@
+package com.devoxx.genie.ui.compose.util
+
+/**
+ * A Markdown text cut into [stable] blocks, which later streamed text can no longer change,
+ * and the open [tail] that is still being written. [linkDefinitions] holds every reference
+ * link definition (`[label]: url`) found so far, in any block. [tailInFence] is set while the
+ * tail ends inside a code fence that has not been closed yet.
+ */
+internal data class MarkdownBlocks(
+    val stable: List<String>,
+    val tail: String,
+    val linkDefinitions: List<String> = emptyList(),
+    val tailInFence: Boolean = false,
+) {
+    /**
+     * [block] as it should be parsed: a block parsed on its own would lose the definitions of
+     * reference links written in other blocks, so they are appended (they render as nothing).
+     * Blocks without a `[` are returned as they are, so they are not re-parsed when a
+     * definition arrives.
+     */
+    fun withLinkDefinitions(block: String): String =
+        if (linkDefinitions.isEmpty() || '[' !in block) block
+        else block.trimEnd('\n') + "\n\n" + linkDefinitions.joinToString("\n")
+
+    /**
+     * [tail] as it should be parsed: like [withLinkDefinitions], except while its code fence is
+     * still open, where the definitions would be rendered as code lines.
+     */
+    fun tailWithLinkDefinitions(): String = if (tailInFence) tail else withLinkDefinitions(tail)
+}
+
+/**
+ * Splits a streaming response into top-level Markdown blocks so the chat view parses and
+ * highlights every finished block once and re-parses only the open tail on each flush,
+ * instead of the whole response (O(n²) over a long answer).
+ *
+ * A block ends at a blank line outside a code fence that is followed by a line starting in
+ * column 0 — indented lines after a blank line may still continue a list item, so they stay
+ * in the block. The splitter remembers the stable prefix of the previous call: when the new
+ * text extends it (the streaming case) only the text after it is scanned; any other text
+ * (a steering split, a different message) starts over.
+ */
+internal class MarkdownBlockSplitter {
+
+    private val stableBlocks = mutableListOf<String>()
+    private val stableDefinitions = mutableListOf<String>()
+    private var stablePrefix = ""
+
+    fun split(markdown: String): MarkdownBlocks {
+        if (!markdown.startsWith(stablePrefix)) {
+            stableBlocks.clear()
+            stableDefinitions.clear()
+            stablePrefix = ""
+        }
+
+        var blockStart = stablePrefix.length
+        var lineStart = blockStart
+        var previousBlank = false
+        // A definition cannot interrupt a paragraph: it must start a block or follow a blank
+        // line or another definition.
+        var definitionAllowed = true
+        val tailDefinitions = mutableListOf<String>()
+        var fence: Fence? = null
+        // The last line is still being written and may yet open or close a fence.
+        var lastLineFence = false
+
+        while (lineStart < markdown.length) {
+            val newline = markdown.indexOf('\n', lineStart)
+            val lineEnd = if (newline < 0) markdown.length else newline
+            val line = markdown.substring(lineStart, lineEnd)
+
+            if (fence == null && previousBlank && lineStart > blockStart && line.isNotEmpty() && !line[0].isWhitespace()) {
+                stableBlocks.add(markdown.substring(blockStart, lineStart))
+                stableDefinitions.addAll(tailDefinitions)
+                tailDefinitions.clear()
+                blockStart = lineStart
+            }
+            if (newline < 0) {
+                // The last line is still being written: it may yet turn into a fence marker.
+                lastLineFence = Fence.opening(line) != null
+                break
+            }
+
+            if (fence == null) {
+                val definition = definitionAllowed && LINK_DEFINITION.matches(line.trimEnd())
+                if (definition) tailDefinitions.add(line.trim())
+                fence = Fence.opening(line)
+                previousBlank = fence == null && line.isBlank()
+                definitionAllowed = previousBlank || definition
+            } else {
+                if (fence.isClosedBy(line)) fence = null
+                previousBlank = false
+            }
+            lineStart = newline + 1
+        }
+
+        stablePrefix = markdown.substring(0, blockStart)
+        return MarkdownBlocks(
+            stableBlocks.toList(),
+            markdown.substring(blockStart),
+            stableDefinitions + tailDefinitions,
+            tailInFence = fence != null || lastLineFence,
+        )
+    }
+
+    private companion object {
+        /** `[label]: destination`, indented at most three spaces; `[^n]:` footnotes excluded. */
+        val LINK_DEFINITION = Regex(""" {0,3}\[(?!\^)(?:[^\]\\]|\\.)+]:\s*\S.*""")
+    }
+
+    /** An open ``` or ~~~ code fence: closed by a line of at least [length] [marker]s. */
+    private class Fence(private val marker: Char, private val length: Int) {
+
+        fun isClosedBy(line: String): Boolean {
+            val trimmed = line.trimIndentUpTo3() ?: return false
+            val run = trimmed.takeWhile { it == marker }.length
+            return run >= length && trimmed.substring(run).isBlank()
+        }
+
+        companion object {
+            fun opening(line: String): Fence? {
+                val trimmed = line.trimIndentUpTo3() ?: return null
+                val marker = trimmed.firstOrNull() ?: return null
+                if (marker != '`' && marker != '~') return null
+                val run = trimmed.takeWhile { it == marker }.length
+                // A backtick fence's info string may not contain backticks (that's inline code).
+                if (run < 3 || (marker == '`' && trimmed.indexOf('`', run) >= 0)) return null
+                return Fence(marker, run)
+            }
+
+            /** [this] without up to three leading spaces; null if indented further (an indented code line). */
+            private fun String.trimIndentUpTo3(): String? {
+                val indent = takeWhile { it == ' ' }.length
+                return if (indent > 3) null else substring(indent)
+            }
+        }
+    }
+}
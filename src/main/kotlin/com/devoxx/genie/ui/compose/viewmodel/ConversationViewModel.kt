@@ -3,6 +3,7 @@ package com.devoxx.genie.ui.compose.viewmodel
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.setValue
+import androidx.compose.runtime.snapshots.Snapshot
 import com.devoxx.genie.model.LanguageModel
 import com.devoxx.genie.model.activity.ActivityMessage
 import com.devoxx.genie.model.activity.ActivitySource
@@ -177,11 +178,11 @@ class ConversationViewModel(
         )
 
         val currentState = state
-        val messages = when (currentState) {
-            is ConversationState.Chat -> currentState.messages + newMessage
-            is ConversationState.Welcome -> listOf(newMessage)
+        val entries = when (currentState) {
+            is ConversationState.Chat -> currentState.entries + ObservableMessage(newMessage)
+            is ConversationState.Welcome -> listOf(ObservableMessage(newMessage))
         }
-        state = ConversationState.Chat(messages = messages)
+        state = ConversationState.Chat(entries = entries)
 
         // Re-activate with the new message ID
         activityDeactivated.set(false)
@@ -210,13 +211,14 @@ class ConversationViewModel(
             isSteeringOnly = true,
         )
 
-        val activeIndex = currentState.messages.indexOfFirst { it.id == activeMessageId }
+        val activeIndex = currentState.entries.indexOfFirst { it.id == activeMessageId }
         if (activeIndex < 0) {
-            state = currentState.copy(messages = currentState.messages + steeringBubble)
+            state = currentState.copy(entries = currentState.entries + ObservableMessage(steeringBubble))
             return
         }
 
-        val active = currentState.messages[activeIndex]
+        val activeEntry = currentState.entries[activeIndex]
+        val active = activeEntry.message
         // Unresolved rows (running tools, pending approvals) must follow the
         // continuation so their paired response events can still resolve them.
         val (unresolvedEntries, resolvedEntries) = active.activityEntries.partition {
@@ -240,13 +242,18 @@ class ConversationViewModel(
             thinkingContentOffset = active.thinkingContentOffset + active.thinkingMarkdown.length,
         )
 
-        state = currentState.copy(
-            messages = currentState.messages.toMutableList().apply {
-                set(activeIndex, frozen)
-                add(steeringBubble)
-                add(continuation)
-            }
-        )
+        // The continuation keeps the active holder (same id), so streaming keeps updating it.
+        // One snapshot: a frame must never show the continuation without the frozen copy.
+        Snapshot.withMutableSnapshot {
+            activeEntry.message = continuation
+            state = currentState.copy(
+                entries = currentState.entries.toMutableList().apply {
+                    set(activeIndex, ObservableMessage(frozen))
+                    add(ObservableMessage(steeringBubble))
+                    add(activeEntry)
+                }
+            )
+        }
     }
 
     /**
@@ -266,7 +273,7 @@ class ConversationViewModel(
             userPrompt = text,
             isSteeringOnly = true,
         )
-        state = currentState.copy(messages = currentState.messages + queuedBubble)
+        state = currentState.copy(entries = currentState.entries + ObservableMessage(queuedBubble))
     }
 
     /**
@@ -280,12 +287,14 @@ class ConversationViewModel(
         if (currentState !is ConversationState.Chat) {
             return
         }
-        val index = currentState.messages.indexOfLast { it.isSteeringOnly && it.userPrompt == text }
+        val index = currentState.entries.indexOfLast {
+            it.message.isSteeringOnly && it.message.userPrompt == text
+        }
         if (index < 0) {
             return
         }
         state = currentState.copy(
-            messages = currentState.messages.toMutableList().apply { removeAt(index) }
+            entries = currentState.entries.toMutableList().apply { removeAt(index) }
         )
     }
 
@@ -337,8 +346,8 @@ class ConversationViewModel(
         // copy() preserves isRestoringConversation — restored messages arrive through
         // this method and must not end the restore window (see clearConversation).
         state = when (currentState) {
-            is ConversationState.Chat -> currentState.copy(messages = currentState.messages + message)
-            is ConversationState.Welcome -> ConversationState.Chat(messages = listOf(message))
+            is ConversationState.Chat -> currentState.copy(entries = currentState.entries + ObservableMessage(message))
+            is ConversationState.Welcome -> ConversationState.Chat(entries = listOf(ObservableMessage(message)))
         }
     }
 
@@ -352,8 +361,8 @@ class ConversationViewModel(
         val currentState = state
         // copy() preserves isRestoringConversation while a restore is in progress.
         state = when (currentState) {
-            is ConversationState.Chat -> currentState.copy(messages = currentState.messages + message)
-            is ConversationState.Welcome -> ConversationState.Chat(messages = listOf(message))
+            is ConversationState.Chat -> currentState.copy(entries = currentState.entries + ObservableMessage(message))
+            is ConversationState.Welcome -> ConversationState.Chat(entries = listOf(ObservableMessage(message)))
         }
     }
 
@@ -418,6 +427,10 @@ class ConversationViewModel(
             return
         }
 
+        // Live process output is for the Activity Logs only; it is neither reasoning nor a
+        // tool call, so it gets no row in the chat bubble.
+        if (message.source == ActivitySource.AGENT && message.agentType == AgentType.TOOL_OUTPUT) return
+
         // Agent intermediate responses (reasoning text) — show as activity entry
         // instead of appending to aiResponseMarkdown (which gets overwritten by streaming updates)
         if (message.source == ActivitySource.AGENT &&
@@ -730,7 +743,7 @@ class ConversationViewModel(
      */
     fun onRetryClicked(messageId: String) {
         val current = state as? ConversationState.Chat ?: return
-        val msg = current.messages.firstOrNull { it.id == messageId } ?: return
+        val msg = current.find(messageId)?.message ?: return
         if (msg.terminalState != TerminalState.ERROR || msg.retryAttempted) return
         if (msg.userPrompt.isBlank()) return
         updateMessage(messageId) { it.copy(retryAttempted = true) }
@@ -746,7 +759,7 @@ class ConversationViewModel(
         if (restoringConversation.get()) {
             // Mid-restore (or clearing before the first prompt of a new chat):
             // reset to an empty chat so the welcome screen never flashes.
-            state = ConversationState.Chat(messages = emptyList(), isRestoringConversation = true)
+            state = ConversationState.Chat(entries = emptyList(), isRestoringConversation = true)
             return
         }
         val current = state
@@ -775,14 +788,13 @@ class ConversationViewModel(
     fun cancelPendingWelcomeLoad() { /* no-op */ }
     fun refreshForNewConversation() { /* no-op */ }
 
+    /**
+     * Replaces one message in its own state holder. The conversation state itself is left
+     * alone, so the message list and every other bubble are neither copied nor recomposed.
+     */
     private fun updateMessage(messageId: String, transform: (MessageUiModel) -> MessageUiModel) {
-        val current = state
-        if (current is ConversationState.Chat) {
-            val updated = current.messages.map { msg ->
-                if (msg.id == messageId) transform(msg) else msg
-            }
-            state = current.copy(messages = updated)
-        }
+        val entry = (state as? ConversationState.Chat)?.find(messageId) ?: return
+        entry.message = transform(entry.message)
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.devoxx.genie.completion;
+
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompletionCacheInvalidatorTest {
+
+    private final List<String> invalidated = new ArrayList<>();
+    private final CompletionCacheInvalidator invalidator = new CompletionCacheInvalidator(invalidated::add);
+
+    @Test
+    void externalContentChange_invalidatesFile_butSaveDoesNot() {
+        VFileContentChangeEvent external = mock(VFileContentChangeEvent.class);
+        when(external.getPath()).thenReturn("/project/A.java");
+        VFileContentChangeEvent save = mock(VFileContentChangeEvent.class);
+        when(save.getPath()).thenReturn("/project/B.java");
+        when(save.isFromSave()).thenReturn(true);
+
+        invalidator.after(List.of(external, save));
+
+        assertThat(invalidated).containsExactly("/project/A.java");
+    }
+
+    @Test
+    void deleteMoveAndRename_invalidateTheOldPath() {
+        VFileDeleteEvent delete = mock(VFileDeleteEvent.class);
+        when(delete.getPath()).thenReturn("/project/Deleted.java");
+        VFileMoveEvent move = mock(VFileMoveEvent.class);
+        when(move.getOldPath()).thenReturn("/project/Moved.java");
+        VFilePropertyChangeEvent rename = mock(VFilePropertyChangeEvent.class);
+        when(rename.isRename()).thenReturn(true);
+        when(rename.getOldPath()).thenReturn("/project/Renamed.java");
+        VFilePropertyChangeEvent writable = mock(VFilePropertyChangeEvent.class);
+
+        invalidator.after(List.of(delete, move, rename, writable));
+
+        assertThat(invalidated).containsExactly("/project/Deleted.java", "/project/Moved.java", "/project/Renamed.java");
+    }
+
+    @Test
+    void fileClosed_invalidatesFile() {
+        invalidator.fileClosed(mock(FileEditorManager.class), fileAt("/project/Closed.java"));
+
+        assertThat(invalidated).containsExactly("/project/Closed.java");
+    }
+
+    @Test
+    void invalidate_dropsOnlyThatFilesEntries() {
+        CompletionCache cache = new CompletionCache();
+        cache.put("/project/A.java", "prefix", "suffix", "a");
+        cache.put("/project/B.java", "prefix", "suffix", "b");
+
+        new CompletionCacheInvalidator(cache::invalidate).fileClosed(mock(FileEditorManager.class), fileAt("/project/A.java"));
+
+        assertThat(cache.get("/project/A.java", "prefix", "suffix")).isNull();
+        assertThat(cache.get("/project/B.java", "prefix", "suffix")).isEqualTo("b");
+    }
+
+    private static VirtualFile fileAt(String path) {
+        VirtualFile file = mock(VirtualFile.class);
+        when(file.getPath()).thenReturn(path);
+        return file;
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 class CompletionCacheTest {
 
@@ -86,4 +87,91 @@ class CompletionCacheTest {
         // Same tail+head = same key, so this should hit
         assertThat(cache.get(prefix2, suffix2)).isEqualTo("completion");
     }
+
+    @Test
+    void shouldServeRemainingTailWhenUserTypesStartOfCompletion() {
+        cache.put("A.java", "int x = ", ";\n}", "compute(a, b)");
+
+        assertThat(cache.get("A.java", "int x = comp", ";\n}")).isEqualTo("ute(a, b)");
+        assertThat(cache.get("A.java", "int x = compute(a", ";\n}")).isEqualTo(", b)");
+        assertThat(cache.stats().speculativeHits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotServeTailWhenTypedTextDiverges() {
+        cache.put("A.java", "int x = ", ";\n}", "compute(a, b)");
+
+        assertThat(cache.get("A.java", "int x = comb", ";\n}")).isNull();
+        assertThat(cache.get("A.java", "int x = comp", "other")).isNull();
+        assertThat(cache.get("A.java", "int x = compute(a, b)", ";\n}"))
+                .as("fully typed completion leaves nothing to suggest")
+                .isNull();
+    }
+
+    @Test
+    void shouldKeepEntriesPerFile() {
+        cache.put("A.java", "prefix", "suffix", "fromA");
+        cache.put("B.java", "prefix", "suffix", "fromB");
+
+        assertThat(cache.get("A.java", "prefix", "suffix")).isEqualTo("fromA");
+        assertThat(cache.get("B.java", "prefix", "suffix")).isEqualTo("fromB");
+        assertThat(cache.get("C.java", "prefix", "suffix")).isNull();
+
+        cache.invalidate("A.java");
+
+        assertThat(cache.get("A.java", "prefix", "suffix")).isNull();
+        assertThat(cache.get("B.java", "prefix", "suffix")).isEqualTo("fromB");
+    }
+
+    @Test
+    void shouldStayWithinByteBudget() {
+        String completion = "z".repeat(512);
+        for (int file = 0; file < 200; file++) {
+            for (int i = 0; i < 20; i++) {
+                cache.put("File" + file + ".java", "prefix" + i, "suffix", completion);
+            }
+        }
+
+        CompletionCache.Stats stats = cache.stats();
+        assertThat(stats.bytes()).isLessThanOrEqualTo(CompletionCache.MAX_BYTES);
+        assertThat(stats.evictions()).isPositive();
+        assertThat(cache.get("File199.java", "prefix19", "suffix")).isEqualTo(completion);
+    }
+
+    @Test
+    void shouldReportHitsMissesAndSavedRequests() {
+        cache.put("A.java", "foo(", ")", "bar");
+
+        cache.get("A.java", "foo(", ")");
+        cache.get("A.java", "foo(b", ")");
+        cache.get("A.java", "other", ")");
+
+        CompletionCache.Stats stats = cache.stats();
+        assertThat(stats.exactHits()).isEqualTo(1);
+        assertThat(stats.speculativeHits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.savedRequests()).isEqualTo(2);
+        assertThat(stats.hitRate()).isCloseTo(2 / 3.0, within(1e-9));
+    }
+
+    @Test
+    void shouldHandleConcurrentAccessAcrossFiles() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            String file = "File" + t + ".java";
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    cache.put(file, "prefix" + i, "suffix", "completion" + i);
+                    cache.get(file, "prefix" + i, "suffix");
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(cache.stats().exactHits()).isEqualTo(8 * 500);
+        assertThat(cache.get("File3.java", "prefix499", "suffix")).isEqualTo("completion499");
+    }
 }
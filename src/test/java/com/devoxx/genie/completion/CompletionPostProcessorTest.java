@@ -140,4 +140,11 @@ class CompletionPostProcessorTest {
     void stripLeadingNewlines_preservesInternalNewlines() {
         assertThat(CompletionPostProcessor.stripLeadingNewlines("\nhello\nworld")).isEqualTo("hello\nworld");
     }
+
+    @Test
+    void processFirstLine_matchesFirstLineOfProcess() {
+        assertThat(CompletionPostProcessor.processFirstLine("foo(bar)", ")"))
+                .isEqualTo(CompletionPostProcessor.process("foo(bar)", ")").elements());
+        assertThat(CompletionPostProcessor.processFirstLine("", ")")).isEmpty();
+    }
 }
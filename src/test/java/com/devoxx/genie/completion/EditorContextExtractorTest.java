@@ -18,7 +18,7 @@ class EditorContextExtractorTest {
     @Test
     void shouldExtractPrefixAndSuffix() {
         String text = "public class Foo {\n    int x = 10;\n}";
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         int offset = 20; // inside the class body
         EditorContextExtractor result = EditorContextExtractor.extract(document, offset);
@@ -29,7 +29,7 @@ class EditorContextExtractorTest {
 
     @Test
     void shouldHandleEmptyDocument() {
-        when(document.getText()).thenReturn("");
+        when(document.getImmutableCharSequence()).thenReturn("");
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, 0);
 
@@ -40,7 +40,7 @@ class EditorContextExtractorTest {
     @Test
     void shouldHandleCursorAtStart() {
         String text = "hello world";
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, 0);
 
@@ -51,7 +51,7 @@ class EditorContextExtractorTest {
     @Test
     void shouldHandleCursorAtEnd() {
         String text = "hello world";
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, text.length());
 
@@ -62,7 +62,7 @@ class EditorContextExtractorTest {
     @Test
     void shouldClampOffsetBeyondDocumentLength() {
         String text = "short";
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, 999);
 
@@ -73,7 +73,7 @@ class EditorContextExtractorTest {
     @Test
     void shouldClampNegativeOffset() {
         String text = "hello";
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, -5);
 
@@ -89,7 +89,7 @@ class EditorContextExtractorTest {
             sb.append('x');
         }
         String text = sb.toString();
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, 5000);
 
@@ -106,7 +106,7 @@ class EditorContextExtractorTest {
             sb.append('y');
         }
         String text = sb.toString();
-        when(document.getText()).thenReturn(text);
+        when(document.getImmutableCharSequence()).thenReturn(text);
 
         EditorContextExtractor result = EditorContextExtractor.extract(document, 0);
 
@@ -0,0 +1,146 @@
+package com.devoxx.genie.completion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FimContextBuilderTest {
+
+    /** One token per character keeps the budgets easy to reason about. */
+    private static FimContextBuilder builder(int prefixTokens, int suffixTokens, int snippetTokens) {
+        return new FimContextBuilder(String::length, prefixTokens, suffixTokens, snippetTokens, 1_000);
+    }
+
+    @Test
+    void prefixBudgetIsFilledWithWholeLines() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            text.append("    stmt").append(i).append(";\n");
+        }
+        text.append("    cur");
+
+        EditorContextExtractor context = builder(40, 100, 0)
+                .build(text, text.length(), List.of(), "//");
+
+        assertThat(context.getPrefix()).isEqualTo("    stmt7;\n    stmt8;\n    stmt9;\n    cur");
+        assertThat(context.getSuffix()).isEmpty();
+    }
+
+    @Test
+    void prefixCutSnapsToTopLevelDeclaration() {
+        String text = "    a1;\n    a2;\n    a3;\nvoid b() {\n    b1;\n    cur";
+
+        EditorContextExtractor context = builder(36, 100, 0)
+                .build(text, text.length(), List.of(), "//");
+
+        assertThat(context.getPrefix()).isEqualTo("void b() {\n    b1;\n    cur");
+    }
+
+    @Test
+    void suffixCutSnapsToBlankLine() {
+        String text = "    cur\n    s1;\n\n    s2;\n    s3;\n";
+
+        EditorContextExtractor context = builder(100, 20, 0)
+                .build(text, "    cur".length(), List.of(), "//");
+
+        assertThat(context.getPrefix()).isEqualTo("    cur");
+        assertThat(context.getSuffix()).isEqualTo("\n    s1;\n");
+    }
+
+    @Test
+    void cursorLineIsKeptEvenWhenOverBudget() {
+        String text = "first line\n    a very long cursor line";
+
+        EditorContextExtractor context = builder(5, 5, 0)
+                .build(text, text.length(), List.of(), "//");
+
+        assertThat(context.getPrefix()).isEqualTo("    a very long cursor line");
+    }
+
+    @Test
+    void offsetIsClampedToText() {
+        EditorContextExtractor context = builder(100, 100, 0)
+                .build("abc", 42, List.of(), "//");
+
+        assertThat(context.getPrefix()).isEqualTo("abc");
+        assertThat(context.getSuffix()).isEmpty();
+    }
+
+    @Test
+    void mostRelevantOpenFileSnippetIsPrependedAsComment() {
+        String text = "    double total = computeInvoiceTotal(lineItems, taxRate);\n    tot";
+        FimContextBuilder.OpenFile invoice = new FimContextBuilder.OpenFile("Invoice.java",
+                "class Invoice {\n    double computeInvoiceTotal(List<Item> lineItems, double taxRate) {\n        return 0;\n    }\n}");
+        FimContextBuilder.OpenFile other = new FimContextBuilder.OpenFile("Other.java",
+                "class Other {\n    void render(Graphics graphics) {}\n}");
+
+        EditorContextExtractor context = builder(1_000, 100, 1_000)
+                .build(text, text.length(), List.of(other, invoice), "//");
+
+        assertThat(context.getPrefix())
+                .startsWith("// Path: Invoice.java\n// class Invoice {\n")
+                .contains("//     double computeInvoiceTotal(List<Item> lineItems, double taxRate) {\n")
+                .doesNotContain("Other.java")
+                .endsWith(text);
+    }
+
+    @Test
+    void snippetsOverBudgetAreDropped() {
+        String text = "    computeInvoiceTotal(lineItems);\n    x";
+        FimContextBuilder.OpenFile invoice = new FimContextBuilder.OpenFile("Invoice.java",
+                "double computeInvoiceTotal(List<Item> lineItems) { return 0; }");
+
+        EditorContextExtractor context = builder(1_000, 100, 10)
+                .build(text, text.length(), List.of(invoice), "//");
+
+        assertThat(context.getPrefix()).isEqualTo(text);
+    }
+
+    @Test
+    void zeroSnippetBudgetIgnoresOpenFiles() {
+        String text = "    computeInvoiceTotal(lineItems);\n    x";
+        FimContextBuilder.OpenFile invoice = new FimContextBuilder.OpenFile("Invoice.java",
+                "double computeInvoiceTotal(List<Item> lineItems) { return 0; }");
+
+        EditorContextExtractor context = builder(1_000, 100, 0)
+                .build(text, text.length(), List.of(invoice), "#");
+
+        assertThat(context.getPrefix()).isEqualTo(text);
+    }
+
+    @Test
+    void largeOpenFileIsOnlyTokenizedUntilTheDeadline() {
+        String text = "    computeInvoiceTotal(lineItems);\n    x";
+        AtomicInteger tokenized = new AtomicInteger();
+        String lines = "double computeInvoiceTotal(List<Item> lineItems) { return 0; }\n".repeat(10_000);
+        // Each line read costs a millisecond, so tokenizing the whole file would take seconds
+        CharSequence slow = new CharSequence() {
+            @Override public int length() { return lines.length(); }
+            @Override public char charAt(int index) { return lines.charAt(index); }
+            @Override public CharSequence subSequence(int start, int end) {
+                tokenized.incrementAndGet();
+                LockSupport.parkNanos(1_000_000);
+                return lines.subSequence(start, end);
+            }
+        };
+
+        new FimContextBuilder(String::length, 1_000, 100, 1_000, 50)
+                .build(text, text.length(), List.of(new FimContextBuilder.OpenFile("Invoice.java", slow)), "//");
+
+        assertThat(tokenized.get()).isLessThan(1_000);
+    }
+
+    @Test
+    void jaccardOfIdentifierSets() {
+        Set<String> a = FimContextBuilder.identifiers("foo bar baz");
+        Set<String> b = FimContextBuilder.identifiers("bar baz qux");
+
+        assertThat(FimContextBuilder.jaccard(a, b)).isEqualTo(0.5);
+        assertThat(FimContextBuilder.jaccard(a, Set.of())).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package com.devoxx.genie.completion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FimStreamAccumulatorTest {
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    void emitsEachLineAsSoonAsItIsComplete() {
+        FimStreamAccumulator accumulator = new FimStreamAccumulator("\n}", lines::add);
+
+        accumulator.append("\n\nint x");
+        assertThat(lines).as("leading newlines skipped, partial line held back").isEmpty();
+
+        accumulator.append(" = 1;  \nint y");
+        assertThat(lines).containsExactly("int x = 1;");
+
+        accumulator.append(" = 2;");
+        accumulator.finish();
+        assertThat(lines).containsExactly("int x = 1;", "int y = 2;");
+        assertThat(accumulator.completion()).isEqualTo("int x = 1;\nint y = 2;");
+        assertThat(accumulator.isStopped()).isFalse();
+    }
+
+    @Test
+    void stopsWhenGenerationRunsIntoTheSuffix() {
+        FimStreamAccumulator accumulator =
+                new FimStreamAccumulator(";\n    return result;\n}", lines::add);
+
+        assertThat(accumulator.append("compute()\n    log(result);\n")).isTrue();
+        assertThat(accumulator.append("    return result;\n    }\n")).isFalse();
+
+        assertThat(accumulator.isStopped()).isTrue();
+        assertThat(accumulator.completion()).isEqualTo("compute()\n    log(result);");
+    }
+
+    @Test
+    void stopsWhenGenerationClosesTheEnclosingBlock() {
+        FimStreamAccumulator accumulator = new FimStreamAccumulator("", lines::add);
+
+        accumulator.append("if (ready) {\n        go();\n    }\n}\n\npublic void other() {");
+
+        assertThat(accumulator.isStopped()).isTrue();
+        assertThat(lines).containsExactly("if (ready) {", "        go();", "    }");
+    }
+
+    @Test
+    void blankLinesAreOnlyEmittedBeforeFurtherContent() {
+        FimStreamAccumulator accumulator = new FimStreamAccumulator("", lines::add);
+
+        accumulator.append("a();\n\nb();\n\n\n");
+        accumulator.finish();
+
+        assertThat(lines).containsExactly("a();", "", "b();");
+        assertThat(accumulator.completion()).isEqualTo("a();\n\nb();");
+    }
+
+    @Test
+    void handlesWindowsLineEndings() {
+        FimStreamAccumulator accumulator = new FimStreamAccumulator("", lines::add);
+
+        accumulator.append("a();\r\nb();\r\n");
+        accumulator.finish();
+
+        assertThat(lines).containsExactly("a();", "b();");
+    }
+}
@@ -62,7 +62,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnCachedResultIfAvailable() {
-        when(mockCache.get("prefix", "suffix")).thenReturn("cached completion");
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn("cached completion");
 
         String result = service.getCompletion("prefix", "suffix");
         assertThat(result).isEqualTo("cached completion");
@@ -74,7 +74,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnNullWhenProviderNameIsNull() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn(null);
 
         String result = service.getCompletion("prefix", "suffix");
@@ -83,7 +83,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnNullWhenProviderNameIsBlank() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("   ");
 
         String result = service.getCompletion("prefix", "suffix");
@@ -92,7 +92,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnNullWhenModelNameIsNull() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn(null);
 
@@ -102,7 +102,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnNullWhenModelNameIsBlank() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("  ");
 
@@ -112,7 +112,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldReturnNullForUnknownProvider() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("UnknownProvider");
         when(mockState.getInlineCompletionModel()).thenReturn("some-model");
 
@@ -122,7 +122,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldUseOllamaProvider() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("starcoder2");
         when(mockState.getOllamaModelUrl()).thenReturn("http://localhost:11434/");
@@ -137,12 +137,12 @@ class InlineCompletionServiceTest {
         assertThat(result).isEqualTo("completion text");
 
         verify(mockOllamaProvider).generate(any(FimRequest.class));
-        verify(mockCache).put("prefix", "suffix", "completion text");
+        verify(mockCache).put(null, "prefix", "suffix", "completion text");
     }
 
     @Test
     void getCompletionShouldUseLMStudioProvider() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("LMStudio");
         when(mockState.getInlineCompletionModel()).thenReturn("codellama");
         when(mockState.getLmstudioModelUrl()).thenReturn("http://localhost:1234/v1/");
@@ -157,12 +157,12 @@ class InlineCompletionServiceTest {
         assertThat(result).isEqualTo("lmstudio completion");
 
         verify(mockLmStudioProvider).generate(any(FimRequest.class));
-        verify(mockCache).put("prefix", "suffix", "lmstudio completion");
+        verify(mockCache).put(null, "prefix", "suffix", "lmstudio completion");
     }
 
     @Test
     void getCompletionShouldReturnNullWhenProviderReturnsNull() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("starcoder2");
         when(mockState.getOllamaModelUrl()).thenReturn("http://localhost:11434/");
@@ -175,12 +175,12 @@ class InlineCompletionServiceTest {
         String result = service.getCompletion("prefix", "suffix");
         assertThat(result).isNull();
 
-        verify(mockCache, never()).put(anyString(), anyString(), anyString());
+        verify(mockCache, never()).put(any(), anyString(), anyString(), anyString());
     }
 
     @Test
     void getCompletionShouldReturnNullWhenResponseHasEmptyText() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("starcoder2");
         when(mockState.getOllamaModelUrl()).thenReturn("http://localhost:11434/");
@@ -197,7 +197,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldUseDefaultValuesWhenSettingsAreNull() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("starcoder2");
         when(mockState.getOllamaModelUrl()).thenReturn("http://localhost:11434/");
@@ -214,7 +214,7 @@ class InlineCompletionServiceTest {
 
     @Test
     void getCompletionShouldUseDefaultOllamaUrlWhenNull() {
-        when(mockCache.get("prefix", "suffix")).thenReturn(null);
+        when(mockCache.get(null, "prefix", "suffix")).thenReturn(null);
         when(mockState.getInlineCompletionProvider()).thenReturn("Ollama");
         when(mockState.getInlineCompletionModel()).thenReturn("starcoder2");
         when(mockState.getOllamaModelUrl()).thenReturn(null);
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -186,4 +188,35 @@ class LMStudioFimProviderTest {
                 .timeoutMs(5000)
                 .build();
     }
+
+    @Test
+    void streamingParsesServerSentEventsAndStopsAtEnclosingBrace() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setBody("""
+                        data: {"choices":[{"text":"go();\\n","index":0}]}
+
+                        data: {"choices":[{"text":"done();\\n}\\n","index":0}]}
+
+                        data: {"choices":[{"text":"ignored","index":0}]}
+
+                        data: [DONE]
+
+                        """)
+                .setHeader("Content-Type", "text/event-stream"));
+        List<String> lines = new ArrayList<>();
+
+        FimResponse response = provider.generateStreaming(FimRequest.builder()
+                .prefix("void f() {\n    ")
+                .suffix("")
+                .modelName("test-model")
+                .baseUrl(server.url("/v1/").toString())
+                .timeoutMs(5000)
+                .build(), lines::add);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getCompletionText()).isEqualTo("go();\ndone();");
+        assertThat(lines).containsExactly("go();", "done();");
+        JsonObject json = JsonParser.parseString(server.takeRequest().getBody().readUtf8()).getAsJsonObject();
+        assertThat(json.get("stream").getAsBoolean()).isTrue();
+    }
 }
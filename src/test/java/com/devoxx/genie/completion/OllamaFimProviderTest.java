@@ -10,6 +10,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -163,4 +165,61 @@ class OllamaFimProviderTest {
                 .timeoutMs(5000)
                 .build();
     }
+
+    @Test
+    void streamingEmitsLinesAndStopsAtSuffixOverlap() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setBody("""
+                        {"response":"int a = 1;\\n","done":false}
+                        {"response":"int b","done":false}
+                        {"response":" = 2;\\n","done":false}
+                        {"response":"return a + b;\\n","done":false}
+                        {"response":"never read","done":false}
+                        {"response":"","done":true}
+                        """)
+                .setHeader("Content-Type", "application/x-ndjson"));
+        List<String> lines = new ArrayList<>();
+
+        FimResponse response = provider.generateStreaming(streamRequest("\n    return a + b;\n}"), lines::add);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getCompletionText()).isEqualTo("int a = 1;\nint b = 2;");
+        assertThat(lines).containsExactly("int a = 1;", "int b = 2;");
+        JsonObject json = JsonParser.parseString(server.takeRequest().getBody().readUtf8()).getAsJsonObject();
+        assertThat(json.get("stream").getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void streamingReturnsFullCompletionWhenNoStopConditionIsHit() {
+        server.enqueue(new MockResponse()
+                .setBody("""
+                        {"response":"foo(","done":false}
+                        {"response":"bar)","done":false}
+                        {"response":"","done":true}
+                        """));
+        List<String> lines = new ArrayList<>();
+
+        FimResponse response = provider.generateStreaming(streamRequest(""), lines::add);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getCompletionText()).isEqualTo("foo(bar)");
+        assertThat(lines).containsExactly("foo(bar)");
+    }
+
+    @Test
+    void streamingReturnsNullOnServerError() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        assertThat(provider.generateStreaming(streamRequest(""), line -> { })).isNull();
+    }
+
+    private FimRequest streamRequest(String suffix) {
+        return FimRequest.builder()
+                .prefix("void f() {\n    ")
+                .suffix(suffix)
+                .modelName("starcoder2:3b")
+                .baseUrl(server.url("/").toString())
+                .timeoutMs(5000)
+                .build();
+    }
 }
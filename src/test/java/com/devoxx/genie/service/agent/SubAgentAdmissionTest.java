@@ -0,0 +1,74 @@
+package com.devoxx.genie.service.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.devoxx.genie.model.Constant.SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY;
+import static com.devoxx.genie.model.Constant.SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubAgentAdmissionTest {
+
+    private final SubAgentAdmission admission = new SubAgentAdmission();
+
+    @Test
+    void localProvidersGetFewerSlotsThanCloudProviders() {
+        assertThat(SubAgentAdmission.initialLimit("Ollama")).isEqualTo(SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY);
+        assertThat(SubAgentAdmission.initialLimit("Anthropic")).isEqualTo(SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY);
+        assertThat(SubAgentAdmission.initialLimit("")).isEqualTo(SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY);
+        assertThat(SubAgentAdmission.initialLimit("SomethingNew")).isEqualTo(SUB_AGENT_CLOUD_PROVIDER_CONCURRENCY);
+    }
+
+    @Test
+    void admitsUpToTheProviderLimit() throws Exception {
+        for (int i = 0; i < SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY; i++) {
+            assertThat(admission.acquire("Ollama", 0)).isTrue();
+        }
+        assertThat(admission.acquire("Ollama", 10)).isFalse();
+        // Other providers are not affected
+        assertThat(admission.acquire("OpenAI", 0)).isTrue();
+
+        admission.release("Ollama", false);
+        assertThat(admission.acquire("Ollama", 0)).isTrue();
+    }
+
+    @Test
+    void rateLimitedRunShrinksTheLimitButNeverBelowOne() throws Exception {
+        assertThat(admission.acquire("Ollama", 0)).isTrue();
+        assertThat(admission.acquire("Ollama", 0)).isTrue();
+
+        admission.release("Ollama", true);
+        assertThat(admission.limit("Ollama")).isEqualTo(1);
+        assertThat(admission.acquire("Ollama", 10)).isFalse();
+
+        admission.release("Ollama", true);
+        assertThat(admission.limit("Ollama")).isEqualTo(1);
+        assertThat(admission.acquire("Ollama", 0)).isTrue();
+    }
+
+    @Test
+    void retiredSlotComesBackAfterTheCooldown() throws Exception {
+        AtomicLong now = new AtomicLong();
+        SubAgentAdmission cooling = new SubAgentAdmission(now::get);
+        assertThat(cooling.acquire("Ollama", 0)).isTrue();
+        cooling.release("Ollama", true);
+        assertThat(cooling.limit("Ollama")).isEqualTo(1);
+
+        now.addAndGet(SubAgentAdmission.RATE_LIMIT_COOLDOWN_MS - 1);
+        assertThat(cooling.acquire("Ollama", 0)).isTrue();
+        assertThat(cooling.acquire("Ollama", 0)).isFalse();
+
+        now.incrementAndGet();
+        assertThat(cooling.acquire("Ollama", 0)).isTrue();
+        assertThat(cooling.limit("Ollama")).isEqualTo(SUB_AGENT_LOCAL_PROVIDER_CONCURRENCY);
+    }
+
+    @Test
+    void recognisesRateLimitMessages() {
+        assertThat(SubAgentAdmission.isRateLimited("Sub-agent #1 error: HTTP 429 Too Many Requests")).isTrue();
+        assertThat(SubAgentAdmission.isRateLimited("Sub-agent #2 error: Rate limit exceeded")).isTrue();
+        assertThat(SubAgentAdmission.isRateLimited("Sub-agent #3 error: connection refused")).isFalse();
+        assertThat(SubAgentAdmission.isRateLimited(null)).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package com.devoxx.genie.service.agent.tool;
 
+import com.devoxx.genie.service.agent.SubAgentAdmission;
 import com.devoxx.genie.service.agent.SubAgentRunner;
 import com.devoxx.genie.service.prompt.threading.ThreadPoolManager;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
@@ -55,6 +56,7 @@ class ParallelExploreToolExecutorTest {
 
         threadPoolManagerMock = mockStatic(ThreadPoolManager.class);
         threadPoolManagerMock.when(ThreadPoolManager::getInstance).thenReturn(threadPoolManager);
+        when(threadPoolManager.getSubAgentAdmission()).thenReturn(new SubAgentAdmission());
 
         applicationManagerMock = mockStatic(ApplicationManager.class);
         applicationManagerMock.when(ApplicationManager::getApplication).thenReturn(application);
@@ -393,6 +395,69 @@ class ParallelExploreToolExecutorTest {
         }
     }
 
+    // --- Scheduling tests ---
+
+    @Test
+    void execute_minResultsReached_cancelsStragglers() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        when(threadPoolManager.getSubAgentPool()).thenReturn(pool);
+
+        AtomicInteger constructionCount = new AtomicInteger(0);
+        try (MockedConstruction<SubAgentRunner> mocked = mockConstruction(SubAgentRunner.class,
+                (runner, context) -> {
+                    int index = constructionCount.getAndIncrement();
+                    when(runner.execute(any())).thenAnswer(inv -> {
+                        if (index == 2) {
+                            Thread.sleep(10_000); // straggler
+                        }
+                        return "Findings " + (index + 1);
+                    });
+                })) {
+
+            ToolExecutionRequest request = ToolExecutionRequest.builder()
+                    .name("parallel_explore")
+                    .arguments("{\"queries\": [\"q1\", \"q2\", \"q3\"], \"min_results\": 2}")
+                    .build();
+
+            long start = System.currentTimeMillis();
+            String result = executor.execute(request, null);
+
+            assertThat(System.currentTimeMillis() - start).isLessThan(5_000);
+            assertThat(result).contains("Findings 1").contains("Findings 2");
+            assertThat(result).contains("Sub-agent #3 stopped");
+            verify(mocked.constructed().get(2)).cancel();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_subAgentsShareResourcesAcrossCalls() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        when(threadPoolManager.getSubAgentPool()).thenReturn(pool);
+
+        List<Object> resources = new CopyOnWriteArrayList<>();
+        try (MockedConstruction<SubAgentRunner> ignored = mockConstruction(SubAgentRunner.class,
+                (runner, context) -> {
+                    resources.add(context.arguments().get(3));
+                    when(runner.execute(any())).thenReturn("Result");
+                })) {
+
+            ToolExecutionRequest request = ToolExecutionRequest.builder()
+                    .name("parallel_explore")
+                    .arguments("{\"queries\": [\"q1\", \"q2\"]}")
+                    .build();
+
+            executor.execute(request, null);
+            executor.execute(request, null);
+
+            assertThat(resources).hasSize(4).doesNotContainNull();
+            assertThat(resources).allMatch(r -> r == resources.get(0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     // --- Result formatting tests ---
 
     @Test
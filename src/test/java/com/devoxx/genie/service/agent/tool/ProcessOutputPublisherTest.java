@@ -0,0 +1,48 @@
+package com.devoxx.genie.service.agent.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessOutputPublisherTest {
+
+    private final List<String> published = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final ProcessOutputPublisher publisher =
+            new ProcessOutputPublisher("run_tests", published::add, now::get);
+
+    @Test
+    void batchesLinesUntilFlushInterval() {
+        publisher.onLine("one", false);
+        publisher.onLine("two", true);
+        assertThat(published).isEmpty();
+
+        now.addAndGet(ProcessOutputPublisher.FLUSH_INTERVAL_MS);
+        publisher.onLine("three", false);
+
+        assertThat(published).containsExactly("run_tests › one\ntwo\nthree");
+    }
+
+    @Test
+    void flushesWhenBatchIsFull() {
+        for (int i = 0; i < ProcessOutputPublisher.MAX_BATCH_LINES; i++) {
+            publisher.onLine("line " + i, false);
+        }
+
+        assertThat(published).hasSize(1);
+    }
+
+    @Test
+    void flushPublishesRemainderOnce() {
+        publisher.onLine("tail", false);
+
+        publisher.flush();
+        publisher.flush();
+
+        assertThat(published).containsExactly("run_tests › tail");
+    }
+}
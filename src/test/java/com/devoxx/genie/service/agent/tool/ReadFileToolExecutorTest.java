@@ -5,6 +5,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.vfs.VirtualFile;
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,8 +15,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -264,17 +267,192 @@ class ReadFileToolExecutorTest {
         assertThat(result).isEqualTo(content);
     }
 
+    // --- ranges, outline and per-run read cache ---
+
+    @Test
+    void readFile_lineRange_returnsOnlyThoseLinesWithHeader() throws IOException {
+        VirtualFile file = createMockFile("one\ntwo\nthree\nfour\n");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"start_line\":2,\"end_line\":3}"));
+
+        assertThat(result).isEqualTo("[lines 2-3 of 4 in f.txt]\ntwo\nthree\n");
+    }
+
+    @Test
+    void readFile_lineRangeWithoutEnd_readsToEndOfFile() throws IOException {
+        VirtualFile file = createMockFile("one\ntwo\nthree");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"start_line\":3}"));
+
+        assertThat(result).isEqualTo("[lines 3-3 of 3 in f.txt]\nthree\n");
+    }
+
+    @Test
+    void readFile_lineRangePastEnd_returnsError() throws IOException {
+        VirtualFile file = createMockFile("one\ntwo\n");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"start_line\":10}"));
+
+        assertThat(result).contains("Error").contains("past the end");
+    }
+
+    @Test
+    void readFile_endBeforeStart_returnsError() throws IOException {
+        VirtualFile file = createMockFile("one\ntwo\n");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"start_line\":5,\"end_line\":2}"));
+
+        assertThat(result).contains("Error").contains("end_line");
+    }
+
+    @Test
+    void readFile_byteRange_returnsSlice() throws IOException {
+        VirtualFile file = createMockFile("0123456789");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"byte_offset\":2,\"byte_length\":4}"));
+
+        assertThat(result).isEqualTo("[bytes 2-6 of 10 in f.txt]\n2345");
+    }
+
+    @Test
+    void readFile_outline_usesSymbolSkeleton() throws IOException {
+        VirtualFile file = createMockFile("class A {}");
+        ReadFileToolExecutor testExecutor = new ReadFileToolExecutor(project) {
+            @Override VirtualFile getProjectBaseDir() { return mock(VirtualFile.class); }
+            @Override VirtualFile findFile(VirtualFile base, String path) { return file; }
+            @Override boolean isAncestor(VirtualFile ancestor, VirtualFile descendant) { return true; }
+            @Override @NotNull String outline(@NotNull String path) { return "[class] A (line 1)"; }
+        };
+
+        String result = testExecutor.readFile("A.java", options("{\"path\":\"A.java\",\"outline\":true}"));
+
+        assertThat(result).isEqualTo("[class] A (line 1)");
+    }
+
+    @Test
+    void readFile_unchangedReRead_returnsStub() throws IOException {
+        VirtualFile file = createMockFile("hello world");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        assertThat(testExecutor.readFile("test.txt")).isEqualTo("hello world");
+        String second = testExecutor.readFile("test.txt");
+
+        assertThat(second).startsWith("[unchanged since last read: test.txt");
+        verify(file, times(1)).contentsToByteArray();
+    }
+
+    @Test
+    void readFile_rangeOfFullyReadFile_returnsStub() throws IOException {
+        VirtualFile file = createMockFile("one\ntwo\n");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        testExecutor.readFile("f.txt");
+        String result = testExecutor.readFile("f.txt", options("{\"path\":\"f.txt\",\"start_line\":1,\"end_line\":1}"));
+
+        assertThat(result).startsWith("[unchanged since last read");
+    }
+
+    @Test
+    void readFile_forceBypassesReadCache() throws IOException {
+        VirtualFile file = createMockFile("hello world");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        testExecutor.readFile("test.txt");
+        String result = testExecutor.readFile("test.txt", options("{\"path\":\"test.txt\",\"force\":true}"));
+
+        assertThat(result).isEqualTo("hello world");
+    }
+
+    @Test
+    void readFile_modifiedFile_isReadAgain() throws IOException {
+        VirtualFile file = createMockFile("v1");
+        when(file.getModificationStamp()).thenReturn(1L);
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+
+        testExecutor.readFile("test.txt");
+        when(file.getModificationStamp()).thenReturn(2L);
+        when(file.contentsToByteArray()).thenReturn("v2".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(testExecutor.readFile("test.txt")).isEqualTo("v2");
+    }
+
+    @Test
+    void readFile_errorsAreNotRemembered() throws IOException {
+        VirtualFile file = createMockFile("one\n");
+        ReadFileToolExecutor testExecutor = createTestableExecutor(mock(VirtualFile.class), file);
+        ReadFileToolExecutor.ReadOptions pastEnd = options("{\"path\":\"f.txt\",\"start_line\":9}");
+
+        testExecutor.readFile("f.txt", pastEnd);
+
+        assertThat(testExecutor.readFile("f.txt", pastEnd)).contains("past the end");
+    }
+
+    @Test
+    void readFile_siblingsSharingACache_readTheFileOnce() throws IOException {
+        VirtualFile file = createMockFile("shared content");
+        SharedReadCache sharedReads = new SharedReadCache();
+        ReadFileToolExecutor first = createTestableExecutor(mock(VirtualFile.class), file, sharedReads);
+        ReadFileToolExecutor second = createTestableExecutor(mock(VirtualFile.class), file, sharedReads);
+
+        assertThat(first.readFile("test.txt")).isEqualTo("shared content");
+        assertThat(second.readFile("test.txt")).isEqualTo("shared content");
+
+        verify(file, times(1)).contentsToByteArray();
+        assertThat(sharedReads.hits()).isEqualTo(1);
+        // Each sibling still gets the stub for its own re-read
+        assertThat(second.readFile("test.txt")).startsWith("[unchanged since last read");
+    }
+
+    @Test
+    void readFile_contentThatMayHaveLeftTheMemoryWindow_isReturnedAgain() throws IOException {
+        VirtualFile file = createMockFile("windowed content");
+        AtomicInteger toolCalls = new AtomicInteger(1);
+        ChatMemoryWindow window = new ChatMemoryWindow(10);
+        window.countToolCallsWith(toolCalls::get);
+        ReadFileToolExecutor testExecutor = new ReadFileToolExecutor(project, null, window) {
+            @Override VirtualFile getProjectBaseDir() { return mock(VirtualFile.class); }
+            @Override VirtualFile findFile(VirtualFile base, String path) { return file; }
+            @Override boolean isAncestor(VirtualFile ancestor, VirtualFile descendant) { return true; }
+        };
+
+        assertThat(testExecutor.readFile("test.txt")).isEqualTo("windowed content");
+        toolCalls.set(3);
+        assertThat(testExecutor.readFile("test.txt")).startsWith("[unchanged since last read");
+
+        // Four calls later, 2 * 4 + system + user messages fill the 10-message window
+        toolCalls.set(5);
+        assertThat(testExecutor.readFile("test.txt")).isEqualTo("windowed content");
+        toolCalls.set(6);
+        assertThat(testExecutor.readFile("test.txt")).startsWith("[unchanged since last read");
+    }
+
+    private static ReadFileToolExecutor.ReadOptions options(String arguments) {
+        return ReadFileToolExecutor.ReadOptions.parse(arguments);
+    }
+
     // --- Helper methods ---
 
     private VirtualFile createMockFile(String content) throws IOException {
         VirtualFile file = mock(VirtualFile.class);
         when(file.isDirectory()).thenReturn(false);
         when(file.contentsToByteArray()).thenReturn(content.getBytes(StandardCharsets.UTF_8));
+        when(file.getInputStream()).thenAnswer(inv -> new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        when(file.getLength()).thenReturn((long) content.getBytes(StandardCharsets.UTF_8).length);
         return file;
     }
 
     private ReadFileToolExecutor createTestableExecutor(VirtualFile projectBase, VirtualFile file) {
-        return new ReadFileToolExecutor(project) {
+        return createTestableExecutor(projectBase, file, null);
+    }
+
+    private ReadFileToolExecutor createTestableExecutor(VirtualFile projectBase, VirtualFile file,
+                                                        SharedReadCache sharedReads) {
+        return new ReadFileToolExecutor(project, sharedReads) {
             @Override VirtualFile getProjectBaseDir() { return projectBase; }
             @Override VirtualFile findFile(VirtualFile base, String path) { return file; }
             @Override boolean isAncestor(VirtualFile ancestor, VirtualFile descendant) { return true; }
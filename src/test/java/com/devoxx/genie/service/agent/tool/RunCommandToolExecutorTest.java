@@ -336,7 +336,7 @@ class RunCommandToolExecutorTest {
         when(mockProcess.waitFor(anyLong(), any())).thenReturn(true);
         when(mockProcess.exitValue()).thenReturn(0);
 
-        // Use small maxOutputLength so readProcessOutput stops collecting early
+        // Use small maxOutputLength so the output buffer drops the middle lines
         RunCommandToolExecutor smallBufferExecutor = new RunCommandToolExecutor(
                 project, 30, 100, (command, workingDir) -> mockProcess);
 
@@ -439,27 +439,61 @@ class RunTestsToolExecutorTest {
         assertThat(result).endsWith("... (output truncated)");
     }
 
-    // --- readProcessOutput() tests ---
+    // --- process output capture ---
 
     @Test
-    void readProcessOutput_readsAllLines() throws IOException {
+    void execute_capturesStdoutAndStderr() throws Exception {
+        when(stateService.getTestExecutionCustomCommand()).thenReturn("echo test");
+
         Process mockProcess = mock(Process.class);
-        String input = "line1\nline2\nline3\n";
         when(mockProcess.getInputStream()).thenReturn(
-                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+                new ByteArrayInputStream("line1\nline2\n".getBytes(StandardCharsets.UTF_8)));
+        when(mockProcess.getErrorStream()).thenReturn(
+                new ByteArrayInputStream("FAILURE: stderr line\n".getBytes(StandardCharsets.UTF_8)));
+        when(mockProcess.waitFor(anyLong(), any())).thenReturn(true);
+        when(mockProcess.exitValue()).thenReturn(1);
+
+        RunTestsToolExecutor captureExecutor = new RunTestsToolExecutor(project) {
+            @Override
+            Process createProcess(String command, File workingDir) {
+                return mockProcess;
+            }
+        };
 
-        String result = executor.readProcessOutput(mockProcess);
-        assertThat(result).contains("line1").contains("line2").contains("line3");
+        String result = captureExecutor.execute(ToolExecutionRequest.builder()
+                .name("run_tests")
+                .arguments("{}")
+                .build(), null);
+        assertThat(result).contains("line1").contains("line2").contains("stderr line");
     }
 
     @Test
-    void readProcessOutput_emptyOutput_returnsEmpty() throws IOException {
+    void execute_hugeOutput_keepsHeadAndTail() throws Exception {
+        when(stateService.getTestExecutionCustomCommand()).thenReturn("echo test");
+
+        StringBuilder output = new StringBuilder("FIRST LINE\n");
+        for (int i = 0; i < 5_000; i++) {
+            output.append("noise line ").append(i).append(" with some padding\n");
+        }
+        output.append("BUILD FAILED in 3s\n");
         Process mockProcess = mock(Process.class);
         when(mockProcess.getInputStream()).thenReturn(
-                new ByteArrayInputStream("".getBytes(StandardCharsets.UTF_8)));
+                new ByteArrayInputStream(output.toString().getBytes(StandardCharsets.UTF_8)));
+        when(mockProcess.waitFor(anyLong(), any())).thenReturn(true);
+        when(mockProcess.exitValue()).thenReturn(1);
+
+        RunTestsToolExecutor hugeExecutor = new RunTestsToolExecutor(project) {
+            @Override
+            Process createProcess(String command, File workingDir) {
+                return mockProcess;
+            }
+        };
 
-        String result = executor.readProcessOutput(mockProcess);
-        assertThat(result).isEmpty();
+        String result = hugeExecutor.execute(ToolExecutionRequest.builder()
+                .name("run_tests")
+                .arguments("{}")
+                .build(), null);
+        assertThat(result).contains("FIRST LINE").contains("BUILD FAILED in 3s").contains("lines omitted");
     }
 
     // --- MAX_OUTPUT_LENGTH constant ---
@@ -6,6 +6,7 @@ import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -15,7 +16,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -753,6 +760,70 @@ class SearchFilesToolExecutorTest {
         );
     }
 
+    // --- Indexed search tests ---
+
+    @Test
+    void isBinaryFileName_matchesIsBinaryFileExtensions() {
+        assertThat(SearchFilesToolExecutor.isBinaryFileName("lib.JAR")).isTrue();
+        assertThat(SearchFilesToolExecutor.isBinaryFileName("Main.java")).isFalse();
+        assertThat(SearchFilesToolExecutor.isBinaryFileName("Makefile")).isFalse();
+    }
+
+    @Test
+    void filterCandidates_appliesSearchDirAndFilePattern() {
+        SearchFilesToolExecutor.SearchScope scope = new SearchFilesToolExecutor.SearchScope("/p", "/p/src", null);
+        PathMatcher javaOnly = FileSystems.getDefault().getPathMatcher("glob:*.java");
+
+        List<String> filtered = SearchFilesToolExecutor.filterCandidates(
+                List.of("/p/README.md", "/p/src/A.java", "/p/src/notes.txt", "/p/srcX/B.java"), scope, javaOnly);
+
+        assertThat(filtered).containsExactly("/p/src/A.java");
+    }
+
+    @Test
+    void resolveScope_searchInsideSkippedDirFallsBackToTreeWalk() {
+        SearchFilesToolExecutor testExecutor = createTestableExecutor();
+        VirtualFile projectBase = mock(VirtualFile.class);
+        VirtualFile buildDir = mock(VirtualFile.class);
+        when(projectBase.isInLocalFileSystem()).thenReturn(true);
+        when(projectBase.getPath()).thenReturn("/p");
+        when(projectBase.findFileByRelativePath("build/generated")).thenReturn(buildDir);
+        when(buildDir.getPath()).thenReturn("/p/build/generated");
+        SearchFilesToolExecutor executorWithAncestor = new SearchFilesToolExecutor(project) {
+            @Override
+            boolean isAncestor(VirtualFile ancestor, VirtualFile descendant) {
+                return true;
+            }
+        };
+
+        assertThat(executorWithAncestor.resolveScope("build/generated", projectBase)).isNull();
+        assertThat(testExecutor.resolveScope(null, projectBase))
+                .isEqualTo(new SearchFilesToolExecutor.SearchScope("/p", "/p", null));
+    }
+
+    @Test
+    void verifyCandidates_keepsPathOrderAndStopsAtMaxResults(@TempDir Path root) throws IOException {
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            Path file = root.resolve(String.format("F%02d.txt", i));
+            Files.writeString(file, "no match\nhit " + i + "\n");
+            candidates.add(file.toString().replace('\\', '/'));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            SearchFilesToolExecutor.IndexedMatches matches = SearchFilesToolExecutor.verifyCandidates(
+                    candidates, root.toString().replace('\\', '/'), Pattern.compile("HIT", Pattern.CASE_INSENSITIVE), pool);
+
+            assertThat(matches.count()).isEqualTo(SearchFilesToolExecutor.MAX_RESULTS);
+            assertThat(matches.filesScanned()).isEqualTo(64);
+            String[] lines = matches.text().split("\n");
+            assertThat(lines[0]).isEqualTo("F00.txt:2: hit 0");
+            assertThat(lines[49]).isEqualTo("F49.txt:2: hit 49");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     // --- Helper ---
 
     private VirtualFile createMockFile(String name, String extension, String content) throws IOException {
@@ -0,0 +1,93 @@
+package com.devoxx.genie.service.agent.tool;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedReadCacheTest {
+
+    private static ToolExecutionRequest search(String arguments) {
+        return ToolExecutionRequest.builder().name("search_files").arguments(arguments).build();
+    }
+
+    @Test
+    void identicalCallsRunOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        SharedReadCache cache = new SharedReadCache();
+        ToolExecutor delegate = (request, memoryId) -> "match #" + calls.incrementAndGet();
+
+        ToolExecutor first = cache.cached("search_files", delegate);
+        ToolExecutor second = cache.cached("search_files", delegate);
+
+        assertThat(first.execute(search("{\"pattern\":\"foo\"}"), null)).isEqualTo("match #1");
+        assertThat(second.execute(search("{\"pattern\":\"foo\"}"), null)).isEqualTo("match #1");
+        assertThat(calls).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void differentArgumentsAndToolsAreSeparate() {
+        AtomicInteger calls = new AtomicInteger();
+        SharedReadCache cache = new SharedReadCache();
+        ToolExecutor delegate = (request, memoryId) -> "result #" + calls.incrementAndGet();
+
+        cache.cached("search_files", delegate).execute(search("{\"pattern\":\"foo\"}"), null);
+        cache.cached("search_files", delegate).execute(search("{\"pattern\":\"bar\"}"), null);
+        cache.cached("list_files", delegate).execute(search("{\"pattern\":\"foo\"}"), null);
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        SharedReadCache cache = new SharedReadCache();
+        ToolExecutor delegate = (request, memoryId) ->
+                calls.incrementAndGet() == 1 ? "Error: index not ready" : "found";
+        ToolExecutor cached = cache.cached("search_files", delegate);
+
+        assertThat(cached.execute(search("{}"), null)).startsWith("Error");
+        assertThat(cached.execute(search("{}"), null)).isEqualTo("found");
+    }
+
+    @Test
+    void concurrentSiblingsWaitForTheFirstCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SharedReadCache cache = new SharedReadCache();
+        ToolExecutor slow = (request, memoryId) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow result";
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<String> a = pool.submit(() -> cache.cached("search_files", slow).execute(search("{}"), null));
+            Future<String> b = pool.submit(() -> cache.cached("search_files", slow).execute(search("{}"), null));
+            Future<String> c = pool.submit(() -> cache.cached("search_files", slow).execute(search("{}"), null));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("slow result");
+            assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("slow result");
+            assertThat(c.get(5, TimeUnit.SECONDS)).isEqualTo("slow result");
+            assertThat(calls).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrigramIndexServiceTest {
+
+    @Test
+    void reconcileIndexesTextFilesAndSkipsBuildOutputAndBinaries(@TempDir Path root) throws IOException {
+        write(root.resolve("src/Main.java"), "class Main { void searchTarget() {} }");
+        write(root.resolve("build/Generated.java"), "searchTarget");
+        write(root.resolve("lib/app.jar"), "searchTarget");
+        TrigramIndexService service = new TrigramIndexService(new TrigramIndex(null), null);
+
+        TrigramIndex index = service.upToDate(path(root));
+
+        assertThat(index.candidates(TrigramQuery.plan("searchTarget")))
+                .containsExactly(path(root) + "/src/Main.java");
+    }
+
+    @Test
+    void vfsEventsReindexOnlyDirtyPaths(@TempDir Path root) throws IOException {
+        Path main = root.resolve("src/Main.java");
+        Path util = root.resolve("src/Util.java");
+        write(main, "class Main { int before; }");
+        write(util, "class Util { int before; }");
+        TrigramIndexService service = new TrigramIndexService(new TrigramIndex(null), null);
+        service.upToDate(path(root));
+
+        write(main, "class Main { int after; }");
+        Files.delete(util);
+        VFileContentChangeEvent change = mock(VFileContentChangeEvent.class);
+        when(change.getPath()).thenReturn(path(main));
+        VFileDeleteEvent delete = mock(VFileDeleteEvent.class);
+        when(delete.getPath()).thenReturn(path(util));
+        service.handleEvents(List.of(change, delete));
+
+        TrigramIndex index = service.upToDate(path(root));
+
+        assertThat(index.candidates(TrigramQuery.plan("after"))).containsExactly(path(main));
+        assertThat(index.candidates(TrigramQuery.plan("before"))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsOutsideTheRootOrInSkippedDirsAreNotRecorded(@TempDir Path tmp) throws IOException {
+        Path root = tmp.resolve("project");
+        write(root.resolve("src/Main.java"), "class Main {}");
+        TrigramIndexService service = new TrigramIndexService(new TrigramIndex(null), null);
+        service.upToDate(path(root));
+
+        Path outside = tmp.resolve("other/Outside.java");
+        Path generated = root.resolve("build/Generated.java");
+        write(outside, "searchTarget");
+        write(generated, "searchTarget");
+        service.handleEvents(List.of(contentChange(outside), contentChange(generated)));
+
+        assertThat(service.upToDate(path(root)).candidates(TrigramQuery.plan("searchTarget"))).isEmpty();
+    }
+
+    @Test
+    void deletingADirectoryDropsTheFilesBelowIt(@TempDir Path root) throws IOException {
+        Path pkg = root.resolve("src/pkg");
+        write(pkg.resolve("A.java"), "class A {}");
+        write(pkg.resolve("B.java"), "class B {}");
+        write(root.resolve("src/Main.java"), "class Main {}");
+        TrigramIndexService service = new TrigramIndexService(new TrigramIndex(null), null);
+        service.upToDate(path(root));
+
+        Files.delete(pkg.resolve("A.java"));
+        Files.delete(pkg.resolve("B.java"));
+        Files.delete(pkg);
+        VirtualFile directory = mock(VirtualFile.class);
+        when(directory.isDirectory()).thenReturn(true);
+        VFileDeleteEvent delete = mock(VFileDeleteEvent.class);
+        when(delete.getPath()).thenReturn(path(pkg));
+        when(delete.getFile()).thenReturn(directory);
+        service.handleEvents(List.of(delete));
+
+        assertThat(service.upToDate(path(root)).candidates(null)).containsExactly(path(root) + "/src/Main.java");
+    }
+
+    @Test
+    void persistedIndexOnlyRereadsChangedFiles(@TempDir Path tmp) throws IOException {
+        Path root = tmp.resolve("project");
+        Path stored = tmp.resolve("index.bin");
+        write(root.resolve("A.txt"), "alpha");
+        write(root.resolve("B.txt"), "bravo");
+        TrigramIndexService first = new TrigramIndexService(new TrigramIndex(stored), null);
+        first.upToDate(path(root));
+        first.dispose();
+
+        Files.delete(root.resolve("B.txt"));
+        write(root.resolve("C.txt"), "charlie");
+        TrigramIndex reloaded = new TrigramIndexService(new TrigramIndex(stored), null).upToDate(path(root));
+
+        assertThat(reloaded.candidates(null)).containsExactly(path(root) + "/A.txt", path(root) + "/C.txt");
+        assertThat(reloaded.candidates(TrigramQuery.plan("charlie"))).containsExactly(path(root) + "/C.txt");
+    }
+
+    private static VFileContentChangeEvent contentChange(Path file) {
+        VFileContentChangeEvent change = mock(VFileContentChangeEvent.class);
+        when(change.getPath()).thenReturn(path(file));
+        return change;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static String path(Path file) {
+        return file.toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,90 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void candidatesAreFilesContainingEveryTrigram() {
+        TrigramIndex index = new TrigramIndex(null);
+        index.update("/p/A.java", 1, 10, "class ProjectScanner {}");
+        index.update("/p/B.java", 1, 10, "class TokenCalculator {}");
+        index.update("/p/C.java", 1, 10, "// uses projectScanner and tokens");
+
+        assertThat(index.candidates(TrigramQuery.plan("ProjectScanner")))
+                .as("matching is case-insensitive")
+                .containsExactly("/p/A.java", "/p/C.java");
+        assertThat(index.candidates(TrigramQuery.plan("TokenCalc"))).containsExactly("/p/B.java");
+        assertThat(index.candidates(TrigramQuery.plan("Missing"))).isEmpty();
+    }
+
+    @Test
+    void nullQueryReturnsAllFiles() {
+        TrigramIndex index = new TrigramIndex(null);
+        index.update("/p/b.txt", 1, 1, "bbb");
+        index.update("/p/a.txt", 1, 1, "aaa");
+
+        assertThat(index.candidates(null)).containsExactly("/p/a.txt", "/p/b.txt");
+    }
+
+    @Test
+    void unindexedFilesAreAlwaysCandidates() {
+        TrigramIndex index = new TrigramIndex(null);
+        index.update("/p/huge.log", 1, 5_000_000, null);
+        index.update("/p/small.txt", 1, 5, "hello");
+
+        assertThat(index.candidates(TrigramQuery.plan("nothing-like-this"))).containsExactly("/p/huge.log");
+    }
+
+    @Test
+    void reindexReplacesOldContentAndRemoveTreeDropsDirectory() {
+        TrigramIndex index = new TrigramIndex(null);
+        index.update("/p/src/A.java", 1, 5, "oldName");
+        index.update("/p/src/A.java", 2, 5, "newName");
+        index.update("/p/src/sub/B.java", 1, 5, "newName");
+        index.update("/p/srcX/C.java", 1, 5, "newName");
+
+        assertThat(index.candidates(TrigramQuery.plan("oldName"))).isEmpty();
+        assertThat(index.isCurrent("/p/src/A.java", 2, 5)).isTrue();
+        assertThat(index.isCurrent("/p/src/A.java", 1, 5)).isFalse();
+
+        index.removeTree("/p/src");
+
+        assertThat(index.candidates(TrigramQuery.plan("newName"))).containsExactly("/p/srcX/C.java");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void trigramsSpanningLineBreaksAreNotIndexed() {
+        TrigramIndex index = new TrigramIndex(null);
+        index.update("/p/A.txt", 1, 5, "ab\ncd");
+
+        assertThat(TrigramIndex.trigrams("ab\ncd")).isEmpty();
+        assertThat(index.candidates(TrigramQuery.plan("abcd"))).isEmpty();
+    }
+
+    @Test
+    void persistsAndCompactsAcrossReload(@TempDir Path tmp) {
+        Path file = tmp.resolve("trigram.bin");
+        TrigramIndex index = new TrigramIndex(file);
+        index.update("/p/A.java", 1, 5, "alpha beta");
+        index.update("/p/B.java", 1, 5, "gamma delta");
+        index.update("/p/A.java", 2, 6, "alpha epsilon");
+        index.update("/p/big.bin", 3, 9_000_000, null);
+        index.remove("/p/B.java");
+        index.flush();
+
+        TrigramIndex reloaded = new TrigramIndex(file);
+
+        assertThat(reloaded.size()).isEqualTo(2);
+        assertThat(reloaded.isCurrent("/p/A.java", 2, 6)).isTrue();
+        assertThat(reloaded.candidates(TrigramQuery.plan("epsilon"))).containsExactly("/p/A.java", "/p/big.bin");
+        assertThat(reloaded.candidates(TrigramQuery.plan("beta"))).containsExactly("/p/big.bin");
+        assertThat(reloaded.candidates(TrigramQuery.plan("gamma"))).containsExactly("/p/big.bin");
+    }
+}
@@ -0,0 +1,76 @@
+package com.devoxx.genie.service.agent.tool.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramQueryTest {
+
+    @Test
+    void extractsLiteralRunsBetweenMetacharacters() {
+        assertThat(TrigramQuery.requiredLiterals("public\\s+class\\s+Foo"))
+                .containsExactly("public", "class", "Foo");
+        assertThat(TrigramQuery.requiredLiterals("import java\\.util\\.List"))
+                .containsExactly("import java.util.List");
+        assertThat(TrigramQuery.requiredLiterals("\\Qa.b(c)\\E")).containsExactly("a.b(c)");
+    }
+
+    @Test
+    void optionalCharactersAndGroupsAreNotRequired() {
+        assertThat(TrigramQuery.requiredLiterals("colou?r")).containsExactly("colo");
+        assertThat(TrigramQuery.requiredLiterals("fooz*bar")).containsExactly("foo", "bar");
+        assertThat(TrigramQuery.requiredLiterals("abc{0,2}def")).containsExactly("def");
+        assertThat(TrigramQuery.requiredLiterals("get(Foo|Bar)?Name")).containsExactly("get", "Name");
+        assertThat(TrigramQuery.requiredLiterals("[abc]+xyz")).containsExactly("xyz");
+    }
+
+    @Test
+    void topLevelAlternationBecomesAlternatives() {
+        TrigramQuery query = TrigramQuery.plan("TODO|FIXME");
+
+        assertThat(query).isNotNull();
+        assertThat(query.alternatives()).hasSize(2);
+        assertThat(TrigramQuery.splitTopLevel("a(b|c)|[|]|d\\|e")).containsExactly("a(b|c)", "[|]", "d\\|e");
+    }
+
+    @Test
+    void patternsWithoutUsableLiteralsAreNotPlanned() {
+        assertThat(TrigramQuery.plan(".*")).isNull();
+        assertThat(TrigramQuery.plan("\\d+")).isNull();
+        assertThat(TrigramQuery.plan("ab")).isNull();
+        assertThat(TrigramQuery.plan("longliteral|x")).as("one branch can match anything").isNull();
+        assertThat(TrigramQuery.plan("(?x) foo bar")).as("comments mode").isNull();
+    }
+
+    @Test
+    void planNeverExcludesAMatchingFile() {
+        List<String> lines = List.of(
+                "public class ProjectScannerService {",
+                "    private static final int MAX_RESULTS = 50;",
+                "// TODO: color/colour handling",
+                "import java.util.List;",
+                "getFooName(); getName(); getBarName();",
+                "aaa-bbb_ccc e.g. 1.2.3");
+        List<String> patterns = List.of(
+                "projectscanner", "MAX_\\w+\\s*=", "colou?r", "TODO|FIXME", "import java\\.util\\.",
+                "get(Foo|Bar)?Name", "e\\.g\\.", "[0-9]\\.[0-9]", "aaa.bbb", "ccc$", "^public\\s+class",
+                "static\\s+final\\s+int", "\\bList\\b", "get.*Name");
+
+        for (String pattern : patterns) {
+            Pattern regex = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+            TrigramIndex index = new TrigramIndex(null);
+            for (int i = 0; i < lines.size(); i++) {
+                index.update("/p/" + i, 1, 1, lines.get(i));
+            }
+            List<String> candidates = index.candidates(TrigramQuery.plan(pattern));
+            for (int i = 0; i < lines.size(); i++) {
+                if (regex.matcher(lines.get(i)).find()) {
+                    assertThat(candidates).as("pattern %s, line %d", pattern, i).contains("/p/" + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.devoxx.genie.service.conversations;
+
+import com.devoxx.genie.model.conversation.ChatMessage;
+import com.devoxx.genie.model.conversation.Conversation;
+import com.intellij.openapi.project.Project;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Age, count and size policies of {@link ConversationStorageService#applyRetention} and the
+ * space they give back, against a real SQLite file.
+ */
+class ConversationRetentionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConversationStorageService storage;
+    private Project project;
+    private Project otherProject;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ConversationStorageService(tempDir.resolve("conversations.db").toString());
+        project = mock(Project.class);
+        when(project.getLocationHash()).thenReturn("hash-1");
+        otherProject = mock(Project.class);
+        when(otherProject.getLocationHash()).thenReturn("hash-2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    private Conversation newConversation(String id, LocalDateTime time, String answer) {
+        Conversation c = new Conversation();
+        c.setId(id);
+        c.setTitle("conv-" + id);
+        c.setTimestamp(time.toString());
+        c.setModelName("m");
+        c.setLlmProvider("p");
+        c.setApiKeyUsed(false);
+        c.setInputCost(0L);
+        c.setOutputCost(0L);
+        c.setContextWindow(0);
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage(true, "question " + id, c.getTimestamp()));
+        messages.add(new ChatMessage(false, answer, c.getTimestamp()));
+        c.setMessages(messages);
+        return c;
+    }
+
+    /** Random text, so compression can't hide the size. */
+    private static String incompressible(int chars, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(chars);
+        for (int i = 0; i < chars; i++) {
+            text.append((char) ('!' + random.nextInt(90)));
+        }
+        return text.toString();
+    }
+
+    @Test
+    void agePolicyDeletesOldConversations() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        storage.addConversation(project, newConversation("old", now.minusDays(40), "a"));
+        storage.addConversation(project, newConversation("new", now.minusDays(1), "b"));
+
+        ConversationStorageService.RetentionReport report =
+                storage.applyRetention(new ConversationRetentionPolicy(30, 0, 0));
+
+        assertThat(report.deletedConversations()).isEqualTo(1);
+        assertThat(storage.getConversations(project)).extracting(Conversation::getId).containsExactly("new");
+        assertThat(storage.searchConversations(project, "question", 10)).extracting(Conversation::getId)
+                .containsExactly("new");
+    }
+
+    @Test
+    void countPolicyKeepsNewestPerProject() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            storage.addConversation(project, newConversation("p1-" + i, now.minusMinutes(i), "a"));
+        }
+        storage.addConversation(otherProject, newConversation("p2-0", now.minusDays(10), "b"));
+
+        storage.applyRetention(new ConversationRetentionPolicy(0, 2, 0));
+
+        assertThat(storage.getConversations(project)).extracting(Conversation::getId).containsExactly("p1-0", "p1-1");
+        assertThat(storage.getConversations(otherProject)).hasSize(1);
+    }
+
+    @Test
+    void sizePolicyDeletesOldestAndReclaimsSpace() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 40; i++) {
+            storage.addConversation(project, newConversation(String.valueOf(i), now.minusMinutes(i), incompressible(50_000, i)));
+        }
+        long limit = 512 * 1024;
+
+        ConversationStorageService.RetentionReport report =
+                storage.applyRetention(new ConversationRetentionPolicy(0, 0, limit));
+
+        assertThat(report.deletedConversations()).isGreaterThan(0);
+        assertThat(report.reclaimedBytes()).isPositive();
+        assertThat(report.bytesAfter()).isLessThan(report.bytesBefore());
+        assertThat(storage.databaseBytes()).isLessThanOrEqualTo(limit + 256 * 1024);
+        assertThat(storage.getConversationHeaders(project, 0, 1)).extracting(Conversation::getId).containsExactly("0");
+        assertThat(storage.getLastRetentionReport()).isEqualTo(report);
+    }
+
+    @Test
+    void disabledPolicyOnlyCompacts() throws Exception {
+        storage.addConversation(project, newConversation("1", LocalDateTime.now(), "a"));
+
+        ConversationStorageService.RetentionReport report =
+                storage.applyRetention(new ConversationRetentionPolicy(0, 0, 0));
+
+        assertThat(report.deletedConversations()).isZero();
+        assertThat(storage.getConversations(project)).hasSize(1);
+    }
+}
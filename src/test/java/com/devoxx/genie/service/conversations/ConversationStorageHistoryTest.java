@@ -0,0 +1,129 @@
+package com.devoxx.genie.service.conversations;
+
+import com.devoxx.genie.model.conversation.ChatMessage;
+import com.devoxx.genie.model.conversation.Conversation;
+import com.intellij.openapi.project.Project;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paged headers, lazy message loading, compressed content and full-text search of
+ * {@link ConversationStorageService} against a real SQLite file.
+ */
+class ConversationStorageHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConversationStorageService storage;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ConversationStorageService(tempDir.resolve("conversations.db").toString());
+        project = mock(Project.class);
+        when(project.getLocationHash()).thenReturn("hash-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+    }
+
+    private Conversation newConversation(String id, int minutesAgo, String question, String answer) {
+        Conversation c = new Conversation();
+        c.setId(id);
+        c.setTitle("conv-" + id);
+        c.setTimestamp(LocalDateTime.of(2026, 1, 1, 12, 0).minusMinutes(minutesAgo).toString());
+        c.setModelName("m");
+        c.setLlmProvider("p");
+        c.setApiKeyUsed(false);
+        c.setInputCost(0L);
+        c.setOutputCost(0L);
+        c.setContextWindow(0);
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage(true, question, c.getTimestamp()));
+        messages.add(new ChatMessage(false, answer, c.getTimestamp()));
+        c.setMessages(messages);
+        return c;
+    }
+
+    @Test
+    void headersArePagedNewestFirstWithoutMessages() {
+        for (int i = 0; i < 5; i++) {
+            storage.addConversation(project, newConversation(String.valueOf(i), i, "q" + i, "a" + i));
+        }
+
+        List<Conversation> first = storage.getConversationHeaders(project, 0, 2);
+        List<Conversation> last = storage.getConversationHeaders(project, 4, 2);
+
+        assertThat(first).extracting(Conversation::getId).containsExactly("0", "1");
+        assertThat(first).allSatisfy(c -> assertThat(c.getMessages()).isEmpty());
+        assertThat(last).extracting(Conversation::getId).containsExactly("4");
+    }
+
+    @Test
+    void loadMessagesRestoresOrderAndRoles() {
+        storage.addConversation(project, newConversation("1", 0, "question", "answer"));
+        Conversation header = storage.getConversationHeaders(project, 0, 10).get(0);
+
+        Conversation loaded = storage.loadMessages(header);
+
+        assertThat(loaded.getMessages()).extracting(ChatMessage::getContent).containsExactly("question", "answer");
+        assertThat(loaded.getMessages()).extracting(ChatMessage::isUser).containsExactly(true, false);
+    }
+
+    @Test
+    void largeMessagesRoundTripThroughCompression() {
+        String large = "public class Foo { }\n".repeat(2_000);
+        storage.addConversation(project, newConversation("1", 0, "show code", large));
+
+        assertThat(ConversationStorageService.encodeContent(large)).isInstanceOf(byte[].class);
+        assertThat(ConversationStorageService.encodeContent("short")).isEqualTo("short");
+        assertThat(storage.getConversations(project).get(0).getMessages().get(1).getContent()).isEqualTo(large);
+    }
+
+    @Test
+    void searchMatchesMessageContentAndPrefixes() {
+        storage.addConversation(project, newConversation("1", 0, "How do I configure Gradle?", "Use build.gradle.kts"));
+        storage.addConversation(project, newConversation("2", 1, "Explain records", "Records are immutable"));
+
+        assertThat(storage.searchConversations(project, "immutable", 10))
+                .extracting(Conversation::getId).containsExactly("2");
+        assertThat(storage.searchConversations(project, "configure grad", 10))
+                .extracting(Conversation::getId).containsExactly("1");
+        assertThat(storage.searchConversations(project, "  ", 10)).hasSize(2);
+    }
+
+    @Test
+    void searchIndexFollowsUpdatesAndRemovals() {
+        Conversation conversation = newConversation("1", 0, "first question", "first answer");
+        storage.addConversation(project, conversation);
+        conversation.getMessages().add(new ChatMessage(true, "follow-up about kotlin", conversation.getTimestamp()));
+        storage.addConversation(project, conversation);
+
+        assertThat(storage.searchConversations(project, "kotlin", 10)).hasSize(1);
+        assertThat(storage.searchConversations(project, "first", 10)).hasSize(1);
+
+        storage.removeConversation(project, conversation);
+
+        assertThat(storage.searchConversations(project, "kotlin", 10)).isEmpty();
+    }
+
+    @Test
+    void matchQueryQuotesTermsAndPrefixesLastOne() {
+        assertThat(ConversationStorageService.toMatchQuery("foo  \"bar")).isEqualTo("\"foo\" \"\"\"bar\"*");
+        assertThat(ConversationStorageService.toMatchQuery("   ")).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.devoxx.genie.service.mcp;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+
+class CachedMcpToolProviderTest {
+
+    private static final ToolProviderRequest REQUEST = new ToolProviderRequest("test", UserMessage.from("hi"));
+
+    private final McpClient clientA = mock(McpClient.class);
+    private final McpClient clientB = mock(McpClient.class);
+    private final Map<McpClient, Integer> loadsPerClient = new ConcurrentHashMap<>();
+    private MockedStatic<MCPService> mockedMCPService;
+
+    @BeforeEach
+    void setUp() {
+        mockedMCPService = Mockito.mockStatic(MCPService.class);
+        mockedMCPService.when(() -> MCPService.logDebug(any(String.class))).thenAnswer(inv -> null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedMCPService.close();
+    }
+
+    private McpToolCatalog catalog() {
+        return new McpToolCatalog((client, request) -> {
+            loadsPerClient.merge(client, 1, Integer::sum);
+            if (client == clientA) return McpToolCatalogTest.result("a_one", "a_two");
+            if (client == clientB) return McpToolCatalogTest.result("b_one");
+            throw new IllegalStateException("unreachable server");
+        }, System::currentTimeMillis);
+    }
+
+    private static Map<String, McpClient> clients(Object... nameAndClient) {
+        Map<String, McpClient> clients = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndClient.length; i += 2) {
+            clients.put((String) nameAndClient[i], (McpClient) nameAndClient[i + 1]);
+        }
+        return clients;
+    }
+
+    @Test
+    void mergesToolsOfAllServers() {
+        CachedMcpToolProvider provider = new CachedMcpToolProvider(
+                clients("a", clientA, "b", clientB), catalog(), Runnable::run);
+
+        ToolProviderResult result = provider.provideTools(REQUEST);
+
+        assertThat(result.tools().keySet()).extracting(ToolSpecification::name)
+                .containsExactlyInAnyOrder("a_one", "a_two", "b_one");
+    }
+
+    @Test
+    void laterPromptsReuseCachedCatalogs() {
+        McpToolCatalog catalog = catalog();
+        Map<String, McpClient> clients = clients("a", clientA, "b", clientB);
+
+        new CachedMcpToolProvider(clients, catalog, Runnable::run).provideTools(REQUEST);
+        new CachedMcpToolProvider(clients, catalog, Runnable::run).provideTools(REQUEST);
+        new CachedMcpToolProvider(clients, catalog, Runnable::run).provideTools(REQUEST);
+
+        assertThat(loadsPerClient).containsEntry(clientA, 1).containsEntry(clientB, 1);
+    }
+
+    @Test
+    void failingServerContributesNoTools() {
+        McpClient broken = mock(McpClient.class);
+        CachedMcpToolProvider provider = new CachedMcpToolProvider(
+                clients("a", clientA, "broken", broken), catalog(), Runnable::run);
+
+        ToolProviderResult result = provider.provideTools(REQUEST);
+
+        assertThat(result.tools().keySet()).extracting(ToolSpecification::name)
+                .containsExactlyInAnyOrderElementsOf(List.of("a_one", "a_two"));
+    }
+}
@@ -559,4 +559,55 @@ class MCPExecutionServiceTest {
             consumer.accept("< some response");
         }
     }
+
+    // ─── warmUp ────────────────────────────────────────────────
+
+    @Nested
+    class WarmUp {
+
+        @Test
+        void startsEnabledServersAndLoadsTheirCatalogs() {
+            MCPServer server = stdioServer("s1");
+            MCPServer disabled = disabledServer("s2");
+            Map<String, MCPServer> servers = new LinkedHashMap<>();
+            servers.put("s1", server);
+            servers.put("s2", disabled);
+            when(stateService.getMcpEnabled()).thenReturn(true);
+            when(mcpSettings.getMcpServers()).thenReturn(servers);
+            when(mockCreator.create(server)).thenReturn(mockClient1);
+            McpToolCatalog catalog = new McpToolCatalog(
+                    (client, request) -> McpToolCatalogTest.result("tool"), System::currentTimeMillis);
+            MCPExecutionService warmService = new MCPExecutionService(mockCreator, catalog, Runnable::run);
+
+            warmService.warmUp();
+
+            assertThat(warmService.getCacheSize()).isEqualTo(1);
+            assertThat(catalog.isCached("s1")).isTrue();
+            verify(mockCreator, never()).create(disabled);
+        }
+
+        @Test
+        void doesNothingWhenMcpDisabled() {
+            when(stateService.getMcpEnabled()).thenReturn(false);
+            when(mcpSettings.getMcpServers()).thenReturn(Map.of("s1", stdioServer("s1")));
+
+            service.warmUp();
+
+            verifyNoInteractions(mockCreator);
+        }
+
+        @Test
+        void warmedClientIsReusedByPromptProvider() {
+            MCPServer server = stdioServer("s1");
+            when(stateService.getMcpEnabled()).thenReturn(true);
+            when(mcpSettings.getMcpServers()).thenReturn(Map.of("s1", server));
+            when(mockCreator.create(server)).thenReturn(mockClient1);
+
+            service.warmUp();
+            ToolProvider result = service.createRawMCPToolProvider();
+
+            assertThat(result).isNotNull();
+            verify(mockCreator, times(1)).create(server);
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.devoxx.genie.service.mcp;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.mcp.client.McpClient;
+import dev.langchain4j.service.tool.ToolExecutor;
+import dev.langchain4j.service.tool.ToolProviderRequest;
+import dev.langchain4j.service.tool.ToolProviderResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+
+class McpToolCatalogTest {
+
+    private static final ToolProviderRequest REQUEST = new ToolProviderRequest("test", UserMessage.from("hi"));
+
+    private final McpClient client = mock(McpClient.class);
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private MockedStatic<MCPService> mockedMCPService;
+
+    @BeforeEach
+    void setUp() {
+        mockedMCPService = Mockito.mockStatic(MCPService.class);
+        mockedMCPService.when(() -> MCPService.logDebug(any(String.class))).thenAnswer(inv -> null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedMCPService.close();
+    }
+
+    private McpToolCatalog catalog() {
+        return new McpToolCatalog((c, r) -> {
+            loads.incrementAndGet();
+            return result("tool_" + loads.get());
+        }, now::get);
+    }
+
+    @Test
+    void loadsOnceAndServesFromCache() {
+        McpToolCatalog catalog = catalog();
+
+        ToolProviderResult first = catalog.tools("server", client, REQUEST);
+        ToolProviderResult second = catalog.tools("server", client, REQUEST);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(catalog.isCached("server")).isTrue();
+    }
+
+    @Test
+    void servesStaleCatalogAndReloadsItInTheBackground() {
+        List<Runnable> background = new ArrayList<>();
+        McpToolCatalog catalog = new McpToolCatalog((c, r) -> {
+            loads.incrementAndGet();
+            return result("tool_" + loads.get());
+        }, now::get, background::add);
+        catalog.tools("server", client, REQUEST);
+
+        now.addAndGet(McpToolCatalog.REFRESH_AFTER.toMillis());
+
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("tool_1");
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("tool_1");
+        assertThat(background).hasSize(1);
+        assertThat(loads).hasValue(1);
+
+        background.get(0).run();
+
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("tool_2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void failedBackgroundReloadKeepsServingTheCatalog() {
+        AtomicInteger attempts = new AtomicInteger();
+        McpToolCatalog catalog = new McpToolCatalog((c, r) -> {
+            if (attempts.incrementAndGet() == 2) {
+                throw new IllegalStateException("server busy");
+            }
+            return result("tool_" + attempts.get());
+        }, now::get);
+        catalog.tools("server", client, REQUEST);
+        now.addAndGet(McpToolCatalog.REFRESH_AFTER.toMillis());
+
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("tool_1");
+        assertThat(catalog.isCached("server")).isTrue();
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("tool_1");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void invalidateForcesReloadOfThatServerOnly() {
+        McpToolCatalog catalog = catalog();
+        catalog.tools("a", client, REQUEST);
+        catalog.tools("b", client, REQUEST);
+
+        catalog.invalidate("a");
+
+        assertThat(catalog.isCached("a")).isFalse();
+        assertThat(catalog.isCached("b")).isTrue();
+        catalog.tools("a", client, REQUEST);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void invalidateAllDropsEveryCatalog() {
+        McpToolCatalog catalog = catalog();
+        catalog.tools("a", client, REQUEST);
+        catalog.tools("b", client, REQUEST);
+
+        catalog.invalidateAll();
+
+        assertThat(catalog.isCached("a")).isFalse();
+        assertThat(catalog.isCached("b")).isFalse();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        AtomicInteger attempts = new AtomicInteger();
+        McpToolCatalog catalog = new McpToolCatalog((c, r) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("server not ready");
+            }
+            return result("late_tool");
+        }, now::get);
+
+        assertThat(catalog.tools("server", client, REQUEST)).isNull();
+        assertThat(catalog.isCached("server")).isFalse();
+        assertThat(toolName(catalog.tools("server", client, REQUEST))).isEqualTo("late_tool");
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotStored() {
+        McpToolCatalog[] holder = new McpToolCatalog[1];
+        holder[0] = new McpToolCatalog((c, r) -> {
+            holder[0].invalidate("server"); // the client is replaced while listing
+            return result("stale_tool");
+        }, now::get);
+
+        ToolProviderResult tools = holder[0].tools("server", client, REQUEST);
+
+        assertThat(toolName(tools)).isEqualTo("stale_tool");
+        assertThat(holder[0].isCached("server")).isFalse();
+    }
+
+    static ToolProviderResult result(String... toolNames) {
+        ToolProviderResult.Builder builder = ToolProviderResult.builder();
+        for (String name : toolNames) {
+            builder.add(ToolSpecification.builder().name(name).build(), mock(ToolExecutor.class));
+        }
+        return builder.build();
+    }
+
+    private static String toolName(ToolProviderResult result) {
+        return result.tools().keySet().iterator().next().name();
+    }
+}
@@ -0,0 +1,64 @@
+package com.devoxx.genie.service.process;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputBufferTest {
+
+    @Test
+    void keepsEverythingWithinCapacity() {
+        OutputBuffer buffer = new OutputBuffer(1_000);
+        buffer.appendLine("one");
+        buffer.appendLine("two");
+
+        assertThat(buffer.toString()).isEqualTo("one\ntwo\n");
+        assertThat(buffer.isTruncated()).isFalse();
+    }
+
+    @Test
+    void keepsHeadAndTailOfLongOutput() {
+        OutputBuffer buffer = new OutputBuffer(1_000);
+        buffer.appendLine("first");
+        for (int i = 0; i < 10_000; i++) {
+            buffer.appendLine("line " + i);
+        }
+        buffer.appendLine("last");
+
+        String text = buffer.toString();
+        assertThat(buffer.isTruncated()).isTrue();
+        assertThat(text).startsWith("first\nline 0\n")
+                .endsWith("line 9999\nlast\n")
+                .contains(OutputBuffer.TRUNCATION_MARKER)
+                .doesNotContain("line 5000\n");
+        assertThat(text.length()).isLessThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void reportsNumberOfOmittedLines() {
+        OutputBuffer buffer = new OutputBuffer(200);
+        for (int i = 0; i < 100; i++) {
+            buffer.appendLine("0123456789");
+        }
+
+        // 9 lines fit the head (100 chars), 3 the tail (200 - 100 - 64 reserved); the rest is dropped
+        assertThat(buffer.toString()).contains("88 lines omitted");
+    }
+
+    @Test
+    void keepsEndOfHugeSingleLine() {
+        OutputBuffer buffer = new OutputBuffer(200);
+        buffer.appendLine("x".repeat(500) + "the end");
+
+        assertThat(buffer.toString()).endsWith("the end\n");
+        assertThat(buffer.toString().length()).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void zeroCapacityStoresNothing() {
+        OutputBuffer buffer = new OutputBuffer(0);
+        buffer.appendLine("dropped");
+
+        assertThat(buffer.toString()).startsWith(OutputBuffer.TRUNCATION_MARKER).doesNotContain("dropped");
+    }
+}
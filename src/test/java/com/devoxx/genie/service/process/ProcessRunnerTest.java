@@ -0,0 +1,158 @@
+package com.devoxx.genie.service.process;
+
+import com.intellij.openapi.util.SystemInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProcessRunnerTest {
+
+    private static Process mockProcess(String stdout, String stderr) {
+        Process process = mock(Process.class);
+        when(process.getInputStream()).thenReturn(new ByteArrayInputStream(stdout.getBytes(StandardCharsets.UTF_8)));
+        if (stderr != null) {
+            when(process.getErrorStream()).thenReturn(new ByteArrayInputStream(stderr.getBytes(StandardCharsets.UTF_8)));
+        }
+        return process;
+    }
+
+    @Test
+    void capturesBothStreamsAndExitCode() throws Exception {
+        Process process = mockProcess("out 1\nout 2\n", "err 1\n");
+        when(process.waitFor(anyLong(), any())).thenReturn(true);
+        when(process.exitValue()).thenReturn(3);
+
+        ProcessRunner.Result result = ProcessRunner.run(process, Duration.ofSeconds(5), new OutputBuffer(1_000), null);
+
+        assertThat(result.timedOut()).isFalse();
+        assertThat(result.exitCode()).isEqualTo(3);
+        assertThat(result.output()).contains("out 1\n", "out 2\n", "err 1\n");
+    }
+
+    @Test
+    void notifiesListenerPerLineWithItsStream() throws Exception {
+        Process process = mockProcess("out\n", "err\n");
+        when(process.waitFor(anyLong(), any())).thenReturn(true);
+        List<String> lines = new CopyOnWriteArrayList<>();
+
+        ProcessRunner.run(process, Duration.ofSeconds(5), null,
+                (line, stderr) -> lines.add((stderr ? "E:" : "O:") + line));
+
+        assertThat(lines).containsExactlyInAnyOrder("O:out", "E:err");
+    }
+
+    @Test
+    void failingListenerDoesNotStopCapture() throws Exception {
+        Process process = mockProcess("a\nb\n", null);
+        when(process.waitFor(anyLong(), any())).thenReturn(true);
+
+        ProcessRunner.Result result = ProcessRunner.run(process, Duration.ofSeconds(5), new OutputBuffer(1_000),
+                (line, stderr) -> {
+                    throw new IllegalStateException("listener broke");
+                });
+
+        assertThat(result.output()).isEqualTo("a\nb\n");
+    }
+
+    @Test
+    void nullTimeoutWaitsForExit() throws Exception {
+        Process process = mockProcess("done\n", null);
+        when(process.waitFor()).thenReturn(0);
+
+        ProcessRunner.Result result = ProcessRunner.run(process, null, new OutputBuffer(1_000), null);
+
+        verify(process).waitFor();
+        verify(process, never()).waitFor(anyLong(), any());
+        assertThat(result.output()).isEqualTo("done\n");
+    }
+
+    @Test
+    void timeoutKillsProcessTreeAndKeepsPartialOutput() throws Exception {
+        Process process = mockProcess("partial\n", null);
+        ProcessHandle child = mock(ProcessHandle.class);
+        when(process.descendants()).thenReturn(Stream.of(child));
+        when(process.waitFor(anyLong(), any())).thenReturn(false);
+
+        ProcessRunner.Result result = ProcessRunner.run(process, Duration.ofSeconds(1), new OutputBuffer(1_000), null);
+
+        assertThat(result.timedOut()).isTrue();
+        assertThat(result.exitCode()).isEqualTo(-1);
+        assertThat(result.output()).isEqualTo("partial\n");
+        verify(process).destroyForcibly();
+        verify(child).destroyForcibly();
+        verify(process).waitFor(1_000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void interruptKillsProcessAndPropagates() throws Exception {
+        Process process = mockProcess("", null);
+        when(process.waitFor(anyLong(), any())).thenThrow(new InterruptedException("stop"));
+
+        assertThatThrownBy(() -> ProcessRunner.run(process, Duration.ofSeconds(5), new OutputBuffer(1_000), null))
+                .isInstanceOf(InterruptedException.class);
+        verify(process).destroyForcibly();
+    }
+
+    @Test
+    void realProcessIsKilledAtTheWallClockTimeout() throws Exception {
+        assumeThat(SystemInfo.isWindows).isFalse();
+        Process process = new ProcessBuilder("/bin/sh", "-c", "echo started; sleep 30").start();
+
+        long start = System.currentTimeMillis();
+        ProcessRunner.Result result = ProcessRunner.run(process, Duration.ofMillis(500), new OutputBuffer(1_000), null);
+
+        assertThat(result.timedOut()).isTrue();
+        assertThat(result.output()).contains("started");
+        assertThat(System.currentTimeMillis() - start).isLessThan(ProcessRunner.DRAIN_TIMEOUT_MS);
+        assertThat(process.isAlive()).isFalse();
+    }
+
+    @Test
+    void readLines_splitsOverlongLinesIntoBoundedPieces() throws Exception {
+        String huge = "x".repeat(ProcessRunner.MAX_LINE_CHARS * 2 + 10);
+        List<String> lines = new ArrayList<>();
+
+        ProcessRunner.readLines(new StringReader(huge + "\nnext\n"), ProcessRunner.MAX_LINE_CHARS, lines::add);
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.subList(0, 3)).allMatch(piece -> piece.length() <= ProcessRunner.MAX_LINE_CHARS);
+        assertThat(String.join("", lines.subList(0, 3))).isEqualTo(huge);
+        assertThat(lines.get(3)).isEqualTo("next");
+    }
+
+    @Test
+    void readLines_handlesAllTerminatorsLikeReadLine() throws Exception {
+        String exact = "y".repeat(ProcessRunner.MAX_LINE_CHARS);
+        List<String> lines = new ArrayList<>();
+
+        ProcessRunner.readLines(new StringReader("a\r\nb\rc\n\n" + exact + "\nlast"),
+                ProcessRunner.MAX_LINE_CHARS, lines::add);
+
+        assertThat(lines).containsExactly("a", "b", "c", "", exact, "last");
+    }
+
+    @Test
+    void readLines_keepsLongLinesWholeWhenUnlimited() throws Exception {
+        String event = "{\"text\":\"" + "z".repeat(ProcessRunner.MAX_LINE_CHARS * 3) + "\"}";
+        List<String> lines = new ArrayList<>();
+
+        ProcessRunner.readLines(new StringReader(event + "\nnext"), ProcessRunner.UNLIMITED_LINE_CHARS, lines::add);
+
+        assertThat(lines).containsExactly(event, "next");
+    }
+}
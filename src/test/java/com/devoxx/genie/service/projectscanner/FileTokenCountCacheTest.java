@@ -0,0 +1,83 @@
+package com.devoxx.genie.service.projectscanner;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileTokenCountCacheTest {
+
+    private final FileTokenCountCache cache = new FileTokenCountCache();
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Test
+    void unchangedFileIsCountedOnce() {
+        VirtualFile file = file("/p/src/A.java", 1L);
+
+        assertThat(cache.tokens(file, "cl100k_base", this::compute)).isEqualTo(42);
+        assertThat(cache.tokens(file, "cl100k_base", this::compute)).isEqualTo(42);
+
+        assertThat(computed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void modificationStampChangeForcesRecount() {
+        VirtualFile file = file("/p/src/A.java", 1L);
+        cache.tokens(file, "cl100k_base", this::compute);
+
+        when(file.getModificationStamp()).thenReturn(2L);
+        cache.tokens(file, "cl100k_base", this::compute);
+
+        assertThat(computed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void countsAreKeptPerVariant() {
+        VirtualFile file = file("/p/src/A.java", 1L);
+
+        cache.tokens(file, "cl100k_base", this::compute);
+        cache.tokens(file, "r50k_base", this::compute);
+        cache.tokens(file, "cl100k_base", this::compute);
+
+        assertThat(computed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void vfsEventsEvictChangedFilesAndDeletedTrees() {
+        VirtualFile a = file("/p/src/A.java", 1L);
+        VirtualFile b = file("/p/src/sub/B.java", 1L);
+        VirtualFile c = file("/p/other/C.java", 1L);
+        cache.tokens(a, "v", this::compute);
+        cache.tokens(b, "v", this::compute);
+        cache.tokens(c, "v", this::compute);
+
+        VFileContentChangeEvent change = mock(VFileContentChangeEvent.class);
+        when(change.getPath()).thenReturn("/p/other/C.java");
+        VFileDeleteEvent delete = mock(VFileDeleteEvent.class);
+        when(delete.getPath()).thenReturn("/p/src");
+        cache.handleEvents(List.of(change, delete));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private int compute(VirtualFile file) {
+        computed.incrementAndGet();
+        return 42;
+    }
+
+    private static VirtualFile file(String path, long stamp) {
+        VirtualFile file = mock(VirtualFile.class);
+        when(file.getPath()).thenReturn(path);
+        when(file.getModificationStamp()).thenReturn(stamp);
+        when(file.getTimeStamp()).thenReturn(1000L);
+        when(file.getLength()).thenReturn(10L);
+        return file;
+    }
+}
@@ -2,9 +2,12 @@ package com.devoxx.genie.service.projectscanner;
 
 import com.devoxx.genie.model.ScanContentResult;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
+import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +91,7 @@ class ProjectScannerServiceTest  {
 
         // Set up TokenCalculator behavior
         when(mockTokenCalculator.calculateTokens(anyString())).thenReturn(50);
+        when(mockTokenCalculator.countTokens(anyString())).thenReturn(50);
         when(mockTokenCalculator.truncateToTokens(anyString(), anyInt(), anyBoolean())).thenAnswer(invocation -> {
             String content = invocation.getArgument(0);
             int maxTokens = invocation.getArgument(1);
@@ -129,80 +133,54 @@ class ProjectScannerServiceTest  {
     }
 
     @Test
-    void testScanContent_WithNullDirectory() {
-        try (MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-            // CRITICAL: Mock ProjectFileIndex.getInstance() to return a specific mock instance
-            projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
-                    .thenReturn(mockProjectFileIndex);
-            
-            // Setup
-            List<VirtualFile> fileList = new ArrayList<>();
-            fileList.add(mockFile);
-            when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockRootDirectory), any(ScanContentResult.class))).thenReturn(fileList);
+    void testScanProject_WithNullDirectory() {
+        List<VirtualFile> fileList = new ArrayList<>();
+        fileList.add(mockFile);
+        when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockRootDirectory), any(ScanContentResult.class))).thenReturn(fileList);
 
-            // We need to directly test scanContent() method with the ScanContentResult and ProjectFileIndex
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = projectScannerService.scanContent(mockProject, null, 100, false, scanContentResult, mockProjectFileIndex);
+        ScanContentResult result = scan(projectScannerService, null, 100);
 
-            // Verify
-            assertNotNull(content);
-            verify(mockFileScanner).scanProjectModules(mockProject);
-            verify(mockFileScanner).generateSourceTreeRecursive(mockRootDirectory, 0);
-            verify(mockFileScanner).scanDirectory(eq(mockProjectFileIndex), eq(mockRootDirectory), any(ScanContentResult.class));
-            verify(mockContentExtractor).extractFileContent(mockFile);
-            verify(mockContentExtractor).combineContent(anyString(), anyString());
-            verify(mockTokenCalculator).truncateToTokens(anyString(), eq(100), eq(false));
-        }
+        assertNotNull(result.getContent());
+        verify(mockFileScanner).scanProjectModules(mockProject);
+        verify(mockFileScanner).generateSourceTreeRecursive(mockRootDirectory, 0);
+        verify(mockFileScanner).scanDirectory(eq(mockProjectFileIndex), eq(mockRootDirectory), any(ScanContentResult.class));
+        verify(mockContentExtractor).extractFileContent(mockFile);
+        verify(mockContentExtractor).combineContent(anyString(), eq(""));
     }
 
     @Test
-    void testScanContent_WithDirectory() {
-        try (MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-            // CRITICAL: Mock ProjectFileIndex.getInstance() to return a specific mock instance
-            projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
-                    .thenReturn(mockProjectFileIndex);
-                    
-            // Setup
-            List<VirtualFile> fileList = new ArrayList<>();
-            fileList.add(mockFile);
-            when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(fileList);
-
-            // We need to directly test scanContent() method with the ScanContentResult and ProjectFileIndex
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = projectScannerService.scanContent(mockProject, mockDirectory, 100, false, scanContentResult, mockProjectFileIndex);
-
-            // Verify
-            assertNotNull(content);
-            verify(mockFileScanner, never()).scanProjectModules(mockProject); // Should not be called with directory
-            verify(mockFileScanner).generateSourceTreeRecursive(mockDirectory, 0);
-            verify(mockFileScanner).scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class));
-            verify(mockContentExtractor).extractFileContent(mockFile);
-            verify(mockContentExtractor).combineContent(anyString(), anyString());
-            verify(mockTokenCalculator).truncateToTokens(anyString(), eq(100), eq(false));
-        }
+    void testScanProject_WithDirectory() {
+        List<VirtualFile> fileList = new ArrayList<>();
+        fileList.add(mockFile);
+        when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(fileList);
+        when(mockFileScanner.getFileCount()).thenReturn(1);
+
+        ScanContentResult result = scan(projectScannerService, mockDirectory, 100);
+
+        // Header and file each count 50 tokens, which exactly fills the budget
+        assertTrue(result.getContent().endsWith("public class TestFile {}"));
+        assertEquals(100, result.getTokenCount());
+        assertEquals(1, result.getFileCount());
+        assertEquals(0, result.getSkippedFileCount());
+        assertEquals(0, result.getSkippedDirectoryCount());
+        verify(mockFileScanner, never()).scanProjectModules(mockProject);
+        verify(mockFileScanner).generateSourceTreeRecursive(mockDirectory, 0);
+        verify(mockContentExtractor).extractFileContent(mockFile);
+        verify(mockTokenCalculator, never()).truncateToTokens(anyString(), anyInt(), anyBoolean());
     }
 
     @Test
-    void testScanContent_WithSingleFile() {
-        try (MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-            // CRITICAL: Mock ProjectFileIndex.getInstance() to return a specific mock instance
-            projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
-                    .thenReturn(mockProjectFileIndex);
-                    
-            // We need to directly test scanContent() method with the ScanContentResult and ProjectFileIndex
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = projectScannerService.scanContent(mockProject, mockFile, 100, false, scanContentResult, mockProjectFileIndex);
+    void testScanProject_WithSingleFile() {
+        ScanContentResult result = scan(projectScannerService, mockFile, 100);
 
-            // Verify
-            assertNotNull(content);
-            assertTrue(content.startsWith("File:"));
-            assertTrue(content.contains(mockFile.getName()));
-            verify(mockFileScanner).shouldIncludeFile(mockFile);
-            verify(mockContentExtractor).extractFileContent(mockFile);
-            verify(mockFileScanner, never()).generateSourceTreeRecursive(any(), anyInt());
-            verify(mockFileScanner, never()).scanDirectory(any(), any(), any());
-            verify(mockContentExtractor, never()).combineContent(anyString(), anyString());
-        }
+        assertTrue(result.getContent().startsWith("File:"));
+        assertTrue(result.getContent().contains(mockFile.getName()));
+        assertEquals(50, result.getTokenCount());
+        verify(mockFileScanner).shouldIncludeFile(mockFile);
+        verify(mockContentExtractor).extractFileContent(mockFile);
+        verify(mockFileScanner, never()).generateSourceTreeRecursive(any(), anyInt());
+        verify(mockFileScanner, never()).scanDirectory(any(), any(), any());
+        verify(mockContentExtractor, never()).combineContent(anyString(), anyString());
     }
 
     @Test
@@ -239,186 +217,53 @@ class ProjectScannerServiceTest  {
         verify(mockContentExtractor, never()).extractFileContent(mockNonIncludedFile);
     }
 
-    @Test
-    void testExtractAllFileContents_WithMultipleFiles() {
-        // Setup
-        List<VirtualFile> fileList = new ArrayList<>();
-        fileList.add(mockFile);
-
-        VirtualFile mockFile2 = mock(VirtualFile.class);
-        when(mockFile2.isDirectory()).thenReturn(false);
-        when(mockFile2.getName()).thenReturn("AnotherFile.java");
-        when(mockFile2.getPath()).thenReturn("/project/AnotherFile.java");
-        when(mockContentExtractor.extractFileContent(mockFile2)).thenReturn("\n--- /project/AnotherFile.java ---\npublic class AnotherFile {}");
-
-        fileList.add(mockFile2);
-
-        // Test - direct method call
-        String result = projectScannerService.extractAllFileContents(fileList);
-
-        // Verify
-        assertNotNull(result);
-        verify(mockContentExtractor).extractFileContent(mockFile);
-        verify(mockContentExtractor).extractFileContent(mockFile2);
-        assertTrue(result.contains("TestFile.java"));
-        assertTrue(result.contains("AnotherFile.java"));
-    }
 
     @Test
-    void testExtractAllFileContents_WithEmptyList() {
-        // Setup
-        List<VirtualFile> fileList = new ArrayList<>();
+    void testScanProject_DirectoryWithNoFiles() {
+        when(mockFileScanner.generateSourceTreeRecursive(mockDirectory, 0)).thenReturn("testDir/\n");
+        when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(new ArrayList<>());
+        when(mockContentExtractor.combineContent("testDir/\n", "")).thenReturn("Directory Structure:\ntestDir/\n\nFile Contents:\n");
 
-        // Test - direct method call
-        String result = projectScannerService.extractAllFileContents(fileList);
+        ScanContentResult result = scan(projectScannerService, mockDirectory, 100);
 
-        // Verify
-        assertNotNull(result);
-        assertEquals("", result);
+        assertEquals("Directory Structure:\ntestDir/\n\nFile Contents:\n", result.getContent());
+        assertEquals(50, result.getTokenCount());
         verify(mockContentExtractor, never()).extractFileContent(any());
     }
 
     @Test
-    void testScanContent_DirectoryWithNoFiles() {
-        try (MockedStatic<DevoxxGenieStateService> mockedSettings = mockStatic(DevoxxGenieStateService.class);
-             MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-
-            // First, set up your state service mock
-            mockedSettings.when(DevoxxGenieStateService::getInstance).thenReturn(mockStateService);
-
-            // CRITICAL: Mock ProjectFileIndex.getInstance() to return a specific mock instance
-            // Make sure this is defined BEFORE calling any method that might use it
-            projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
-                    .thenReturn(mockProjectFileIndex);
-
-            // Setup
-            List<VirtualFile> emptyFileList = new ArrayList<>();
-
-            // Configure mock behaviors
-            when(mockFileScanner.generateSourceTreeRecursive(mockDirectory, 0)).thenReturn("testDir/\n");
-            when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(emptyFileList);
-            when(mockContentExtractor.combineContent(anyString(), eq(""))).thenReturn("Directory Structure:\ntestDir/\n\nFile Contents:\n");
-
-            // We need to directly test scanContent() method with the ScanContentResult and ProjectFileIndex
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = projectScannerService.scanContent(mockProject, mockDirectory, 100, false, scanContentResult, mockProjectFileIndex);
-
-            // Verify
-            assertNotNull(content);
-            assertFalse(content.isEmpty());
-            verify(mockFileScanner).scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class));
-            verify(mockContentExtractor, never()).extractFileContent(any());
-            verify(mockContentExtractor).combineContent("testDir/\n", "");
-        }
-    }
-
-    @Test
-    void testScanProject_WithDirectory() {
-        try (MockedStatic<ApplicationManager> applicationManagerMock = mockStatic(ApplicationManager.class);
-             MockedStatic<DevoxxGenieStateService> mockedSettings = mockStatic(DevoxxGenieStateService.class);
-             MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-            
-            // Setup mocking of static methods
-            projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
-                    .thenReturn(mockProjectFileIndex);
+    void testScanProject_WithTokenLimitExceeded() {
+        List<VirtualFile> fileList = new ArrayList<>();
+        fileList.add(mockFile);
+        when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(fileList);
+        // Header and file together exceed the 100 token budget
+        when(mockTokenCalculator.countTokens(anyString())).thenReturn(60);
 
-            // Setup
-            List<VirtualFile> fileList = new ArrayList<>();
-            fileList.add(mockFile);
-
-            when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(fileList);
-            when(mockFileScanner.getFileCount()).thenReturn(1);
-            when(mockFileScanner.getSkippedFileCount()).thenReturn(0);
-            when(mockFileScanner.getSkippedDirectoryCount()).thenReturn(0);
-
-            // First directly test the scanContent() method to get content
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = projectScannerService.scanContent(mockProject, mockDirectory, 100, false, scanContentResult, mockProjectFileIndex);
-            
-            // Manually build a result without using scanProject
-            scanContentResult.setTokenCount(mockTokenCalculator.calculateTokens(content));
-            scanContentResult.setContent(content);
-            scanContentResult.setFileCount(mockFileScanner.getFileCount());
-            scanContentResult.setSkippedFileCount(mockFileScanner.getSkippedFileCount());
-            scanContentResult.setSkippedDirectoryCount(mockFileScanner.getSkippedDirectoryCount());
-            mockFileScanner.getIncludedFiles().forEach(scanContentResult::addFile);
+        ScanContentResult result = scan(projectScannerService, mockDirectory, 100);
 
-            // Verify
-            assertNotNull(scanContentResult);
-            assertNotNull(scanContentResult.getContent());
-            assertEquals(50, scanContentResult.getTokenCount());
-            assertEquals(1, scanContentResult.getFileCount());
-            assertEquals(0, scanContentResult.getSkippedFileCount());
-            assertEquals(0, scanContentResult.getSkippedDirectoryCount());
-
-            // Verify correct methods were called
-            verify(mockFileScanner).generateSourceTreeRecursive(mockDirectory, 0);
-            verify(mockFileScanner).scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class));
-            verify(mockContentExtractor).extractFileContent(mockFile);
-            verify(mockContentExtractor).combineContent(anyString(), anyString());
-            verify(mockTokenCalculator, atLeastOnce()).calculateTokens(anyString());
-            verify(mockTokenCalculator).truncateToTokens(anyString(), eq(100), eq(false));
-        }
+        assertTrue(result.getContent().contains("Truncated content"));
+        assertTrue(result.getContent().endsWith(StreamingContentAssembler.TRUNCATION_MARKER));
+        verify(mockTokenCalculator).truncateToTokens(anyString(), eq(40), eq(true));
     }
 
-    @Test
-    void testScanProject_WithTokenLimitExceeded() {
+    /**
+     * Runs {@link ProjectScannerService#scanProject} with the platform statics it touches
+     * stubbed: read actions run inline and there is no progress indicator.
+     */
+    @SuppressWarnings("unchecked")
+    private ScanContentResult scan(ProjectScannerService service, VirtualFile startDirectory, int maxTokens) {
         try (MockedStatic<ApplicationManager> applicationManagerMock = mockStatic(ApplicationManager.class);
-             MockedStatic<DevoxxGenieStateService> mockedSettings = mockStatic(DevoxxGenieStateService.class);
+             MockedStatic<ProgressManager> progressManagerMock = mockStatic(ProgressManager.class);
              MockedStatic<ProjectFileIndex> projectFileIndexMock = mockStatic(ProjectFileIndex.class)) {
-
-            // Setup mocking of static methods
+            Application application = mock(Application.class);
+            applicationManagerMock.when(ApplicationManager::getApplication).thenReturn(application);
+            when(application.runReadAction(any(Computable.class)))
+                    .thenAnswer(invocation -> ((Computable<?>) invocation.getArgument(0)).compute());
+            progressManagerMock.when(ProgressManager::getInstance).thenReturn(mock(ProgressManager.class));
             projectFileIndexMock.when(() -> ProjectFileIndex.getInstance(eq(mockProject)))
                     .thenReturn(mockProjectFileIndex);
 
-            // Setup
-            List<VirtualFile> fileList = new ArrayList<>();
-            fileList.add(mockFile);
-
-            when(mockFileScanner.scanDirectory(eq(mockProjectFileIndex), eq(mockDirectory), any(ScanContentResult.class))).thenReturn(fileList);
-            when(mockFileScanner.getFileCount()).thenReturn(1);
-            when(mockFileScanner.getSkippedFileCount()).thenReturn(0);
-            when(mockFileScanner.getSkippedDirectoryCount()).thenReturn(0);
-
-            // Override specific behaviors for this test only
-            // Create a fresh ContentExtractor mock specifically for this test
-            ContentExtractor testExtractor = mock(ContentExtractor.class);
-            when(testExtractor.extractFileContent(mockFile)).thenReturn("--- file content ---");
-            when(testExtractor.combineContent(anyString(), anyString()))
-                  .thenReturn("Directory Structure:\ntestDir/\n\nFile Contents:\n--- file content ---");
-            
-            // Set token calculations to exceed limit
-            TokenCalculator testTokenCalculator = mock(TokenCalculator.class);
-            when(testTokenCalculator.calculateTokens(anyString())).thenReturn(150);
-            when(testTokenCalculator.truncateToTokens(anyString(), eq(100), eq(false)))
-                    .thenReturn("Truncated content\n--- Project context truncated due to token limit ---\n");
-            
-            // Create a test-specific instance of ProjectScannerService with our test mocks
-            ProjectScannerService testProjectScannerService = new ProjectScannerService();
-            testProjectScannerService.setFileScanner(mockFileScanner);
-            testProjectScannerService.setContentExtractor(testExtractor);
-            testProjectScannerService.setTokenCalculator(testTokenCalculator);
-
-            // First test the scanContent() method directly
-            ScanContentResult scanContentResult = new ScanContentResult();
-            String content = testProjectScannerService.scanContent(mockProject, mockDirectory, 100, false, scanContentResult, mockProjectFileIndex);
-            
-            // Manually build a result without using scanProject
-            scanContentResult.setTokenCount(testTokenCalculator.calculateTokens(content));
-            scanContentResult.setContent(content);
-            scanContentResult.setFileCount(mockFileScanner.getFileCount());
-            scanContentResult.setSkippedFileCount(mockFileScanner.getSkippedFileCount());
-            scanContentResult.setSkippedDirectoryCount(mockFileScanner.getSkippedDirectoryCount());
-            mockFileScanner.getIncludedFiles().forEach(scanContentResult::addFile);
-
-            // Verify
-            assertNotNull(scanContentResult);
-            assertNotNull(scanContentResult.getContent());
-            assertEquals(150, scanContentResult.getTokenCount());
-            assertTrue(scanContentResult.getContent().contains("--- Project context truncated due to token limit ---"));
-
-            // Verify truncation was called
-            verify(testTokenCalculator).truncateToTokens(anyString(), eq(100), eq(false));
+            return service.scanProject(mockProject, startDirectory, maxTokens, false);
         }
     }
 }
@@ -0,0 +1,122 @@
+package com.devoxx.genie.service.projectscanner;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamingContentAssemblerTest {
+
+    private final TokenCalculator tokenCalculator = new TokenCalculator();
+    private ContentExtractor extractor;
+    private AtomicInteger reads;
+
+    @BeforeEach
+    void setUp() {
+        reads = new AtomicInteger();
+        extractor = mock(ContentExtractor.class);
+        when(extractor.extractFileContent(any(VirtualFile.class))).thenAnswer(inv -> {
+            reads.incrementAndGet();
+            VirtualFile file = inv.getArgument(0);
+            // Random delay so workers finish out of order.
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            return "\n--- " + file.getPath() + " ---\nclass " + file.getName() + " { int value; }\n";
+        });
+    }
+
+    @Test
+    void outputKeepsScanOrderDespiteParallelReads() {
+        List<VirtualFile> files = files(40);
+        StreamingContentAssembler assembler = new StreamingContentAssembler(extractor, tokenCalculator, 4);
+
+        StreamingContentAssembler.Result result =
+                assembler.assemble("Header\n", files, Integer.MAX_VALUE, true, null);
+
+        StringBuilder expected = new StringBuilder("Header\n");
+        for (VirtualFile file : files) {
+            expected.append("\n--- ").append(file.getPath()).append(" ---\nclass ")
+                    .append(file.getName()).append(" { int value; }\n");
+        }
+        assertThat(result.content()).isEqualTo(expected.toString());
+        assertThat(result.truncated()).isFalse();
+        assertThat(result.filesEmitted()).isEqualTo(40);
+        // Per-file counts can differ from one whole-text encode only at chunk boundaries.
+        assertThat(result.tokenCount()).isCloseTo(tokenCalculator.countTokens(expected.toString()), withinPercentage(5));
+    }
+
+    @Test
+    void stopsReadingOnceTheBudgetIsReached() {
+        List<VirtualFile> files = files(500);
+        StreamingContentAssembler assembler = new StreamingContentAssembler(extractor, tokenCalculator, 4);
+
+        StreamingContentAssembler.Result result = assembler.assemble("Header\n", files, 200, true, null);
+
+        assertThat(result.truncated()).isTrue();
+        assertThat(result.tokenCount()).isLessThanOrEqualTo(200);
+        assertThat(result.content()).endsWith(StreamingContentAssembler.TRUNCATION_MARKER);
+        assertThat(reads.get())
+                .as("only files up to the budget plus the bounded read-ahead are read")
+                .isLessThan(100);
+    }
+
+    @Test
+    void truncationMarkerIsOmittedWhenNotRequested() {
+        StreamingContentAssembler assembler = new StreamingContentAssembler(extractor, tokenCalculator, 2);
+
+        StreamingContentAssembler.Result result = assembler.assemble("Header\n", files(50), 50, false, null);
+
+        assertThat(result.truncated()).isTrue();
+        assertThat(result.content()).doesNotContain("truncated due to token limit");
+    }
+
+    @Test
+    void cancelledIndicatorStopsAllWorkers() {
+        ProgressIndicator indicator = mock(ProgressIndicator.class);
+        when(indicator.isCanceled()).thenReturn(true);
+        StreamingContentAssembler assembler = new StreamingContentAssembler(extractor, tokenCalculator, 4);
+
+        StreamingContentAssembler.Result result =
+                assembler.assemble("Header\n", files(100), Integer.MAX_VALUE, true, indicator);
+
+        assertThat(reads.get()).isZero();
+        assertThat(result.content()).isEqualTo("Header\n");
+    }
+
+    @Test
+    void countReusesCachedPerFileCounts() {
+        List<VirtualFile> files = files(30);
+        FileTokenCountCache cache = new FileTokenCountCache();
+        StreamingContentAssembler assembler = new StreamingContentAssembler(extractor, tokenCalculator, 4);
+
+        StreamingContentAssembler.Result first = assembler.count("Header\n", files, cache, "cl100k_base", null);
+        int readsAfterFirst = reads.get();
+        StreamingContentAssembler.Result second = assembler.count("Header\n", files, cache, "cl100k_base", null);
+
+        assertThat(readsAfterFirst).isEqualTo(30);
+        assertThat(reads.get()).as("unchanged files are not read again").isEqualTo(30);
+        assertThat(second.tokenCount()).isEqualTo(first.tokenCount()).isPositive();
+        assertThat(second.content()).isEqualTo("Header\n");
+    }
+
+    private static List<VirtualFile> files(int count) {
+        List<VirtualFile> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            VirtualFile file = mock(VirtualFile.class);
+            when(file.getPath()).thenReturn("/project/src/File" + i + ".java");
+            when(file.getName()).thenReturn("File" + i);
+            files.add(file);
+        }
+        return files;
+    }
+}
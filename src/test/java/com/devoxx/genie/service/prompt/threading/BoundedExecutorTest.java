@@ -0,0 +1,88 @@
+package com.devoxx.genie.service.prompt.threading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BoundedExecutorTest {
+
+    private BoundedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private BoundedExecutor create(BoundedExecutor.Mode mode, int limit) {
+        if (mode == BoundedExecutor.Mode.VIRTUAL) {
+            assumeTrue(BoundedExecutor.isVirtualThreadSupported(), "virtual threads need a Java 21 runtime");
+        }
+        executor = BoundedExecutor.create("test", mode, limit, Executors.defaultThreadFactory());
+        return executor;
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoundedExecutor.Mode.class)
+    void enforcesConcurrencyLimitAndReportsQueue(BoundedExecutor.Mode mode) throws Exception {
+        BoundedExecutor pool = create(mode, 2);
+        assertThat(pool.getMode()).isEqualTo(mode);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            pool.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.metrics().active() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        BoundedExecutor.Metrics busy = pool.metrics();
+        assertThat(busy.active()).isEqualTo(2);
+        assertThat(busy.queued()).isEqualTo(3);
+        assertThat(busy.maxConcurrency()).isEqualTo(2);
+
+        release.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        BoundedExecutor.Metrics done = pool.metrics();
+        assertThat(peak.get()).isEqualTo(2);
+        assertThat(done.completed()).isEqualTo(5);
+        assertThat(done.active()).isZero();
+        assertThat(done.queued()).isZero();
+        assertThat(done.maxWaitMs()).isGreaterThanOrEqualTo(done.averageWaitMs());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BoundedExecutor.Mode.class)
+    void failingTaskReleasesItsPermit(BoundedExecutor.Mode mode) throws Exception {
+        BoundedExecutor pool = create(mode, 1);
+
+        pool.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThat(pool.submit(() -> "ok").get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(pool.metrics().completed()).isEqualTo(2);
+    }
+}
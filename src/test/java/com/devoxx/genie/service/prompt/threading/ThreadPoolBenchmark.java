@@ -0,0 +1,74 @@
+package com.devoxx.genie.service.prompt.threading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the platform and virtual thread modes of {@link ThreadPoolManager} under 50
+ * concurrent mocked streaming prompts: each prompt "streams" tokens by sleeping between
+ * them, like a task blocked on an LLM response. Reports wall time, pool wait times and the
+ * peak number of live platform threads. Not a correctness test, so it only runs on demand:
+ *
+ * <pre>DEVOXXGENIE_BENCHMARK=true ./gradlew test --tests '*ThreadPoolBenchmark'</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DEVOXXGENIE_BENCHMARK", matches = "true")
+class ThreadPoolBenchmark {
+
+    private static final int PROMPTS = 50;
+    private static final int TOKENS = 40;
+    private static final long TOKEN_DELAY_MS = 25;
+
+    @Test
+    void comparePlatformAndVirtualPromptPools() throws InterruptedException {
+        System.out.printf("%-9s %8s %10s %12s %12s %14s%n",
+                "mode", "limit", "wall ms", "avg wait ms", "max wait ms", "peak threads");
+        for (boolean virtual : new boolean[]{false, true}) {
+            ThreadPoolManager manager = new ThreadPoolManager(virtual);
+            try {
+                ExecutorService pool = manager.getPromptExecutionPool();
+                CountDownLatch done = new CountDownLatch(PROMPTS);
+                ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+
+                long start = System.nanoTime();
+                for (int i = 0; i < PROMPTS; i++) {
+                    pool.execute(() -> {
+                        streamMockedResponse();
+                        done.countDown();
+                    });
+                }
+                assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+                double wallMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                BoundedExecutor.Metrics metrics = manager.getMetrics().get(0);
+                assertThat(metrics.completed()).isEqualTo(PROMPTS);
+                System.out.printf("%-9s %8d %10.0f %12.1f %12.1f %14d%n",
+                        metrics.mode().name().toLowerCase(), metrics.maxConcurrency(), wallMs,
+                        metrics.averageWaitMs(), metrics.maxWaitMs(),
+                        ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            } finally {
+                manager.shutdown();
+            }
+        }
+    }
+
+    private static void streamMockedResponse() {
+        StringBuilder response = new StringBuilder();
+        for (int token = 0; token < TOKENS; token++) {
+            try {
+                Thread.sleep(TOKEN_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            response.append("token").append(token).append(' ');
+        }
+        assertThat(response).isNotEmpty();
+    }
+}
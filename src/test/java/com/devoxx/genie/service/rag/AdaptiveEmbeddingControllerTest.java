@@ -0,0 +1,156 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveEmbeddingControllerTest {
+
+    @Test
+    void fixedControllerNeverChanges() {
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.fixed(64, 2);
+        for (int i = 0; i < 40; i++) {
+            controller.record(64, 64_000, 1_000_000, i % 2 == 0);
+        }
+        assertThat(controller.batchSize()).isEqualTo(64);
+        assertThat(controller.inFlightLimit()).isEqualTo(2);
+        assertThat(controller.maxWorkers()).isEqualTo(2);
+    }
+
+    @Test
+    void firstHealthyWindowGrowsTheBatch() {
+        List<String> decisions = new ArrayList<>();
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(64, 2, decisions::add);
+
+        recordWindow(controller, 64, 50_000_000L, false);
+
+        assertThat(controller.batchSize()).isEqualTo(96);
+        assertThat(decisions).singleElement().asString().contains("growing batch", "batch=96");
+    }
+
+    @Test
+    void failedBatchBacksOffBothAxes() {
+        List<String> decisions = new ArrayList<>();
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(64, 4, decisions::add);
+
+        recordWindow(controller, 64, 50_000_000L, true);
+
+        assertThat(controller.batchSize()).isEqualTo(32);
+        assertThat(controller.inFlightLimit()).isEqualTo(3);
+        assertThat(decisions).singleElement().asString().contains("backing off after failed batch");
+    }
+
+    @Test
+    void latencySpikeBacksOff() {
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(64, 2, message -> {});
+        recordWindow(controller, 64, 10_000_000L, false);   // baseline → grows batch to 96
+        recordWindow(controller, 96, 500_000_000L, false);  // ~30× slower per segment
+
+        assertThat(controller.batchSize()).isEqualTo(48);
+        assertThat(controller.inFlightLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void warmCacheBatchesDoNotSetTheLatencyBaseline() {
+        List<String> decisions = new ArrayList<>();
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(64, 2, decisions::add);
+        SlowBackend backend = new SlowBackend();
+        MapCache cached = new MapCache(controller.measure(backend));
+        List<TextSegment> warm = segments("warm", 64);
+        warm.forEach(s -> cached.vectors.put(s.text(), Embedding.from(new float[]{1f})));
+
+        for (int i = 0; i < AdaptiveEmbeddingController.WINDOW_BATCHES; i++) {
+            cached.embedAll(warm);
+        }
+        assertThat(backend.calls).as("warm batches never reach the backend").isZero();
+        assertThat(decisions).isEmpty();
+
+        for (int i = 0; i < 2 * AdaptiveEmbeddingController.WINDOW_BATCHES; i++) {
+            cached.embedAll(segments("cold-" + i, 64));
+        }
+
+        assertThat(decisions).noneMatch(d -> d.contains("backing off"));
+        assertThat(controller.batchSize()).isGreaterThanOrEqualTo(64);
+        assertThat(controller.inFlightLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void unmeasuredCallsReachTheBackendWithoutEnteringTheWindow() {
+        List<String> decisions = new ArrayList<>();
+        AdaptiveEmbeddingController controller = AdaptiveEmbeddingController.adaptive(64, 2, decisions::add);
+        SlowBackend backend = new SlowBackend();
+        EmbeddingModel measured = controller.measure(backend);
+
+        controller.unmeasured(() -> {
+            for (int i = 0; i < 2 * AdaptiveEmbeddingController.WINDOW_BATCHES; i++) {
+                measured.embedAll(segments("retry-" + i, 1));
+            }
+        });
+
+        assertThat(backend.calls).isEqualTo(2 * AdaptiveEmbeddingController.WINDOW_BATCHES);
+        assertThat(decisions).isEmpty();
+        assertThat(controller.batchSize()).isEqualTo(64);
+        assertThat(controller.inFlightLimit()).isEqualTo(2);
+    }
+
+    private static List<TextSegment> segments(String prefix, int count) {
+        List<TextSegment> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments.add(TextSegment.from(prefix + "-" + i));
+        }
+        return segments;
+    }
+
+    /** Backend with a fixed per-call latency. */
+    private static final class SlowBackend implements EmbeddingModel {
+        private int calls;
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            calls++;
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.from(textSegments.stream().map(s -> Embedding.from(new float[]{1f})).toList());
+        }
+    }
+
+    /** Stand-in for the embedding cache: serves hits itself and forwards only misses. */
+    private static final class MapCache implements EmbeddingModel {
+        private final EmbeddingModel delegate;
+        private final Map<String, Embedding> vectors = new HashMap<>();
+
+        private MapCache(EmbeddingModel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            List<TextSegment> misses = textSegments.stream().filter(s -> !vectors.containsKey(s.text())).toList();
+            if (!misses.isEmpty()) {
+                List<Embedding> embedded = delegate.embedAll(misses).content();
+                for (int i = 0; i < misses.size(); i++) {
+                    vectors.put(misses.get(i).text(), embedded.get(i));
+                }
+            }
+            return Response.from(textSegments.stream().map(s -> vectors.get(s.text())).toList());
+        }
+    }
+
+    private static void recordWindow(AdaptiveEmbeddingController controller, int segments, long nanos, boolean failed) {
+        for (int i = 0; i < AdaptiveEmbeddingController.WINDOW_BATCHES; i++) {
+            controller.record(segments, segments * 1_000L, nanos, failed && i == 0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexingPipelineTest {
+
+    @Test
+    void everyFileIsIndexedAndSmallFilesArePackedIntoSharedBatches(@TempDir Path tmp) throws Exception {
+        List<Path> files = writeFiles(tmp, 20);
+        CountingEmbeddingModel model = new CountingEmbeddingModel();
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        Map<Path, Integer> indexed = new ConcurrentHashMap<>();
+        AtomicInteger completed = new AtomicInteger();
+
+        IndexingPipeline pipeline = new IndexingPipeline(model, store, IndexingPipelineTest::twoChunks,
+                p -> true, listener(indexed, completed), () -> false, AdaptiveEmbeddingController.fixed(64, 2));
+        pipeline.run(files);
+
+        assertThat(indexed).hasSize(20).allSatisfy((path, count) -> assertThat(count).isEqualTo(2));
+        assertThat(completed.get()).isEqualTo(20);
+        assertThat(model.segments.get()).isEqualTo(40);
+        assertThat(model.calls.get())
+                .as("40 segments from 20 files should need far fewer than one embedAll per file")
+                .isLessThan(20);
+    }
+
+    @Test
+    void filesRejectedByThePredicateSkipEmbeddingButStillComplete(@TempDir Path tmp) throws Exception {
+        List<Path> files = writeFiles(tmp, 4);
+        Set<Path> current = Set.of(files.get(0), files.get(1));
+        CountingEmbeddingModel model = new CountingEmbeddingModel();
+        Map<Path, Integer> indexed = new ConcurrentHashMap<>();
+        AtomicInteger completed = new AtomicInteger();
+
+        IndexingPipeline pipeline = new IndexingPipeline(model, new InMemoryEmbeddingStore<>(),
+                IndexingPipelineTest::twoChunks, p -> !current.contains(p),
+                listener(indexed, completed), () -> false, AdaptiveEmbeddingController.fixed(64, 2));
+        pipeline.run(files);
+
+        assertThat(indexed.keySet()).containsExactlyInAnyOrder(files.get(2), files.get(3));
+        assertThat(completed.get()).isEqualTo(4);
+        assertThat(model.segments.get()).isEqualTo(4);
+    }
+
+    @Test
+    void cancellationStopsThePipeline(@TempDir Path tmp) throws Exception {
+        List<Path> files = writeFiles(tmp, 50);
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        Map<Path, Integer> indexed = new ConcurrentHashMap<>();
+
+        IndexingPipeline pipeline = new IndexingPipeline(new CountingEmbeddingModel(),
+                new InMemoryEmbeddingStore<>(), IndexingPipelineTest::twoChunks, p -> true,
+                listener(indexed, new AtomicInteger()), cancelled::get, AdaptiveEmbeddingController.fixed(64, 2));
+        pipeline.run(files);
+
+        assertThat(indexed).isEmpty();
+    }
+
+    private static IndexingPipeline.Listener listener(Map<Path, Integer> indexed, AtomicInteger completed) {
+        return new IndexingPipeline.Listener() {
+            @Override
+            public void onFileIndexed(@NotNull Path path, int segmentCount) {
+                indexed.put(path, segmentCount);
+            }
+
+            @Override
+            public void onFileCompleted(@NotNull Path path, int completedFiles) {
+                completed.incrementAndGet();
+            }
+        };
+    }
+
+    private static List<TextSegment> twoChunks(Path path, String content, long lastModified) {
+        Metadata metadata = new Metadata();
+        metadata.put(IndexerConstants.FILE_PATH, path.toAbsolutePath().toString());
+        return List.of(TextSegment.from(content + " part one", metadata.copy()),
+                TextSegment.from(content + " part two", metadata.copy()));
+    }
+
+    private static List<Path> writeFiles(Path dir, int count) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = dir.resolve("File" + i + ".java");
+            Files.writeString(file, "class File" + i + " {}");
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static final class CountingEmbeddingModel implements EmbeddingModel {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger segments = new AtomicInteger();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            calls.incrementAndGet();
+            segments.addAndGet(textSegments.size());
+            List<Embedding> out = new ArrayList<>(textSegments.size());
+            for (TextSegment segment : textSegments) {
+                out.add(Embedding.from(new float[]{segment.text().length(), 1f, 0.5f}));
+            }
+            return Response.from(out);
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.devoxx.genie.service.rag;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 class QueryExpansionFuserTest {
 
@@ -29,6 +34,20 @@ class QueryExpansionFuserTest {
         assertThat(fused).containsExactly(a, b, c);
     }
 
+    @Test
+    void fuseWithFusedScores_replacesListScoresWithTheScaledRrfSum() {
+        SearchResult dense = hit("/both", 0.82, "shared chunk");
+        SearchResult lexicalOnly = hit("/lex", 0.4, "identifier chunk");
+        SearchResult lexicalShared = hit("/both", 0.35, "shared chunk");
+
+        List<SearchResult> fused = QueryExpansionFuser.fuseWithFusedScores(
+                List.of(List.of(dense), List.of(lexicalShared, lexicalOnly)), 10);
+
+        assertThat(fused).extracting(SearchResult::filePath).containsExactly("/both", "/lex");
+        assertThat(fused.get(0).score()).isEqualTo(1.0);
+        assertThat(fused.get(1).score()).isCloseTo(61.0 / 62 / 2, within(1e-9));
+    }
+
     @Test
     void expandAndFuse_resultAppearingInMultipleVariants_outranksSingletons() {
         // /shared appears mid-rank in two variants; /onlyA only top-ranked in variant 1.
@@ -89,6 +108,37 @@ class QueryExpansionFuserTest {
         assertThat(fused).hasSize(2).containsExactly(a, b);
     }
 
+    @Test
+    void expandAndFuse_withExecutor_runsVariantsConcurrentlyAndKeepsVariantOrder() throws Exception {
+        SearchResult a = hit("/a", 0.9, "alpha");
+        SearchResult b = hit("/b", 0.9, "beta");
+        // Every retrieval waits until all three are in flight, so this only completes if the
+        // variants really run concurrently.
+        CountDownLatch allStarted = new CountDownLatch(3);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<SearchResult> fused = QueryExpansionFuser.expandAndFuse(
+                    List.of("q1", "q2", "q3"),
+                    q -> {
+                        allStarted.countDown();
+                        try {
+                            allStarted.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return q.equals("q1") ? List.of(a) : List.of(b);
+                    },
+                    10,
+                    executor);
+
+            assertThat(allStarted.getCount()).isZero();
+            // /b appears in two variants and outranks /a regardless of completion order.
+            assertThat(fused).containsExactly(b, a);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     // ---- Guard clauses ---------------------------------------------------------------------
 
     @Test
@@ -0,0 +1,79 @@
+package com.devoxx.genie.service.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchCacheTest {
+
+    private final Object model = new Object();
+    private final String store = "chroma:8000/demo";
+
+    @Test
+    void repeatedQueryIsEmbeddedOnce() {
+        SearchCache cache = new SearchCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        Embedding first = cache.embedding(model, "where is auth", () -> embed(calls, 1f));
+        Embedding second = cache.embedding(model, "where is auth", () -> embed(calls, 2f));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void embeddingsAreScopedToTheModelInstance() {
+        SearchCache cache = new SearchCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.embedding(model, "q", () -> embed(calls, 1f));
+        cache.embedding(new Object(), "q", () -> embed(calls, 2f));
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resultsMatchOnVectorValueAndMissAfterGenerationChange() {
+        SearchCache cache = new SearchCache();
+        List<SearchResult> hits = List.of(new SearchResult("/A.java", 0.9, "alpha"));
+
+        cache.putResults(store, 7, Embedding.from(new float[]{1f, 0f}), 0.7, 10, hits);
+
+        // An equal-valued but distinct vector instance must hit.
+        assertThat(cache.results(store, 7, Embedding.from(new float[]{1f, 0f}), 0.7, 10)).isEqualTo(hits);
+        assertThat(cache.results(store, 8, Embedding.from(new float[]{1f, 0f}), 0.7, 10))
+                .as("a manifest mutation bumps the generation and must invalidate")
+                .isNull();
+        assertThat(cache.results(store, 7, Embedding.from(new float[]{1f, 0f}), 0.5, 10)).isNull();
+        assertThat(cache.results(store, 7, Embedding.from(new float[]{1f, 0f}), 0.7, 5)).isNull();
+        assertThat(cache.results("embedded:demo", 7, Embedding.from(new float[]{1f, 0f}), 0.7, 10)).isNull();
+    }
+
+    @Test
+    void embeddingCacheEvictsLeastRecentlyUsed() {
+        SearchCache cache = new SearchCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.embedding(model, "hot", () -> embed(calls, 0f));
+        for (int i = 0; i < SearchCache.MAX_EMBEDDINGS; i++) {
+            cache.embedding(model, "hot", () -> embed(calls, 0f)); // keep "hot" recently used
+            cache.embedding(model, "cold-" + i, () -> embed(calls, 1f));
+        }
+        int before = calls.get();
+
+        cache.embedding(model, "hot", () -> embed(calls, 0f));
+        assertThat(calls.get()).as("recently used entry survives eviction").isEqualTo(before);
+
+        cache.embedding(model, "cold-0", () -> embed(calls, 1f));
+        assertThat(calls.get()).as("oldest entry was evicted").isEqualTo(before + 1);
+    }
+
+    private static Embedding embed(AtomicInteger calls, float value) {
+        calls.incrementAndGet();
+        return Embedding.from(new float[]{value, 1f});
+    }
+}
@@ -1,6 +1,8 @@
 package com.devoxx.genie.service.rag;
 
 import com.devoxx.genie.service.chromadb.ChromaEmbeddingService;
+import com.devoxx.genie.service.rag.manifest.InMemoryIndexManifest;
+import com.devoxx.genie.service.rag.manifest.IndexManifestService;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
@@ -239,6 +241,31 @@ class SemanticSearchServiceTest {
                 .isLessThan(counter.totalSegmentsEmbedded);
     }
 
+    @Test
+    void resultCacheSurvivesAFreshStoreInstanceButNotAStoreWrite() {
+        IndexManifestService manifests = mock(IndexManifestService.class);
+        when(manifests.forProject(any())).thenReturn(new InMemoryIndexManifest());
+        when(mockApplication.getService(IndexManifestService.class)).thenReturn(manifests);
+        when(mockChromaService.storeKey(any())).thenReturn("chroma:8000/demo");
+        when(mockChromaService.storeGeneration()).thenReturn(1L);
+        TextSegment segment = TextSegment.from("cached-content", metadata("/fake/Cached.java"));
+        store.add(embeddingModel.embed(segment.text()).content(), segment);
+        SemanticSearchService service = new SemanticSearchService();
+
+        service.search(mockProject, "cached-content");
+        // init() builds a new Chroma client per search; the cache must not key on it
+        EmbeddingStore<TextSegment> freshStore = Mockito.spy(new InMemoryEmbeddingStore<TextSegment>());
+        when(mockChromaService.getEmbeddingStore()).thenReturn(freshStore);
+        List<SearchResult> cached = service.search(mockProject, "cached-content");
+
+        assertThat(cached).extracting(SearchResult::content).containsExactly("cached-content");
+        Mockito.verify(freshStore, Mockito.never()).search(any());
+
+        // Chunks dropped without a manifest change still bump the store generation
+        when(mockChromaService.storeGeneration()).thenReturn(2L);
+        assertThat(service.search(mockProject, "cached-content")).isEmpty();
+    }
+
     /** Counts how the embedding model is called. */
     private static final class CountingEmbeddingModel implements EmbeddingModel {
         int singleEmbedCalls = 0;
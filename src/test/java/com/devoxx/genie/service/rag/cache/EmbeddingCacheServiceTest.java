@@ -0,0 +1,129 @@
+package com.devoxx.genie.service.rag.cache;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingCacheServiceTest {
+
+    @Test
+    void onlyUnseenChunksReachTheModel(@TempDir Path tmp) {
+        RecordingModel model = new RecordingModel();
+        EmbeddingModel cached = new EmbeddingCacheService(tmp).wrap(model, "nomic-embed-text");
+
+        cached.embedAll(List.of(TextSegment.from("alpha"), TextSegment.from("beta")));
+        List<Embedding> second = cached.embedAll(
+                List.of(TextSegment.from("alpha"), TextSegment.from("gamma"), TextSegment.from("beta"))).content();
+
+        assertThat(model.seen).containsExactly("alpha", "beta", "gamma");
+        assertThat(second).hasSize(3);
+        assertThat(second.get(0).vector()[0]).isEqualTo("alpha".hashCode());
+        assertThat(second.get(1).vector()[0]).isEqualTo("gamma".hashCode());
+        assertThat(second.get(2).vector()[0]).isEqualTo("beta".hashCode());
+    }
+
+    @Test
+    void flushedEntriesSurviveARestart(@TempDir Path tmp) {
+        EmbeddingCacheService first = new EmbeddingCacheService(tmp);
+        first.wrap(new RecordingModel(), "nomic-embed-text").embedAll(List.of(TextSegment.from("persisted chunk")));
+        first.flush();
+
+        RecordingModel model = new RecordingModel();
+        new EmbeddingCacheService(tmp).wrap(model, "nomic-embed-text")
+                .embedAll(List.of(TextSegment.from("persisted chunk")));
+
+        assertThat(model.seen).as("vector must be served from the on-disk cache").isEmpty();
+    }
+
+    @Test
+    void cacheIsScopedPerModel(@TempDir Path tmp) {
+        EmbeddingCacheService service = new EmbeddingCacheService(tmp);
+        service.wrap(new RecordingModel(), "model-a").embedAll(List.of(TextSegment.from("shared")));
+
+        RecordingModel other = new RecordingModel();
+        service.wrap(other, "model-b").embedAll(List.of(TextSegment.from("shared")));
+
+        assertThat(other.seen).containsExactly("shared");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPastTheByteBudget(@TempDir Path tmp) {
+        // Each record is 20 hash + 4 dimension + 2 × 4 vector = 32 bytes; the budget holds two
+        EmbeddingCacheService service = new EmbeddingCacheService(tmp, 64);
+        EmbeddingModel cached = service.wrap(new RecordingModel(), "nomic-embed-text");
+        cached.embedAll(List.of(TextSegment.from("a"), TextSegment.from("b")));
+        cached.embedAll(List.of(TextSegment.from("a")));
+        cached.embedAll(List.of(TextSegment.from("c")));
+
+        RecordingModel model = new RecordingModel();
+        service.wrap(model, "nomic-embed-text")
+                .embedAll(List.of(TextSegment.from("a"), TextSegment.from("b"), TextSegment.from("c")));
+
+        assertThat(model.seen).as("b was least recently used").containsExactly("b");
+        assertThat(service.forModel("nomic-embed-text").bytes()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void vectorsAreReadBackFromTheLogAfterItIsCompacted(@TempDir Path tmp) throws Exception {
+        // 32-byte records, two live: every flush after the first pushes the log past twice that
+        EmbeddingCacheService service = new EmbeddingCacheService(tmp, 64);
+        EmbeddingModel cached = service.wrap(new RecordingModel(), "nomic-embed-text");
+        for (String text : List.of("a", "b", "c", "d", "e")) {
+            cached.embedAll(List.of(TextSegment.from(text)));
+            service.flush();
+        }
+
+        RecordingModel model = new RecordingModel();
+        List<Embedding> served = service.wrap(model, "nomic-embed-text")
+                .embedAll(List.of(TextSegment.from("d"), TextSegment.from("e"))).content();
+
+        assertThat(model.seen).isEmpty();
+        assertThat(served.get(0).vector()[0]).isEqualTo("d".hashCode());
+        assertThat(served.get(1).vector()[0]).isEqualTo("e".hashCode());
+        assertThat(Files.size(tmp.resolve("embedding-cache-nomic-embed-text.bin"))).isLessThanOrEqualTo(128);
+    }
+
+    @Test
+    void tornTailIsTruncatedBeforeNewRecordsAreAppended(@TempDir Path tmp) throws Exception {
+        EmbeddingCacheService first = new EmbeddingCacheService(tmp);
+        first.wrap(new RecordingModel(), "nomic-embed-text").embedAll(List.of(TextSegment.from("before crash")));
+        first.flush();
+        Path log = tmp.resolve("embedding-cache-nomic-embed-text.bin");
+        Files.write(log, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        EmbeddingCacheService second = new EmbeddingCacheService(tmp);
+        second.wrap(new RecordingModel(), "nomic-embed-text").embedAll(List.of(TextSegment.from("after crash")));
+        second.flush();
+
+        RecordingModel model = new RecordingModel();
+        new EmbeddingCacheService(tmp).wrap(model, "nomic-embed-text")
+                .embedAll(List.of(TextSegment.from("before crash"), TextSegment.from("after crash")));
+
+        assertThat(model.seen).as("both records must load after the torn tail").isEmpty();
+    }
+
+    private static final class RecordingModel implements EmbeddingModel {
+        private final List<String> seen = new ArrayList<>();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            List<Embedding> out = new ArrayList<>();
+            for (TextSegment segment : textSegments) {
+                seen.add(segment.text());
+                out.add(Embedding.from(new float[]{segment.text().hashCode(), 1f}));
+            }
+            return Response.from(out);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.devoxx.genie.service.rag.lexical;
+
+import com.devoxx.genie.service.rag.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    @Test
+    void tokenizerKeepsIdentifiersWholeAndSplitsCamelAndSnakeCase() {
+        assertThat(Bm25Index.tokenize("ProjectIndexerService.run(MAX_RESULTS)"))
+                .contains("projectindexerservice", "project", "indexer", "service", "run",
+                        "max_results", "max", "results");
+    }
+
+    @Test
+    void exactIdentifierRanksTheDefiningChunkFirst() {
+        Bm25Index index = new Bm25Index(null);
+        index.replaceFile("/src/Indexer.java", List.of(
+                "public final class ProjectIndexerService { void indexFiles() {} }",
+                "private static boolean isRagExcluded(Path path) { return false; }"));
+        index.replaceFile("/docs/rag.md", List.of("The indexer walks the project and embeds every file."));
+
+        List<SearchResult> hits = index.search("ProjectIndexerService", 5);
+
+        assertThat(hits).isNotEmpty();
+        assertThat(hits.get(0).content()).contains("class ProjectIndexerService");
+        assertThat(hits.get(0).score()).isBetween(Bm25Index.MIN_SCORE, 1.0);
+    }
+
+    @Test
+    void aSingleCommonWordCoincidenceIsNotReturnedAsAMatch() {
+        Bm25Index index = new Bm25Index(null);
+        index.replaceFile("/a.java", List.of("the cache is warmed on startup"));
+        index.replaceFile("/b.java", List.of("the retry budget resets after a success"));
+        index.replaceFile("/c.java", List.of("the manifest records a content hash per file"));
+
+        assertThat(index.search("where does the tokenizer split identifiers", 5)).isEmpty();
+        assertThat(index.search("retry budget resets", 5))
+                .extracting(SearchResult::filePath).containsExactly("/b.java");
+    }
+
+    @Test
+    void coversReportsWhetherEveryFileHasChunks() {
+        Bm25Index index = new Bm25Index(null);
+        index.replaceFile(Path.of("/a.java").toAbsolutePath().toString(), List.of("class A {}"));
+        long before = index.generation();
+
+        assertThat(index.covers(List.of(Path.of("/a.java")))).isTrue();
+        assertThat(index.covers(List.of(Path.of("/a.java"), Path.of("/b.java")))).isFalse();
+
+        index.replaceFile(Path.of("/b.java").toAbsolutePath().toString(), List.of("class B {}"));
+        assertThat(index.covers(List.of(Path.of("/a.java"), Path.of("/b.java")))).isTrue();
+        assertThat(index.generation()).isGreaterThan(before);
+    }
+
+    @Test
+    void replacingAFileDropsItsOldChunks() {
+        Bm25Index index = new Bm25Index(null);
+        index.replaceFile("/a.txt", List.of("ERR_LEGACY_CODE_42 happened"));
+        index.replaceFile("/a.txt", List.of("all fixed now"));
+
+        assertThat(index.search("ERR_LEGACY_CODE_42", 5)).isEmpty();
+        assertThat(index.search("fixed", 5)).extracting(SearchResult::filePath).containsExactly("/a.txt");
+
+        index.removeFile("/a.txt");
+        assertThat(index.size()).isZero();
+        assertThat(index.search("fixed", 5)).isEmpty();
+    }
+
+    @Test
+    void flushedIndexRoundTripsThroughDisk(@TempDir Path tmp) {
+        Path storage = tmp.resolve("lexical.bin");
+        Bm25Index writer = new Bm25Index(storage);
+        writer.replaceFile("/gone.java", List.of("class Gone {}"));
+        writer.replaceFile("/kept.java", List.of("class KeptHandler { int retryBudget; }"));
+        writer.removeFile("/gone.java");
+        writer.flush();
+
+        Bm25Index reader = new Bm25Index(storage);
+        assertThat(reader.size()).isEqualTo(1);
+        assertThat(reader.search("retryBudget", 3)).extracting(SearchResult::filePath).containsExactly("/kept.java");
+        assertThat(reader.search("Gone", 3)).isEmpty();
+    }
+}
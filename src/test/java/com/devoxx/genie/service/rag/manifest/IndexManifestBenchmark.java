@@ -0,0 +1,122 @@
+package com.devoxx.genie.service.rag.manifest;
+
+import com.devoxx.genie.service.rag.IndexerConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark comparing {@link JsonFileIndexManifest} and {@link LogFileIndexManifest}:
+ * load time, full-snapshot flush, an incremental flush of 100 changed files (the watcher
+ * case), on-disk size and retained heap after load. Not a correctness test, so it only runs
+ * on demand:
+ *
+ * <pre>DEVOXXGENIE_BENCHMARK=true ./gradlew test --tests '*IndexManifestBenchmark'</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DEVOXXGENIE_BENCHMARK", matches = "true")
+class IndexManifestBenchmark {
+
+    private static final int[] SIZES = {10_000, 50_000, 200_000};
+    private static final int INCREMENTAL_CHANGES = 100;
+    private static final int RUNS = 3;
+
+    @Test
+    void compareJsonAndLogManifests(@TempDir Path tmp) throws IOException {
+        System.out.printf("%-6s %8s %10s %10s %12s %10s %12s%n",
+                "format", "entries", "load ms", "full ms", "incr100 ms", "disk KB", "heap KB");
+        for (int size : SIZES) {
+            Path json = tmp.resolve("m-" + size + ".json");
+            Path log = tmp.resolve("m-" + size + ".log");
+
+            JsonFileIndexManifest jsonManifest = new JsonFileIndexManifest(json);
+            LogFileIndexManifest logManifest = new LogFileIndexManifest(log);
+            populate(jsonManifest, size);
+            populate(logManifest, size);
+
+            // Full flush: every entry is new.
+            double jsonFull = timeMs(jsonManifest::flush);
+            double logFull = timeMs(logManifest::flush);
+
+            double jsonIncr = median(() -> timeMs(() -> {
+                churn(jsonManifest, INCREMENTAL_CHANGES);
+                jsonManifest.flush();
+            }));
+            double logIncr = median(() -> timeMs(() -> {
+                churn(logManifest, INCREMENTAL_CHANGES);
+                logManifest.flush();
+            }));
+
+            double jsonLoad = median(() -> timeMs(() -> new JsonFileIndexManifest(json)));
+            double logLoad = median(() -> timeMs(() -> new LogFileIndexManifest(log)));
+            long jsonHeap = retainedKb(() -> new JsonFileIndexManifest(json));
+            long logHeap = retainedKb(() -> new LogFileIndexManifest(log));
+
+            System.out.printf("%-6s %8d %10.1f %10.1f %12.2f %10d %12d%n",
+                    "json", size, jsonLoad, jsonFull, jsonIncr, Files.size(json) / 1024, jsonHeap);
+            System.out.printf("%-6s %8d %10.1f %10.1f %12.2f %10d %12d%n",
+                    "log", size, logLoad, logFull, logIncr, Files.size(log) / 1024, logHeap);
+
+            assertThat(new LogFileIndexManifest(log).trackedPaths()).hasSize(size);
+        }
+    }
+
+    private static void populate(InMemoryIndexManifest manifest, int size) {
+        for (int i = 0; i < size; i++) {
+            String key = "/projects/big/src/main/java/com/example/pkg" + (i % 200) + "/Type" + i + ".java";
+            IndexManifestEntry entry = entry(i);
+            manifest.entries.put(key, entry);
+            manifest.onEntryChanged(key, entry);
+        }
+    }
+
+    private static int churnCounter;
+
+    private static void churn(InMemoryIndexManifest manifest, int changes) {
+        for (int i = 0; i < changes; i++) {
+            String key = "/projects/big/src/main/java/com/example/pkg" + (i % 200) + "/Type" + i + ".java";
+            IndexManifestEntry entry = entry(++churnCounter);
+            manifest.entries.put(key, entry);
+            manifest.onEntryChanged(key, entry);
+        }
+    }
+
+    private static IndexManifestEntry entry(int seed) {
+        return new IndexManifestEntry(String.format("%040x", seed), 1_700_000_000_000L + seed,
+                1_700_000_000_000L + seed, 1 + seed % 12, IndexerConstants.CURRENT_EMBEDDING_SCHEMA_VERSION);
+    }
+
+    private static double timeMs(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double median(Supplier<Double> sample) {
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            samples[i] = sample.get();
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private static long retainedKb(Supplier<Object> load) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Object manifest = load.get();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        // Keep the manifest reachable until after the measurement.
+        assertThat(manifest).isNotNull();
+        return Math.max(0, after - before) / 1024;
+    }
+}
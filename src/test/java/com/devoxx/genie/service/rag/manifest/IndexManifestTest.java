@@ -103,4 +103,25 @@ class IndexManifestTest {
         assertThat(Files.size(storage)).isEqualTo(firstSize);
         assertThat(Files.exists(storage.resolveSibling("manifest.json.tmp"))).isFalse();
     }
+
+    @Test
+    void generationAdvancesOnEveryMutationOnly(@TempDir Path tmp) throws IOException {
+        Path file = tmp.resolve("G.java");
+        Files.writeString(file, "class G {}\n");
+
+        IndexManifest manifest = new InMemoryIndexManifest();
+        long start = manifest.generation();
+
+        manifest.markIndexed(file, 1);
+        long afterIndex = manifest.generation();
+        assertThat(afterIndex).isGreaterThan(start);
+
+        manifest.markRemoved(file);
+        assertThat(manifest.generation()).isGreaterThan(afterIndex);
+
+        // Removing an untracked file changes nothing, so cached search results stay valid.
+        long afterRemove = manifest.generation();
+        manifest.markRemoved(file);
+        assertThat(manifest.generation()).isEqualTo(afterRemove);
+    }
 }
@@ -0,0 +1,129 @@
+package com.devoxx.genie.service.rag.manifest;
+
+import com.devoxx.genie.service.rag.IndexerConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFileIndexManifestTest {
+
+    @Test
+    void appendedChangesRoundTripThroughDisk(@TempDir Path tmp) throws IOException {
+        Path storage = tmp.resolve("manifest.log");
+        Path kept = writeSource(tmp, "Kept.java");
+        Path removed = writeSource(tmp, "Removed.java");
+
+        LogFileIndexManifest writer = new LogFileIndexManifest(storage);
+        writer.markIndexed(kept, 2);
+        writer.markIndexed(removed, 1);
+        writer.flush();
+        writer.markRemoved(removed);
+        writer.flush();
+
+        LogFileIndexManifest reader = new LogFileIndexManifest(storage);
+        assertThat(reader.isCurrent(kept)).isTrue();
+        assertThat(reader.isTracked(removed)).isFalse();
+        assertThat(reader.recordsOnDisk()).as("second flush appended only the removal").isEqualTo(3);
+    }
+
+    @Test
+    void flushWithoutChangesWritesNothing(@TempDir Path tmp) throws IOException {
+        Path storage = tmp.resolve("manifest.log");
+        LogFileIndexManifest manifest = new LogFileIndexManifest(storage);
+        manifest.markIndexed(writeSource(tmp, "A.java"), 1);
+        manifest.flush();
+        long size = Files.size(storage);
+
+        manifest.flush();
+
+        assertThat(Files.size(storage)).isEqualTo(size);
+    }
+
+    @Test
+    void tornTailIsDroppedAndTruncated(@TempDir Path tmp) throws IOException {
+        Path storage = tmp.resolve("manifest.log");
+        Path first = writeSource(tmp, "First.java");
+        Path second = writeSource(tmp, "Second.java");
+
+        LogFileIndexManifest writer = new LogFileIndexManifest(storage);
+        writer.markIndexed(first, 1);
+        writer.flush();
+        long goodSize = Files.size(storage);
+        writer.markIndexed(second, 1);
+        writer.flush();
+
+        // Simulate a crash half-way through the second append.
+        long fullSize = Files.size(storage);
+        try (FileChannel channel = FileChannel.open(storage, StandardOpenOption.WRITE)) {
+            channel.truncate(goodSize + (fullSize - goodSize) / 2);
+        }
+
+        LogFileIndexManifest reader = new LogFileIndexManifest(storage);
+        assertThat(reader.isTracked(first)).isTrue();
+        assertThat(reader.isTracked(second)).isFalse();
+        assertThat(Files.size(storage)).as("partial record truncated").isEqualTo(goodSize);
+
+        // Appends after recovery must be readable again.
+        reader.markIndexed(second, 1);
+        reader.flush();
+        assertThat(new LogFileIndexManifest(storage).isTracked(second)).isTrue();
+    }
+
+    @Test
+    void churnOnFewKeysTriggersCompaction(@TempDir Path tmp) {
+        Path storage = tmp.resolve("manifest.log");
+        LogFileIndexManifest manifest = new LogFileIndexManifest(storage);
+
+        int keys = 10;
+        int rounds = LogFileIndexManifest.COMPACTION_MIN_RECORDS / keys + 10;
+        for (int round = 0; round < rounds; round++) {
+            for (int k = 0; k < keys; k++) {
+                put(manifest, "/src/F" + k + ".java", round);
+            }
+            manifest.flush();
+        }
+
+        assertThat(manifest.recordsOnDisk())
+                .as("log is rewritten once superseded records dominate")
+                .isLessThan(LogFileIndexManifest.COMPACTION_MIN_RECORDS);
+        LogFileIndexManifest reloaded = new LogFileIndexManifest(storage);
+        assertThat(reloaded.trackedPaths()).hasSize(keys);
+        assertThat(reloaded.entries.get("/src/F0.java").segmentCount()).isEqualTo(rounds - 1);
+    }
+
+    @Test
+    void legacyJsonManifestIsMigratedOnce(@TempDir Path tmp) throws IOException {
+        Path json = tmp.resolve("manifest.json");
+        Path log = tmp.resolve("manifest.log");
+        Path file = writeSource(tmp, "Legacy.java");
+
+        JsonFileIndexManifest legacy = new JsonFileIndexManifest(json);
+        legacy.markIndexed(file, 4);
+        legacy.flush();
+
+        LogFileIndexManifest migrated = new LogFileIndexManifest(log, json);
+        assertThat(migrated.isCurrent(file)).isTrue();
+        assertThat(Files.exists(json)).as("legacy file removed after migration").isFalse();
+        assertThat(new LogFileIndexManifest(log, json).isCurrent(file)).isTrue();
+    }
+
+    private static void put(LogFileIndexManifest manifest, String key, int segmentCount) {
+        IndexManifestEntry entry = new IndexManifestEntry("hash", 1L, 2L, segmentCount,
+                IndexerConstants.CURRENT_EMBEDDING_SCHEMA_VERSION);
+        manifest.entries.put(key, entry);
+        manifest.onEntryChanged(key, entry);
+    }
+
+    private static Path writeSource(Path dir, String name) throws IOException {
+        Path file = dir.resolve(name);
+        Files.writeString(file, "class " + name.replace(".java", "") + " {}\n");
+        return file;
+    }
+}
@@ -0,0 +1,162 @@
+package com.devoxx.genie.service.rag.store;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.filter.MetadataFilterBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.devoxx.genie.service.rag.IndexerConstants.FILE_PATH;
+import static com.devoxx.genie.service.rag.IndexerConstants.LAST_MODIFIED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalEmbeddingStoreTest {
+
+    @Test
+    void searchReturnsTopKInDescendingScoreOrder() {
+        LocalEmbeddingStore store = new LocalEmbeddingStore(null);
+        store.addAll(
+                List.of(vec(1, 0, 0), vec(0.9f, 0.1f, 0), vec(0, 1, 0), vec(-1, 0, 0)),
+                List.of(seg("a", "/A.java"), seg("b", "/B.java"), seg("c", "/C.java"), seg("d", "/D.java")));
+
+        List<EmbeddingMatch<TextSegment>> matches = store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(vec(1, 0, 0))
+                .maxResults(2)
+                .minScore(0.0)
+                .build()).matches();
+
+        assertThat(matches).extracting(m -> m.embedded().text()).containsExactly("a", "b");
+        assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+    }
+
+    @Test
+    void minScoreAndFilterAreHonoured() {
+        LocalEmbeddingStore store = new LocalEmbeddingStore(null);
+        store.addAll(
+                List.of(vec(1, 0, 0), vec(1, 0.05f, 0), vec(-1, 0, 0)),
+                List.of(seg("a", "/A.java"), seg("b", "/B.java"), seg("c", "/C.java")));
+
+        List<EmbeddingMatch<TextSegment>> matches = store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(vec(1, 0, 0))
+                .maxResults(10)
+                .minScore(0.7)
+                .filter(MetadataFilterBuilder.metadataKey(FILE_PATH).isEqualTo("/B.java"))
+                .build()).matches();
+
+        assertThat(matches).extracting(m -> m.embedded().text()).containsExactly("b");
+    }
+
+    @Test
+    void removeAllByFilterDropsOnlyMatchingRows() {
+        LocalEmbeddingStore store = new LocalEmbeddingStore(null);
+        store.addAll(
+                List.of(vec(1, 0, 0), vec(0, 1, 0), vec(0, 0, 1)),
+                List.of(seg("a", "/A.java"), seg("b", "/B.java"), seg("a2", "/A.java")));
+
+        store.removeAll(MetadataFilterBuilder.metadataKey(FILE_PATH).isEqualTo("/A.java"));
+
+        assertThat(store.size()).isEqualTo(1);
+        List<EmbeddingMatch<TextSegment>> matches = store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(vec(0, 1, 0))
+                .maxResults(5)
+                .minScore(0.0)
+                .build()).matches();
+        assertThat(matches).extracting(m -> m.embedded().text()).containsExactly("b");
+    }
+
+    @Test
+    void addAllWithMismatchedDimensionLeavesStoreUntouched() {
+        LocalEmbeddingStore store = new LocalEmbeddingStore(null);
+        store.addAll(List.of(vec(1, 0, 0)), List.of(seg("a", "/A.java")));
+
+        assertThatThrownBy(() -> store.addAll(
+                List.of(vec(0, 1, 0), vec(0, 1)),
+                List.of(seg("b", "/B.java"), seg("c", "/C.java"))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeAllEmptiesTheStore() {
+        LocalEmbeddingStore store = new LocalEmbeddingStore(null);
+        store.addAll(List.of(vec(1, 0, 0), vec(0, 1, 0)), List.of(seg("a", "/A.java"), seg("b", "/B.java")));
+
+        store.removeAll();
+        store.addAll(List.of(vec(0, 0, 1)), List.of(seg("c", "/C.java")));
+
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void flushedStoreRoundTripsThroughDisk(@TempDir Path tmp) {
+        LocalEmbeddingStore writer = new LocalEmbeddingStore(tmp);
+        writer.addAll(
+                List.of(vec(1, 0, 0), vec(0, 1, 0)),
+                List.of(seg("alpha", "/A.java"), seg("beta", "/B.java")));
+        writer.flush();
+
+        LocalEmbeddingStore reader = new LocalEmbeddingStore(tmp);
+        assertThat(reader.size()).isEqualTo(2);
+
+        EmbeddingMatch<TextSegment> top = reader.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(vec(0, 1, 0))
+                .maxResults(1)
+                .minScore(0.0)
+                .build()).matches().get(0);
+        assertThat(top.embedded().text()).isEqualTo("beta");
+        assertThat(top.embedded().metadata().getString(FILE_PATH)).isEqualTo("/B.java");
+        assertThat(top.embedded().metadata().getLong(LAST_MODIFIED)).isEqualTo(42L);
+    }
+
+    @Test
+    void aSecondFlushReplacesTheLoadedFile(@TempDir Path tmp) {
+        LocalEmbeddingStore first = new LocalEmbeddingStore(tmp);
+        first.addAll(List.of(vec(1, 0, 0)), List.of(seg("alpha", "/A.java")));
+        first.flush();
+
+        LocalEmbeddingStore reopened = new LocalEmbeddingStore(tmp);
+        reopened.addAll(List.of(vec(0, 1, 0)), List.of(seg("beta", "/B.java")));
+        reopened.flush();
+
+        assertThat(new LocalEmbeddingStore(tmp).size()).isEqualTo(2);
+        assertThat(tmp.resolve(LocalEmbeddingStore.STORE_FILE)).exists();
+    }
+
+    @Test
+    void aTruncatedFileLoadsEmptyAndReportsTheLoss(@TempDir Path tmp) throws IOException {
+        LocalEmbeddingStore writer = new LocalEmbeddingStore(tmp);
+        writer.addAll(List.of(vec(1, 0, 0), vec(0, 1, 0)), List.of(seg("alpha", "/A.java"), seg("beta", "/B.java")));
+        writer.flush();
+        Path file = tmp.resolve(LocalEmbeddingStore.STORE_FILE);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 6));
+
+        LocalEmbeddingStore reader = new LocalEmbeddingStore(tmp);
+
+        assertThat(reader.size()).isZero();
+        assertThat(reader.lostOnLoad()).isTrue();
+        assertThat(new LocalEmbeddingStore(tmp.resolve("fresh")).lostOnLoad()).isFalse();
+    }
+
+    private static Embedding vec(float... values) {
+        return Embedding.from(values);
+    }
+
+    private static TextSegment seg(String text, String filePath) {
+        Metadata metadata = new Metadata();
+        metadata.put(FILE_PATH, filePath);
+        metadata.put(LAST_MODIFIED, 42L);
+        return TextSegment.from(text, metadata);
+    }
+}
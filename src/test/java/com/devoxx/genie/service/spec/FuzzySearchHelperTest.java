@@ -408,4 +408,38 @@ class FuzzySearchHelperTest {
             assertThat(FuzzySearchHelper.matches("high", "high priority task")).isTrue();
         }
     }
+
+    // ── Prepared query and text ───────────────────────────────────────────
+
+    @Nested
+    class Prepared {
+
+        private static final String[] QUERIES = {
+                "authentication", "AUTH", "authentcation", "usr auth", "hello world", "tsk",
+                "login page", "  spaced   query ", "xyz", "a"
+        };
+        private static final String[] TEXTS = {
+                "Implement user authentication flow", "hello world", "Fix login page layout",
+                "Task list\nwith several lines", "   leading whitespace", "a", "ab"
+        };
+
+        @Test
+        void preparedScore_equalsPlainScore() {
+            for (String query : QUERIES) {
+                FuzzySearchHelper.PreparedQuery prepared = FuzzySearchHelper.PreparedQuery.of(query);
+                for (String text : TEXTS) {
+                    assertThat(FuzzySearchHelper.score(prepared, FuzzySearchHelper.PreparedText.of(text)))
+                            .as("%s against %s", query, text)
+                            .isEqualTo(FuzzySearchHelper.score(query, text));
+                }
+            }
+        }
+
+        @Test
+        void nullOrEmpty_returnsZero() {
+            assertThat(FuzzySearchHelper.PreparedQuery.of("")).isNull();
+            assertThat(FuzzySearchHelper.PreparedText.of(null)).isNull();
+            assertThat(FuzzySearchHelper.score(FuzzySearchHelper.PreparedQuery.of("auth"), null)).isZero();
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.devoxx.genie.service.spec;
+
+import com.devoxx.genie.model.spec.TaskSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark for backlog search: scoring every task with
+ * {@link FuzzySearchHelper#scoreMultiField} (the old path) against {@link SpecSearchIndex}
+ * over the same tasks, checking both rank the same results. The text is drawn from a
+ * vocabulary of a few thousand words with a Zipf-like spread, as a real backlog is, so the
+ * per-query word memo cannot hide the typo matching. Not a correctness test, so it only runs
+ * on demand:
+ *
+ * <pre>DEVOXXGENIE_BENCHMARK=true ./gradlew test --tests '*SpecSearchBenchmark'</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DEVOXXGENIE_BENCHMARK", matches = "true")
+class SpecSearchBenchmark {
+
+    private static final int TASKS = 5_000;
+    private static final int RUNS = 50;
+    private static final int VOCABULARY = 6_000;
+    private static final String[] STOP_WORDS = {
+            "the", "a", "of", "to", "and", "in", "for", "with", "when", "should", "is", "on"
+    };
+    private static final String[] DOMAIN_WORDS = {
+            "authentication", "login", "refactor", "settings", "panel", "release", "notes", "index",
+            "search", "backlog", "archive", "document", "token", "stream", "markdown", "render",
+            "conversation", "history", "agent", "tool", "provider", "model", "timeout", "cache"
+    };
+    private static final String[] SYLLABLES = {
+            "ba", "con", "de", "fi", "gra", "hel", "in", "jo", "ker", "lo", "man", "ne", "or", "pro",
+            "qui", "re", "sta", "ti", "un", "ver", "wa", "xen", "yo", "zu", "tion", "ment", "ing", "er"
+    };
+    private static final String[] QUERIES = {
+            "login", "authentcation flow", "setings panel", "TASK-4211", "rls nts", "markdown rendering",
+            "conversaton histroy", "provider timeout cache"
+    };
+
+    @Test
+    void compareBruteForceAndIndex() {
+        Random random = new Random(42);
+        String[] words = vocabulary(random);
+        List<TaskSpec> tasks = new ArrayList<>(TASKS);
+        SpecSearchIndex<TaskSpec> index = new SpecSearchIndex<>(
+                TaskSpec::getId, TaskSpec::getTitle, TaskSpec::getDescription);
+        for (int i = 0; i < TASKS; i++) {
+            TaskSpec task = TaskSpec.builder()
+                    .id("TASK-" + i)
+                    .title(sentence(random, words, 8))
+                    .description(sentence(random, words, 80))
+                    .build();
+            tasks.add(task);
+            index.put("task-" + i + ".md", task);
+        }
+
+        System.out.printf("%-20s %-6s %10s %10s %10s %10s%n", "query", "path", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String query : QUERIES) {
+            List<TaskSpec> expected = bruteForce(tasks, query);
+            assertThat(indexed(index, query)).isEqualTo(expected);
+
+            print(query, "brute", timeMs(() -> bruteForce(tasks, query)));
+            print(query, "index", timeMs(() -> indexed(index, query)));
+        }
+    }
+
+    private static List<TaskSpec> bruteForce(List<TaskSpec> tasks, String query) {
+        return tasks.stream()
+                .map(t -> Map.entry(t, FuzzySearchHelper.scoreMultiField(query, t.getTitle(), t.getDescription())))
+                .filter(e -> e.getValue() >= 0.3)
+                .sorted(Map.Entry.<TaskSpec, Double>comparingByValue().reversed()
+                        .thenComparing(e -> e.getKey().getId()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<TaskSpec> indexed(SpecSearchIndex<TaskSpec> index, String query) {
+        return index.search(FuzzySearchHelper.PreparedQuery.of(query), 2, 0.3, t -> true)
+                .sorted(Map.Entry.<TaskSpec, Double>comparingByValue().reversed()
+                        .thenComparing(e -> e.getKey().getId()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Stop words first, so they are the most frequent, then made-up words of 2-4 syllables with
+     * the domain words spread among them every 100 ranks.
+     */
+    private static String[] vocabulary(Random random) {
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(STOP_WORDS));
+        int domainWord = 0;
+        while (words.size() < VOCABULARY) {
+            if (words.size() % 100 == 50 && domainWord < DOMAIN_WORDS.length) {
+                words.add(DOMAIN_WORDS[domainWord++]);
+                continue;
+            }
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /** Picks words with a Zipf-like skew: the word at rank r is drawn about 1/r as often. */
+    private static String sentence(Random random, String[] words, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            int rank = (int) Math.floor(Math.pow(words.length + 1.0, random.nextDouble())) - 1;
+            sb.append(words[Math.min(rank, words.length - 1)]);
+        }
+        return sb.toString();
+    }
+
+    private static double[] timeMs(Supplier<List<TaskSpec>> search) {
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static void print(String query, String path, double[] sorted) {
+        System.out.printf("%-20s %-6s %10.3f %10.3f %10.3f %10.3f%n", query, path,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1]);
+    }
+
+    private static double percentile(double[] sorted, int p) {
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,149 @@
+package com.devoxx.genie.service.spec;
+
+import com.devoxx.genie.model.spec.TaskSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpecSearchIndexTest {
+
+    private final SpecSearchIndex<TaskSpec> index = new SpecSearchIndex<>(
+            TaskSpec::getId, TaskSpec::getTitle, TaskSpec::getDescription, TaskSpec::getId);
+
+    private static TaskSpec task(String id, String title, String description) {
+        return TaskSpec.builder().id(id).title(title).description(description).build();
+    }
+
+    @Test
+    void search_scoresLikeScoreMultiField() {
+        List<TaskSpec> tasks = List.of(
+                task("TASK-1", "Implement user authentication", "OAuth login with refresh tokens"),
+                task("TASK-2", "Fix login page layout", null),
+                task("TASK-3", "Write release notes", "Summarise the changes since 1.4"),
+                task("TASK-4", null, "Refactor the settings panel"));
+        for (int i = 0; i < tasks.size(); i++) {
+            index.put("task-" + i + ".md", tasks.get(i));
+        }
+
+        for (String query : List.of("authentcation", "login", "task-3", "setings panel", "rls nts", "zzz")) {
+            Map<TaskSpec, Double> scores = index.search(FuzzySearchHelper.PreparedQuery.of(query), 3, 0.0, t -> true)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+            for (TaskSpec task : tasks) {
+                assertThat(scores.get(task))
+                        .as("%s against %s", query, task.getId())
+                        .isEqualTo(FuzzySearchHelper.scoreMultiField(query, task.getTitle(), task.getDescription(), task.getId()));
+            }
+        }
+    }
+
+    @Test
+    void search_returnsExactlyTheItemsScoringAboveTheThreshold() {
+        String[] words = {"authentication", "login", "logout", "refactor", "settings", "panel", "release",
+                "notes", "index", "search", "backlog", "archive", "document", "token", "stream", "markdown",
+                "render", "conversation", "history", "timeout", "cache", "flow", "the", "of", "fix"};
+        Random random = new Random(7);
+        List<TaskSpec> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TaskSpec task = task("TASK-" + i, sentence(random, words, 1 + random.nextInt(6)),
+                    random.nextInt(5) == 0 ? null : sentence(random, words, random.nextInt(40)));
+            tasks.add(task);
+            index.put("task-" + i + ".md", task);
+        }
+
+        for (String query : List.of("login", "authentcation flow", "setings panel", "task-42", "rls nts",
+                "markdown rendering", "lgoin", "fix the cache", "conversaton histroy", "xyz", "of")) {
+            for (int fieldCount = 2; fieldCount <= 3; fieldCount++) {
+                int fields = fieldCount;
+                Map<TaskSpec, Double> scores = index
+                        .search(FuzzySearchHelper.PreparedQuery.of(query), fields, 0.3, t -> true)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+                Map<TaskSpec, Double> expected = tasks.stream()
+                        .collect(Collectors.toMap(t -> t, t -> fields == 2
+                                ? FuzzySearchHelper.scoreMultiField(query, t.getTitle(), t.getDescription())
+                                : FuzzySearchHelper.scoreMultiField(query, t.getTitle(), t.getDescription(), t.getId())))
+                        .entrySet().stream()
+                        .filter(e -> e.getValue() >= 0.3)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                assertThat(scores).as("%s over %d fields", query, fields).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void search_forgetsTheTextOfReplacedAndRemovedItems() {
+        index.put("a.md", task("TASK-1", "Release notes", null));
+        index.put("b.md", task("TASK-2", "Markdown render", null));
+
+        index.put("a.md", task("TASK-1", "Settings panel", null));
+        index.remove("b.md");
+
+        assertThat(index.search(FuzzySearchHelper.PreparedQuery.of("release"), 2, 0.3, t -> true).toList()).isEmpty();
+        assertThat(index.search(FuzzySearchHelper.PreparedQuery.of("markdown"), 2, 0.3, t -> true).toList()).isEmpty();
+        assertThat(index.search(FuzzySearchHelper.PreparedQuery.of("settings"), 2, 0.3, t -> true).toList())
+                .extracting(e -> e.getKey().getId())
+                .containsExactly("TASK-1");
+    }
+
+    private static String sentence(Random random, String[] words, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(words[random.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void search_onlyScoresRequestedFieldsAndAppliesFilter() {
+        TaskSpec first = task("TASK-1", "Alpha", "beta");
+        TaskSpec second = task("TASK-2", "Alpha", "gamma");
+        index.put("a.md", first);
+        index.put("b.md", second);
+
+        List<Map.Entry<TaskSpec, Double>> results = index
+                .search(FuzzySearchHelper.PreparedQuery.of("task-2"), 2, 0.0, t -> !t.getId().equals("TASK-1"))
+                .toList();
+
+        assertThat(results).extracting(Map.Entry::getKey).containsExactly(second);
+        assertThat(results.get(0).getValue())
+                .isEqualTo(FuzzySearchHelper.scoreMultiField("task-2", "Alpha", "gamma"));
+    }
+
+    @Test
+    void put_replacesEntryForSameKey() {
+        TaskSpec original = task("TASK-1", "Old title", null);
+        TaskSpec renamed = task("TASK-7", "New title", null);
+
+        assertThat(index.put("task-1.md", original)).isNull();
+        assertThat(index.put("task-1.md", renamed)).isSameAs(original);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findById("task-1")).isNull();
+        assertThat(index.findById("task-7")).isSameAs(renamed);
+    }
+
+    @Test
+    void findById_fallsBackToRemainingFileWithSameId() {
+        TaskSpec first = task("TASK-1", "First copy", null);
+        TaskSpec second = task("TASK-1", "Second copy", null);
+        index.put("tasks/task-1.md", first);
+        index.put("completed/task-1.md", second);
+
+        index.remove("completed/task-1.md");
+        assertThat(index.findById("TASK-1")).isSameAs(first);
+
+        index.remove("tasks/task-1.md");
+        assertThat(index.findById("TASK-1")).isNull();
+        assertThat(index.values()).isEmpty();
+    }
+}
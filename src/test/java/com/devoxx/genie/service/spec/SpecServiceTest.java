@@ -8,6 +8,7 @@ import com.devoxx.genie.model.spec.TaskSpec;
 import com.devoxx.genie.ui.settings.DevoxxGenieStateService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
 import com.intellij.util.messages.MessageBus;
 import com.intellij.util.messages.MessageBusConnection;
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -1061,6 +1065,181 @@ class SpecServiceTest {
         }
     }
 
+    // ── Incremental updates ────────────────────────────────────────────
+
+    @Test
+    void applyFileChanges_reparsesChangedFileAndReportsItsTask(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1, TASK_2);
+            SpecService service = mocks.createService();
+            TaskSpec untouched = service.getSpec("TASK-1");
+            List<SpecChangeSet> received = new ArrayList<>();
+            service.addChangeListener(received::add);
+
+            Path task2 = tempDir.resolve("backlog/tasks/task-2.md");
+            Files.writeString(task2, TASK_2.replace("status: In Progress", "status: Done"), StandardCharsets.UTF_8);
+            service.applyFileChanges(List.of(task2), List.of(), false);
+
+            assertThat(service.getSpec("TASK-2").getStatus()).isEqualTo("Done");
+            assertThat(service.getSpec("TASK-1")).isSameAs(untouched);
+            assertThat(received).hasSize(1);
+            assertThat(received.get(0).updatedTaskIds()).containsExactly("TASK-2");
+            assertThat(received.get(0).removedTaskIds()).isEmpty();
+            assertThat(received.get(0).affectsTask("task-2")).isTrue();
+            assertThat(received.get(0).affectsTask("TASK-1")).isFalse();
+        }
+    }
+
+    @Test
+    void applyFileChanges_skipsFileWithUnchangedStamp(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1);
+            SpecService service = mocks.createService();
+            TaskSpec cached = service.getSpec("TASK-1");
+            AtomicInteger callCount = new AtomicInteger();
+            service.addChangeListener(changes -> callCount.incrementAndGet());
+
+            service.applyFileChanges(List.of(tempDir.resolve("backlog/tasks/task-1.md")), List.of(), false);
+
+            assertThat(service.getSpec("TASK-1")).isSameAs(cached);
+            assertThat(callCount.get()).isZero();
+        }
+    }
+
+    @Test
+    void applyFileChanges_removedFileDropsItsTask(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1, TASK_2);
+            SpecService service = mocks.createService();
+            List<SpecChangeSet> received = new ArrayList<>();
+            service.addChangeListener(received::add);
+
+            Path task1 = tempDir.resolve("backlog/tasks/task-1.md");
+            Files.delete(task1);
+            service.applyFileChanges(List.of(), List.of(task1), false);
+
+            assertThat(service.getSpec("TASK-1")).isNull();
+            assertThat(service.getAllSpecs()).hasSize(1);
+            assertThat(received.get(0).removedTaskIds()).containsExactly("TASK-1");
+        }
+    }
+
+    @Test
+    void applyFileChanges_changedFileThatNoLongerExistsIsRemoved(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1);
+            SpecService service = mocks.createService();
+
+            Path task1 = tempDir.resolve("backlog/tasks/task-1.md");
+            Files.delete(task1);
+            service.applyFileChanges(List.of(task1), List.of(), false);
+
+            assertThat(service.getAllSpecs()).isEmpty();
+        }
+    }
+
+    @Test
+    void applyFileChanges_removedDirectoryDropsEverythingBelowIt(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1, TASK_2);
+            seedDocFiles(tempDir, DOC_1);
+            SpecService service = mocks.createService();
+
+            service.applyFileChanges(List.of(), List.of(tempDir.resolve("backlog/tasks")), false);
+
+            assertThat(service.getAllSpecs()).isEmpty();
+            assertThat(service.getAllDocuments()).hasSize(1);
+        }
+    }
+
+    @Test
+    void applyFileChanges_movedFileKeepsTaskUnderNewPath(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1);
+            SpecService service = mocks.createService();
+            List<SpecChangeSet> received = new ArrayList<>();
+            service.addChangeListener(received::add);
+
+            Path source = tempDir.resolve("backlog/tasks/task-1.md");
+            Path target = tempDir.resolve("backlog/tasks/task-1 - First-task.md");
+            Files.move(source, target);
+            service.applyFileChanges(List.of(target), List.of(source), false);
+
+            assertThat(service.getSpec("TASK-1").getFilePath()).isEqualTo(target.toAbsolutePath().toString());
+            assertThat(received.get(0).updatedTaskIds()).containsExactly("TASK-1");
+            assertThat(received.get(0).removedTaskIds()).isEmpty();
+        }
+    }
+
+    @Test
+    void applyFileChanges_keepsArchivedTasksOutOfActiveCache(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1);
+            SpecService service = mocks.createService();
+            List<SpecChangeSet> received = new ArrayList<>();
+            service.addChangeListener(received::add);
+
+            Path archived = tempDir.resolve("backlog/archive/tasks/task-3.md");
+            Files.createDirectories(archived.getParent());
+            Files.writeString(archived, TASK_3, StandardCharsets.UTF_8);
+            service.applyFileChanges(List.of(archived), List.of(), false);
+
+            assertThat(service.getSpec("TASK-3")).isNull();
+            assertThat(service.getArchivedTasks()).extracting(TaskSpec::getId).containsExactly("TASK-3");
+            assertThat(received).hasSize(1);
+            assertThat(received.get(0).archivedTaskIds()).containsExactly("TASK-3");
+            assertThat(received.get(0).affectsTask("TASK-3")).isFalse();
+        }
+    }
+
+    @Test
+    void applyFileChanges_ignoresFilesOutsideScannedLocations(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1);
+            SpecService service = mocks.createService();
+
+            Path draft = tempDir.resolve("backlog/drafts/task-3.md");
+            Files.createDirectories(draft.getParent());
+            Files.writeString(draft, TASK_3, StandardCharsets.UTF_8);
+            service.applyFileChanges(List.of(draft), List.of(), false);
+
+            assertThat(service.getSpec("TASK-3")).isNull();
+            assertThat(service.getArchivedTasks()).isEmpty();
+        }
+    }
+
+    @Test
+    void refresh_reportsTasksWhoseFileDisappeared(@TempDir Path tempDir) throws IOException {
+        try (var mocks = new MockContext(tempDir)) {
+            seedTaskFiles(tempDir, TASK_1, TASK_2);
+            SpecService service = mocks.createService();
+            List<SpecChangeSet> received = new ArrayList<>();
+            service.addChangeListener(received::add);
+
+            Files.delete(tempDir.resolve("backlog/tasks/task-2.md"));
+            service.refresh();
+
+            assertThat(service.getAllSpecs()).extracting(TaskSpec::getId).containsExactly("TASK-1");
+            assertThat(received.get(0).removedTaskIds()).containsExactly("TASK-2");
+            assertThat(received.get(0).updatedTaskIds()).isEmpty();
+        }
+    }
+
+    @Test
+    void collectSpecPaths_moveRemovesOldPathAndChangesNewPath(@TempDir Path tempDir) {
+        Path specDir = tempDir.resolve("backlog");
+        VFileMoveEvent move = mock(VFileMoveEvent.class);
+        when(move.getOldPath()).thenReturn(specDir.resolve("tasks/task-1.md").toString());
+        when(move.getNewPath()).thenReturn(tempDir.resolve("elsewhere/task-1.md").toString());
+        Set<Path> changed = new HashSet<>();
+        Set<Path> removed = new HashSet<>();
+
+        SpecService.collectSpecPaths(move, specDir, changed, removed);
+
+        assertThat(removed).containsExactly(specDir.resolve("tasks/task-1.md"));
+        assertThat(changed).isEmpty();
+    }
+
     // ── dispose ────────────────────────────────────────────────────────
 
     @Test
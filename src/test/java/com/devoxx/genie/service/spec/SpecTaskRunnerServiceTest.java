@@ -15,11 +15,13 @@ import com.intellij.openapi.project.Project;
 import com.intellij.util.messages.MessageBus;
 import com.intellij.util.messages.MessageBusConnection;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -769,6 +771,119 @@ class SpecTaskRunnerServiceTest {
         }
     }
 
+    // ── Parallel mode: dependency-driven scheduling ────────────────────
+
+    @Test
+    void runTasks_parallelMode_startsDependentAsSoonAsItsDependencyCompletes() {
+        try (var ctx = new RunnerMockContext()) {
+            TaskSpec slow = TaskSpec.builder().id("TASK-1").title("Slow").status("To Do").build();
+            TaskSpec fast = TaskSpec.builder().id("TASK-2").title("Fast").status("To Do").build();
+            TaskSpec fastDone = TaskSpec.builder().id("TASK-2").title("Fast").status("Done").build();
+            TaskSpec afterFast = TaskSpec.builder().id("TASK-3").title("After fast").status("To Do")
+                    .dependencies(List.of("TASK-2")).build();
+
+            when(ctx.specService.getAllSpecs()).thenReturn(List.of(slow, fast, afterFast));
+            when(ctx.specService.getSpec("TASK-1")).thenReturn(slow);
+            when(ctx.specService.getSpec("TASK-2")).thenReturn(fast, fastDone);
+            when(ctx.specService.getSpec("TASK-3")).thenReturn(afterFast);
+            when(ctx.stateService.getSpecExecutionMode()).thenReturn("PARALLEL");
+            when(ctx.stateService.getSpecMaxConcurrency()).thenReturn(4);
+            doAnswer(inv -> {
+                inv.<Runnable>getArgument(0).run();
+                return null;
+            }).when(ctx.application).invokeLater(any(Runnable.class));
+
+            SpecTaskRunnerService service = ctx.createService();
+            SpecTaskRunnerListener listener = mock(SpecTaskRunnerListener.class);
+            service.addListener(listener);
+
+            service.runTasks(List.of(slow, fast, afterFast));
+            verify(listener).onTaskStarted(eq(slow), anyInt(), eq(3));
+            verify(listener).onTaskStarted(eq(fast), anyInt(), eq(3));
+            verify(listener, never()).onTaskStarted(eq(afterFast), anyInt(), anyInt());
+
+            ArgumentCaptor<SpecChangeListener> specListener = ArgumentCaptor.forClass(SpecChangeListener.class);
+            verify(ctx.specService).addChangeListener(specListener.capture());
+            specListener.getValue().specsChanged(
+                    new SpecChangeSet(Set.of("TASK-2"), Set.of(), Set.of(), Set.of(), Set.of()));
+            service.notifyPromptExecutionCompleted("TASK-2");
+
+            // TASK-1 is still running, yet TASK-3 no longer waits for it
+            verify(listener).onTaskCompleted(eq(fastDone), anyInt(), eq(3));
+            verify(listener).onTaskStarted(eq(afterFast), anyInt(), eq(3));
+            assertThat(service.getState()).isEqualTo(RunnerState.WAITING_FOR_COMPLETION);
+            verify(listener, never()).onRunFinished(anyInt(), anyInt(), anyInt(), any());
+        }
+    }
+
+    @Test
+    void runTasks_parallelMode_respectsMaxConcurrency() {
+        try (var ctx = new RunnerMockContext()) {
+            TaskSpec t1 = TaskSpec.builder().id("TASK-1").title("T1").status("To Do").build();
+            TaskSpec t2 = TaskSpec.builder().id("TASK-2").title("T2").status("To Do").build();
+
+            when(ctx.specService.getAllSpecs()).thenReturn(List.of(t1, t2));
+            when(ctx.specService.getSpec("TASK-1")).thenReturn(t1);
+            when(ctx.specService.getSpec("TASK-2")).thenReturn(t2);
+            when(ctx.stateService.getSpecExecutionMode()).thenReturn("PARALLEL");
+            when(ctx.stateService.getSpecMaxConcurrency()).thenReturn(1);
+
+            SpecTaskRunnerService service = ctx.createService();
+            SpecTaskRunnerListener listener = mock(SpecTaskRunnerListener.class);
+            service.addListener(listener);
+
+            service.runTasks(List.of(t1, t2));
+
+            verify(listener).onTaskStarted(eq(t1), anyInt(), eq(2));
+            verify(listener, never()).onTaskStarted(eq(t2), anyInt(), anyInt());
+        }
+    }
+
+    @Test
+    void notifyCliTaskFailed_parallelMode_skipsDownstreamTasksOnly() {
+        try (var ctx = new RunnerMockContext()) {
+            TaskSpec independent = TaskSpec.builder().id("TASK-1").title("Independent").status("To Do").build();
+            TaskSpec failing = TaskSpec.builder().id("TASK-2").title("Failing").status("To Do").build();
+            TaskSpec downstream = TaskSpec.builder().id("TASK-3").title("Downstream").status("To Do")
+                    .dependencies(List.of("TASK-2")).build();
+
+            when(ctx.specService.getAllSpecs()).thenReturn(List.of(independent, failing, downstream));
+            when(ctx.specService.getSpec("TASK-1")).thenReturn(independent);
+            when(ctx.specService.getSpec("TASK-2")).thenReturn(failing);
+            when(ctx.specService.getSpec("TASK-3")).thenReturn(downstream);
+            when(ctx.stateService.getSpecRunnerMode()).thenReturn("cli");
+            when(ctx.stateService.getSpecSelectedCliTool()).thenReturn("claude");
+            when(ctx.stateService.getSpecExecutionMode()).thenReturn("PARALLEL");
+            when(ctx.stateService.getSpecMaxConcurrency()).thenReturn(4);
+            CliToolConfig cliTool = CliToolConfig.builder()
+                    .name("claude").type(CliToolConfig.CliType.CLAUDE).enabled(true).build();
+            when(ctx.stateService.getCliTools()).thenReturn(List.of(cliTool));
+
+            SpecTaskRunnerService service = ctx.createService();
+            SpecTaskRunnerListener listener = mock(SpecTaskRunnerListener.class);
+            service.addListener(listener);
+
+            service.runTasks(List.of(independent, failing, downstream));
+            service.notifyCliTaskFailed(1, "boom", "TASK-2");
+
+            assertThat(service.getSkippedCount()).isEqualTo(2);
+            verify(listener).onTaskSkipped(eq(failing), anyInt(), eq(3), contains("exit code 1"));
+            verify(listener).onTaskSkipped(eq(downstream), anyInt(), eq(3), contains("Dependency TASK-2"));
+            verify(listener, never()).onTaskStarted(eq(downstream), anyInt(), anyInt());
+            // The independent task keeps running
+            assertThat(service.isRunning()).isTrue();
+
+            service.cancel();
+        }
+    }
+
+    @Test
+    void formatCompletedLine_includesQueueWaitAndRunTime() {
+        String line = SpecTaskRunnerService.formatCompletedLine("TASK-1", "Title",
+                new TaskDagScheduler.TaskTiming(12, 3400));
+        assertThat(line).startsWith("  [OK]").contains("TASK-1").contains("waited 12ms").contains("ran 3400ms");
+    }
+
     // ── Parallel mode: invalid execution mode string defaults to sequential ─
 
     @Test
@@ -846,6 +961,7 @@ class SpecTaskRunnerServiceTest {
         final MockedStatic<ChatMemoryService> chatMemoryMock;
         final MockedStatic<FileListManager> fileListMock;
         final MockedStatic<ApplicationManager> appManagerMock;
+        final Application application;
 
         final DevoxxGenieStateService stateService;
         final SpecService specService;
@@ -863,12 +979,11 @@ class SpecTaskRunnerServiceTest {
             fileListMock = Mockito.mockStatic(FileListManager.class);
             appManagerMock = Mockito.mockStatic(ApplicationManager.class);
 
-            Application application = mock(Application.class);
+            application = mock(Application.class);
             appManagerMock.when(ApplicationManager::getApplication).thenReturn(application);
-            // Parallel mode dispatches tasks via executeOnPooledThread with a blocking
-            // layerLatch.await(). We make this a no-op because: (1) running inline
-            // would deadlock the test thread, and (2) MockedStatic is thread-scoped
-            // so a real background thread can't see the mocked ApplicationManager.
+            // invokeLater is a no-op by default, so spec-change events are dropped unless a
+            // test makes it run inline. MockedStatic is thread-scoped, so nothing may run
+            // on a real background thread.
 
             stateService = mock(DevoxxGenieStateService.class);
             stateServiceMock.when(DevoxxGenieStateService::getInstance).thenReturn(stateService);
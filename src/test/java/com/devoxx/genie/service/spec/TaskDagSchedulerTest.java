@@ -0,0 +1,156 @@
+package com.devoxx.genie.service.spec;
+
+import com.devoxx.genie.model.spec.TaskSpec;
+import com.devoxx.genie.service.spec.TaskDagScheduler.TaskState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskDagSchedulerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private static TaskSpec task(String id, String... deps) {
+        return TaskSpec.builder().id(id).title(id).status("To Do").dependencies(List.of(deps)).build();
+    }
+
+    private TaskDagScheduler scheduler(int maxConcurrency, TaskSpec... tasks) {
+        return new TaskDagScheduler(List.of(tasks), maxConcurrency, clock::get);
+    }
+
+    @Test
+    void dependentStartsWhenItsOwnDependencyCompletes_notWhenTheLayerDoes() {
+        TaskSpec slow = task("TASK-1");
+        TaskSpec fast = task("TASK-2");
+        TaskSpec afterFast = task("TASK-3", "TASK-2");
+        TaskDagScheduler dag = scheduler(4, slow, fast, afterFast);
+
+        assertThat(dag.nextTask()).isSameAs(slow);
+        assertThat(dag.nextTask()).isSameAs(fast);
+        assertThat(dag.nextTask()).isNull();
+
+        assertThat(dag.complete("TASK-2")).containsExactly(afterFast);
+        assertThat(dag.nextTask()).isSameAs(afterFast);
+        assertThat(dag.stateOf("TASK-1")).isEqualTo(TaskState.RUNNING);
+    }
+
+    @Test
+    void taskWaitsForAllOfItsDependencies() {
+        TaskSpec a = task("TASK-1");
+        TaskSpec b = task("TASK-2");
+        TaskSpec join = task("TASK-3", "TASK-1", "TASK-2");
+        TaskDagScheduler dag = scheduler(4, a, b, join);
+        dag.nextTask();
+        dag.nextTask();
+
+        assertThat(dag.complete("TASK-1")).isEmpty();
+        assertThat(dag.stateOf("TASK-3")).isEqualTo(TaskState.BLOCKED);
+        assertThat(dag.complete("TASK-2")).containsExactly(join);
+    }
+
+    @Test
+    void nextTask_respectsMaxConcurrency() {
+        TaskDagScheduler dag = scheduler(2, task("TASK-1"), task("TASK-2"), task("TASK-3"));
+
+        assertThat(dag.nextTask()).isNotNull();
+        assertThat(dag.nextTask()).isNotNull();
+        assertThat(dag.nextTask()).isNull();
+        assertThat(dag.runningCount()).isEqualTo(2);
+
+        dag.complete("TASK-1");
+        assertThat(dag.nextTask().getId()).isEqualTo("TASK-3");
+    }
+
+    @Test
+    void fail_skipsDownstreamTasksTransitively_butNotIndependentOnes() {
+        TaskSpec root = task("TASK-1");
+        TaskSpec independent = task("TASK-2");
+        TaskSpec child = task("TASK-3", "TASK-1");
+        TaskSpec grandchild = task("TASK-4", "TASK-3");
+        TaskDagScheduler dag = scheduler(4, root, independent, child, grandchild);
+        dag.nextTask();
+        dag.nextTask();
+
+        assertThat(dag.fail("task-1")).containsExactly(child, grandchild);
+
+        assertThat(dag.stateOf("TASK-2")).isEqualTo(TaskState.RUNNING);
+        assertThat(dag.isFinished()).isFalse();
+        dag.complete("TASK-2");
+        assertThat(dag.isFinished()).isTrue();
+    }
+
+    @Test
+    void completeAndFail_ignoreTasksThatAreNotRunning() {
+        TaskDagScheduler dag = scheduler(4, task("TASK-1"), task("TASK-2", "TASK-1"));
+
+        assertThat(dag.complete("TASK-1")).isEmpty();
+        assertThat(dag.fail("TASK-2")).isEmpty();
+        assertThat(dag.stateOf("TASK-1")).isEqualTo(TaskState.READY);
+        assertThat(dag.stateOf("TASK-2")).isEqualTo(TaskState.BLOCKED);
+    }
+
+    @Test
+    void cancelPending_skipsEverythingNotStarted() {
+        TaskDagScheduler dag = scheduler(1, task("TASK-1"), task("TASK-2"), task("TASK-3", "TASK-1"));
+        dag.nextTask();
+
+        assertThat(dag.cancelPending()).extracting(TaskSpec::getId).containsExactly("TASK-2", "TASK-3");
+        assertThat(dag.runningTaskIds()).containsExactly("TASK-1");
+        assertThat(dag.nextTask()).isNull();
+    }
+
+    @Test
+    void dependenciesOutsideTheRunAreIgnored() {
+        TaskDagScheduler dag = scheduler(4, task("TASK-2", "TASK-99"));
+
+        assertThat(dag.nextTask().getId()).isEqualTo("TASK-2");
+    }
+
+    @Test
+    void timingOf_recordsQueueWaitAndRunTime() {
+        TaskDagScheduler dag = scheduler(1, task("TASK-1"), task("TASK-2"));
+        dag.nextTask();
+        clock.set(100);
+        dag.complete("TASK-1");
+        clock.set(130);
+        dag.nextTask();
+        clock.set(200);
+        dag.complete("TASK-2");
+
+        assertThat(dag.timingOf("TASK-1")).isEqualTo(new TaskDagScheduler.TaskTiming(0, 100));
+        assertThat(dag.timingOf("TASK-2")).isEqualTo(new TaskDagScheduler.TaskTiming(130, 70));
+    }
+
+    @Test
+    void criticalPath_followsTheLongestChainOfRunTimes() {
+        // TASK-2 (120ms) -> TASK-3 (100ms) outweighs TASK-1 (80ms) -> TASK-3 and TASK-4 (50ms)
+        TaskDagScheduler dag = scheduler(4,
+                task("TASK-1"), task("TASK-2"), task("TASK-3", "TASK-1", "TASK-2"), task("TASK-4"));
+        dag.nextTask();
+        dag.nextTask();
+        dag.nextTask();
+        clock.set(50);
+        dag.complete("TASK-4");
+        clock.set(80);
+        dag.complete("TASK-1");
+        clock.set(120);
+        dag.complete("TASK-2");
+        dag.nextTask();
+        clock.set(220);
+        dag.complete("TASK-3");
+
+        assertThat(dag.criticalPath()).extracting(TaskSpec::getId).containsExactly("TASK-2", "TASK-3");
+        assertThat(dag.criticalPathMs()).isEqualTo(220);
+    }
+
+    @Test
+    void criticalPath_isEmptyWhenNothingRan() {
+        TaskDagScheduler dag = scheduler(4, task("TASK-1"));
+
+        assertThat(dag.criticalPath()).isEmpty();
+        assertThat(dag.criticalPathMs()).isZero();
+    }
+}
@@ -0,0 +1,62 @@
+package com.devoxx.genie.completion
+
+import com.devoxx.genie.completion.DevoxxGenieInlineCompletionProvider.Companion.streamLines
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class DevoxxGenieInlineCompletionProviderTest {
+
+    @Test
+    fun `cancelling mid-stream calls the cancel hook`() = runBlocking<Unit> {
+        val aborted = CountDownLatch(1)
+        val firstLine = CompletableDeferred<String>()
+        val cancelCalls = AtomicInteger()
+
+        val job = launch {
+            streamLines(
+                Dispatchers.IO,
+                // Like the FIM request: blocks until it is cancelled through the hook.
+                produce = { onLine ->
+                    onLine("first")
+                    aborted.await(5, TimeUnit.SECONDS)
+                },
+                cancelProducer = {
+                    cancelCalls.incrementAndGet()
+                    aborted.countDown()
+                },
+            ) { line -> firstLine.complete(line) }
+        }
+
+        assertThat(firstLine.await()).isEqualTo("first")
+        job.cancelAndJoin()
+
+        assertThat(cancelCalls.get()).isEqualTo(1)
+        assertThat(aborted.count).isZero()
+    }
+
+    @Test
+    fun `completed stream does not call the cancel hook`() = runBlocking<Unit> {
+        val consumed = mutableListOf<String>()
+        val cancelCalls = AtomicInteger()
+
+        streamLines(
+            Dispatchers.IO,
+            produce = { onLine ->
+                onLine("a")
+                onLine("b")
+            },
+            cancelProducer = { cancelCalls.incrementAndGet() },
+        ) { line -> consumed += line }
+
+        assertThat(consumed).containsExactly("a", "b")
+        assertThat(cancelCalls.get()).isZero()
+    }
+}
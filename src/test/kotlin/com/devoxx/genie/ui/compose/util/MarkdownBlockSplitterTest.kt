@@ -0,0 +1,122 @@
+package com.devoxx.genie.ui.compose.util
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class MarkdownBlockSplitterTest {
+
+    private val splitter = MarkdownBlockSplitter()
+
+    @Test
+    fun `blocks end at blank line before unindented text`() {
+        val blocks = splitter.split("# Title\n\nFirst paragraph\nstill first\n\nSecond")
+
+        assertThat(blocks.stable).containsExactly("# Title\n\n", "First paragraph\nstill first\n\n")
+        assertThat(blocks.tail).isEqualTo("Second")
+    }
+
+    @Test
+    fun `blank lines inside an open code fence do not split`() {
+        val blocks = splitter.split("Intro\n\n```java\nclass A {\n\n}\n")
+
+        assertThat(blocks.stable).containsExactly("Intro\n\n")
+        assertThat(blocks.tail).isEqualTo("```java\nclass A {\n\n}\n")
+    }
+
+    @Test
+    fun `closed fence becomes stable once text follows it`() {
+        val blocks = splitter.split("```\ncode\n\nmore\n```\n\nAfter")
+
+        assertThat(blocks.stable).containsExactly("```\ncode\n\nmore\n```\n\n")
+        assertThat(blocks.tail).isEqualTo("After")
+    }
+
+    @Test
+    fun `tilde fences and longer closing runs are recognised`() {
+        val blocks = splitter.split("~~~~\n```\n\nx\n~~~~~\n\nAfter")
+
+        assertThat(blocks.stable).containsExactly("~~~~\n```\n\nx\n~~~~~\n\n")
+        assertThat(blocks.tail).isEqualTo("After")
+    }
+
+    @Test
+    fun `indented continuation stays in the list item block`() {
+        val blocks = splitter.split("- item\n\n  continued\n\nNext")
+
+        assertThat(blocks.stable).containsExactly("- item\n\n  continued\n\n")
+        assertThat(blocks.tail).isEqualTo("Next")
+    }
+
+    @Test
+    fun `streaming keeps earlier blocks and only grows the tail`() {
+        val full = "Para one\n\n```kotlin\nval x = 1\n\nval y = 2\n```\n\nPara two\n\nPara three"
+        var previous = MarkdownBlocks(emptyList(), "")
+
+        for (end in 1..full.length) {
+            val blocks = splitter.split(full.substring(0, end))
+            assertThat(blocks.stable.take(previous.stable.size)).isEqualTo(previous.stable)
+            assertThat(blocks.stable.joinToString("") + blocks.tail).isEqualTo(full.substring(0, end))
+            previous = blocks
+        }
+
+        assertThat(previous.stable).hasSize(3)
+        assertThat(previous.tail).isEqualTo("Para three")
+    }
+
+    @Test
+    fun `text that does not extend the previous input starts over`() {
+        splitter.split("Old one\n\nOld two\n\nOld three")
+
+        val blocks = splitter.split("New\n\nText")
+
+        assertThat(blocks.stable).containsExactly("New\n\n")
+        assertThat(blocks.tail).isEqualTo("Text")
+    }
+
+    @Test
+    fun `link definitions from any block are handed to blocks that reference them`() {
+        val blocks = splitter.split("See [the docs][docs].\n\nPlain text\n\n[docs]: https://example.com/docs\n\nEnd")
+
+        assertThat(blocks.linkDefinitions).containsExactly("[docs]: https://example.com/docs")
+        assertThat(blocks.withLinkDefinitions(blocks.stable[0]))
+            .isEqualTo("See [the docs][docs].\n\n[docs]: https://example.com/docs")
+        assertThat(blocks.withLinkDefinitions(blocks.stable[1])).isEqualTo("Plain text\n\n")
+    }
+
+    @Test
+    fun `link definitions survive incremental splits and ignore fences and paragraphs`() {
+        splitter.split("Intro [a]\n\n[a]: https://a.example\n")
+
+        val blocks = splitter.split(
+            "Intro [a]\n\n[a]: https://a.example\n\n```\n[b]: https://b.example\n```\n\n" +
+                "Text\n[c]: https://c.example\n\n[^1]: footnote\n\nTail",
+        )
+
+        assertThat(blocks.linkDefinitions).containsExactly("[a]: https://a.example")
+    }
+
+    @Test
+    fun `link definitions are kept out of a tail whose code fence is still open`() {
+        val open = splitter.split("[a]: https://a.example\n\n```\nval xs = list[0]\n")
+        assertThat(open.tailInFence).isTrue()
+        assertThat(open.tailWithLinkDefinitions()).isEqualTo("```\nval xs = list[0]\n")
+
+        val opening = splitter.split("[a]: https://a.example\n\nSee [a]\n```")
+        assertThat(opening.tailWithLinkDefinitions()).isEqualTo("See [a]\n```")
+
+        val closed = splitter.split("[a]: https://a.example\n\n```\nval xs = list[0]\n```\n")
+        assertThat(closed.tailInFence).isFalse()
+        assertThat(closed.tailWithLinkDefinitions())
+            .isEqualTo("```\nval xs = list[0]\n```\n\n[a]: https://a.example")
+    }
+
+    @Test
+    fun `starting over forgets earlier link definitions`() {
+        splitter.split("[old]: https://old.example\n\nText\n\nMore")
+
+        val blocks = splitter.split("Fresh [x]\n\nText")
+
+        assertThat(blocks.linkDefinitions).isEmpty()
+        assertThat(blocks.withLinkDefinitions("Fresh [x]\n\n")).isEqualTo("Fresh [x]\n\n")
+    }
+}
@@ -0,0 +1,107 @@
+package com.devoxx.genie.ui.compose.util
+
+import dev.snipme.highlights.Highlights
+import org.assertj.core.api.Assertions.assertThat
+import org.intellij.markdown.MarkdownElementTypes
+import org.intellij.markdown.ast.ASTNode
+import org.intellij.markdown.flavours.gfm.GFMFlavourDescriptor
+import org.intellij.markdown.parser.MarkdownParser
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+import kotlin.random.Random
+
+/**
+ * Replays a recorded-style 20k-token streamed answer (prose, lists and code fences) flush by
+ * flush and compares the per-frame parse + highlight cost of re-rendering the whole response
+ * with [MarkdownBlockSplitter]'s stable blocks + open tail. Not a correctness test, so it only
+ * runs on demand:
+ *
+ * <pre>DEVOXXGENIE_BENCHMARK=true ./gradlew test --tests '*MarkdownStreamingBenchmark'</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DEVOXXGENIE_BENCHMARK", matches = "true")
+class MarkdownStreamingBenchmark {
+
+    private val parser = MarkdownParser(GFMFlavourDescriptor())
+
+    @Test
+    fun compareFullAndIncrementalRendering() {
+        val tokens = recordedStream(TOKENS)
+        val full = measure(tokens) { text -> render(text) }
+
+        val splitter = MarkdownBlockSplitter()
+        var renderedBlocks = 0
+        val incremental = measure(tokens) { text ->
+            val blocks = splitter.split(text)
+            // Newly finished blocks are rendered once, the open tail on every frame.
+            while (renderedBlocks < blocks.stable.size) {
+                render(blocks.stable[renderedBlocks++])
+            }
+            render(blocks.tail)
+        }
+
+        println(String.format("%-12s %8s %8s %8s %8s %10s", "mode", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms"))
+        report("full", full)
+        report("incremental", incremental)
+        assertThat(incremental.sum()).isLessThan(full.sum())
+    }
+
+    /** Milliseconds spent per flush, one flush every [TOKENS_PER_FLUSH] tokens. */
+    private fun measure(tokens: List<String>, frame: (String) -> Unit): DoubleArray {
+        val text = StringBuilder()
+        val frames = mutableListOf<Double>()
+        tokens.chunked(TOKENS_PER_FLUSH).forEach { chunk ->
+            chunk.forEach(text::append)
+            val start = System.nanoTime()
+            frame(text.toString())
+            frames.add((System.nanoTime() - start) / 1_000_000.0)
+        }
+        return frames.toDoubleArray()
+    }
+
+    /** What the chat view does per render: parse the Markdown and highlight every code fence. */
+    private fun render(markdown: String) {
+        if (markdown.isBlank()) return
+        val tree = parser.buildMarkdownTreeFromString(markdown)
+        highlightFences(markdown, tree)
+    }
+
+    private fun highlightFences(markdown: String, node: ASTNode) {
+        if (node.type == MarkdownElementTypes.CODE_FENCE) {
+            Highlights.Builder().code(markdown.substring(node.startOffset, node.endOffset)).build().getHighlights()
+            return
+        }
+        node.children.forEach { highlightFences(markdown, it) }
+    }
+
+    private fun report(mode: String, frames: DoubleArray) {
+        val sorted = frames.sorted()
+        fun percentile(p: Double) = sorted[((sorted.size - 1) * p).toInt()]
+        println(String.format("%-12s %8.2f %8.2f %8.2f %8.2f %10.0f",
+            mode, percentile(0.50), percentile(0.95), percentile(0.99), sorted.last(), frames.sum()))
+    }
+
+    /** A deterministic answer shaped like a long LLM response, cut into ~4-character tokens. */
+    private fun recordedStream(tokenCount: Int): List<String> {
+        val random = Random(42)
+        val words = listOf("the", "service", "returns", "a", "list", "of", "conversation", "headers", "while",
+            "messages", "load", "lazily", "when", "opened", "and", "each", "call", "uses", "connection")
+        val answer = StringBuilder()
+        var section = 0
+        while (answer.length < tokenCount * 4) {
+            section++
+            answer.append("## Step $section\n\n")
+            repeat(3) { answer.append(words.shuffled(random).take(12).joinToString(" ")).append(". ") }
+            answer.append("\n\n- ").append(words.shuffled(random).take(6).joinToString(" "))
+            answer.append("\n- `").append(words.random(random)).append("()` ").append(words.shuffled(random).take(5).joinToString(" "))
+            answer.append("\n\n```java\npublic class Step$section {\n")
+            repeat(8) { answer.append("    int ").append(words.random(random)).append(it).append(" = ").append(random.nextInt(100)).append(";\n\n") }
+            answer.append("}\n```\n\n")
+        }
+        return answer.chunked(4)
+    }
+
+    companion object {
+        private const val TOKENS = 20_000
+        private const val TOKENS_PER_FLUSH = 40
+    }
+}
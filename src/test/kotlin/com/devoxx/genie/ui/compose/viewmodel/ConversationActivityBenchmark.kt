@@ -0,0 +1,112 @@
+package com.devoxx.genie.ui.compose.viewmodel
+
+import androidx.compose.runtime.snapshots.Snapshot
+import com.devoxx.genie.model.activity.ActivityMessage
+import com.devoxx.genie.model.activity.ActivitySource
+import com.devoxx.genie.model.agent.AgentType
+import com.devoxx.genie.model.request.ChatMessageContext
+import com.devoxx.genie.ui.compose.model.ConversationState
+import dev.langchain4j.data.message.AiMessage
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable
+
+/**
+ * Plays 2,000 agent activity events (tool requests, responses and reasoning lines) into the
+ * last message of a 200-message conversation and reports the per-event cost and how many
+ * snapshot state objects each event changed — with per-message state that is one, the
+ * active bubble, however long the conversation is. Not a correctness test, so it only runs
+ * on demand:
+ *
+ * <pre>DEVOXXGENIE_BENCHMARK=true ./gradlew test --tests '*ConversationActivityBenchmark'</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DEVOXXGENIE_BENCHMARK", matches = "true")
+class ConversationActivityBenchmark {
+
+    @Test
+    fun playActivityEventsIntoOneConversation() {
+        val viewModel = ConversationViewModel(showToolActivityInChat = { true }, readIdeScale = { 1f })
+        repeat(HISTORY_MESSAGES) { i ->
+            viewModel.addChatMessage(
+                ChatMessageContext.builder()
+                    .id("history-$i")
+                    .userPrompt("question $i")
+                    .aiMessage(AiMessage.from("answer $i"))
+                    .build()
+            )
+        }
+        viewModel.addUserPromptMessage(ChatMessageContext.builder().id("active").userPrompt("explore").build())
+        val chat = viewModel.state as ConversationState.Chat
+        val history = chat.entries.dropLast(1).map { it.message }
+
+        Snapshot.sendApplyNotifications() // flush the setup writes before counting
+
+        var changedStates = 0
+        val changesPerEvent = IntArray(EVENTS)
+        val observer = Snapshot.registerApplyObserver { changed, _ -> changedStates += changed.size }
+        val events = events()
+        val frames = try {
+            events.mapIndexed { i, event ->
+                val start = System.nanoTime()
+                viewModel.onActivityMessage(event)
+                Snapshot.sendApplyNotifications()
+                val elapsed = (System.nanoTime() - start) / 1_000_000.0
+                changesPerEvent[i] = changedStates
+                changedStates = 0
+                elapsed
+            }.toDoubleArray()
+        } finally {
+            observer.dispose()
+        }
+
+        println(String.format("%-8s %8s %8s %8s %8s %10s %14s",
+            "events", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms", "states/event"))
+        val sorted = frames.sorted()
+        fun percentile(p: Double) = sorted[((sorted.size - 1) * p).toInt()]
+        println(String.format("%-8d %8.3f %8.3f %8.3f %8.3f %10.1f %14d",
+            EVENTS, percentile(0.50), percentile(0.95), percentile(0.99), sorted.last(), frames.sum(),
+            changesPerEvent.max()))
+
+        assertThat(viewModel.state).isSameAs(chat)
+        assertThat(chat.entries.dropLast(1).map { it.message }).usingElementComparator { a, b ->
+            if (a === b) 0 else 1
+        }.containsExactlyElementsOf(history)
+        assertThat(changesPerEvent.max()).isEqualTo(1)
+        // Responses resolve their request row; requests and reasoning lines each add one.
+        assertThat(chat.find("active")!!.message.activityEntries)
+            .hasSize(events.count { it.agentType != AgentType.TOOL_RESPONSE })
+    }
+
+    /** Request/response pairs, with an agent reasoning line after every [REASONING_EVERY] calls. */
+    private fun events(): List<ActivityMessage> {
+        val events = mutableListOf<ActivityMessage>()
+        var call = 0
+        while (events.size < EVENTS) {
+            call++
+            val tool = TOOLS[call % TOOLS.size]
+            events.add(agentEvent(AgentType.TOOL_REQUEST) {
+                it.toolName(tool).arguments("{\"path\":\"src/main/java/File$call.java\"}").callNumber(call).maxCalls(EVENTS)
+            })
+            events.add(agentEvent(AgentType.TOOL_RESPONSE) {
+                it.toolName(tool).result("result of call $call").callNumber(call).maxCalls(EVENTS)
+            })
+            if (call % REASONING_EVERY == 0) {
+                events.add(agentEvent(AgentType.INTERMEDIATE_RESPONSE) { it.result("Looking at call $call next.") })
+            }
+        }
+        return events.take(EVENTS)
+    }
+
+    private fun agentEvent(
+        type: AgentType,
+        customize: (ActivityMessage.ActivityMessageBuilder) -> ActivityMessage.ActivityMessageBuilder,
+    ): ActivityMessage =
+        customize(ActivityMessage.builder().source(ActivitySource.AGENT).agentType(type)).build()
+
+    companion object {
+        private const val EVENTS = 2_000
+        private const val HISTORY_MESSAGES = 200
+        private const val REASONING_EVERY = 10
+        private val TOOLS = listOf("read_file", "list_files", "search_files", "run_command")
+    }
+}
@@ -180,6 +180,20 @@ class ConversationViewModelTest {
         assertThat(msg.activityEntries.map { it.toolName }).contains("list_files")
     }
 
+    @Test
+    fun `live process output stays out of the chat bubble`() {
+        val viewModel = ConversationViewModel(showToolActivityInChat = { true })
+        viewModel.addUserPromptMessage(ChatMessageContext.builder().id("msg-1").userPrompt("hi").build())
+
+        viewModel.onActivityMessage(toolRequest("run_tests", "{}"))
+        viewModel.onActivityMessage(agentMessage(AgentType.TOOL_OUTPUT) {
+            it.toolName("run_tests").result("run_tests › BUILD SUCCESSFUL")
+        })
+
+        assertThat(activeMessageEntries(viewModel)).hasSize(1)
+        assertThat(activeMessageEntries(viewModel).single().toolName).isEqualTo("run_tests")
+    }
+
     @Test
     fun `tool response resolves into the request row instead of adding a duplicate entry`() {
         val viewModel = ConversationViewModel(showToolActivityInChat = { true })
@@ -196,6 +210,25 @@ class ConversationViewModelTest {
         assertThat(entries[0].result).isEqualTo("On branch master")
     }
 
+    @Test
+    fun `activity events update only the active message and keep the message list`() {
+        val viewModel = ConversationViewModel(showToolActivityInChat = { true })
+        viewModel.addChatMessage(
+            ChatMessageContext.builder().id("old").userPrompt("earlier").aiMessage(AiMessage.from("answer")).build()
+        )
+        viewModel.addUserPromptMessage(ChatMessageContext.builder().id("msg-1").userPrompt("hi").build())
+        val before = viewModel.state as ConversationState.Chat
+        val earlierMessage = before.find("old")!!.message
+
+        viewModel.onActivityMessage(toolRequest("run_command", """{"command":"date"}"""))
+        viewModel.onActivityMessage(toolResponse("run_command", "Fri Jul 24 14:21:00 CEST 2026"))
+
+        val after = viewModel.state as ConversationState.Chat
+        assertThat(after).isSameAs(before)
+        assertThat(after.find("old")!!.message).isSameAs(earlierMessage)
+        assertThat(activeMessageEntries(viewModel).map { it.status }).containsExactly(ActivityStatus.SUCCESS)
+    }
+
     @Test
     fun `streamed response update preserves an open agent tool entry`() {
         val viewModel = ConversationViewModel(showToolActivityInChat = { true })